@@ -1,18 +1,30 @@
 package com.skanga.conductor.agent;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.skanga.conductor.utils.JsonUtils;
 import com.skanga.conductor.utils.ValidationUtils;
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.MemoryConfig;
+import com.skanga.conductor.config.ToolConfig;
 import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.BoundedParallel;
 import com.skanga.conductor.memory.MemoryStore;
 import com.skanga.conductor.metrics.MetricsRegistry;
 import com.skanga.conductor.metrics.TimerContext;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
 import com.skanga.conductor.provider.LLMProvider;
+import com.skanga.conductor.provider.ToolCallingLLMProvider;
+import com.skanga.conductor.provider.UsageScope;
 import com.skanga.conductor.tools.Tool;
 import com.skanga.conductor.tools.ToolRegistry;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +32,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -37,12 +51,20 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * The agent operates in multiple modes based on the LLM's response:
  * </p>
  * <ol>
- * <li><b>Tool Mode:</b> LLM returns JSON tool calls which are executed automatically</li>
+ * <li><b>Tool Mode:</b> LLM requests tool calls which are executed automatically</li>
  * <li><b>Text Mode:</b> LLM returns plain text responses directly to the user</li>
  * </ol>
  * <p>
- * Tool calls are expected in JSON format:
+ * With a {@link ToolCallingLLMProvider}, tools are offered through structured
+ * tool specifications. One response can request several tool calls; they run
+ * concurrently, bounded by {@code conductor.tools.calls.max.parallel}, and all
+ * their results are returned to the model in a single follow-up turn, until the
+ * model answers in text.
+ * </p>
+ * <p>
+ * With other providers, tool calls are expected in JSON format:
  * {@code {"tool": "tool_name", "arguments": "argument_text"}}
+ * and the output of the called tool is the result.
  * </p>
  * <p>
  * Thread Safety: This class is thread-safe for concurrent execution.
@@ -59,6 +81,9 @@ public class ConversationalAgent implements SubAgent {
 
     private static final Logger logger = LoggerFactory.getLogger(ConversationalAgent.class);
 
+    /** Name of the single string parameter of the tool specifications. */
+    static final String TOOL_ARGUMENT = "arguments";
+
     private final String agentName;
     private final String agentDescription;
     private final LLMProvider llmProvider;
@@ -218,31 +243,35 @@ public class ConversationalAgent implements SubAgent {
             throw new IllegalArgumentException("execution input and content cannot be null or empty");
         }
 
-        // Start timing execution
-        try (TimerContext timerContext = metricsRegistry.startTimer(
+        // Start timing execution, attributing the LLM usage to this agent
+        try (UsageScope.Binding usage = UsageScope.current().withAgent(agentName).bind();
+             TimerContext timerContext = metricsRegistry.startTimer(
                 "agent.execution.duration",
                 Map.of("agent", agentName, "type", "unified"))) {
 
             boolean success = false;
             try {
+                if (toolRegistry != null && !toolRegistry.getAvailableTools().isEmpty()
+                        && llmProvider instanceof ToolCallingLLMProvider toolCaller) {
+                    ExecutionResult result = executeWithNativeTools(toolCaller, input.content());
+                    timerContext.recordWithSuccess(result.success());
+                    return result;
+                }
+
                 // Build the prompt with memory context and tool availability
-                String fullPrompt = buildPrompt(input.content());
+                String fullPrompt = buildPrompt(input.content(), true);
 
                 // Get response from LLM
                 String llmOutput = llmProvider.generate(fullPrompt);
 
                 // Try to parse as tool call first
                 if (toolRegistry != null) {
-                    try {
-                        ToolCall toolCall = JsonUtils.fromJson(llmOutput, ToolCall.class);
-                        if (toolCall != null && toolCall.tool != null && toolCall.arguments != null) {
-                            ExecutionResult toolResult = executeToolCall(toolCall);
-                            success = toolResult.success();
-                            timerContext.recordWithSuccess(success);
-                            return toolResult;
-                        }
-                    } catch (com.skanga.conductor.exception.JsonProcessingException e) {
-                        // Not a JSON tool call, treat as plain text response
+                    ToolCall toolCall = parseToolCall(llmOutput);
+                    if (toolCall != null) {
+                        ExecutionResult toolResult = executeToolCall(toolCall);
+                        success = toolResult.success();
+                        timerContext.recordWithSuccess(success);
+                        return toolResult;
                     }
                 }
 
@@ -260,7 +289,133 @@ public class ConversationalAgent implements SubAgent {
         }
     }
 
-    private String buildPrompt(String userPrompt) {
+    /**
+     * Runs the native tool-calling loop: every round sends the conversation with
+     * the tool specifications, runs the requested tool calls concurrently and
+     * appends their results, until the model answers in text. The last round
+     * offers no tools, so the model has to answer.
+     */
+    private ExecutionResult executeWithNativeTools(ToolCallingLLMProvider toolCaller, String userPrompt)
+            throws ConductorException.LLMProviderException, ConductorException.ToolExecutionException {
+        ToolConfig toolConfig = ApplicationConfig.getInstance().getToolConfig();
+        int maxRounds = toolConfig.getMaxToolRounds();
+        List<ToolSpecification> specifications = toolSpecifications();
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(UserMessage.from(buildPrompt(userPrompt, false)));
+
+        int toolCalls = 0;
+        for (int round = 1; ; round++) {
+            List<ToolSpecification> offered = round < maxRounds ? specifications : List.of();
+            AiMessage reply = toolCaller.chat(messages, offered).aiMessage();
+            if (!reply.hasToolExecutionRequests() || offered.isEmpty()) {
+                String answer = reply.text() != null ? reply.text() : "";
+                persistToMemory(answer, "LLM_OUTPUT");
+                return new ExecutionResult(true, answer, toolCalls == 0 ? null : Map.of("toolCalls", toolCalls));
+            }
+
+            List<ToolExecutionRequest> requests = reply.toolExecutionRequests();
+            logger.debug("Agent {} running {} tool call(s) in round {}", agentName, requests.size(), round);
+            messages.add(reply);
+            messages.addAll(runToolCalls(requests, toolConfig.getMaxParallelToolCalls()));
+            toolCalls += requests.size();
+        }
+    }
+
+    /**
+     * Describes the registered tools, each taking a single string argument.
+     */
+    private List<ToolSpecification> toolSpecifications() {
+        List<ToolSpecification> specifications = new ArrayList<>();
+        // Sorted so the request prefix stays the same across calls
+        for (String name : toolRegistry.getAvailableTools().stream().sorted().toList()) {
+            Tool tool = toolRegistry.get(name);
+            if (tool == null) {
+                continue;
+            }
+            specifications.add(ToolSpecification.builder()
+                .name(name)
+                .description(tool.toolDescription())
+                .parameters(JsonObjectSchema.builder()
+                    .addStringProperty(TOOL_ARGUMENT, "The input passed to the tool")
+                    .required(TOOL_ARGUMENT)
+                    .build())
+                .build());
+        }
+        return specifications;
+    }
+
+    /**
+     * Runs tool calls concurrently, bounded by {@code maxParallel}, and returns their results in order.
+     */
+    private List<ToolExecutionResultMessage> runToolCalls(List<ToolExecutionRequest> requests, int maxParallel)
+            throws ConductorException.ToolExecutionException {
+        List<Callable<ToolExecutionResultMessage>> calls = requests.stream()
+            .<Callable<ToolExecutionResultMessage>>map(request -> () -> runToolCall(request))
+            .toList();
+        try {
+            return BoundedParallel.invokeAll(calls, maxParallel, "tool-call-" + agentName);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConductorException.ToolExecutionException toolException) {
+                throw toolException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ConductorException.ToolExecutionException("Tool call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConductorException.ToolExecutionException("Tool calls interrupted", e);
+        }
+    }
+
+    private ToolExecutionResultMessage runToolCall(ToolExecutionRequest request)
+            throws ConductorException.ToolExecutionException {
+        Tool tool = toolRegistry.get(request.name());
+        if (tool == null) {
+            return ToolExecutionResultMessage.from(request, "[ERROR: unknown tool " + request.name() + "]");
+        }
+        ExecutionResult result = invokeTool(tool, request.name(), toolArguments(request.arguments()));
+        String output = result.output() != null ? result.output() : "";
+        return ToolExecutionResultMessage.from(request, result.success() ? output : "[ERROR: " + output + "]");
+    }
+
+    /**
+     * Extracts the tool input from the JSON arguments of a tool execution request.
+     */
+    private static String toolArguments(String arguments) {
+        if (arguments == null || arguments.isBlank()) {
+            return "";
+        }
+        try {
+            JsonNode argument = JsonUtils.parseJson(arguments).get(TOOL_ARGUMENT);
+            if (argument != null) {
+                return argument.isTextual() ? argument.asText() : argument.toString();
+            }
+        } catch (com.skanga.conductor.exception.JsonProcessingException e) {
+            // Not JSON, pass the arguments through as they are
+        }
+        return arguments;
+    }
+
+    /**
+     * Parses a JSON tool call from a text response; only responses that look like
+     * a JSON object are parsed, so plain answers do not pay for a failed parse.
+     */
+    private static ToolCall parseToolCall(String llmOutput) {
+        if (llmOutput == null || !llmOutput.strip().startsWith("{")) {
+            return null;
+        }
+        try {
+            ToolCall toolCall = JsonUtils.fromJson(llmOutput, ToolCall.class);
+            return toolCall != null && toolCall.tool != null && toolCall.arguments != null ? toolCall : null;
+        } catch (com.skanga.conductor.exception.JsonProcessingException e) {
+            // Not a JSON tool call, treat as plain text response
+            return null;
+        }
+    }
+
+    private String buildPrompt(String userPrompt, boolean describeToolCallFormat) {
         StringBuilder promptBuilder = new StringBuilder();
         promptBuilder.append("System: ").append(agentDescription).append("\n\n");
 
@@ -284,8 +439,8 @@ public class ConversationalAgent implements SubAgent {
             }
         }
 
-        // Add tool availability information
-        if (toolRegistry != null && !toolRegistry.getAvailableTools().isEmpty()) {
+        // Add tool availability information; native tool calling describes the tools itself
+        if (describeToolCallFormat && toolRegistry != null && !toolRegistry.getAvailableTools().isEmpty()) {
             promptBuilder.append("Available Tools: ").append(String.join(", ", toolRegistry.getAvailableTools())).append("\n");
             promptBuilder.append("You can call tools using JSON format: {\"tool\": \"tool_name\", \"arguments\": \"arguments here\"}\n");
             promptBuilder.append("Only use tools when helpful. Otherwise just answer directly.\n\n");
@@ -308,18 +463,23 @@ public class ConversationalAgent implements SubAgent {
             return new ExecutionResult(false, "[ERROR: unknown tool " + toolCall.tool + "]", null);
         }
 
+        return invokeTool(tool, toolCall.tool, toolCall.arguments);
+    }
+
+    private ExecutionResult invokeTool(Tool tool, String toolName, String arguments)
+            throws ConductorException.ToolExecutionException {
         try {
-            ExecutionResult toolResult = tool.runTool(new ExecutionInput(toolCall.arguments, null));
+            ExecutionResult toolResult = tool.runTool(new ExecutionInput(arguments, null));
 
             // Persist tool call summary in memory
-            String memorySummary = "TOOL_CALL " + toolCall.tool + " arg=" +
-                (toolCall.arguments.length() > 120 ? toolCall.arguments.substring(0, 120) + "..." : toolCall.arguments);
+            String memorySummary = "TOOL_CALL " + toolName + " arg=" +
+                (arguments.length() > 120 ? arguments.substring(0, 120) + "..." : arguments);
             persistToMemory(memorySummary, "TOOL_CALL");
 
             return new ExecutionResult(toolResult.success(), toolResult.output(), toolResult.metadata());
         } catch (Exception e) {
             metricsRegistry.recordError(agentName, e.getClass().getSimpleName(), e.getMessage());
-            throw new ConductorException.ToolExecutionException("Error executing tool: " + toolCall.tool, e);
+            throw new ConductorException.ToolExecutionException("Error executing tool: " + toolName, e);
         }
     }
 
@@ -151,6 +151,28 @@ public class LLMConfig extends ConfigurationProvider {
         return getDuration("conductor.llm.retry.max.duration", Duration.ofMinutes(2));
     }
 
+    // Pricing configuration, used for cost accounting and budgets
+
+    /**
+     * Gets the price of prompt tokens of a model, in USD per million tokens.
+     *
+     * @param model the model name
+     * @return the price, or 0 if no price is configured for the model
+     */
+    public double getInputTokenPrice(String model) {
+        return getDouble("conductor.llm.pricing." + model + ".input", 0.0);
+    }
+
+    /**
+     * Gets the price of generated tokens of a model, in USD per million tokens.
+     *
+     * @param model the model name
+     * @return the price, or 0 if no price is configured for the model
+     */
+    public double getOutputTokenPrice(String model) {
+        return getDouble("conductor.llm.pricing." + model + ".output", 0.0);
+    }
+
     /**
      * Generic LLM Provider configuration class.
      */
@@ -1,6 +1,7 @@
 package com.skanga.conductor.config;
 
 import jakarta.validation.constraints.*;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Properties;
 
@@ -91,6 +92,15 @@ public class MemoryConfig extends ConfigurationProvider {
         return Duration.ofHours(getLong("conductor.memory.resource.expiry.hours", 1));
     }
 
+    /**
+     * Gets the tick duration of the resource expiry wheel, the most an expired
+     * resource can be closed late.
+     * Default: 100 milliseconds
+     */
+    public Duration getResourceExpiryTick() {
+        return Duration.ofMillis(Math.max(1, getLong("conductor.memory.resource.expiry.tick.millis", 100)));
+    }
+
     /**
      * Gets the memory manager thread pool size.
      * <p>
@@ -104,4 +114,23 @@ public class MemoryConfig extends ConfigurationProvider {
     public int getMemoryManagerThreadPoolSize() {
         return getInt("conductor.memory.threadpool.size", 2);
     }
+
+    /**
+     * Gets the length in characters above which stage outputs are spilled to disk.
+     * A value of 0 disables spilling.
+     * Default: 32768 characters
+     */
+    @Min(value = 0, message = "Output spill threshold cannot be negative")
+    public int getOutputSpillThreshold() {
+        return getInt("conductor.memory.output.spill.threshold", 32768);
+    }
+
+    /**
+     * Gets the directory spilled stage outputs are written to.
+     * Default: conductor-output in the system temporary directory
+     */
+    public Path getOutputSpillDirectory() {
+        return getPath("conductor.memory.output.spill.directory",
+            Path.of(System.getProperty("java.io.tmpdir"), "conductor-output"));
+    }
 }
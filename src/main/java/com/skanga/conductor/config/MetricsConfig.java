@@ -71,7 +71,7 @@ public class MetricsConfig extends ConfigurationProvider {
 
     public Set<String> getEnabledMetrics() {
         return getStringSet("conductor.metrics.enabled.patterns",
-            Set.of("agent.*", "tool.*", "orchestrator.*"));
+            Set.of("agent.*", "tool.*", "orchestrator.*", "workflow.scheduler.*", "workflow.memo.*", "llm.*"));
     }
 
     public Set<String> getDisabledMetrics() {
@@ -1,6 +1,7 @@
 package com.skanga.conductor.config;
 
 import jakarta.validation.constraints.*;
+import java.time.Duration;
 import java.util.Properties;
 
 /**
@@ -22,6 +23,24 @@ public class ParallelismConfig extends ConfigurationProvider {
         return getBoolean("conductor.parallelism.enabled", true);
     }
 
+    /**
+     * Gets where planned tasks execute: {@code local} runs task batches on the
+     * threads of this JVM, {@code distributed} hands them to the
+     * {@code DistributedTaskWorker}s serving the shared database.
+     * Default: local
+     */
+    @Pattern(regexp = "(?i)local|distributed", message = "Parallelism mode must be 'local' or 'distributed'")
+    public String getMode() {
+        return getString("conductor.parallelism.mode", "local");
+    }
+
+    /**
+     * Checks if planned tasks are handed to distributed workers.
+     */
+    public boolean isDistributed() {
+        return "distributed".equalsIgnoreCase(getMode());
+    }
+
     @Min(value = 1, message = "Max threads must be at least 1")
     @Max(value = 1000, message = "Max threads cannot exceed 1000")
     public int getMaxThreads() {
@@ -68,4 +87,34 @@ public class ParallelismConfig extends ConfigurationProvider {
     public double getParallelismThreshold() {
         return getDouble("conductor.parallelism.threshold", 0.3); // 30% parallelizable tasks minimum
     }
+
+    /**
+     * Gets how long a distributed worker holds a claimed task without a heartbeat.
+     * Default: 30 seconds
+     */
+    public Duration getDistributedLeaseDuration() {
+        return getDuration("conductor.parallelism.distributed.lease.duration", Duration.ofSeconds(30));
+    }
+
+    /**
+     * Gets how often a distributed worker renews the lease of the task it executes.
+     * Must be well below the lease duration. Default: 10 seconds
+     */
+    public Duration getDistributedHeartbeatInterval() {
+        return getDuration("conductor.parallelism.distributed.heartbeat.interval", Duration.ofSeconds(10));
+    }
+
+    /**
+     * Gets how often idle workers and waiting coordinators poll the work queue.
+     * Default: 500 milliseconds
+     */
+    public Duration getDistributedPollInterval() {
+        return getDuration("conductor.parallelism.distributed.poll.interval", Duration.ofMillis(500));
+    }
+
+    @Min(value = 1, message = "Distributed max attempts must be at least 1")
+    @Max(value = 100, message = "Distributed max attempts cannot exceed 100")
+    public int getDistributedMaxAttempts() {
+        return getInt("conductor.parallelism.distributed.max.attempts", 3);
+    }
 }
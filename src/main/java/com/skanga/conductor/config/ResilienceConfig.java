@@ -1,5 +1,7 @@
 package com.skanga.conductor.config;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
@@ -317,4 +319,76 @@ public class ResilienceConfig extends ConfigurationProvider {
     public boolean isTimeLimiterCancelRunningFuture() {
         return getBoolean("conductor.resilience.timelimiter.cancelRunningFuture", true);
     }
+
+    // ========== Adaptive Timeout Configuration ==========
+
+    /**
+     * Whether timeouts are derived from observed latencies.
+     * <p>
+     * When disabled, or before enough latencies have been observed for a stage
+     * or task, the static timeouts are used.
+     * </p>
+     *
+     * @return true if adaptive timeouts are enabled
+     */
+    public boolean isAdaptiveTimeoutEnabled() {
+        return getBoolean("conductor.resilience.adaptivetimeout.enabled", true);
+    }
+
+    /**
+     * Latency quantile an adaptive timeout is based on.
+     *
+     * @return the quantile between 0.5 and 1.0
+     */
+    @DecimalMin(value = "0.5", message = "Adaptive timeout quantile must be at least 0.5")
+    @DecimalMax(value = "1.0", message = "Adaptive timeout quantile cannot exceed 1.0")
+    public double getAdaptiveTimeoutQuantile() {
+        return getDouble("conductor.resilience.adaptivetimeout.quantile", 0.99);
+    }
+
+    /**
+     * Factor applied to the latency quantile to obtain the timeout.
+     *
+     * @return the timeout multiplier
+     */
+    @DecimalMin(value = "1.0", message = "Adaptive timeout multiplier must be at least 1.0")
+    public double getAdaptiveTimeoutMultiplier() {
+        return getDouble("conductor.resilience.adaptivetimeout.multiplier", 3.0);
+    }
+
+    /**
+     * Lower bound of adaptive timeouts in milliseconds.
+     *
+     * @return the minimum timeout in ms
+     */
+    @Min(value = 100, message = "Adaptive timeout minimum must be at least 100ms")
+    public long getAdaptiveTimeoutMinDuration() {
+        return getLong("conductor.resilience.adaptivetimeout.minDuration", 5000);
+    }
+
+    /**
+     * Upper bound of adaptive timeouts in milliseconds.
+     *
+     * @return the maximum timeout in ms
+     */
+    @Min(value = 100, message = "Adaptive timeout maximum must be at least 100ms")
+    public long getAdaptiveTimeoutMaxDuration() {
+        long max = getLong("conductor.resilience.adaptivetimeout.maxDuration", 1800000);
+        // Relation between two settings, which field constraints cannot express
+        if (max < getAdaptiveTimeoutMinDuration()) {
+            throw new IllegalArgumentException("Adaptive timeout maximum must be >= minimum: " +
+                max + " < " + getAdaptiveTimeoutMinDuration());
+        }
+        return max;
+    }
+
+    /**
+     * Number of observed latencies required before a timeout is derived from them.
+     *
+     * @return the minimum sample count
+     */
+    @Min(value = 1, message = "Adaptive timeout minimum samples must be at least 1")
+    public int getAdaptiveTimeoutMinSamples() {
+        return getInt("conductor.resilience.adaptivetimeout.minSamples", 20);
+    }
 }
@@ -37,6 +37,67 @@ public class ToolConfig extends ConfigurationProvider {
             Set.of("echo", "ls", "pwd", "date", "whoami"));
     }
 
+    /**
+     * Returns the number of characters of each output stream of a command kept
+     * in its result; the start and the end of longer output are kept.
+     *
+     * @return the maximum captured characters per stream
+     */
+    @Min(value = 1024, message = "Code runner max output must be at least 1024 characters")
+    public int getCodeRunnerMaxOutputChars() {
+        return getInt("conductor.tools.coderunner.max.output.chars", 65536);
+    }
+
+    /**
+     * Checks if Python and Node.js snippets run in a pool of warm interpreter processes.
+     * Pooled snippets share interpreter state with the earlier snippets of their
+     * worker, whichever workflow ran them.
+     *
+     * @return true to pool interpreters
+     */
+    public boolean isCodeRunnerPoolEnabled() {
+        return getBoolean("conductor.tools.coderunner.pool.enabled", false);
+    }
+
+    public Set<String> getCodeRunnerPoolInterpreters() {
+        return getStringSet("conductor.tools.coderunner.pool.interpreters", Set.of("python3", "node"));
+    }
+
+    @Min(value = 1, message = "Interpreter pool size must be at least 1")
+    @Max(value = 64, message = "Interpreter pool size cannot exceed 64")
+    public int getCodeRunnerPoolSize() {
+        return getInt("conductor.tools.coderunner.pool.size", 2);
+    }
+
+    /**
+     * Returns the number of snippets a pooled interpreter runs before it is replaced.
+     *
+     * @return the maximum runs per interpreter process
+     */
+    @Min(value = 1, message = "Interpreter pool max runs must be at least 1")
+    public int getCodeRunnerPoolMaxRuns() {
+        return getInt("conductor.tools.coderunner.pool.max.runs", 100);
+    }
+
+    /**
+     * Returns the memory use above which a pooled interpreter is replaced.
+     *
+     * @return the maximum resident memory of an interpreter process in bytes
+     */
+    @Min(value = 1048576, message = "Interpreter pool max memory must be at least 1MB")
+    public long getCodeRunnerPoolMaxMemory() {
+        return getLong("conductor.tools.coderunner.pool.max.memory.bytes", 256L * 1024 * 1024);
+    }
+
+    /**
+     * Returns the idle time after which a pooled interpreter is pinged before reuse.
+     *
+     * @return the health check interval
+     */
+    public Duration getCodeRunnerPoolHealthCheckInterval() {
+        return getDuration("conductor.tools.coderunner.pool.health.check.interval", Duration.ofSeconds(30));
+    }
+
     public String getFileReadBaseDir() {
         return getString("conductor.tools.fileread.basedir", "./sample_data");
     }
@@ -57,6 +118,114 @@ public class ToolConfig extends ConfigurationProvider {
         return getInt("conductor.tools.fileread.max.path.length", 260);
     }
 
+    /**
+     * Returns the file size from which ranged reads memory-map the file instead
+     * of copying it through heap buffers.
+     *
+     * @return the memory-mapping threshold in bytes
+     */
+    @Min(value = 0, message = "File read mmap threshold cannot be negative")
+    public long getFileReadMmapThreshold() {
+        return getLong("conductor.tools.fileread.mmap.threshold.bytes", 1024 * 1024); // 1MB
+    }
+
+    /**
+     * Returns the number of characters of recently read file regions kept in memory,
+     * so agents re-reading the same region of an unchanged file do not hit the disk.
+     *
+     * @return the cache capacity in characters, 0 to disable caching
+     */
+    @Min(value = 0, message = "File read cache size cannot be negative")
+    public long getFileReadCacheMaxChars() {
+        return getLong("conductor.tools.fileread.cache.max.chars", 4 * 1024 * 1024);
+    }
+
+    /**
+     * Returns the names of the tools whose results are cached by the tool registry.
+     * <p>
+     * Only tools returning the same result for the same arguments within the
+     * cache TTL should be listed. The file read tool keeps its own cache of file
+     * regions, bounded by {@link #getFileReadCacheMaxChars()}, so it is not cached
+     * here by default.
+     * </p>
+     *
+     * @return the names of the cached tools
+     */
+    public Set<String> getResultCacheTools() {
+        return getStringSet("conductor.tools.cache.tools", Set.of("web_search"));
+    }
+
+    /**
+     * Returns how long a cached tool result is reused, overridable per tool with
+     * {@code conductor.tools.cache.<tool>.ttl}.
+     *
+     * @param toolName the tool name
+     * @return the time to live of cached results
+     */
+    public Duration getResultCacheTtl(String toolName) {
+        Duration ttl = getDuration("conductor.tools.cache." + toolName + ".ttl",
+            getDuration("conductor.tools.cache.ttl", Duration.ofMinutes(5)));
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Tool cache TTL must be positive");
+        }
+        return ttl;
+    }
+
+    /**
+     * Returns the maximum number of results cached per tool, overridable per tool
+     * with {@code conductor.tools.cache.<tool>.max.entries}.
+     *
+     * @param toolName the tool name
+     * @return the maximum number of cached results
+     */
+    public int getResultCacheMaxEntries(String toolName) {
+        int maxEntries = getInt("conductor.tools.cache." + toolName + ".max.entries",
+            getInt("conductor.tools.cache.max.entries", 256));
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Tool cache max entries must be positive");
+        }
+        return maxEntries;
+    }
+
+    /**
+     * Returns how long a web search waits for the DuckDuckGo Instant Answer API.
+     *
+     * @return the instant answer backend timeout
+     */
+    public Duration getWebSearchInstantTimeout() {
+        return getDuration("conductor.tools.websearch.instant.timeout", Duration.ofSeconds(10));
+    }
+
+    /**
+     * Returns how long a web search waits for DuckDuckGo HTML search results.
+     *
+     * @return the HTML search backend timeout
+     */
+    public Duration getWebSearchHtmlTimeout() {
+        return getDuration("conductor.tools.websearch.html.timeout", Duration.ofSeconds(15));
+    }
+
+    /**
+     * Returns the maximum number of tool calls from one LLM response run at once.
+     *
+     * @return the tool call concurrency limit
+     */
+    @Min(value = 1, message = "Max parallel tool calls must be at least 1")
+    public int getMaxParallelToolCalls() {
+        return getInt("conductor.tools.calls.max.parallel", 4);
+    }
+
+    /**
+     * Returns the maximum number of tool-calling rounds of one agent execution.
+     * The last round asks the model for a text answer without offering tools.
+     *
+     * @return the maximum number of tool-calling rounds
+     */
+    @Min(value = 1, message = "Max tool rounds must be at least 1")
+    public int getMaxToolRounds() {
+        return getInt("conductor.tools.calls.max.rounds", 5);
+    }
+
     public String getAudioOutputDir() {
         return getString("conductor.tools.audio.output.dir", "./out_audio");
     }
@@ -75,6 +244,38 @@ public class ToolConfig extends ConfigurationProvider {
         return getInt("conductor.tools.tts.max.text.length", 10000);
     }
 
+    /**
+     * Returns the maximum number of text segments synthesized at once.
+     *
+     * @return the maximum parallel synthesis calls per tool
+     */
+    @Min(value = 1, message = "TTS max parallel must be at least 1")
+    @Max(value = 64, message = "TTS max parallel cannot exceed 64")
+    public int getTtsMaxParallel() {
+        return getInt("conductor.tools.tts.max.parallel", 4);
+    }
+
+    /**
+     * Returns the maximum length of a text segment synthesized in one call.
+     * Texts are split at sentence boundaries into segments of at most this length.
+     *
+     * @return the maximum segment length in characters
+     */
+    @Min(value = 50, message = "TTS segment length must be at least 50 characters")
+    public int getTtsSegmentMaxChars() {
+        return getInt("conductor.tools.tts.segment.max.chars", 500);
+    }
+
+    /**
+     * Returns the size limit of the cache of synthesized segments.
+     *
+     * @return the cache size limit in bytes, 0 to disable caching
+     */
+    @Min(value = 0, message = "TTS cache size cannot be negative")
+    public long getTtsCacheMaxBytes() {
+        return getLong("conductor.tools.tts.cache.max.bytes", 256L * 1024 * 1024);
+    }
+
     /**
      * Returns the GC sleep delay for memory manager cleanup.
      * <p>
@@ -82,7 +283,9 @@ public class ToolConfig extends ConfigurationProvider {
      * </p>
      *
      * @return GC sleep delay in milliseconds
+     * @deprecated the memory manager no longer requests garbage collection
      */
+    @Deprecated
     @Min(value = 0, message = "GC sleep delay cannot be negative")
     @Max(value = 10000, message = "GC sleep delay cannot exceed 10 seconds")
     public long getMemoryGcSleepDelay() {
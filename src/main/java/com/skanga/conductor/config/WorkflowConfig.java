@@ -88,4 +88,126 @@ public class WorkflowConfig extends ConfigurationProvider {
     public int getMaxDependencyDepth() {
         return getInt("conductor.workflow.max.dependency.depth", 20);
     }
+
+    /**
+     * Returns the maximum number of memoized stage results to retain.
+     * <p>
+     * Once the limit is exceeded, the least recently used results are evicted.
+     * </p>
+     *
+     * @return maximum number of memoized stage results
+     */
+    @Min(value = 1, message = "Max memoized stage results must be at least 1")
+    public int getStageMemoMaxEntries() {
+        return getInt("conductor.workflow.memo.max.entries", 1000);
+    }
+
+    /**
+     * Returns the maximum number of workflow runs executing concurrently
+     * in a shared execution pool.
+     *
+     * @return maximum concurrent workflow executions
+     */
+    @Min(value = 1, message = "Max concurrent executions must be at least 1")
+    public int getMaxConcurrentExecutions() {
+        return getInt("conductor.workflow.max.concurrent.executions", 100);
+    }
+
+    /**
+     * Returns how long a workflow run waits for an execution slot before
+     * it is rejected.
+     *
+     * @return execution admission timeout
+     */
+    public Duration getExecutionAdmissionTimeout() {
+        return getDuration("conductor.workflow.execution.admission.timeout", Duration.ofSeconds(30));
+    }
+
+    /**
+     * Returns the maximum number of agents kept in a shared execution pool.
+     * <p>
+     * Once the limit is exceeded, the least recently used agents are evicted
+     * and recreated on their next use.
+     * </p>
+     *
+     * @return maximum number of pooled agents
+     */
+    @Min(value = 1, message = "Max pooled agents must be at least 1")
+    public int getExecutionPoolMaxAgents() {
+        return getInt("conductor.workflow.pool.max.agents", 256);
+    }
+
+    /**
+     * Returns the maximum number of stages of one wave running at once.
+     * <p>
+     * When a wave has more stages, the stages heading the longest remaining
+     * dependency chains start first.
+     * </p>
+     *
+     * @return maximum number of parallel stages per wave
+     */
+    @Min(value = 1, message = "Max parallel stages must be at least 1")
+    public int getMaxParallelStages() {
+        return getInt("conductor.workflow.max.parallel.stages", 8);
+    }
+
+    /**
+     * Returns the maximum number of workflows the scheduler executes at once.
+     *
+     * @return maximum concurrently executing scheduled workflows
+     */
+    @Min(value = 1, message = "Scheduler max concurrent must be at least 1")
+    public int getSchedulerMaxConcurrent() {
+        return getInt("conductor.workflow.scheduler.max.concurrent", 16);
+    }
+
+    /**
+     * Returns the maximum number of queued submissions per priority class.
+     *
+     * @return scheduler queue capacity per priority class
+     */
+    @Min(value = 1, message = "Scheduler queue capacity must be at least 1")
+    public int getSchedulerQueueCapacity() {
+        return getInt("conductor.workflow.scheduler.queue.capacity", 1000);
+    }
+
+    /**
+     * Returns what the scheduler does when a priority class queue is full:
+     * {@code reject} fails the submission immediately, {@code queue} waits for room.
+     *
+     * @return scheduler overflow policy
+     */
+    public String getSchedulerOverflowPolicy() {
+        return getString("conductor.workflow.scheduler.overflow.policy", "reject");
+    }
+
+    /**
+     * Returns how long a submission waits for room in a full queue under the
+     * {@code queue} overflow policy.
+     *
+     * @return scheduler enqueue timeout
+     */
+    public Duration getSchedulerEnqueueTimeout() {
+        return getDuration("conductor.workflow.scheduler.enqueue.timeout", Duration.ofSeconds(30));
+    }
+
+    /**
+     * Returns whether loaded workflow, agent and context configurations are cached
+     * and reused while their file content is unchanged.
+     *
+     * @return true if the configuration cache is enabled
+     */
+    public boolean isConfigCacheEnabled() {
+        return getBoolean("conductor.workflow.config.cache.enabled", true);
+    }
+
+    /**
+     * Returns whether cached configuration files are watched for changes and
+     * reloaded in the background.
+     *
+     * @return true if hot reload is enabled
+     */
+    public boolean isConfigHotReloadEnabled() {
+        return getBoolean("conductor.workflow.config.hot.reload.enabled", false);
+    }
 }
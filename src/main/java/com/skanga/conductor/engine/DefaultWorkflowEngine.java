@@ -5,12 +5,14 @@ import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.orchestration.Orchestrator;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.provider.AbstractLLMProvider;
 import com.skanga.conductor.provider.LLMProvider;
 import com.skanga.conductor.provider.DemoMockLLMProvider;
 import com.skanga.conductor.workflow.config.WorkflowDefinition;
 import com.skanga.conductor.workflow.config.WorkflowContext;
 import com.skanga.conductor.templates.PromptTemplateEngine;
 import com.skanga.conductor.utils.ValidationUtils;
+import com.skanga.conductor.engine.execution.ModelCascade;
 import com.skanga.conductor.engine.execution.StageExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Unified workflow execution engine that provides common primitives for both
@@ -149,6 +152,7 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
                     return convertToExecutorValidationResult(validation);
                 } : null)
             .taskMetadata(stageDefinition.getTaskMetadata())
+            .cascade(cascadeFor(stageDefinition))
             .build();
 
         // Define agent creator callback
@@ -189,9 +193,32 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
         result.setAttempt(executorResult.getAttempt());
         result.setExecutionTimeMs(executorResult.getExecutionTimeMs());
         result.setAgentUsed(executorResult.getAgentUsed());
+        result.setTier(executorResult.getTier());
         return result;
     }
 
+    /**
+     * Builds the model cascade of a stage, or returns null if the stage has none.
+     * Every tier runs the stage's agent definition on one of the cascade providers.
+     */
+    private ModelCascade cascadeFor(StageDefinition stageDefinition) {
+        List<LLMProvider> providers = stageDefinition.getCascadeProviders();
+        if (providers.isEmpty()) {
+            return null;
+        }
+        AgentDefinition agentDef = stageDefinition.getAgentDefinition();
+        List<ModelCascade.Tier> tiers = new ArrayList<>();
+        for (int i = 0; i < providers.size(); i++) {
+            LLMProvider provider = providers.get(i);
+            AgentDefinition tierAgent = new AgentDefinition(
+                agentDef.getName(), agentDef.getDescription(), provider, agentDef.getSystemPrompt());
+            String tierName = provider instanceof AbstractLLMProvider llm && llm.getModelName() != null
+                ? llm.getModelName() : "tier-" + (i + 1);
+            tiers.add(new ModelCascade.Tier(tierName, attempt -> createAgent(tierAgent, attempt)));
+        }
+        return new ModelCascade(tiers, stageDefinition.getLowConfidence());
+    }
+
     /**
      * Converts legacy ValidationResult to StageExecutor.ValidationResult.
      */
@@ -582,6 +609,8 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
         private int maxRetries = 3;
         private Map<String, Object> taskMetadata = Collections.emptyMap();
         private Function<StageResult, ValidationResult> resultValidator;
+        private List<LLMProvider> cascadeProviders = Collections.emptyList();
+        private Predicate<String> lowConfidence;
 
         // Getters and setters
         public String getName() { return name; }
@@ -625,6 +654,27 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
         public void setResultValidator(Function<StageResult, ValidationResult> resultValidator) {
             this.resultValidator = resultValidator;
         }
+
+        /**
+         * Gets the providers of the stage's model cascade, cheapest first, or an
+         * empty list if the stage runs its agent definition's provider only.
+         */
+        public List<LLMProvider> getCascadeProviders() { return cascadeProviders; }
+        public void setCascadeProviders(List<LLMProvider> cascadeProviders) {
+            if (cascadeProviders != null && cascadeProviders.contains(null)) {
+                throw new IllegalArgumentException("cascadeProviders cannot contain null");
+            }
+            this.cascadeProviders = cascadeProviders != null ? List.copyOf(cascadeProviders) : Collections.emptyList();
+        }
+
+        /**
+         * Gets the confidence check escalating valid outputs below the last cascade
+         * tier, or null to accept every valid output.
+         */
+        public Predicate<String> getLowConfidence() { return lowConfidence; }
+        public void setLowConfidence(Predicate<String> lowConfidence) {
+            this.lowConfidence = lowConfidence;
+        }
     }
 
     public static class AgentDefinition {
@@ -664,6 +714,7 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
         private int attempt;
         private long executionTimeMs;
         private String agentUsed;
+        private String tier;
 
         // Getters and setters
         public String getStageName() { return stageName; }
@@ -686,6 +737,9 @@ public class DefaultWorkflowEngine implements WorkflowEngine {
 
         public String getAgentUsed() { return agentUsed; }
         public void setAgentUsed(String agentUsed) { this.agentUsed = agentUsed; }
+
+        public String getTier() { return tier; }
+        public void setTier(String tier) { this.tier = tier; }
     }
 
     public static class WorkflowResult {
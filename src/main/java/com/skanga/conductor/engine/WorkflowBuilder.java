@@ -1,6 +1,7 @@
 package com.skanga.conductor.engine;
 
 import com.skanga.conductor.engine.DefaultWorkflowEngine.*;
+import com.skanga.conductor.engine.execution.ModelCascade;
 import com.skanga.conductor.provider.LLMProvider;
 
 import java.util.ArrayList;
@@ -167,6 +168,51 @@ public class WorkflowBuilder {
         return this;
     }
 
+    /**
+     * Adds a stage that escalates through a cascade of models, cheapest first.
+     * <p>
+     * Each attempt runs the agent on the next provider only when the previous one
+     * produced output rejected by the validator, output flagged by the default
+     * confidence check, or an error. Stages that mostly pass on the first provider
+     * rarely pay for the larger ones.
+     * </p>
+     * <p>
+     * <b>Example:</b>
+     * </p>
+     * <pre>{@code
+     * builder.addCascadeStage("classify", "classifier", "Classifies tickets",
+     *     List.of(smallProvider, largeProvider), "You are a classifier",
+     *     "Classify: {{ticket}}", WorkflowBuilder.containsValidator("CATEGORY:"));
+     * }</pre>
+     *
+     * @param stageName the unique name for this stage (must not be null or blank)
+     * @param agentName the name of the agent to create for this stage
+     * @param agentDescription a description of the agent's purpose
+     * @param providers the LLM providers of the cascade, cheapest first (at least two)
+     * @param systemPrompt the system prompt that defines the agent's behavior
+     * @param promptTemplate the prompt template with {{variable}} placeholders
+     * @param validator function to validate stage results (may be null for no validation)
+     * @return this builder instance for method chaining
+     * @throws IllegalArgumentException if fewer than two providers are given
+     * @see ModelCascade
+     */
+    public WorkflowBuilder addCascadeStage(String stageName, String agentName, String agentDescription,
+                                          List<LLMProvider> providers, String systemPrompt, String promptTemplate,
+                                          Function<StageResult, ValidationResult> validator) {
+        if (providers == null || providers.size() < 2) {
+            throw new IllegalArgumentException("cascade requires at least two providers");
+        }
+        StageDefinition stage = new StageDefinition();
+        stage.setName(stageName);
+        stage.setPromptTemplate(promptTemplate);
+        stage.setResultValidator(validator);
+        stage.setCascadeProviders(providers);
+        stage.setLowConfidence(ModelCascade.confidenceCheck(1));
+        stage.setAgentDefinition(new AgentDefinition(agentName, agentDescription, providers.get(0), systemPrompt));
+        stages.add(stage);
+        return this;
+    }
+
     /**
      * Builds and returns an immutable copy of the stage definitions list.
      * <p>
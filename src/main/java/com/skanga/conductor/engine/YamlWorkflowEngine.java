@@ -4,7 +4,13 @@ import com.skanga.conductor.agent.SubAgent;
 import com.skanga.conductor.exception.ApprovalException;
 import com.skanga.conductor.exception.ApprovalTimeoutException;
 import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.memory.ContentHandle;
 import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.memory.OutputBlobStore;
+import com.skanga.conductor.metrics.LatencyStore;
+import com.skanga.conductor.provider.LLMProvider;
+import com.skanga.conductor.provider.TokenBudget;
+import com.skanga.conductor.provider.UsageScope;
 import com.skanga.conductor.workflow.config.*;
 import com.skanga.conductor.workflow.templates.AgentFactory;
 import com.skanga.conductor.templates.PromptTemplateEngine;
@@ -12,20 +18,29 @@ import com.skanga.conductor.workflow.approval.HumanApprovalHandler;
 import com.skanga.conductor.workflow.approval.ConsoleApprovalHandler;
 import com.skanga.conductor.workflow.approval.ApprovalRequest;
 import com.skanga.conductor.workflow.approval.ApprovalResponse;
+import com.skanga.conductor.workflow.approval.ApprovalStore;
+import com.skanga.conductor.workflow.approval.PendingApproval;
 import com.skanga.conductor.workflow.output.*;
 import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
 import com.skanga.conductor.engine.execution.*;
+import com.skanga.conductor.utils.JsonUtils;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -45,24 +60,29 @@ public class YamlWorkflowEngine implements WorkflowEngine {
     private final AgentFactory agentFactory;
     private final PromptTemplateEngine promptEngine;
     private final StageExecutor stageExecutor;
-    private final Map<String, SubAgent> agentCache;
-    private final ParallelStageExecutor parallelExecutor;
     // private final IterativeStageExecutor iterativeExecutor;
     private final VariableSubstitution variableSubstitution;
 
-    // Loaded configurations
-    private WorkflowDefinition workflowDefinition;
-    private AgentConfigCollection agentConfig;
-    private WorkflowContext context;
+    // Loaded configurations; each run takes a snapshot of these when it starts
+    private volatile WorkflowDefinition workflowDefinition;
+    private volatile AgentConfigCollection agentConfig;
+    private volatile WorkflowContext context;
+    private volatile CachedPlan cachedPlan;
 
     // Runtime components
     private Orchestrator orchestrator;
     private MemoryStore memoryStore;
     private HumanApprovalHandler approvalHandler;
+    private ApprovalStore approvalStore;
+    private LLMProvider downgradeProvider;
     private FileOutputGenerator outputGenerator;
+    private String runId;
+    private StageResultMemo resultMemo;
 
-    // Execution state
-    private Map<String, StageExecutionResult> completedStageResults = new ConcurrentHashMap<>();
+    // Execution state; per-run state lives in each run's WorkflowExecutionContext
+    private WorkflowExecutionPool executionPool;
+    private boolean ownsExecutionPool;
+    private final Set<WorkflowExecutionContext> activeRuns = ConcurrentHashMap.newKeySet();
     private volatile boolean closed = false;
 
     /**
@@ -102,13 +122,10 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         this.agentFactory = agentFactory;
         this.promptEngine = promptEngine;
         this.stageExecutor = stageExecutor;
-        this.agentCache = new ConcurrentHashMap<>();
         this.outputGenerator = outputGenerator;
         this.variableSubstitution = new VariableSubstitution();
-        this.parallelExecutor = new ParallelStageExecutor(
-            Runtime.getRuntime().availableProcessors() * 2, // Max parallelism
-            300_000L // 5 minute default timeout
-        );
+        this.executionPool = new WorkflowExecutionPool();
+        this.ownsExecutionPool = true;
     }
 
     /**
@@ -155,6 +172,104 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         return this;
     }
 
+    /**
+     * Defers human approval instead of waiting for it on the workflow thread.
+     * <p>
+     * When a stage requires approval, its output is checkpointed, its request is
+     * recorded in the approval store and passed to
+     * {@link HumanApprovalHandler#approvalDeferred}, and the run returns suspended,
+     * releasing its threads and execution slot. Executing the run again with the same
+     * run ID, once {@link ApprovalStore#respond} has answered the request, applies the
+     * decision and continues the run; a run without an answer stays suspended until
+     * the stage's approval timeout expires. Requires checkpointing.
+     * </p>
+     *
+     * @param approvalStore the store of pending approvals, or null to wait for approval
+     * @return this engine for method chaining
+     */
+    public YamlWorkflowEngine withDeferredApproval(ApprovalStore approvalStore) {
+        this.approvalStore = approvalStore;
+        return this;
+    }
+
+    /**
+     * Sets the provider taking over the LLM calls of runs that spent their budget.
+     * <p>
+     * Workflows setting {@code budget_action: downgrade} along with a
+     * {@code token_budget} or {@code cost_budget} send the calls made after their
+     * budget is spent to this provider, typically a smaller and cheaper model,
+     * instead of failing. Such workflows cannot run without a downgrade provider.
+     * </p>
+     *
+     * @param downgradeProvider the downgrade provider, or null for none
+     * @return this engine for method chaining
+     */
+    public YamlWorkflowEngine withDowngradeProvider(LLMProvider downgradeProvider) {
+        this.downgradeProvider = downgradeProvider;
+        return this;
+    }
+
+    /**
+     * Enables durable stage checkpoints for the given workflow run.
+     * <p>
+     * Each successfully completed stage is persisted to the memory store configured via
+     * {@link #withOrchestrator(Orchestrator, MemoryStore)}, keyed by this run ID. Executing
+     * again with the same run ID restores the checkpointed stages and resumes from the first
+     * incomplete wave. Resuming fails if the workflow definition changed since the
+     * checkpoints were written. The checkpoints of a run are removed once it completes
+     * successfully, so executing a finished run ID again starts a new run.
+     * </p>
+     *
+     * @param runId the workflow run ID, or null to disable checkpointing
+     * @return this engine for method chaining
+     */
+    public YamlWorkflowEngine withCheckpointing(String runId) {
+        this.runId = runId;
+        return this;
+    }
+
+    /**
+     * Enables content-addressed memoization of stage outputs.
+     * <p>
+     * Before calling the LLM, each memoizable stage looks up an output keyed by its fully
+     * rendered prompt, its agent configuration and the configured provider/model. Stages
+     * whose resolved inputs are unchanged reuse the memoized output, so iterating on one
+     * stage only re-runs the stages whose inputs actually changed. LLM stages are memoized
+     * by default and tool stages are not; stages opt in or out with {@code memoize}.
+     * </p>
+     *
+     * @param resultMemo the memo to use, or null to disable memoization
+     * @return this engine for method chaining
+     */
+    public YamlWorkflowEngine withResultMemo(StageResultMemo resultMemo) {
+        this.resultMemo = resultMemo;
+        return this;
+    }
+
+    /**
+     * Shares an execution pool with other engines.
+     * <p>
+     * By default each engine owns a private pool. Engines serving many concurrent
+     * requests should share one pool, so that agents and stage threads are pooled
+     * across all runs and the number of concurrently executing runs is bounded.
+     * A shared pool is not closed when this engine is closed.
+     * </p>
+     *
+     * @param executionPool the shared execution pool
+     * @return this engine for method chaining
+     */
+    public YamlWorkflowEngine withExecutionPool(WorkflowExecutionPool executionPool) {
+        if (executionPool == null) {
+            throw new IllegalArgumentException("execution pool cannot be null");
+        }
+        if (ownsExecutionPool) {
+            this.executionPool.close();
+        }
+        this.executionPool = executionPool;
+        this.ownsExecutionPool = false;
+        return this;
+    }
+
     /**
      * Sets up a custom file output generator for workflow results.
      */
@@ -168,20 +283,128 @@ public class YamlWorkflowEngine implements WorkflowEngine {
      * Internal method that returns the concrete WorkflowExecutionResult.
      */
     public WorkflowExecutionResult executeInternal(String... inputs) throws ConductorException {
-        validateConfiguration();
+        return executeRun(runId, inputs);
+    }
 
+    /**
+     * Executes the loaded workflow as the given run.
+     * <p>
+     * This method may be called concurrently from many threads: each call takes a
+     * snapshot of the loaded configuration and keeps its state in its own
+     * {@link WorkflowExecutionContext}. Calls block while the execution pool is at
+     * its limit of concurrent runs.
+     * </p>
+     *
+     * @param runId the run ID used for checkpointing, or null to disable checkpointing
+     * @param inputs the workflow inputs
+     * @return the workflow execution result
+     * @throws ConductorException if the run could not be admitted or resumed
+     */
+    public WorkflowExecutionResult executeRun(String runId, String... inputs) throws ConductorException {
+        WorkflowDefinition definition = workflowDefinition;
+        AgentConfigCollection agents = agentConfig;
+        validateConfiguration(definition, agents);
+        return runWorkflow(definition, agents, context, runId, inputs);
+    }
+
+    /**
+     * Executes one workflow run against a snapshot of the configuration.
+     */
+    private WorkflowExecutionResult runWorkflow(WorkflowDefinition workflowDefinition, AgentConfigCollection agentConfig,
+                                                WorkflowContext context, String runId, String... inputs)
+            throws ConductorException {
         logger.info("Starting workflow execution: {}", workflowDefinition.getMetadata().getName());
 
+        TokenBudget budget = createRunBudget(workflowDefinition);
+        CancellationToken runToken = createRunToken(workflowDefinition);
         WorkflowExecutionContext executionContext = new WorkflowExecutionContext(
-            workflowDefinition, agentConfig, context, inputs);
+            workflowDefinition, agentConfig, context, runToken, budget, inputs);
 
         WorkflowExecutionResult result = new WorkflowExecutionResult();
         result.setWorkflowName(workflowDefinition.getMetadata().getName());
+        result.setTokenBudget(budget);
         result.setStartTime(System.currentTimeMillis());
 
         try {
-            // Create execution plan with dependency resolution
-            StageExecutionPlan executionPlan = new StageExecutionPlan(workflowDefinition.getStages());
+            executionPool.acquireExecution();
+        } catch (ConductorException e) {
+            runToken.close();
+            throw e;
+        }
+        activeRuns.add(executionContext);
+        try {
+            return executeWaves(executionContext, result, runId);
+        } finally {
+            // Abandon work still in flight for a failed run, such as stages cut off by a timeout
+            if (!result.isSuccess()) {
+                runToken.cancel("workflow run failed");
+            }
+            runToken.close();
+            activeRuns.remove(executionContext);
+            executionPool.releaseExecution();
+        }
+    }
+
+    /**
+     * Creates the budget of a run from the budget settings of the workflow.
+     */
+    private TokenBudget createRunBudget(WorkflowDefinition workflowDefinition) throws ConductorException {
+        WorkflowDefinition.WorkflowSettings settings = workflowDefinition.getSettings();
+        if (settings == null || (settings.getTokenBudget() == null && settings.getCostBudget() == null)) {
+            return TokenBudget.unlimited();
+        }
+        boolean downgrade = "downgrade".equalsIgnoreCase(settings.getBudgetAction());
+        if (downgrade && downgradeProvider == null) {
+            throw new ConductorException("Workflow budget action 'downgrade' requires a downgrade provider: " +
+                "configure one with withDowngradeProvider");
+        }
+        return new TokenBudget(
+            settings.getTokenBudget() != null ? settings.getTokenBudget() : 0,
+            settings.getCostBudget() != null ? settings.getCostBudget() : 0,
+            downgrade ? TokenBudget.Action.DOWNGRADE : TokenBudget.Action.FAIL,
+            downgradeProvider);
+    }
+
+    /**
+     * Creates the token of a run, with the deadline given by the workflow timeout setting.
+     */
+    private CancellationToken createRunToken(WorkflowDefinition workflowDefinition) {
+        WorkflowDefinition.WorkflowSettings settings = workflowDefinition.getSettings();
+        if (settings == null || settings.getTimeout() == null || settings.getTimeout().isBlank()) {
+            return CancellationToken.create();
+        }
+        return CancellationToken.withDeadline(Duration.ofMillis(ConsoleApprovalHandler.parseTimeout(settings.getTimeout())));
+    }
+
+    /**
+     * Executes the waves of a run, restoring checkpointed stages first.
+     */
+    private WorkflowExecutionResult executeWaves(WorkflowExecutionContext executionContext,
+                                                 WorkflowExecutionResult result, String runId)
+            throws ConductorException {
+        WorkflowDefinition workflowDefinition = executionContext.getWorkflowDefinition();
+
+        // Restore checkpointed stages when resuming a run
+        StageCheckpointStore checkpointStore = null;
+        String definitionHash = null;
+        Map<String, StageExecutionResult> checkpointedStages = Map.of();
+        if (runId != null && memoryStore != null) {
+            checkpointStore = new StageCheckpointStore(memoryStore);
+            definitionHash = StageCheckpointStore.computeDefinitionHash(workflowDefinition);
+            checkpointedStages = checkpointStore.loadCompletedStages(runId, definitionHash);
+            if (!checkpointedStages.isEmpty()) {
+                logger.info("Resuming run '{}' with {} checkpointed stage(s)", runId, checkpointedStages.size());
+            }
+        }
+        if (approvalStore != null && checkpointStore == null) {
+            throw new ConductorException("Deferred approval requires checkpointing: configure a memory store and a run ID");
+        }
+
+        try {
+            // Reuse the execution plan of the definition across runs
+            StageExecutionPlan executionPlan = planFor(workflowDefinition);
+            String workflowName = workflowDefinition.getMetadata().getName();
+            StageDurationHistory stageDurations = executionPool.getStageDurations();
 
             if (executionPlan.hasParallelExecution()) {
                 logger.info("Workflow supports parallel execution with {} waves and max parallelism of {}",
@@ -191,12 +414,66 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             }
 
             // Execute each wave in order
+            CancellationToken runToken = executionContext.getCancellationToken();
             for (StageExecutionPlan.ExecutionWave wave : executionPlan.getExecutionWaves()) {
-                logger.info("Executing wave {}: {} stage(s)", wave.getWaveNumber(), wave.getStageCount());
+                if (runToken.isCancelled()) {
+                    logger.error("Workflow run cancelled before wave {}: {}", wave.getWaveNumber(), runToken.getReason());
+                    result.setSuccess(false);
+                    result.setErrorMessage("Workflow cancelled: " + runToken.getReason());
+                    break;
+                }
+
+                // Restore stages completed by a previous attempt of this run
+                List<WorkflowStage> pendingStages = new ArrayList<>();
+                boolean awaitingApproval = false;
+                for (WorkflowStage stage : wave.getStages()) {
+                    StageExecutionResult checkpointed = checkpointedStages.get(stage.getName());
+                    if (checkpointed == null) {
+                        pendingStages.add(stage);
+                        continue;
+                    }
+                    if (checkpointed.isAwaitingApproval()) {
+                        // Apply the decision made while the run was suspended
+                        checkpointed = applyDeferredApproval(stage, checkpointed, runId, executionContext);
+                        if (!checkpointed.isAwaitingApproval()) {
+                            checkpointStage(checkpointStore, runId, definitionHash, stage.getName(), checkpointed);
+                            approvalStore.remove(runId, stage.getName());
+                        }
+                    }
+                    result.addStageResult(stage.getName(), checkpointed);
+                    if (checkpointed.isAwaitingApproval()) {
+                        awaitingApproval = true;
+                    } else if (checkpointed.isSuccess()) {
+                        executionContext.recordCompletedStage(stage.getName(), checkpointed);
+                    } else {
+                        logger.error("Stage '{}' was not approved, stopping workflow execution", stage.getName());
+                        result.setSuccess(false);
+                        result.setErrorMessage("Stage '" + stage.getName() + "' failed: " + checkpointed.getErrorMessage());
+                        return result;
+                    }
+                }
+                if (pendingStages.isEmpty()) {
+                    if (awaitingApproval) {
+                        return suspendRun(result, runId);
+                    }
+                    logger.info("Wave {} restored from checkpoints of run '{}'", wave.getWaveNumber(), runId);
+                    continue;
+                }
+
+                logger.info("Executing wave {}: {} stage(s)", wave.getWaveNumber(), pendingStages.size());
+
+                // Stages of a wave take the bounded stage slots in list order: put the stages
+                // heading the longest remaining chain first, so they are not left waiting for a
+                // slot behind short stages. Without history, all stages weigh the same and chain
+                // length decides.
+                if (pendingStages.size() > 1) {
+                    pendingStages = executionPlan.orderByCriticalPath(pendingStages,
+                        stageName -> stageDurations.estimateMillis(workflowName, stageName));
+                }
 
                 if (wave.hasParallelStages()) {
                     // Execute stages in parallel
-                    Map<String, StageExecutionResult> waveResults = executeWaveInParallel(wave, executionContext);
+                    Map<String, StageExecutionResult> waveResults = executeWaveInParallel(pendingStages, executionContext);
 
                     // Add all wave results to the overall result
                     for (Map.Entry<String, StageExecutionResult> entry : waveResults.entrySet()) {
@@ -204,9 +481,17 @@ public class YamlWorkflowEngine implements WorkflowEngine {
                         StageExecutionResult stageResult = entry.getValue();
                         result.addStageResult(stageName, stageResult);
 
+                        if (stageResult.isAwaitingApproval()) {
+                            deferApproval(findStage(pendingStages, stageName), stageResult, runId, definitionHash,
+                                checkpointStore, executionContext);
+                            awaitingApproval = true;
+                            continue;
+                        }
+
                         // Track completed stages for content aggregation
                         if (stageResult.isSuccess()) {
-                            completedStageResults.put(stageName, stageResult);
+                            executionContext.recordCompletedStage(stageName, stageResult);
+                            checkpointStage(checkpointStore, runId, definitionHash, stageName, stageResult);
                         }
 
                         // Check if any stage failed and should stop execution
@@ -227,29 +512,39 @@ public class YamlWorkflowEngine implements WorkflowEngine {
                     }
                 } else {
                     // Execute single stage
-                    WorkflowStage stage = wave.getStages().get(0);
+                    WorkflowStage stage = pendingStages.get(0);
                     logger.info("Executing stage: {}", stage.getName());
 
                     StageExecutionResult stageResult = executeStage(stage, executionContext);
                     result.addStageResult(stage.getName(), stageResult);
 
                     // Track completed stages for content aggregation
-                    if (stageResult.isSuccess()) {
-                        completedStageResults.put(stage.getName(), stageResult);
+                    if (stageResult.isAwaitingApproval()) {
+                        deferApproval(stage, stageResult, runId, definitionHash, checkpointStore, executionContext);
+                        awaitingApproval = true;
+                    } else if (stageResult.isSuccess()) {
+                        executionContext.recordCompletedStage(stage.getName(), stageResult);
+                        checkpointStage(checkpointStore, runId, definitionHash, stage.getName(), stageResult);
                     }
 
                     // Check if stage failed and should stop execution
-                    if (!stageResult.isSuccess() && !shouldContinueOnFailure(stage)) {
+                    if (!stageResult.isSuccess() && !stageResult.isAwaitingApproval() && !shouldContinueOnFailure(stage)) {
                         logger.error("Stage '{}' failed, stopping workflow execution", stage.getName());
                         result.setSuccess(false);
                         result.setErrorMessage("Stage '" + stage.getName() + "' failed: " + stageResult.getErrorMessage());
                         break;
                     }
                 }
+
+                // Later waves depend on the stages awaiting approval
+                if (awaitingApproval) {
+                    return suspendRun(result, runId);
+                }
             }
 
             if (result.isSuccess()) {
                 logger.info("Workflow execution completed successfully");
+                clearCheckpoints(checkpointStore, runId);
             }
 
         } catch (Exception e) {
@@ -258,8 +553,10 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             result.setErrorMessage("Execution failed: " + e.getMessage());
         } finally {
             result.setEndTime(System.currentTimeMillis());
-            // Clear completed stage results after workflow execution to prevent memory leak
-            completedStageResults.clear();
+            // Persist observed latencies with the run state
+            if (memoryStore != null) {
+                latencyStore().flush();
+            }
         }
 
         return result;
@@ -274,38 +571,91 @@ public class YamlWorkflowEngine implements WorkflowEngine {
     }
 
     /**
-     * Executes a wave of stages in parallel by submitting individual stage tasks.
+     * Persists a completed stage when checkpointing is enabled.
+     * <p>
+     * Checkpoint failures are logged but never fail the stage, since its result
+     * has already been produced.
+     * </p>
      */
-    private Map<String, StageExecutionResult> executeWaveInParallel(StageExecutionPlan.ExecutionWave wave,
-                                                                  WorkflowExecutionContext context) throws ConductorException {
-        Map<String, StageExecutionResult> results = new ConcurrentHashMap<>();
-
-        // Create individual stage execution tasks
-        Map<String, java.util.concurrent.Future<StageExecutionResult>> futures = new ConcurrentHashMap<>();
-
-        for (WorkflowStage stage : wave.getStages()) {
-            java.util.concurrent.Future<StageExecutionResult> future =
-                java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return executeStage(stage, context);
-                    } catch (ConductorException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-            futures.put(stage.getName(), future);
+    private void checkpointStage(StageCheckpointStore checkpointStore, String runId, String definitionHash,
+                                 String stageName, StageExecutionResult stageResult) {
+        if (checkpointStore == null) {
+            return;
         }
+        try {
+            checkpointStore.save(runId, definitionHash, stageName, stageResult);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to checkpoint stage '{}' for run '{}': {}", stageName, runId, e.getMessage());
+        }
+    }
 
-        // Wait for all stages to complete
-        for (Map.Entry<String, java.util.concurrent.Future<StageExecutionResult>> entry : futures.entrySet()) {
-            try {
-                StageExecutionResult result = entry.getValue().get(300, java.util.concurrent.TimeUnit.SECONDS);
-                results.put(entry.getKey(), result);
-            } catch (Exception e) {
-                throw new ConductorException("Failed to execute stage '" + entry.getKey() + "' in parallel: " + e.getMessage(), e);
-            }
+    /**
+     * Removes the checkpoints of a run that completed successfully, so they do not
+     * accumulate and executing the run ID again starts a new run.
+     */
+    private void clearCheckpoints(StageCheckpointStore checkpointStore, String runId) {
+        if (checkpointStore == null) {
+            return;
+        }
+        try {
+            checkpointStore.clear(runId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to clear checkpoints of run '{}': {}", runId, e.getMessage());
         }
+    }
+
+    /**
+     * Execution plan computed for a workflow definition.
+     */
+    private record CachedPlan(WorkflowDefinition definition, StageExecutionPlan plan) {}
+
+    /**
+     * Gets the execution plan for a definition, computing it only when the
+     * definition changes. Definitions are compared by identity, since loaded
+     * definitions are shared read-only.
+     */
+    private StageExecutionPlan planFor(WorkflowDefinition definition) {
+        CachedPlan cached = cachedPlan;
+        if (cached != null && cached.definition() == definition) {
+            return cached.plan();
+        }
+        StageExecutionPlan plan = new StageExecutionPlan(definition.getStages());
+        cachedPlan = new CachedPlan(definition, plan);
+        return plan;
+    }
 
-        return results;
+    /**
+     * Executes a wave of stages in parallel on the shared stage executor.
+     */
+    private Map<String, StageExecutionResult> executeWaveInParallel(List<WorkflowStage> stages,
+                                                                  WorkflowExecutionContext context) throws ConductorException {
+        ParallelStageExecutor stageExecutor = executionPool.getStageExecutor();
+        Duration defaultTimeout = Duration.ofMillis(stageExecutor.getDefaultTimeoutMs());
+        String workflowName = context.getWorkflowDefinition().getMetadata().getName();
+        LatencyStore latencyStore = latencyStore();
+
+        // Stage timeouts follow the observed latency of each stage once it has enough history
+        return stageExecutor.executeStages(stages, stage -> executeStage(stage, context),
+            new ParallelStageExecutor.StageTimeouts() {
+                @Override
+                public long timeoutMs(WorkflowStage stage) {
+                    return latencyStore.timeoutFor(defaultTimeout,
+                        LatencyStore.stageKey(workflowName, stage.getName())).toMillis();
+                }
+
+                @Override
+                public void onTimeout(WorkflowStage stage, long timeoutMs) {
+                    latencyStore.record(LatencyStore.stageKey(workflowName, stage.getName()), timeoutMs);
+                }
+            });
+    }
+
+    /**
+     * Gets the latency store persisted to this engine's memory store, or the
+     * unpersisted shared store without one.
+     */
+    private LatencyStore latencyStore() {
+        return LatencyStore.forStore(memoryStore);
     }
 
     /**
@@ -313,13 +663,39 @@ public class YamlWorkflowEngine implements WorkflowEngine {
      */
     private StageExecutionResult executeStage(WorkflowStage stage, WorkflowExecutionContext context)
             throws ConductorException {
+        long startTime = System.currentTimeMillis();
+
+        // Attribute the LLM usage of the stage and charge it to the budget of the run
+        UsageScope usageScope = UsageScope.forWorkflow(context.getWorkflowDefinition().getMetadata().getName(),
+            context.getTokenBudget()).withStage(stage.getName());
 
         // Check if this is an iterative stage
-        if (stage.isIterative()) {
-            return executeIterativeStage(stage, context);
-        } else {
-            return executeRegularStage(stage, context);
+        StageExecutionResult result;
+        try (UsageScope.Binding ignored = usageScope.bind()) {
+            if (stage.isMapReduce()) {
+                result = executeMapReduceStage(stage, context);
+            } else if (stage.isIterative()) {
+                result = executeIterativeStage(stage, context);
+            } else {
+                result = executeRegularStage(stage, context);
+            }
+        }
+
+        // Record the duration to weight the critical path and derive timeouts of later runs
+        if (result.isSuccess()) {
+            String workflowName = context.getWorkflowDefinition().getMetadata().getName();
+            long durationMs = System.currentTimeMillis() - startTime;
+            executionPool.getStageDurations().record(workflowName, stage.getName(), durationMs);
+            LatencyStore latencyStore = latencyStore();
+            latencyStore.record(LatencyStore.stageKey(workflowName, stage.getName()), durationMs);
+            if (stage.getPrimaryAgentId() != null) {
+                latencyStore.record(LatencyStore.agentKey(stage.getPrimaryAgentId()), durationMs);
+            }
         }
+
+        // Review, approval and output files are done; keep large responses on disk for the rest of the run
+        result.spillResponses(OutputBlobStore.getInstance());
+        return result;
     }
 
     /**
@@ -350,6 +726,161 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         return executeRegularStage(stage, context);
     }
 
+    /**
+     * Executes a map-reduce workflow stage.
+     * <p>
+     * The source input is split into token-bounded chunks, each rendered into the
+     * prompt of the "map" agent and processed in parallel. The partial results
+     * are combined by the "reduce" agent, which receives them as
+     * {@code partial_results}, along with {@code final_reduce} telling the last
+     * reduction apart from intermediate levels of a tree reduction. Without a
+     * reduce agent, the partial results are joined in order.
+     * </p>
+     */
+    private StageExecutionResult executeMapReduceStage(WorkflowStage stage, WorkflowExecutionContext context) {
+        StageExecutionResult result = new StageExecutionResult();
+        result.setStartTime(System.currentTimeMillis());
+
+        try {
+            MapReduceConfig config = stage.getMapReduce();
+            String mapAgentId = stage.getAgentId("map");
+            String reduceAgentId = stage.getAgentId("reduce");
+            Map<String, Object> baseVariables = buildTemplateVariables(context);
+
+            List<String> chunks = TextChunker.split(resolveMapReduceSource(config.getSource(), baseVariables, context),
+                config.getChunkTokens(), config.getOverlapTokens() != null ? config.getOverlapTokens() : 0);
+            if (chunks.isEmpty()) {
+                throw new ConductorException("Map-reduce source '" + config.getSource() + "' of stage '" +
+                    stage.getName() + "' is empty");
+            }
+            logger.info("Stage '{}' split into {} chunk(s) of up to {} tokens", stage.getName(),
+                chunks.size(), config.getChunkTokens());
+
+            SubAgent mapAgent = getOrCreateAgent(mapAgentId, context);
+            MapReduceStageExecutor.ChunkMapper mapper = (chunk, index, total) -> {
+                Map<String, Object> variables = new HashMap<>(baseVariables);
+                variables.put(config.getVariable(), chunk);
+                variables.put("chunk_index", index + 1);
+                variables.put("chunk_count", total);
+                return executeAgentCall(mapAgent, renderAgentPrompt(mapAgentId, variables, context),
+                    "map call for chunk " + (index + 1) + " of stage '" + stage.getName() + "'");
+            };
+
+            MapReduceStageExecutor.PartialReducer reducer = null;
+            if (reduceAgentId != null) {
+                SubAgent reduceAgent = getOrCreateAgent(reduceAgentId, context);
+                reducer = (partials, finalReduce) -> {
+                    Map<String, Object> variables = new HashMap<>(baseVariables);
+                    variables.put("partial_results", String.join("\n\n---\n\n", partials));
+                    variables.put("partial_count", partials.size());
+                    variables.put("final_reduce", finalReduce);
+                    return executeAgentCall(reduceAgent, renderAgentPrompt(reduceAgentId, variables, context),
+                        "reduce call of stage '" + stage.getName() + "'");
+                };
+            }
+
+            MapReduceStageExecutor executor = new MapReduceStageExecutor(config.getMaxConcurrent(), config.getFanIn());
+            MapReduceStageExecutor.Result mapReduceResult;
+            try (CancellationToken.Scope ignored = context.getCancellationToken().bind()) {
+                mapReduceResult = executor.execute(chunks, mapper, reducer);
+            }
+            logger.info("Stage '{}' mapped {} chunk(s) and made {} reduce call(s) over {} level(s)",
+                stage.getName(), mapReduceResult.chunkCount(), mapReduceResult.reduceCalls(),
+                mapReduceResult.reduceLevels());
+
+            result.setAgentResponse(mapReduceResult.output());
+
+            if (stage.requiresApproval()) {
+                result.setApprovalRequested(true);
+                boolean approved = requestHumanApproval(stage, result, context);
+                result.setApproved(approved);
+                if (result.isAwaitingApproval()) {
+                    return result;
+                }
+                if (!approved) {
+                    result.setSuccess(false);
+                    result.setErrorMessage("Stage rejected by human reviewer");
+                    logger.warn("Stage '{}' was rejected by human reviewer", stage.getName());
+                    return result;
+                }
+            }
+
+            generateStageOutputFiles(stage, result, context);
+            logger.info("Stage '{}' executed successfully", stage.getName());
+
+        } catch (Exception e) {
+            logger.error("Stage '{}' execution failed", stage.getName(), e);
+            result.setSuccess(false);
+            result.setErrorMessage(e.getMessage());
+        } finally {
+            result.setEndTime(System.currentTimeMillis());
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the input of a map-reduce stage: the output of a completed stage,
+     * the outputs of all completed stages in workflow order, or a template variable.
+     */
+    private String resolveMapReduceSource(String source, Map<String, Object> variables,
+                                          WorkflowExecutionContext context) throws ConductorException {
+        Map<String, StageExecutionResult> completed = context.getCompletedStageResults();
+        StageExecutionResult stageResult = completed.get(source);
+        if (stageResult != null) {
+            return stageResult.getAgentResponse();
+        }
+        if (MapReduceConfig.COMPLETED_STAGES_SOURCE.equals(source)) {
+            StringWriter content = new StringWriter();
+            try {
+                for (WorkflowStage stage : context.getWorkflowDefinition().getStages()) {
+                    StageExecutionResult completedStage = completed.get(stage.getName());
+                    if (completedStage != null && completedStage.getAgentResponseContent() != null) {
+                        completedStage.getAgentResponseContent().writeTo(content);
+                        content.write("\n\n");
+                    }
+                }
+            } catch (IOException e) {
+                throw new ConductorException("Could not read stage outputs for map-reduce", e);
+            }
+            return content.toString();
+        }
+        Object value = variables.get(source);
+        if (value == null && context.getContext() != null) {
+            value = context.getContext().getString(source, null);
+        }
+        if (value == null) {
+            throw new ConductorException("Map-reduce source '" + source +
+                "' is neither a completed stage nor a known variable");
+        }
+        return value.toString();
+    }
+
+    /**
+     * Renders the prompt template of an agent.
+     */
+    private String renderAgentPrompt(String agentId, Map<String, Object> variables, WorkflowExecutionContext context) {
+        AgentConfigCollection agentConfig = context.getAgentConfig();
+        AgentDefinition agentDef = agentConfig.getAgent(agentId)
+            .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId));
+        String templateId = agentDef.getPromptTemplate();
+        AgentConfigCollection.PromptTemplate template = agentConfig.getPromptTemplate(templateId)
+            .orElseThrow(() -> new IllegalArgumentException("Prompt template not found: " + templateId));
+        return promptEngine.render(template, variables);
+    }
+
+    /**
+     * Executes one agent call, failing on an unsuccessful result.
+     */
+    private static String executeAgentCall(SubAgent agent, String prompt, String description)
+            throws ConductorException {
+        ExecutionResult callResult = agent.execute(new ExecutionInput(prompt, null));
+        if (!callResult.success()) {
+            throw new ConductorException("The " + description + " failed: " + callResult.output());
+        }
+        return callResult.output() != null ? callResult.output() : "";
+    }
+
     /**
      * Executes a regular (non-iterative) workflow stage.
      */
@@ -370,13 +901,16 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             int maxRetries = stage.getRetryLimit() != null ? stage.getRetryLimit() : 1;
             StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
                 .stageName(stage.getName())
+                .cancellationToken(context.getCancellationToken())
                 .maxRetries(maxRetries)
                 .enableAgentCaching(true)  // YamlWorkflowEngine uses agent caching
                 .taskMetadata(new HashMap<>())
+                .memoization(memoFor(stage, primaryAgentId, context), memoFingerprint(stage, primaryAgentId, context))
+                .cascade(cascadeFor(stage, primaryAgentId, context))
                 .build();
 
             // Define agent creator callback - uses agent cache
-            StageExecutor.AgentCreator agentCreator = attempt -> getOrCreateAgent(primaryAgentId);
+            StageExecutor.AgentCreator agentCreator = attempt -> getOrCreateAgent(primaryAgentId, context);
 
             // Define prompt preparer callback
             StageExecutor.PromptPreparer promptPreparer = (attempt, executionContext) ->
@@ -394,7 +928,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             // If stage has a reviewer agent, execute review
             String reviewerAgentId = stage.getAgentId("reviewer");
             if (reviewerAgentId != null) {
-                SubAgent reviewerAgent = getOrCreateAgent(reviewerAgentId);
+                SubAgent reviewerAgent = getOrCreateAgent(reviewerAgentId, context);
                 String reviewPrompt = prepareReviewPrompt(stage, reviewerAgentId, executorResult.getOutput(), context);
 
                 ExecutionInput reviewInput = new ExecutionInput(reviewPrompt, null);
@@ -408,6 +942,9 @@ public class YamlWorkflowEngine implements WorkflowEngine {
                 result.setApprovalRequested(true);
                 boolean approved = requestHumanApproval(stage, result, context);
                 result.setApproved(approved);
+                if (result.isAwaitingApproval()) {
+                    return result;
+                }
 
                 if (!approved) {
                     result.setSuccess(false);
@@ -451,6 +988,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         iterativeStage.setOutputs(stage.getOutputs());
         iterativeStage.setRetryLimit(stage.getRetryLimit());
         iterativeStage.setIteration(stage.getIteration());
+        iterativeStage.setMemoize(stage.getMemoize());
 
         return iterativeStage;
     }
@@ -497,10 +1035,75 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         return result;
     }
 
+    /**
+     * Returns the result memo to use for a stage, or null if the stage is not memoized.
+     */
+    private StageResultMemo memoFor(WorkflowStage stage, String agentId, WorkflowExecutionContext context) {
+        if (resultMemo == null) {
+            return null;
+        }
+        String agentType = context.getAgentConfig().getAgent(agentId).map(AgentDefinition::getType).orElse(null);
+        return stage.isMemoizationEnabled(agentType) ? resultMemo : null;
+    }
+
+    /**
+     * Fingerprints the agent configuration and provider/model that produce a stage output.
+     */
+    private String memoFingerprint(WorkflowStage stage, String agentId, WorkflowExecutionContext context) {
+        if (resultMemo == null) {
+            return null;
+        }
+        AgentDefinition agentDef = context.getAgentConfig().getAgent(agentId)
+            .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId));
+        String fingerprint = toCanonicalJson(agentDef) + "|" + agentFactory.describeProvider();
+        return stage.isCascade() ? fingerprint + "|cascade=" + stage.getCascade().getModels() : fingerprint;
+    }
+
+    /**
+     * Builds the model cascade of a stage, or returns null if the stage has none.
+     * <p>
+     * Every tier runs the stage's primary agent on one of the cascade's models, so
+     * the tiers share the agent's prompt template and differ only in the model.
+     * </p>
+     */
+    private ModelCascade cascadeFor(WorkflowStage stage, String agentId, WorkflowExecutionContext context) {
+        if (!stage.isCascade()) {
+            return null;
+        }
+        CascadeConfig cascadeConfig = stage.getCascade();
+        List<ModelCascade.Tier> tiers = new ArrayList<>();
+        for (String model : cascadeConfig.getModels()) {
+            tiers.add(new ModelCascade.Tier(model, attempt -> getOrCreateAgent(agentId, model, context)));
+        }
+        if (!cascadeConfig.isConfidenceCheckEnabled()) {
+            return new ModelCascade(tiers, null);
+        }
+        int minLength = cascadeConfig.getMinLength() != null ? cascadeConfig.getMinLength() : 1;
+        List<String> refusalPrefixes = cascadeConfig.getRefusalPrefixes() != null
+            ? cascadeConfig.getRefusalPrefixes() : ModelCascade.DEFAULT_REFUSAL_PREFIXES;
+        return new ModelCascade(tiers, ModelCascade.confidenceCheck(minLength, refusalPrefixes));
+    }
+
+    /**
+     * Serializes an agent definition with map entries ordered by key.
+     */
+    private static String toCanonicalJson(AgentDefinition agentDef) {
+        try {
+            return JsonUtils.getObjectMapper()
+                .writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsString(agentDef);
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new com.skanga.conductor.exception.JsonProcessingException(
+                "Failed to serialize agent definition: " + agentDef.getRole(), e);
+        }
+    }
+
     /**
      * Prepares the prompt for a stage execution using templates and context.
      */
     private String prepareStagePrompt(WorkflowStage stage, String agentId, WorkflowExecutionContext context) {
+        AgentConfigCollection agentConfig = context.getAgentConfig();
         AgentDefinition agentDef = agentConfig.getAgent(agentId)
             .orElseThrow(() -> new IllegalArgumentException("Agent not found: " + agentId));
 
@@ -530,6 +1133,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
      */
     private String prepareReviewPrompt(WorkflowStage stage, String reviewerAgentId, String contentToReview,
                                      WorkflowExecutionContext context) {
+        AgentConfigCollection agentConfig = context.getAgentConfig();
         AgentDefinition reviewerDef = agentConfig.getAgent(reviewerAgentId)
             .orElseThrow(() -> new IllegalArgumentException("Reviewer agent not found: " + reviewerAgentId));
         String templateId = reviewerDef.getPromptTemplate();
@@ -547,6 +1151,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
      */
     private Map<String, Object> buildTemplateVariables(WorkflowExecutionContext context) {
         Map<String, Object> variables = new HashMap<>();
+        WorkflowDefinition workflowDefinition = context.getWorkflowDefinition();
 
         // Add workflow variables
         if (workflowDefinition.getVariables() != null) {
@@ -570,8 +1175,8 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         }
 
         // Add context variables if available
-        if (this.context != null) {
-            variables.put("target_audience", this.context.getString("input.target_audience", "professionals"));
+        if (context.getContext() != null) {
+            variables.put("target_audience", context.getContext().getString("input.target_audience", "professionals"));
         }
 
         return variables;
@@ -579,33 +1184,56 @@ public class YamlWorkflowEngine implements WorkflowEngine {
 
     /**
      * Builds aggregated content from all previous stages for final review.
+     * <p>
+     * Responses are streamed from their handles into a buffer sized up front, so
+     * spilled responses are not loaded a second time and the buffer is never regrown.
+     * </p>
      */
     private String buildAggregatedBookContent(WorkflowExecutionContext context) {
-        StringBuilder content = new StringBuilder();
-
         // Get all completed stage results
-        Map<String, StageExecutionResult> stageResults = this.completedStageResults;
+        Map<String, StageExecutionResult> stageResults = context.getCompletedStageResults();
+
+        List<String> sections = new ArrayList<>();
+        List<ContentHandle> responses = new ArrayList<>();
 
         // Add title and subtitle
         if (stageResults.containsKey("title-generation")) {
-            StageExecutionResult titleResult = stageResults.get("title-generation");
-            content.append("# Book Title and Subtitle\n\n");
-            content.append(titleResult.getAgentResponse()).append("\n\n");
+            sections.add("# Book Title and Subtitle\n\n");
+            responses.add(stageResults.get("title-generation").getAgentResponseContent());
         }
 
         // Add table of contents
         if (stageResults.containsKey("toc-generation")) {
-            StageExecutionResult tocResult = stageResults.get("toc-generation");
-            content.append("# Table of Contents\n\n");
-            content.append(tocResult.getAgentResponse()).append("\n\n");
+            sections.add("# Table of Contents\n\n");
+            responses.add(stageResults.get("toc-generation").getAgentResponseContent());
         }
 
         // Add all chapters
         for (Map.Entry<String, StageExecutionResult> entry : stageResults.entrySet()) {
             if (entry.getKey().startsWith("chapter-")) {
-                content.append("---\n\n");
-                content.append(entry.getValue().getAgentResponse()).append("\n\n");
+                sections.add("---\n\n");
+                responses.add(entry.getValue().getAgentResponseContent());
+            }
+        }
+
+        long capacity = 0;
+        for (int i = 0; i < sections.size(); i++) {
+            capacity += sections.get(i).length() + 2 + (responses.get(i) != null ? responses.get(i).length() : 4);
+        }
+        StringWriter content = new StringWriter((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        try {
+            for (int i = 0; i < sections.size(); i++) {
+                content.write(sections.get(i));
+                ContentHandle response = responses.get(i);
+                if (response != null) {
+                    response.writeTo(content);
+                } else {
+                    content.write("null");
+                }
+                content.write("\n\n");
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stage output for aggregation", e);
         }
 
         return content.toString();
@@ -613,24 +1241,36 @@ public class YamlWorkflowEngine implements WorkflowEngine {
 
     /**
      * Gets or creates an agent based on its configuration.
+     * <p>
+     * Agents are pooled in the execution pool, so concurrent runs using the same
+     * agent definition and orchestrator share one agent instance.
+     * </p>
      */
-    private SubAgent getOrCreateAgent(String agentId) throws ConductorException {
-        return agentCache.computeIfAbsent(agentId, id -> {
-            try {
-                AgentDefinition agentDef = agentConfig.getAgent(id)
-                    .orElseThrow(() -> new RuntimeException("Agent definition not found: " + id));
+    private SubAgent getOrCreateAgent(String agentId, WorkflowExecutionContext context) throws ConductorException {
+        return getOrCreateAgent(agentId, null, context);
+    }
 
-                return agentFactory.createAgent(agentDef, orchestrator);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to create agent: " + id, e);
-            }
-        });
+    /**
+     * Gets the agent of a definition running on a given model, or on the configured
+     * model if the model is null.
+     */
+    private SubAgent getOrCreateAgent(String agentId, String model, WorkflowExecutionContext context)
+            throws ConductorException {
+        AgentDefinition agentDef = context.getAgentConfig().getAgent(agentId)
+            .orElseThrow(() -> new ConductorException("Agent definition not found: " + agentId));
+        String poolKey = context.getAgentKey(agentId, id -> id + "|" + toCanonicalJson(agentDef));
+        if (model == null) {
+            return executionPool.getOrCreateAgent(orchestrator, poolKey,
+                () -> agentFactory.createAgent(agentDef, orchestrator));
+        }
+        return executionPool.getOrCreateAgent(orchestrator, poolKey + "|model=" + model,
+            () -> agentFactory.createAgent(agentDef, orchestrator, model));
     }
 
     /**
      * Validates that all required configurations are loaded.
      */
-    private void validateConfiguration() {
+    private void validateConfiguration(WorkflowDefinition workflowDefinition, AgentConfigCollection agentConfig) {
         if (workflowDefinition == null) {
             throw new IllegalStateException("Workflow definition not loaded");
         }
@@ -642,7 +1282,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         }
 
         // Validate workflow definition correctness
-        validateWorkflowDefinition();
+        validateWorkflowDefinition(workflowDefinition, agentConfig);
     }
 
     /**
@@ -651,7 +1291,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
      *
      * @throws IllegalStateException if workflow validation fails
      */
-    private void validateWorkflowDefinition() {
+    private void validateWorkflowDefinition(WorkflowDefinition workflowDefinition, AgentConfigCollection agentConfig) {
         List<com.skanga.conductor.workflow.config.WorkflowStage> stages = workflowDefinition.getStages();
 
         if (stages == null || stages.isEmpty()) {
@@ -701,9 +1341,9 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             }
         }
 
-        // Check for circular dependencies using the existing StageExecutionPlan
+        // Check for circular dependencies, keeping the plan for execution
         try {
-            new StageExecutionPlan(stages);
+            planFor(workflowDefinition);
         } catch (Exception e) {
             throw new IllegalStateException("Workflow has invalid dependency structure: " + e.getMessage(), e);
         }
@@ -725,7 +1365,8 @@ public class YamlWorkflowEngine implements WorkflowEngine {
 
         try {
             // Get output directory from workflow settings
-            String outputDir = getOutputDirectory();
+            WorkflowDefinition workflowDefinition = context.getWorkflowDefinition();
+            String outputDir = getOutputDirectory(workflowDefinition);
 
             // Create output generation request
             Map<String, Object> variables = buildTemplateVariables(context);
@@ -770,7 +1411,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
     /**
      * Gets the output directory for the workflow.
      */
-    private String getOutputDirectory() {
+    private String getOutputDirectory(WorkflowDefinition workflowDefinition) {
         if (workflowDefinition.getSettings() != null && workflowDefinition.getSettings().getOutputDir() != null) {
             // Substitute variables in output directory path
             Map<String, Object> variables = new HashMap<>();
@@ -792,20 +1433,28 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             return input;
         }
 
-        String result = input;
-        for (Map.Entry<String, Object> entry : variables.entrySet()) {
-            String placeholder = "${" + entry.getKey() + "}";
-            String value = entry.getValue() != null ? entry.getValue().toString() : "";
-            result = result.replace(placeholder, value);
-        }
-
-        return result;
+        // The compiled plan is cached, so only variable lookups remain per run
+        return SubstitutionPlan.compile(input).evaluate((name, defaultValue) -> {
+            if (variables.containsKey(name)) {
+                Object value = variables.get(name);
+                return value != null ? value.toString() : "";
+            }
+            return defaultValue != null ? defaultValue : "${" + name + "}";
+        });
     }
 
     /**
      * Requests human approval for a workflow stage.
      */
     private boolean requestHumanApproval(WorkflowStage stage, StageExecutionResult result, WorkflowExecutionContext context) {
+        if (approvalStore != null) {
+            // Deferred: the run is suspended once the wave completes, rather than waiting here
+            result.setAwaitingApproval(true);
+            result.setSuccess(false);
+            result.setErrorMessage("Awaiting human approval");
+            return false;
+        }
+
         if (approvalHandler == null) {
             logger.warn("Stage '{}' requires approval but no approval handler is configured. Auto-approving.", stage.getName());
             return true;
@@ -816,13 +1465,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         }
 
         try {
-            ApprovalRequest request = new ApprovalRequest(
-                workflowDefinition.getMetadata().getName(),
-                stage.getName(),
-                stage.getDescription(),
-                result.getAgentResponse(),
-                result.getReviewResponse()
-            );
+            ApprovalRequest request = createApprovalRequest(stage, result, context);
 
             // Parse timeout from stage configuration
             String timeoutString = stage.getApproval().getTimeout();
@@ -853,6 +1496,106 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         }
     }
 
+    /**
+     * Creates the approval request of a stage from its result.
+     */
+    private static ApprovalRequest createApprovalRequest(WorkflowStage stage, StageExecutionResult result,
+                                                         WorkflowExecutionContext context) {
+        return new ApprovalRequest(
+            context.getWorkflowDefinition().getMetadata().getName(),
+            stage.getName(),
+            stage.getDescription(),
+            result.getAgentResponse(),
+            result.getReviewResponse()
+        );
+    }
+
+    /**
+     * Suspends a stage awaiting deferred approval: checkpoints its output, records its
+     * approval request and passes the request to the approval handler.
+     */
+    private void deferApproval(WorkflowStage stage, StageExecutionResult result, String runId, String definitionHash,
+                               StageCheckpointStore checkpointStore, WorkflowExecutionContext context) {
+        checkpointStage(checkpointStore, runId, definitionHash, stage.getName(), result);
+
+        // A freshly executed stage replaces any request left from an earlier attempt
+        ApprovalRequest request = createApprovalRequest(stage, result, context);
+        approvalStore.remove(runId, stage.getName());
+        approvalStore.submit(runId, request);
+        if (approvalHandler != null) {
+            try {
+                approvalHandler.approvalDeferred(new PendingApproval(runId, request));
+            } catch (RuntimeException e) {
+                logger.warn("Approval handler failed to accept the request of stage '{}': {}",
+                    stage.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the response to the deferred approval of a restored stage. Returns the
+     * stage still awaiting approval if it has no response and has not timed out.
+     */
+    private StageExecutionResult applyDeferredApproval(WorkflowStage stage, StageExecutionResult result, String runId,
+                                                       WorkflowExecutionContext context) throws ConductorException {
+        if (approvalStore == null) {
+            throw new ConductorException("Stage '" + stage.getName() + "' of run '" + runId +
+                "' is awaiting deferred approval; enable deferred approval to resume the run");
+        }
+
+        Optional<ApprovalResponse> response = approvalStore.getResponse(runId, stage.getName());
+        if (response.isEmpty()) {
+            long timeoutMs = ConsoleApprovalHandler.parseTimeout(stage.getApproval().getTimeout());
+            long requestTime = approvalStore.getRequest(runId, stage.getName())
+                .map(pending -> pending.request().getRequestTime())
+                .orElse(result.getEndTime());
+            if (System.currentTimeMillis() - requestTime < timeoutMs) {
+                logger.info("Stage '{}' of run '{}' is still awaiting approval", stage.getName(), runId);
+                return result;
+            }
+            logger.error("Approval request timed out for stage '{}' of run '{}'", stage.getName(), runId);
+            result.setAwaitingApproval(false);
+            result.setErrorMessage("Approval request timed out after " + timeoutMs + "ms");
+            return result;
+        }
+
+        ApprovalResponse approval = response.get();
+        logger.info("Approval response for stage '{}' of run '{}': {} ({})",
+            stage.getName(), runId, approval.getDecision(), approval.getFeedback());
+        result.setAwaitingApproval(false);
+        result.setApproved(approval.isApproved());
+        if (approval.getFeedback() != null) {
+            result.setApprovalFeedback(approval.getFeedback());
+        }
+        if (!approval.isApproved()) {
+            result.setErrorMessage("Stage rejected by human reviewer");
+            return result;
+        }
+
+        result.setSuccess(true);
+        result.setErrorMessage(null);
+        generateStageOutputFiles(stage, result, context);
+        return result;
+    }
+
+    /**
+     * Ends a run suspended until the approvals its stages await are answered.
+     */
+    private static WorkflowExecutionResult suspendRun(WorkflowExecutionResult result, String runId) {
+        List<String> awaitingStages = result.getAwaitingApprovalStages();
+        logger.info("Run '{}' suspended awaiting approval of stage(s) {}", runId, awaitingStages);
+        result.setSuccess(false);
+        result.setErrorMessage("Awaiting human approval of stage(s): " + String.join(", ", awaitingStages));
+        return result;
+    }
+
+    private static WorkflowStage findStage(List<WorkflowStage> stages, String stageName) {
+        return stages.stream()
+            .filter(stage -> stage.getName().equals(stageName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Unknown stage: " + stageName));
+    }
+
     /**
      * Determines if workflow execution should continue after a stage failure.
      */
@@ -900,7 +1643,9 @@ public class YamlWorkflowEngine implements WorkflowEngine {
         this.context = context;
 
         try {
-            WorkflowExecutionResult result = executeInternal();
+            AgentConfigCollection agents = agentConfig;
+            validateConfiguration(definition, agents);
+            WorkflowExecutionResult result = runWorkflow(definition, agents, context, runId);
             return new YamlWorkflowResult(result);
         } catch (Exception e) {
             logger.error("YAML workflow execution failed for definition: {}", definition.getMetadata().getName(), e);
@@ -1012,7 +1757,7 @@ public class YamlWorkflowEngine implements WorkflowEngine {
 
         @Override
         public int getActiveExecutionCount() {
-            return closed ? 0 : (completedStageResults.isEmpty() ? 0 : 1);
+            return closed ? 0 : activeRuns.size();
         }
 
         @Override
@@ -1024,9 +1769,14 @@ public class YamlWorkflowEngine implements WorkflowEngine {
             metadata.put("context_loaded", context != null);
             metadata.put("orchestrator_available", orchestrator != null);
             metadata.put("approval_handler_available", approvalHandler != null);
-            metadata.put("parallel_executor_shutdown", parallelExecutor != null ? parallelExecutor.isShutdown() : true);
-            metadata.put("completed_stages_count", completedStageResults.size());
-            metadata.put("agent_cache_size", agentCache.size());
+            metadata.put("checkpointing_enabled", runId != null && memoryStore != null);
+            metadata.put("memoization_enabled", resultMemo != null);
+            metadata.put("parallel_executor_shutdown", executionPool.isClosed());
+            metadata.put("shared_execution_pool", !ownsExecutionPool);
+            metadata.put("active_executions", activeRuns.size());
+            metadata.put("completed_stages_count", activeRuns.stream()
+                .mapToInt(run -> run.getCompletedStageResults().size()).sum());
+            metadata.put("agent_cache_size", executionPool.getAgentCount());
             metadata.put("closed", closed);
             if (workflowDefinition != null) {
                 metadata.put("workflow_name", workflowDefinition.getMetadata().getName());
@@ -1040,13 +1790,14 @@ public class YamlWorkflowEngine implements WorkflowEngine {
     @Override
     public void close() {
         if (!closed) {
-            // Clean up resources
-            agentCache.clear();
-            completedStageResults.clear();
+            // Abandon runs still executing so they release their capacity
+            for (WorkflowExecutionContext run : activeRuns) {
+                run.getCancellationToken().cancel("workflow engine closed");
+            }
 
-            // Shutdown parallel executor
-            if (parallelExecutor != null && !parallelExecutor.isShutdown()) {
-                parallelExecutor.shutdown();
+            // Shutdown the execution pool unless it is shared with other engines
+            if (ownsExecutionPool) {
+                executionPool.close();
             }
 
             // Close approval handler if it supports cleanup
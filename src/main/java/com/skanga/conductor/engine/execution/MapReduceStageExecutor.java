@@ -0,0 +1,192 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.BoundedParallel;
+import com.skanga.conductor.execution.CancellationToken;
+import com.skanga.conductor.provider.UsageScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Executes map-reduce stages: a map step over input chunks in parallel,
+ * followed by a reduce step combining the partial results.
+ * <p>
+ * Chunks are mapped concurrently on virtual threads, at most {@code maxConcurrent}
+ * at a time, which bounds the load put on the LLM provider. Partial results are
+ * then combined by the reducer. When there are more partial results than the
+ * fan-in, they are reduced in a tree: groups of up to {@code fanIn} partials are
+ * reduced in parallel into intermediate results, level by level, until a single
+ * final reduce call combines at most {@code fanIn} of them. Every reduce prompt
+ * thus stays within the context limit regardless of the input size.
+ * </p>
+ * <p>
+ * The first failing chunk or reduce call fails the stage and cancels the calls
+ * still running, through the {@link CancellationToken} bound to the caller.
+ * The {@link UsageScope} of the caller is bound on the worker threads as well, so
+ * the LLM usage of every call is attributed to the stage and charged to its budget.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see TextChunker
+ */
+public class MapReduceStageExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapReduceStageExecutor.class);
+
+    /** Separator placed between partial results combined without a reducer. */
+    public static final String PARTIAL_SEPARATOR = "\n\n";
+
+    private final int maxConcurrent;
+    private final int fanIn;
+
+    /**
+     * Processes one chunk of the input.
+     */
+    @FunctionalInterface
+    public interface ChunkMapper {
+        /**
+         * Maps a chunk to its partial result.
+         *
+         * @param chunk the chunk
+         * @param index the zero-based index of the chunk
+         * @param total the number of chunks
+         * @return the partial result
+         * @throws ConductorException if the chunk cannot be processed
+         */
+        String map(String chunk, int index, int total) throws ConductorException;
+    }
+
+    /**
+     * Combines partial results.
+     */
+    @FunctionalInterface
+    public interface PartialReducer {
+        /**
+         * Reduces partial results into one.
+         *
+         * @param partials the partial results, in input order
+         * @param finalReduce true for the call producing the stage output, false
+         *                    for intermediate levels of a tree reduction
+         * @return the combined result
+         * @throws ConductorException if the partial results cannot be combined
+         */
+        String reduce(List<String> partials, boolean finalReduce) throws ConductorException;
+    }
+
+    /**
+     * Result of a map-reduce execution.
+     *
+     * @param output the combined output
+     * @param chunkCount the number of chunks mapped
+     * @param reduceCalls the number of reduce calls made
+     * @param reduceLevels the depth of the reduction tree; 0 without a reducer
+     */
+    public record Result(String output, int chunkCount, int reduceCalls, int reduceLevels) {
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param maxConcurrent the maximum number of map or reduce calls running at once
+     * @param fanIn the maximum number of partial results combined by one reduce call
+     */
+    public MapReduceStageExecutor(int maxConcurrent, int fanIn) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn must be at least 2");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * Maps all chunks and reduces the partial results.
+     *
+     * @param chunks the input chunks
+     * @param mapper the mapper applied to each chunk
+     * @param reducer the reducer, or null to join partial results with {@link #PARTIAL_SEPARATOR}
+     * @return the combined result
+     * @throws ConductorException if a chunk or reduce call fails, or the execution is cancelled
+     */
+    public Result execute(List<String> chunks, ChunkMapper mapper, PartialReducer reducer) throws ConductorException {
+        if (chunks.isEmpty()) {
+            throw new ConductorException("Map-reduce input is empty");
+        }
+
+        int total = chunks.size();
+        List<Call> mapCalls = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            mapCalls.add(() -> mapper.map(chunks.get(index), index, total));
+        }
+        List<String> partials = runAll(mapCalls, "map");
+        logger.debug("Mapped {} chunk(s)", total);
+
+        if (reducer == null) {
+            return new Result(String.join(PARTIAL_SEPARATOR, partials), total, 0, 0);
+        }
+
+        int reduceCalls = 0;
+        int levels = 0;
+        while (partials.size() > fanIn) {
+            List<Call> groupCalls = new ArrayList<>();
+            for (int from = 0; from < partials.size(); from += fanIn) {
+                List<String> group = partials.subList(from, Math.min(from + fanIn, partials.size()));
+                groupCalls.add(group.size() == 1 ? () -> group.get(0) : () -> reducer.reduce(group, false));
+                reduceCalls += group.size() == 1 ? 0 : 1;
+            }
+            partials = runAll(groupCalls, "reduce");
+            levels++;
+            logger.debug("Reduced to {} partial result(s) at level {}", partials.size(), levels);
+        }
+
+        CancellationToken.current().throwIfCancelled();
+        String output = reducer.reduce(partials, true);
+        return new Result(output, total, reduceCalls + 1, levels + 1);
+    }
+
+    @FunctionalInterface
+    private interface Call extends Callable<String> {
+        @Override
+        String call() throws ConductorException;
+    }
+
+    /**
+     * Runs calls concurrently, bounded by {@code maxConcurrent}, and returns their results in order.
+     */
+    private List<String> runAll(List<Call> calls, String step) throws ConductorException {
+        try {
+            return BoundedParallel.invokeAll(calls, maxConcurrent, "map-reduce-" + step);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConductorException conductorException) {
+                throw conductorException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ConductorException("Map-reduce " + step + " call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConductorException("Map-reduce " + step + " step interrupted", e);
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getFanIn() {
+        return fanIn;
+    }
+}
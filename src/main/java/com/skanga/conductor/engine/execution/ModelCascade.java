@@ -0,0 +1,136 @@
+package com.skanga.conductor.engine.execution;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Ordered tiers of models a stage escalates through, cheapest and fastest first.
+ * <p>
+ * A stage executed with a cascade makes its first attempt with the agent of the
+ * first tier and only moves to the next, larger tier when the attempt is not good
+ * enough: the result validator rejects the output, the confidence check flags it,
+ * or the agent fails. Stages that pass on a small model never pay for a large one,
+ * which cuts the median latency and cost of workflows whose stages mostly pass.
+ * </p>
+ * <p>
+ * The confidence check is a cheap heuristic applied to outputs that passed
+ * validation. It is skipped on the last tier, whose output is accepted as it is.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see StageExecutor.ExecutionConfig.Builder#cascade(ModelCascade)
+ */
+public final class ModelCascade {
+
+    /** Openings of outputs whose model was unsure or declined the task. */
+    public static final List<String> DEFAULT_REFUSAL_PREFIXES = List.of(
+        "i'm not sure", "i am not sure", "i don't know", "i do not know", "i'm unable to", "i am unable to",
+        "i cannot", "i can't", "as an ai", "i apologize", "sorry, i", "i'm sorry");
+
+    /**
+     * One tier of the cascade.
+     *
+     * @param name the tier name, typically the model, used in logs and metrics
+     * @param agentCreator creates or retrieves the agent of the tier
+     */
+    public record Tier(String name, StageExecutor.AgentCreator agentCreator) {
+        public Tier {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("tier name cannot be null or blank");
+            }
+            if (agentCreator == null) {
+                throw new IllegalArgumentException("tier agent creator cannot be null");
+            }
+        }
+    }
+
+    private final List<Tier> tiers;
+    private final Predicate<String> lowConfidence;
+
+    /**
+     * Creates a cascade.
+     *
+     * @param tiers the tiers, cheapest first
+     * @param lowConfidence returns true for outputs not trusted enough to accept
+     *                      below the last tier, or null to trust every valid output
+     */
+    public ModelCascade(List<Tier> tiers, Predicate<String> lowConfidence) {
+        if (tiers == null || tiers.isEmpty()) {
+            throw new IllegalArgumentException("cascade must have at least one tier");
+        }
+        this.tiers = List.copyOf(tiers);
+        this.lowConfidence = lowConfidence;
+    }
+
+    /**
+     * Creates the default confidence check, which flags outputs that are shorter
+     * than a minimum length, or that open with one of the
+     * {@link #DEFAULT_REFUSAL_PREFIXES}.
+     *
+     * @param minLength the minimum length in characters of a trusted output
+     * @return the check, returning true for outputs with low confidence
+     */
+    public static Predicate<String> confidenceCheck(int minLength) {
+        return confidenceCheck(minLength, DEFAULT_REFUSAL_PREFIXES);
+    }
+
+    /**
+     * Creates a confidence check, which flags outputs that are shorter than a
+     * minimum length, or that open with one of the given refusal prefixes.
+     * <p>
+     * Only the start of the output is matched, ignoring case, so answers that
+     * quote or discuss a refusal phrase further in are trusted.
+     * </p>
+     *
+     * @param minLength the minimum length in characters of a trusted output
+     * @param refusalPrefixes the openings of untrusted outputs
+     * @return the check, returning true for outputs with low confidence
+     */
+    public static Predicate<String> confidenceCheck(int minLength, List<String> refusalPrefixes) {
+        List<String> prefixes = refusalPrefixes.stream()
+            .map(prefix -> prefix.strip().toLowerCase(Locale.ROOT))
+            .filter(prefix -> !prefix.isEmpty())
+            .toList();
+        return output -> {
+            if (output == null || output.isBlank() || output.strip().length() < minLength) {
+                return true;
+            }
+            String opening = output.strip().toLowerCase(Locale.ROOT);
+            for (String prefix : prefixes) {
+                if (opening.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    public List<Tier> getTiers() {
+        return tiers;
+    }
+
+    public int getTierCount() {
+        return tiers.size();
+    }
+
+    /**
+     * Gets a tier.
+     *
+     * @param index the index of the tier, 0 for the cheapest
+     * @return the tier
+     */
+    public Tier getTier(int index) {
+        return tiers.get(index);
+    }
+
+    /**
+     * Checks whether an output is not trusted enough to accept.
+     *
+     * @param output the output of an attempt that passed validation
+     * @return true if the output should be escalated to the next tier
+     */
+    public boolean isLowConfidence(String output) {
+        return lowConfidence != null && lowConfidence.test(output);
+    }
+}
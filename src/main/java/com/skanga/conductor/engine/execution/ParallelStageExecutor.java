@@ -5,8 +5,12 @@ import com.skanga.conductor.workflow.config.WorkflowStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.function.Function;
 
@@ -22,6 +26,8 @@ public class ParallelStageExecutor {
     private final int maxParallelism;
     private final long defaultTimeoutMs;
 
+    private static final long WORKER_CHECK_INTERVAL_MS = 1000;
+
     /**
      * Creates a parallel stage executor with the specified configuration.
      */
@@ -43,6 +49,235 @@ public class ParallelStageExecutor {
             maxParallelism, defaultTimeoutMs);
     }
 
+    /**
+     * Creates a parallel stage executor that runs stages on the given executor service.
+     * <p>
+     * Use this constructor to share one executor service across many concurrent
+     * workflow runs instead of creating a thread pool per engine.
+     * </p>
+     *
+     * @param executorService executor service for running stages
+     * @param maxParallelism maximum number of stages executed in parallel per wave
+     * @param defaultTimeoutMs timeout for individual stage execution
+     */
+    public ParallelStageExecutor(ExecutorService executorService, int maxParallelism, long defaultTimeoutMs) {
+        if (executorService == null) {
+            throw new IllegalArgumentException("executor service cannot be null");
+        }
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism must be at least 1");
+        }
+        this.executorService = executorService;
+        this.maxParallelism = maxParallelism;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    /**
+     * Executes a single workflow stage.
+     *
+     * @param <R> the stage result type
+     */
+    @FunctionalInterface
+    public interface StageTask<R> {
+        /**
+         * Executes the given stage.
+         *
+         * @param stage the stage to execute
+         * @return the stage result
+         * @throws ConductorException if the stage fails
+         */
+        R execute(WorkflowStage stage) throws ConductorException;
+    }
+
+    /**
+     * Provides the timeout of each stage of a wave.
+     */
+    public interface StageTimeouts {
+        /**
+         * Gets the timeout of a stage, measured from its start.
+         *
+         * @param stage the stage
+         * @return the timeout in milliseconds
+         */
+        long timeoutMs(WorkflowStage stage);
+
+        /**
+         * Called when a stage has exceeded its timeout.
+         *
+         * @param stage the stage
+         * @param timeoutMs the timeout it exceeded
+         */
+        default void onTimeout(WorkflowStage stage, long timeoutMs) {
+        }
+    }
+
+    /**
+     * Executes the given stages in parallel, passing each stage to the task.
+     * Every stage is given the default timeout.
+     *
+     * @param stages the stages to execute
+     * @param task the task executing a single stage
+     * @return map of stage names to their execution results
+     * @throws ConductorException if any stage fails, times out or is interrupted
+     */
+    public <R> Map<String, R> executeStages(List<WorkflowStage> stages, StageTask<R> task) throws ConductorException {
+        return executeStages(stages, task, stage -> defaultTimeoutMs);
+    }
+
+    /**
+     * Executes the given stages in parallel with individual timeouts.
+     * <p>
+     * At most {@link #getMaxParallelism()} stages run at a time, and they start
+     * in list order: a caller ordering the stages by priority, such as by
+     * critical path, decides which stages get the free slots first. Each
+     * timeout is measured from the start of its stage, so time spent waiting
+     * for a slot is not charged to it. The first stage to fail or time out
+     * fails the wave at once, and the stages still running are interrupted.
+     * </p>
+     *
+     * @param stages the stages to execute, in the order they should start
+     * @param task the task executing a single stage
+     * @param timeouts the timeout of each stage
+     * @return map of stage names to their execution results
+     * @throws ConductorException if any stage fails, times out or is interrupted
+     */
+    public <R> Map<String, R> executeStages(List<WorkflowStage> stages, StageTask<R> task,
+                                            StageTimeouts timeouts) throws ConductorException {
+        Map<String, CompletableFuture<R>> stageResults = new LinkedHashMap<>();
+        Map<String, WorkflowStage> stagesByName = new HashMap<>();
+        CompletableFuture<String> firstFailure = new CompletableFuture<>();
+        for (WorkflowStage stage : stages) {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    firstFailure.complete(stage.getName());
+                }
+            });
+            stageResults.put(stage.getName(), result);
+            stagesByName.put(stage.getName(), stage);
+        }
+        CompletableFuture<Void> allDone = CompletableFuture.allOf(
+            stageResults.values().toArray(new CompletableFuture<?>[0]));
+        Map<String, Long> startedTimeouts = new ConcurrentHashMap<>();
+
+        // Workers take the stages in list order, so the first stages get the first slots
+        Queue<WorkflowStage> pending = new ConcurrentLinkedQueue<>(stages);
+        int workerCount = Math.min(stages.size(), maxParallelism);
+        List<Future<?>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(executorService.submit(() -> runPendingStages(pending, stageResults, startedTimeouts,
+                task, timeouts)));
+        }
+
+        try {
+            awaitStages(allDone, firstFailure, workers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelWorkers(pending, workers);
+            throw new ConductorException("Stage execution was interrupted", e);
+        }
+
+        // The last stage failing may complete allDone before firstFailure
+        String failedStage = firstFailure.getNow(null);
+        if (failedStage == null) {
+            failedStage = stageResults.entrySet().stream()
+                .filter(entry -> entry.getValue().isCompletedExceptionally())
+                .map(Map.Entry::getKey)
+                .findFirst().orElse(null);
+        }
+        if (failedStage != null) {
+            cancelWorkers(pending, workers);
+            throw stageFailure(stagesByName.get(failedStage), stageResults.get(failedStage).exceptionNow(),
+                startedTimeouts, timeouts);
+        }
+        Map<String, R> results = new ConcurrentHashMap<>();
+        for (Map.Entry<String, CompletableFuture<R>> entry : stageResults.entrySet()) {
+            if (!entry.getValue().isDone()) {
+                cancelWorkers(pending, workers);
+                throw new ConductorException("Stage '" + entry.getKey() +
+                    "' was not run: the executor stopped its workers");
+            }
+            results.put(entry.getKey(), entry.getValue().join());
+        }
+        return results;
+    }
+
+    /**
+     * Waits until every stage has completed or one has failed. Each started stage
+     * completes by its timeout at the latest, so a stage timing out is noticed
+     * while earlier stages are still running; the workers are checked
+     * periodically in case the executor dropped them before they took the
+     * remaining stages.
+     */
+    private static void awaitStages(CompletableFuture<Void> allDone, CompletableFuture<String> firstFailure,
+                                    List<Future<?>> workers) throws InterruptedException {
+        CompletableFuture<Object> finished = CompletableFuture.anyOf(allDone, firstFailure);
+        while (true) {
+            try {
+                finished.get(WORKER_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (ExecutionException e) {
+                return;
+            } catch (TimeoutException e) {
+                if (workers.stream().allMatch(Future::isDone) && !finished.isDone()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static ConductorException stageFailure(WorkflowStage stage, Throwable cause,
+                                                   Map<String, Long> startedTimeouts, StageTimeouts timeouts) {
+        String stageName = stage.getName();
+        if (cause instanceof TimeoutException) {
+            long timeoutMs = startedTimeouts.get(stageName);
+            timeouts.onTimeout(stage, timeoutMs);
+            return new ConductorException("Stage '" + stageName + "' timed out after " + timeoutMs + "ms", cause);
+        }
+        if (cause instanceof ConductorException conductorException) {
+            return conductorException;
+        }
+        return new ConductorException("Stage '" + stageName + "' failed during execution: " +
+            cause.getMessage(), cause);
+    }
+
+    /**
+     * Runs pending stages one after another until none are left, starting the
+     * timeout of each stage when it starts. A stage returning with the interrupt
+     * flag of its thread set, as the code runner does after an interrupted
+     * snippet, does not stop the stages after it; cancelling the workers drops
+     * the pending stages instead.
+     */
+    private <R> void runPendingStages(Queue<WorkflowStage> pending, Map<String, CompletableFuture<R>> stageResults,
+                                      Map<String, Long> startedTimeouts, StageTask<R> task,
+                                      StageTimeouts timeouts) {
+        WorkflowStage stage;
+        while ((stage = pending.poll()) != null) {
+            Thread.interrupted();
+            CompletableFuture<R> result = stageResults.get(stage.getName());
+            try {
+                long timeoutMs = timeouts.timeoutMs(stage);
+                startedTimeouts.put(stage.getName(), timeoutMs);
+                result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+                result.complete(task.execute(stage));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Drops the stages not started yet and interrupts the stages still running.
+     */
+    private void cancelWorkers(Queue<WorkflowStage> pending, List<Future<?>> workers) {
+        pending.clear();
+        for (Future<?> worker : workers) {
+            if (!worker.isDone()) {
+                worker.cancel(true);
+            }
+        }
+    }
+
     /**
      * Executes a wave of stages in parallel.
      *
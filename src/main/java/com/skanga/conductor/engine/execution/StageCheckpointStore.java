@@ -0,0 +1,200 @@
+package com.skanga.conductor.engine.execution;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.memory.OutputBlobStore;
+import com.skanga.conductor.utils.JsonUtils;
+import com.skanga.conductor.workflow.config.WorkflowDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable per-stage checkpoints for YAML workflow runs.
+ * <p>
+ * Each successfully completed stage of a run is persisted to the {@link MemoryStore}
+ * keyed by the workflow run ID. When a run with the same ID is executed again, the
+ * engine restores the checkpointed stages instead of re-executing them and resumes
+ * from the first incomplete wave. The engine clears the checkpoints of a run once
+ * it completes successfully; those of failed or suspended runs are kept until the
+ * run is resumed to completion or they are removed with {@link #clear(String)}.
+ * </p>
+ * <p>
+ * Stages suspended while awaiting deferred approval are checkpointed as well, so
+ * that their output is restored, rather than regenerated, once the approval is given.
+ * </p>
+ * <p>
+ * Every checkpoint records a hash of the workflow definition it was produced with.
+ * Resuming a run against a changed definition is rejected, since the restored
+ * outputs may no longer match the stages that would consume them.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe; all state lives in the memory store.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see MemoryStore#saveStageCheckpoint(String, String, String, String)
+ */
+public class StageCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageCheckpointStore.class);
+
+    private final MemoryStore memoryStore;
+
+    /**
+     * Serializable snapshot of a {@link StageExecutionResult}.
+     */
+    static class Snapshot {
+        public long startTime;
+        public long endTime;
+        public boolean success;
+        public String errorMessage;
+        public String agentResponse;
+        public String reviewResponse;
+        public boolean approvalRequested;
+        public boolean approved;
+        public boolean awaitingApproval;
+        public String approvalFeedback;
+        public List<String> generatedFiles = new ArrayList<>();
+        public List<String> outputErrors = new ArrayList<>();
+
+        static Snapshot of(StageExecutionResult result) {
+            Snapshot snapshot = new Snapshot();
+            snapshot.startTime = result.getStartTime();
+            snapshot.endTime = result.getEndTime();
+            snapshot.success = result.isSuccess();
+            snapshot.errorMessage = result.getErrorMessage();
+            snapshot.agentResponse = result.getAgentResponse();
+            snapshot.reviewResponse = result.getReviewResponse();
+            snapshot.approvalRequested = result.isApprovalRequested();
+            snapshot.approved = result.isApproved();
+            snapshot.awaitingApproval = result.isAwaitingApproval();
+            snapshot.approvalFeedback = result.getApprovalFeedback();
+            for (Path file : result.getGeneratedFiles()) {
+                snapshot.generatedFiles.add(file.toString());
+            }
+            snapshot.outputErrors.addAll(result.getOutputErrors());
+            return snapshot;
+        }
+
+        StageExecutionResult toResult() {
+            StageExecutionResult result = new StageExecutionResult();
+            result.setStartTime(startTime);
+            result.setEndTime(endTime);
+            result.setSuccess(success);
+            result.setErrorMessage(errorMessage);
+            result.setAgentResponse(agentResponse);
+            result.setReviewResponse(reviewResponse);
+            result.setApprovalRequested(approvalRequested);
+            result.setApproved(approved);
+            result.setAwaitingApproval(awaitingApproval);
+            result.setApprovalFeedback(approvalFeedback);
+            if (generatedFiles != null) {
+                for (String file : generatedFiles) {
+                    result.addGeneratedFile(Path.of(file));
+                }
+            }
+            if (outputErrors != null) {
+                outputErrors.forEach(result::addOutputError);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Creates a checkpoint store backed by the given memory store.
+     *
+     * @param memoryStore the memory store used to persist checkpoints
+     */
+    public StageCheckpointStore(MemoryStore memoryStore) {
+        if (memoryStore == null) {
+            throw new IllegalArgumentException("memory store cannot be null");
+        }
+        this.memoryStore = memoryStore;
+    }
+
+    /**
+     * Computes a stable hash of a workflow definition.
+     * <p>
+     * The definition is serialized to JSON with map entries ordered by key, so
+     * the hash only changes when the definition content changes.
+     * </p>
+     *
+     * @param definition the workflow definition
+     * @return the hex-encoded SHA-256 hash of the definition
+     */
+    public static String computeDefinitionHash(WorkflowDefinition definition) {
+        try {
+            String json = JsonUtils.getObjectMapper()
+                .writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsString(definition);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new com.skanga.conductor.exception.JsonProcessingException("Failed to serialize workflow definition", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Persists the result of a completed stage.
+     *
+     * @param runId the workflow run ID
+     * @param definitionHash hash of the workflow definition being executed
+     * @param stageName the name of the completed stage
+     * @param result the stage result
+     */
+    public void save(String runId, String definitionHash, String stageName, StageExecutionResult result) {
+        memoryStore.saveStageCheckpoint(runId, stageName, definitionHash, JsonUtils.toJson(Snapshot.of(result)));
+        logger.debug("Checkpointed stage '{}' for run '{}'", stageName, runId);
+    }
+
+    /**
+     * Loads the completed stages of a workflow run, including the stages awaiting approval.
+     *
+     * @param runId the workflow run ID
+     * @param definitionHash hash of the workflow definition about to be executed
+     * @return completed stage results keyed by stage name (empty for a new run)
+     * @throws ConductorException if the run was checkpointed against a different workflow definition
+     */
+    public Map<String, StageExecutionResult> loadCompletedStages(String runId, String definitionHash)
+            throws ConductorException {
+        Map<String, StageExecutionResult> completed = new HashMap<>();
+        for (MemoryStore.StageCheckpoint checkpoint : memoryStore.loadStageCheckpoints(runId)) {
+            if (!definitionHash.equals(checkpoint.definitionHash())) {
+                throw new ConductorException("Workflow definition changed since run '" + runId +
+                    "' was checkpointed (stage '" + checkpoint.stageName() + "'); refusing to resume. " +
+                    "Use a new run ID or clear the checkpoints of this run");
+            }
+            Snapshot snapshot = JsonUtils.fromJson(checkpoint.resultJson(), Snapshot.class);
+            if (snapshot != null && (snapshot.success || snapshot.awaitingApproval)) {
+                StageExecutionResult result = snapshot.toResult();
+                result.spillResponses(OutputBlobStore.getInstance());
+                completed.put(checkpoint.stageName(), result);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Removes all checkpoints of a workflow run.
+     *
+     * @param runId the workflow run ID
+     * @return the number of removed checkpoints
+     */
+    public int clear(String runId) {
+        return memoryStore.deleteStageCheckpoints(runId);
+    }
+}
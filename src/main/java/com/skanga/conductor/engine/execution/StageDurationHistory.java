@@ -0,0 +1,85 @@
+package com.skanga.conductor.engine.execution;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical stage durations, recorded per workflow and stage name.
+ * <p>
+ * Each stage keeps an exponentially weighted moving average of its observed
+ * durations, so estimates follow gradual changes in provider latency while
+ * smoothing out single slow runs. The estimates weight the critical path used
+ * by {@link StageExecutionPlan#getRemainingPathWeights(java.util.function.ToDoubleFunction)}
+ * to start long dependency chains first.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class StageDurationHistory {
+
+    /** Weight of the newest observation in the moving average. */
+    private static final double SMOOTHING = 0.3;
+
+    private final Map<String, Map<String, Double>> durations = new ConcurrentHashMap<>();
+
+    /**
+     * Records the duration of a completed stage.
+     *
+     * @param workflowName the workflow the stage belongs to
+     * @param stageName the stage name
+     * @param durationMs the observed duration in milliseconds
+     */
+    public void record(String workflowName, String stageName, long durationMs) {
+        if (workflowName == null || stageName == null || durationMs < 0) {
+            return;
+        }
+        durations.computeIfAbsent(workflowName, k -> new ConcurrentHashMap<>())
+            .merge(stageName, (double) durationMs,
+                (previous, observed) -> previous + SMOOTHING * (observed - previous));
+    }
+
+    /**
+     * Gets the estimated duration of a stage.
+     * <p>
+     * Stages without history are estimated at the average of the other stages
+     * of the workflow, or 1 ms if the workflow has no history at all, so that
+     * unknown stages are weighted by the length of their dependency chain.
+     * </p>
+     *
+     * @param workflowName the workflow the stage belongs to
+     * @param stageName the stage name
+     * @return the estimated duration in milliseconds
+     */
+    public double estimateMillis(String workflowName, String stageName) {
+        Map<String, Double> stages = workflowName != null ? durations.get(workflowName) : null;
+        if (stages == null || stages.isEmpty() || stageName == null) {
+            return 1.0;
+        }
+        Double estimate = stages.get(stageName);
+        if (estimate != null) {
+            return Math.max(estimate, 1.0);
+        }
+        return Math.max(stages.values().stream().mapToDouble(Double::doubleValue).average().orElse(1.0), 1.0);
+    }
+
+    /**
+     * Checks if any duration has been recorded for a workflow.
+     *
+     * @param workflowName the workflow name
+     * @return true if the workflow has stage history
+     */
+    public boolean hasHistory(String workflowName) {
+        Map<String, Double> stages = workflowName != null ? durations.get(workflowName) : null;
+        return stages != null && !stages.isEmpty();
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void clear() {
+        durations.clear();
+    }
+}
@@ -5,12 +5,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 /**
  * Manages the execution plan for workflow stages, handling dependencies and parallel execution.
  * Uses topological sorting to determine the correct execution order and identifies
  * stages that can be executed in parallel.
+ * <p>
+ * A plan depends only on the stage definitions, so it can be built once per
+ * workflow definition and reused by every run. Within a wave, stages can be
+ * ordered longest-remaining-path first with {@link #orderByCriticalPath}, so that
+ * when fewer execution slots than stages are available the stages heading the
+ * longest dependency chains start first.
+ * </p>
  */
 public class StageExecutionPlan {
 
@@ -258,4 +266,52 @@ public class StageExecutionPlan {
             Collections.emptyList() :
             executionWaves.get(executionWaves.size() - 1).getStages();
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Computes the weight of the heaviest dependency chain starting at each stage.
+     * <p>
+     * The remaining path weight of a stage is its own weight plus the largest
+     * remaining path weight of the stages depending on it. Computed in reverse
+     * wave order, this takes O(stages + dependencies).
+     * </p>
+     *
+     * @param stageWeight the weight of a stage by name, typically its expected duration
+     * @return map of stage names to their remaining path weights
+     */
+    public Map<String, Double> getRemainingPathWeights(ToDoubleFunction<String> stageWeight) {
+        Map<String, Double> remaining = new HashMap<>();
+        for (int i = executionWaves.size() - 1; i >= 0; i--) {
+            for (WorkflowStage stage : executionWaves.get(i).getStages()) {
+                String stageName = stage.getName();
+                double downstream = 0.0;
+                for (String dependent : dependents.get(stageName)) {
+                    downstream = Math.max(downstream, remaining.get(dependent));
+                }
+                remaining.put(stageName, stageWeight.applyAsDouble(stageName) + downstream);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Orders stages longest-remaining-path first.
+     * <p>
+     * Stages with equal remaining path weight keep their relative order.
+     * </p>
+     *
+     * @param stages the stages to order, typically the pending stages of a wave
+     * @param stageWeight the weight of a stage by name, typically its expected duration
+     * @return a new list with the stages on the critical path first
+     */
+    public List<WorkflowStage> orderByCriticalPath(List<WorkflowStage> stages, ToDoubleFunction<String> stageWeight) {
+        if (stages.size() < 2) {
+            return new ArrayList<>(stages);
+        }
+        Map<String, Double> remaining = getRemainingPathWeights(stageWeight);
+        List<WorkflowStage> ordered = new ArrayList<>(stages);
+        ordered.sort(Comparator.comparingDouble(
+            (WorkflowStage stage) -> remaining.getOrDefault(stage.getName(), 0.0)).reversed());
+        return ordered;
+    }
+}
@@ -1,11 +1,21 @@
 package com.skanga.conductor.engine.execution;
 
+import com.skanga.conductor.memory.ContentHandle;
+import com.skanga.conductor.memory.OutputBlobStore;
 import com.skanga.conductor.workflow.config.IterativeWorkflowStage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * Result of executing a single workflow stage.
  * Contains timing information, agent responses, and success status.
  * Also supports iterative stage results with multiple iterations.
+ * <p>
+ * Responses are held as {@link ContentHandle}s, so large responses of completed
+ * stages can be moved to disk with {@link #spillResponses(OutputBlobStore)} while
+ * the rest of the workflow runs.
+ * </p>
  */
 public class StageExecutionResult {
 
@@ -13,10 +23,11 @@ public class StageExecutionResult {
     private long endTime;
     private boolean success = true;
     private String errorMessage;
-    private String agentResponse;
-    private String reviewResponse;
+    private ContentHandle agentResponse;
+    private ContentHandle reviewResponse;
     private boolean approvalRequested = false;
     private boolean approved = false;
+    private boolean awaitingApproval = false;
     private String approvalFeedback;
     private java.util.List<java.nio.file.Path> generatedFiles = new java.util.ArrayList<>();
     private java.util.List<String> outputErrors = new java.util.ArrayList<>();
@@ -58,19 +69,43 @@ public class StageExecutionResult {
     }
 
     public String getAgentResponse() {
-        return agentResponse;
+        return agentResponse != null ? agentResponse.asString() : null;
     }
 
     public void setAgentResponse(String agentResponse) {
-        this.agentResponse = agentResponse;
+        this.agentResponse = ContentHandle.inline(agentResponse);
+    }
+
+    /**
+     * Gets the handle to the agent response, for streaming it without loading it.
+     */
+    public ContentHandle getAgentResponseContent() {
+        return agentResponse;
     }
 
     public String getReviewResponse() {
-        return reviewResponse;
+        return reviewResponse != null ? reviewResponse.asString() : null;
     }
 
     public void setReviewResponse(String reviewResponse) {
-        this.reviewResponse = reviewResponse;
+        this.reviewResponse = ContentHandle.inline(reviewResponse);
+    }
+
+    /**
+     * Gets the handle to the review response, for streaming it without loading it.
+     */
+    public ContentHandle getReviewResponseContent() {
+        return reviewResponse;
+    }
+
+    /**
+     * Moves large agent and review responses to disk.
+     *
+     * @param store the store spilling responses above its threshold
+     */
+    public void spillResponses(OutputBlobStore store) {
+        agentResponse = store.spill(agentResponse);
+        reviewResponse = store.spill(reviewResponse);
     }
 
     public boolean isApprovalRequested() {
@@ -89,6 +124,18 @@ public class StageExecutionResult {
         this.approved = approved;
     }
 
+    /**
+     * Checks whether the stage was suspended with its approval deferred to a
+     * human, to be completed when the run is resumed.
+     */
+    public boolean isAwaitingApproval() {
+        return awaitingApproval;
+    }
+
+    public void setAwaitingApproval(boolean awaitingApproval) {
+        this.awaitingApproval = awaitingApproval;
+    }
+
     public String getApprovalFeedback() {
         return approvalFeedback;
     }
@@ -139,7 +186,7 @@ public class StageExecutionResult {
      * Checks if this stage had a review step.
      */
     public boolean hasReview() {
-        return reviewResponse != null && !reviewResponse.trim().isEmpty();
+        return reviewResponse != null && !reviewResponse.isBlank();
     }
 
     /**
@@ -149,9 +196,12 @@ public class StageExecutionResult {
         if (agentResponse == null) {
             return null;
         }
-        return agentResponse.length() > 100 ?
-            agentResponse.substring(0, 100) + "..." :
-            agentResponse;
+        try {
+            String head = agentResponse.head(100);
+            return agentResponse.length() > 100 ? head + "..." : head;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -2,8 +2,11 @@ package com.skanga.conductor.engine.execution;
 
 import com.skanga.conductor.agent.SubAgent;
 import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
 import com.skanga.conductor.templates.PromptTemplateEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -25,6 +29,7 @@ import java.util.function.Function;
  * <ul>
  * <li>Configurable retry logic with attempt tracking</li>
  * <li>Optional result validation after each attempt</li>
+ * <li>Optional model cascades, escalating from small to large models on rejected attempts</li>
  * <li>Comprehensive timing metrics</li>
  * <li>Template-based prompt preparation with variable substitution</li>
  * <li>Flexible agent creation through callback functions</li>
@@ -50,6 +55,10 @@ public class StageExecutor {
         private final Function<StageResult, ValidationResult> resultValidator;
         private final boolean enableAgentCaching;
         private final Map<String, Object> taskMetadata;
+        private final StageResultMemo resultMemo;
+        private final String memoFingerprint;
+        private final CancellationToken cancellationToken;
+        private final ModelCascade cascade;
 
         private ExecutionConfig(Builder builder) {
             this.stageName = builder.stageName;
@@ -57,6 +66,10 @@ public class StageExecutor {
             this.resultValidator = builder.resultValidator;
             this.enableAgentCaching = builder.enableAgentCaching;
             this.taskMetadata = builder.taskMetadata;
+            this.resultMemo = builder.resultMemo;
+            this.memoFingerprint = builder.memoFingerprint;
+            this.cancellationToken = builder.cancellationToken;
+            this.cascade = builder.cascade;
         }
 
         public String getStageName() { return stageName; }
@@ -64,6 +77,11 @@ public class StageExecutor {
         public Function<StageResult, ValidationResult> getResultValidator() { return resultValidator; }
         public boolean isAgentCachingEnabled() { return enableAgentCaching; }
         public Map<String, Object> getTaskMetadata() { return taskMetadata; }
+        public StageResultMemo getResultMemo() { return resultMemo; }
+        public String getMemoFingerprint() { return memoFingerprint; }
+        public boolean isMemoizationEnabled() { return resultMemo != null; }
+        public CancellationToken getCancellationToken() { return cancellationToken; }
+        public ModelCascade getCascade() { return cascade; }
 
         public static class Builder {
             private String stageName;
@@ -71,6 +89,10 @@ public class StageExecutor {
             private Function<StageResult, ValidationResult> resultValidator;
             private boolean enableAgentCaching = false;
             private Map<String, Object> taskMetadata = Collections.emptyMap();
+            private StageResultMemo resultMemo;
+            private String memoFingerprint;
+            private CancellationToken cancellationToken = CancellationToken.none();
+            private ModelCascade cascade;
 
             public Builder stageName(String stageName) {
                 this.stageName = stageName;
@@ -97,6 +119,59 @@ public class StageExecutor {
                 return this;
             }
 
+            /**
+             * Enables content-addressed memoization of the stage output.
+             * <p>
+             * The first attempt reuses a memoized output when the fingerprint and
+             * rendered prompt match a previous execution; outputs that pass
+             * validation are memoized for later runs.
+             * </p>
+             *
+             * @param memo the memo to consult, or null to disable memoization
+             * @param fingerprint fingerprint of the agent configuration and provider/model
+             * @return this builder
+             */
+            public Builder memoization(StageResultMemo memo, String fingerprint) {
+                this.resultMemo = memo;
+                this.memoFingerprint = fingerprint;
+                return this;
+            }
+
+            /**
+             * Sets the token cancelling the stage.
+             * <p>
+             * The token is bound to the executing thread for the duration of the
+             * stage, so agent calls, retries and rate limiting abort when it is
+             * cancelled. No further attempt is started once it is cancelled.
+             * </p>
+             *
+             * @param token the cancellation token, or null for none
+             * @return this builder
+             */
+            public Builder cancellationToken(CancellationToken token) {
+                this.cancellationToken = token != null ? token : CancellationToken.none();
+                return this;
+            }
+
+            /**
+             * Executes the stage through a cascade of models.
+             * <p>
+             * Attempts use the agents of the cascade tiers instead of the agent
+             * creator passed to {@link StageExecutor#executeStage}, starting with
+             * the first tier and escalating to the next one when an attempt fails,
+             * is rejected by the result validator, or is flagged by the confidence
+             * check of the cascade. The stage gets at least one attempt per tier;
+             * attempts left once the last tier is reached retry it.
+             * </p>
+             *
+             * @param cascade the cascade, or null to use the agent creator for every attempt
+             * @return this builder
+             */
+            public Builder cascade(ModelCascade cascade) {
+                this.cascade = cascade;
+                return this;
+            }
+
             public ExecutionConfig build() {
                 if (stageName == null || stageName.isEmpty()) {
                     throw new IllegalArgumentException("Stage name cannot be null or empty");
@@ -158,6 +233,9 @@ public class StageExecutor {
         private int attempt;
         private long executionTimeMs;
         private String agentUsed;
+        private boolean memoized;
+        private String memoKey;
+        private String tier;
 
         // Getters and setters
         public String getStageName() { return stageName; }
@@ -180,6 +258,15 @@ public class StageExecutor {
 
         public String getAgentUsed() { return agentUsed; }
         public void setAgentUsed(String agentUsed) { this.agentUsed = agentUsed; }
+
+        public boolean isMemoized() { return memoized; }
+        public void setMemoized(boolean memoized) { this.memoized = memoized; }
+
+        /**
+         * Gets the cascade tier that produced the output, or null outside cascades.
+         */
+        public String getTier() { return tier; }
+        public void setTier(String tier) { this.tier = tier; }
     }
 
     /**
@@ -270,29 +357,61 @@ public class StageExecutor {
 
         logger.info("=== STAGE: {} ===", config.getStageName());
 
+        try (CancellationToken.Scope ignored = config.getCancellationToken().bind()) {
+            return executeStageAttempts(config, agentCreator, promptPreparer, executionContext);
+        }
+    }
+
+    /**
+     * Runs the attempts of a stage with the cancellation token bound.
+     */
+    private StageResult executeStageAttempts(
+            ExecutionConfig config,
+            AgentCreator agentCreator,
+            PromptPreparer promptPreparer,
+            Map<String, Object> executionContext) throws ConductorException {
+        CancellationToken cancellationToken = config.getCancellationToken();
+        ModelCascade cascade = config.getCascade();
+        // A cascade gets at least one attempt per tier
+        int maxAttempts = cascade != null
+            ? Math.max(config.getMaxRetries(), cascade.getTierCount()) : config.getMaxRetries();
+        int tier = 0;
+
         StageResult result = null;
         Exception lastException = null;
 
-        // Retry loop: Execute the stage up to maxRetries times
+        // Retry loop: Execute the stage up to maxAttempts times
         // Each attempt:
-        // 1. Creates/retrieves an agent
+        // 1. Creates/retrieves an agent, of the current tier with a cascade
         // 2. Prepares the prompt with current context
         // 3. Executes the agent
         // 4. Validates the output (if validator provided)
-        // 5. Retries on failure or validation error (if retries remaining)
-        for (int attempt = 1; attempt <= config.getMaxRetries(); attempt++) {
-            logger.info("{} attempt {}/{}", config.getStageName(), attempt, config.getMaxRetries());
+        // 5. Retries on failure or validation error (if retries remaining), escalating
+        //    to the next tier with a cascade
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (cancellationToken.isCancelled()) {
+                throw new ConductorException("Stage " + config.getStageName() + " was cancelled: " +
+                    cancellationToken.getReason(), lastException);
+            }
+            if (cascade != null) {
+                logger.info("{} attempt {}/{} on tier {}", config.getStageName(), attempt, maxAttempts,
+                    cascade.getTier(tier).name());
+            } else {
+                logger.info("{} attempt {}/{}", config.getStageName(), attempt, maxAttempts);
+            }
 
             try {
                 // Execute one attempt of the stage
                 result = executeStageAttempt(
-                    config.getStageName(),
+                    config,
                     attempt,
-                    agentCreator,
+                    cascade != null ? cascade.getTier(tier).agentCreator() : agentCreator,
                     promptPreparer,
-                    config.getTaskMetadata(),
                     executionContext
                 );
+                if (cascade != null && !result.isMemoized()) {
+                    result.setTier(cascade.getTier(tier).name());
+                }
 
                 // Post-execution validation: Check if output meets quality requirements
                 // This allows retrying with better prompts if the LLM output is inadequate
@@ -301,18 +420,42 @@ public class StageExecutor {
                     if (!validation.isValid()) {
                         logger.warn("{} validation failed on attempt {}: {}",
                                   config.getStageName(), attempt, validation.getErrorMessage());
-                        if (attempt < config.getMaxRetries()) {
+                        if (attempt < maxAttempts) {
                             // More retries available - loop continues
+                            if (cascade != null) {
+                                tier = escalate(config, cascade, tier, "validation");
+                            }
                             logger.info("Retrying with enhanced constraints...");
                             continue; // Skip the success break and try again
                         } else {
                             // Last attempt failed validation but we're out of retries
                             // Accept the result anyway rather than failing completely
+                            if (cascade != null) {
+                                recordCascadeAttempt(config, cascade.getTier(tier), "rejected");
+                            }
                             logger.error("All validation attempts failed. Using result anyway.");
                         }
+                        break;
                     }
                 }
 
+                // Below the last tier, outputs the confidence check distrusts go to the next tier
+                if (cascade != null && !result.isMemoized() && tier < cascade.getTierCount() - 1
+                        && cascade.isLowConfidence(result.getOutput())) {
+                    logger.info("{} output of tier {} has low confidence", config.getStageName(),
+                        cascade.getTier(tier).name());
+                    tier = escalate(config, cascade, tier, "low_confidence");
+                    continue;
+                }
+                if (cascade != null && !result.isMemoized()) {
+                    recordCascadeAttempt(config, cascade.getTier(tier), "accepted");
+                }
+
+                // Memoize freshly produced output that passed validation (or had no validator)
+                if (result.memoKey != null && !result.isMemoized()) {
+                    memoize(config, result);
+                }
+
                 // Success: Execution succeeded and validation passed (or no validator)
                 // Break out of retry loop
                 break;
@@ -321,6 +464,21 @@ public class StageExecutor {
                 // Execution or agent creation failed
                 lastException = e;
 
+                // Cancelled stages are abandoned without further attempts
+                if (cancellationToken.isCancelled() || e instanceof ConductorException.ExecutionCancelledException) {
+                    Thread.interrupted();
+                    logger.warn("Stage {} cancelled during attempt {}: {}", config.getStageName(), attempt,
+                        cancellationToken.getReason() != null ? cancellationToken.getReason() : e.getMessage());
+                    throw new ConductorException("Stage " + config.getStageName() + " was cancelled: " +
+                        (cancellationToken.getReason() != null ? cancellationToken.getReason() : e.getMessage()), e);
+                }
+
+                // A spent budget refuses every further call, so retrying cannot help
+                if (e instanceof ConductorException.BudgetExceededException) {
+                    logger.error("Stage {} stopped on attempt {}: {}", config.getStageName(), attempt, e.getMessage());
+                    throw new ConductorException("Stage " + config.getStageName() + " stopped: " + e.getMessage(), e);
+                }
+
                 // Check if thread was interrupted (handles both InterruptedException and interrupted flag)
                 if (Thread.interrupted() || e.getCause() instanceof InterruptedException) {
                     // Thread was interrupted - restore interrupt status and fail immediately
@@ -330,10 +488,17 @@ public class StageExecutor {
                 }
 
                 logger.warn("Stage {} attempt {} failed: {}", config.getStageName(), attempt, e.getMessage());
-                if (attempt >= config.getMaxRetries()) {
+                if (cascade != null) {
+                    if (attempt < maxAttempts) {
+                        tier = escalate(config, cascade, tier, "failure");
+                    } else {
+                        recordCascadeAttempt(config, cascade.getTier(tier), "failed");
+                    }
+                }
+                if (attempt >= maxAttempts) {
                     // All retries exhausted - propagate the failure
                     throw new ConductorException("Stage " + config.getStageName() + " failed after " +
-                                                config.getMaxRetries() + " attempts", e);
+                                                maxAttempts + " attempts", e);
                 }
                 // More retries available - loop will continue
             }
@@ -348,28 +513,80 @@ public class StageExecutor {
         return result;
     }
 
+    /**
+     * Records the outcome of a rejected cascade attempt and moves to the next tier,
+     * if any.
+     *
+     * @return the index of the tier of the next attempt
+     */
+    private int escalate(ExecutionConfig config, ModelCascade cascade, int tier, String reason) {
+        ModelCascade.Tier current = cascade.getTier(tier);
+        recordCascadeAttempt(config, current, switch (reason) {
+            case "validation" -> "rejected";
+            case "failure" -> "failed";
+            default -> reason;
+        });
+        if (tier >= cascade.getTierCount() - 1) {
+            return tier;
+        }
+        ModelCascade.Tier next = cascade.getTier(tier + 1);
+        logger.info("{} escalating from tier {} to tier {} after {}", config.getStageName(),
+            current.name(), next.name(), reason);
+        MetricsRegistry.getInstance().record(Metric.counter("llm.cascade.escalations", Map.of(
+            "stage", config.getStageName(), "from", current.name(), "to", next.name(), "reason", reason)));
+        return tier + 1;
+    }
+
+    /**
+     * Records the outcome of an attempt on a cascade tier, from which per-tier
+     * success rates are derived.
+     */
+    private static void recordCascadeAttempt(ExecutionConfig config, ModelCascade.Tier tier, String outcome) {
+        MetricsRegistry.getInstance().record(Metric.counter("llm.cascade.attempts", Map.of(
+            "stage", config.getStageName(), "tier", tier.name(), "outcome", outcome)));
+    }
+
     /**
      * Executes a single attempt of a stage.
      */
     private StageResult executeStageAttempt(
-            String stageName,
+            ExecutionConfig config,
             int attempt,
             AgentCreator agentCreator,
             PromptPreparer promptPreparer,
-            Map<String, Object> taskMetadata,
             Map<String, Object> executionContext) throws ConductorException {
 
+        String stageName = config.getStageName();
         long startTime = System.currentTimeMillis();
 
         try {
+            String prompt = null;
+            String memoKey = null;
+            if (config.isMemoizationEnabled()) {
+                // The memo key covers the rendered prompt, so it must be prepared before the agent runs
+                prompt = promptPreparer.preparePrompt(attempt, executionContext);
+                memoKey = config.getResultMemo().keyFor(config.getMemoFingerprint(), prompt);
+
+                // Only the first attempt may reuse a memoized output; retries after a
+                // validation failure must produce a fresh one
+                if (attempt == 1) {
+                    StageResult memoized = lookupMemoized(config, memoKey, startTime);
+                    if (memoized != null) {
+                        return memoized;
+                    }
+                }
+            }
+
             // Create or get agent
             SubAgent agent = agentCreator.createAgent(attempt);
 
             // Prepare prompt with context substitution
-            String prompt = promptPreparer.preparePrompt(attempt, executionContext);
+            if (prompt == null) {
+                prompt = promptPreparer.preparePrompt(attempt, executionContext);
+            }
 
             // Execute agent
-            ExecutionInput executionInput = new ExecutionInput(prompt, taskMetadata);
+            ExecutionInput executionInput = new ExecutionInput(prompt, config.getTaskMetadata());
             ExecutionResult executionResult = agent.execute(executionInput);
 
             if (!executionResult.success()) {
@@ -384,6 +601,7 @@ public class StageExecutor {
             result.setAttempt(attempt);
             result.setExecutionTimeMs(System.currentTimeMillis() - startTime);
             result.setAgentUsed(agent.getClass().getSimpleName());
+            result.memoKey = memoKey;
 
             return result;
 
@@ -412,6 +630,44 @@ public class StageExecutor {
         }
     }
 
+    /**
+     * Returns the memoized result for a key, or null on a miss or memo failure.
+     */
+    private StageResult lookupMemoized(ExecutionConfig config, String memoKey, long startTime) {
+        try {
+            Optional<String> output = config.getResultMemo().lookup(memoKey, config.getStageName());
+            if (output.isEmpty()) {
+                return null;
+            }
+            logger.info("Stage {} reusing memoized output", config.getStageName());
+            StageResult result = new StageResult();
+            result.setStageName(config.getStageName());
+            result.setOutput(output.get());
+            result.setSuccess(true);
+            result.setAttempt(1);
+            result.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+            result.setAgentUsed("memoized");
+            result.setMemoized(true);
+            result.memoKey = memoKey;
+            return result;
+        } catch (RuntimeException e) {
+            // The memo is an optimization; never fail a stage because of it
+            logger.warn("Memo lookup failed for stage {}: {}", config.getStageName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a freshly produced result in the memo, ignoring memo failures.
+     */
+    private void memoize(ExecutionConfig config, StageResult result) {
+        try {
+            config.getResultMemo().store(result.memoKey, result.getOutput());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to memoize output of stage {}: {}", config.getStageName(), e.getMessage());
+        }
+    }
+
     /**
      * Prepares a prompt by substituting context variables using the template engine.
      *
@@ -0,0 +1,181 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed memoization of stage outputs.
+ * <p>
+ * Stage outputs are keyed by a SHA-256 hash of everything that determines them:
+ * a fingerprint of the agent configuration and the provider/model serving it,
+ * together with the fully rendered prompt. A stage whose resolved inputs are
+ * unchanged since a previous run can therefore reuse the memoized output instead
+ * of calling the LLM again, while a change to any upstream output that feeds the
+ * prompt naturally produces a new key.
+ * </p>
+ * <p>
+ * Entries are persisted in the {@link MemoryStore} so they survive across runs,
+ * and the store is bounded: once more than {@code maxEntries} outputs are held,
+ * the least recently used ones are evicted.
+ * </p>
+ * <p>
+ * Lookups and evictions are reported to the {@link MetricsRegistry} as the
+ * {@code workflow.memo.hit}, {@code workflow.memo.miss} and
+ * {@code workflow.memo.evicted} counters, hits and misses tagged with the stage.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe; all state lives in the memory store
+ * apart from atomic hit/miss counters.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see StageExecutor.ExecutionConfig.Builder#memoization(StageResultMemo, String)
+ */
+public class StageResultMemo {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageResultMemo.class);
+
+    private final MemoryStore memoryStore;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a memo backed by the given memory store, retaining up to
+     * {@code conductor.workflow.memo.max.entries} outputs.
+     *
+     * @param memoryStore the memory store used to persist memoized outputs
+     */
+    public StageResultMemo(MemoryStore memoryStore) {
+        this(memoryStore, ApplicationConfig.getInstance().getWorkflowConfig().getStageMemoMaxEntries());
+    }
+
+    /**
+     * Creates a memo backed by the given memory store.
+     *
+     * @param memoryStore the memory store used to persist memoized outputs
+     * @param maxEntries the maximum number of outputs to retain (must be positive)
+     */
+    public StageResultMemo(MemoryStore memoryStore, int maxEntries) {
+        if (memoryStore == null) {
+            throw new IllegalArgumentException("memory store cannot be null");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.memoryStore = memoryStore;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Computes the content-addressed key of a stage execution.
+     *
+     * @param fingerprint fingerprint of the agent configuration and provider/model
+     * @param prompt the fully rendered prompt
+     * @return the hex-encoded SHA-256 key
+     */
+    public String keyFor(String fingerprint, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(fingerprint).getBytes(StandardCharsets.UTF_8));
+            // Separator so that (fingerprint, prompt) pairs cannot collide by concatenation
+            digest.update((byte) 0);
+            digest.update(String.valueOf(prompt).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Looks up a memoized output.
+     *
+     * @param key the content-addressed key
+     * @return the memoized output, or empty if the inputs have not been seen before
+     */
+    public Optional<String> lookup(String key) {
+        return lookup(key, null);
+    }
+
+    /**
+     * Looks up a memoized output on behalf of a stage.
+     *
+     * @param key the content-addressed key
+     * @param stageName the name of the stage, used to tag the hit/miss metrics, or null
+     * @return the memoized output, or empty if the inputs have not been seen before
+     */
+    public Optional<String> lookup(String key, String stageName) {
+        String output = memoryStore.loadStageResultMemo(key);
+        Map<String, String> tags = stageName != null ? Map.of("stage", stageName) : Map.of();
+        if (output == null) {
+            misses.incrementAndGet();
+            MetricsRegistry.getInstance().record(Metric.counter("workflow.memo.miss", tags));
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        MetricsRegistry.getInstance().record(Metric.counter("workflow.memo.hit", tags));
+        return Optional.of(output);
+    }
+
+    /**
+     * Memoizes a stage output, evicting least recently used entries if needed.
+     *
+     * @param key the content-addressed key
+     * @param output the stage output
+     */
+    public void store(String key, String output) {
+        int evicted = memoryStore.saveStageResultMemo(key, output, maxEntries);
+        if (evicted > 0) {
+            MetricsRegistry.getInstance().record(Metric.counter("workflow.memo.evicted", evicted, Map.of()));
+            logger.debug("Evicted {} least recently used memoized stage results", evicted);
+        }
+    }
+
+    /**
+     * Removes all memoized outputs.
+     *
+     * @return the number of removed entries
+     */
+    public int clear() {
+        return memoryStore.clearStageResultMemo();
+    }
+
+    /**
+     * Returns the number of lookups served from the memo.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that found no memoized output.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the maximum number of outputs retained.
+     *
+     * @return the entry limit
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+}
@@ -0,0 +1,105 @@
+package com.skanga.conductor.engine.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits long text into chunks bounded by an estimated token count.
+ * <p>
+ * Tokens are estimated at {@value #CHARS_PER_TOKEN} characters each, the usual
+ * ratio for English text with current LLM tokenizers. Chunks end at the latest
+ * paragraph break within the limit, falling back to a line break, a sentence end
+ * and finally a word boundary, so a chunk is only cut mid-word if it contains no
+ * whitespace at all. A break is only taken in the second half of a chunk, which
+ * keeps chunks from becoming much smaller than the limit.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see MapReduceStageExecutor
+ */
+public final class TextChunker {
+
+    /** Estimated number of characters per token. */
+    public static final int CHARS_PER_TOKEN = 4;
+
+    private static final String[] BREAKS = {"\n\n", "\n", ". ", " "};
+
+    private TextChunker() {
+    }
+
+    /**
+     * Estimates the number of tokens of a text.
+     *
+     * @param text the text
+     * @return the estimated token count
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Splits text into chunks of at most the given number of estimated tokens.
+     *
+     * @param text the text to split
+     * @param maxTokens the maximum size of a chunk in estimated tokens
+     * @param overlapTokens the estimated tokens repeated from the end of a chunk at
+     *                      the start of the next, smaller than {@code maxTokens}
+     * @return the non-blank chunks in order; empty for blank text
+     */
+    public static List<String> split(String text, int maxTokens, int overlapTokens) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        if (overlapTokens < 0 || overlapTokens >= maxTokens) {
+            throw new IllegalArgumentException("overlapTokens must be non-negative and smaller than maxTokens");
+        }
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        int overlapChars = overlapTokens * CHARS_PER_TOKEN;
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(start + maxChars, text.length());
+            if (end < text.length()) {
+                end = findBreak(text, start + maxChars / 2, end);
+            }
+            String chunk = text.substring(start, end).strip();
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+            if (end >= text.length()) {
+                break;
+            }
+            start = Math.max(start + 1, overlapStart(text, end, overlapChars));
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the end of a chunk: just after the latest preferred break in [from, to).
+     */
+    private static int findBreak(String text, int from, int to) {
+        for (String separator : BREAKS) {
+            int index = text.lastIndexOf(separator, to - separator.length());
+            if (index >= from) {
+                return index + separator.length();
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Finds the start of the next chunk, moved back by the overlap to a word boundary.
+     */
+    private static int overlapStart(String text, int end, int overlapChars) {
+        if (overlapChars == 0) {
+            return end;
+        }
+        int start = end - overlapChars;
+        int space = text.indexOf(' ', start);
+        return space >= 0 && space < end ? space + 1 : start;
+    }
+}
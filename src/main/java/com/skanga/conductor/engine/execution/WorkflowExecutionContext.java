@@ -1,12 +1,29 @@
 package com.skanga.conductor.engine.execution;
 
+import com.skanga.conductor.execution.CancellationToken;
+import com.skanga.conductor.provider.TokenBudget;
 import com.skanga.conductor.workflow.config.AgentConfigCollection;
 import com.skanga.conductor.workflow.config.WorkflowContext;
 import com.skanga.conductor.workflow.config.WorkflowDefinition;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * Context object that holds all information needed during workflow execution.
  * This includes the loaded configurations, runtime context, and input parameters.
+ * <p>
+ * Each workflow run owns its own execution context, which also tracks the stages
+ * completed so far. Keeping per-run state here rather than in the engine allows
+ * a single engine to execute many runs concurrently.
+ * </p>
+ * <p>
+ * The context also carries the {@link CancellationToken} of the run, which
+ * enforces its deadline and abandons in-flight work when the run fails or is
+ * cancelled, and the {@link TokenBudget} charged with the LLM usage of the run.
+ * </p>
  */
 public class WorkflowExecutionContext {
 
@@ -14,14 +31,57 @@ public class WorkflowExecutionContext {
     private final AgentConfigCollection agentConfig;
     private final WorkflowContext context;
     private final String[] inputs;
+    private final CancellationToken cancellationToken;
+    private final TokenBudget tokenBudget;
+    private final Map<String, StageExecutionResult> completedStageResults = new ConcurrentHashMap<>();
+    private final Map<String, String> agentKeys = new ConcurrentHashMap<>();
+
+    public WorkflowExecutionContext(WorkflowDefinition workflowDefinition,
+                                  AgentConfigCollection agentConfig,
+                                  WorkflowContext context,
+                                  String... inputs) {
+        this(workflowDefinition, agentConfig, context, CancellationToken.create(), inputs);
+    }
 
+    /**
+     * Creates the context of a run cancelled through the given token.
+     *
+     * @param workflowDefinition the workflow definition
+     * @param agentConfig the agent configuration
+     * @param context the workflow context
+     * @param cancellationToken the token cancelling the run
+     * @param inputs the workflow inputs
+     */
     public WorkflowExecutionContext(WorkflowDefinition workflowDefinition,
                                   AgentConfigCollection agentConfig,
                                   WorkflowContext context,
+                                  CancellationToken cancellationToken,
+                                  String... inputs) {
+        this(workflowDefinition, agentConfig, context, cancellationToken, null, inputs);
+    }
+
+    /**
+     * Creates the context of a run cancelled through the given token and charging
+     * its LLM usage to the given budget.
+     *
+     * @param workflowDefinition the workflow definition
+     * @param agentConfig the agent configuration
+     * @param context the workflow context
+     * @param cancellationToken the token cancelling the run
+     * @param tokenBudget the budget of the run, or null for an unlimited one
+     * @param inputs the workflow inputs
+     */
+    public WorkflowExecutionContext(WorkflowDefinition workflowDefinition,
+                                  AgentConfigCollection agentConfig,
+                                  WorkflowContext context,
+                                  CancellationToken cancellationToken,
+                                  TokenBudget tokenBudget,
                                   String... inputs) {
         this.workflowDefinition = workflowDefinition;
         this.agentConfig = agentConfig;
         this.context = context;
+        this.cancellationToken = cancellationToken != null ? cancellationToken : CancellationToken.create();
+        this.tokenBudget = tokenBudget != null ? tokenBudget : TokenBudget.unlimited();
         this.inputs = inputs != null ? inputs : new String[0];
     }
 
@@ -41,6 +101,20 @@ public class WorkflowExecutionContext {
         return inputs;
     }
 
+    /**
+     * Gets the token cancelling this run.
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Gets the budget charged with the LLM usage of this run.
+     */
+    public TokenBudget getTokenBudget() {
+        return tokenBudget;
+    }
+
     /**
      * Gets the primary input (usually the topic or main parameter).
      */
@@ -61,4 +135,26 @@ public class WorkflowExecutionContext {
     public int getInputCount() {
         return inputs.length;
     }
+
+    /**
+     * Records a successfully completed stage of this run.
+     */
+    public void recordCompletedStage(String stageName, StageExecutionResult result) {
+        completedStageResults.put(stageName, result);
+    }
+
+    /**
+     * Gets the key identifying an agent's configuration in this run, computing it
+     * on first use, so the definition is not serialized again for every stage.
+     */
+    public String getAgentKey(String agentId, Function<String, String> keyFunction) {
+        return agentKeys.computeIfAbsent(agentId, keyFunction);
+    }
+
+    /**
+     * Gets the stages completed so far in this run, keyed by stage name.
+     */
+    public Map<String, StageExecutionResult> getCompletedStageResults() {
+        return Collections.unmodifiableMap(completedStageResults);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,361 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.WorkflowConfig;
+import com.skanga.conductor.exception.ConductorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution resources shared by concurrent workflow runs.
+ * <p>
+ * A single pool can back many {@code YamlWorkflowEngine} instances, or one engine
+ * executing many runs at once. It provides:
+ * </p>
+ * <ul>
+ * <li>a shared {@link ParallelStageExecutor} running stages on virtual threads, so
+ * concurrent runs do not each create their own thread pool, with a bound on the
+ * stages of a wave running at once</li>
+ * <li>a pool of agents shared across runs, keyed by the caller and, optionally, the
+ * identity of the object owning them, and bounded: the least recently used agents
+ * are evicted beyond {@code maxAgents}</li>
+ * <li>the {@link StageDurationHistory} used to start critical-path stages first</li>
+ * <li>a limit on the number of runs executing at once; runs beyond the limit wait
+ * up to the admission timeout for a slot and are rejected afterwards</li>
+ * </ul>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class WorkflowExecutionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowExecutionPool.class);
+
+    private final ParallelStageExecutor stageExecutor;
+    private final Map<AgentKey, CompletableFuture<SubAgent>> agents;
+    private final int maxAgents;
+    private final StageDurationHistory stageDurations = new StageDurationHistory();
+    private final Semaphore executionPermits;
+    private final int maxConcurrentExecutions;
+    private final Duration admissionTimeout;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a pool configured from {@link WorkflowConfig}.
+     */
+    public WorkflowExecutionPool() {
+        this(ApplicationConfig.getInstance().getWorkflowConfig());
+    }
+
+    private WorkflowExecutionPool(WorkflowConfig config) {
+        this(config.getMaxConcurrentExecutions(),
+             config.getExecutionAdmissionTimeout(),
+             config.getStageDefaultTimeout(),
+             config.getExecutionPoolMaxAgents(),
+             config.getMaxParallelStages());
+    }
+
+    /**
+     * Creates a pool with explicit limits, retaining up to
+     * {@code conductor.workflow.pool.max.agents} agents.
+     *
+     * @param maxConcurrentExecutions maximum number of runs executing at once
+     * @param admissionTimeout how long a run waits for an execution slot
+     * @param stageTimeout timeout for a single stage executed in a parallel wave
+     */
+    public WorkflowExecutionPool(int maxConcurrentExecutions, Duration admissionTimeout, Duration stageTimeout) {
+        this(maxConcurrentExecutions, admissionTimeout, stageTimeout,
+             ApplicationConfig.getInstance().getWorkflowConfig().getExecutionPoolMaxAgents());
+    }
+
+    /**
+     * Creates a pool with explicit limits, running up to
+     * {@code conductor.workflow.max.parallel.stages} stages of a wave at once.
+     *
+     * @param maxConcurrentExecutions maximum number of runs executing at once
+     * @param admissionTimeout how long a run waits for an execution slot
+     * @param stageTimeout timeout for a single stage executed in a parallel wave
+     * @param maxAgents maximum number of pooled agents
+     */
+    public WorkflowExecutionPool(int maxConcurrentExecutions, Duration admissionTimeout, Duration stageTimeout,
+                                 int maxAgents) {
+        this(maxConcurrentExecutions, admissionTimeout, stageTimeout, maxAgents,
+             ApplicationConfig.getInstance().getWorkflowConfig().getMaxParallelStages());
+    }
+
+    /**
+     * Creates a pool with explicit limits.
+     *
+     * @param maxConcurrentExecutions maximum number of runs executing at once
+     * @param admissionTimeout how long a run waits for an execution slot
+     * @param stageTimeout timeout for a single stage executed in a parallel wave
+     * @param maxAgents maximum number of pooled agents
+     * @param maxParallelStages maximum number of stages of a wave running at once
+     */
+    public WorkflowExecutionPool(int maxConcurrentExecutions, Duration admissionTimeout, Duration stageTimeout,
+                                 int maxAgents, int maxParallelStages) {
+        if (maxConcurrentExecutions < 1) {
+            throw new IllegalArgumentException("maxConcurrentExecutions must be at least 1");
+        }
+        if (admissionTimeout == null || admissionTimeout.isNegative()) {
+            throw new IllegalArgumentException("admissionTimeout must not be negative");
+        }
+        if (stageTimeout == null || stageTimeout.isNegative() || stageTimeout.isZero()) {
+            throw new IllegalArgumentException("stageTimeout must be positive");
+        }
+        if (maxAgents < 1) {
+            throw new IllegalArgumentException("maxAgents must be at least 1");
+        }
+        if (maxParallelStages < 1) {
+            throw new IllegalArgumentException("maxParallelStages must be at least 1");
+        }
+        this.maxAgents = maxAgents;
+        // Access-ordered, so the eldest entry is the least recently used agent
+        this.agents = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AgentKey, CompletableFuture<SubAgent>> eldest) {
+                return size() > WorkflowExecutionPool.this.maxAgents;
+            }
+        };
+        this.maxConcurrentExecutions = maxConcurrentExecutions;
+        this.admissionTimeout = admissionTimeout;
+        this.executionPermits = new Semaphore(maxConcurrentExecutions, true);
+        // Stages are dominated by LLM and tool I/O, so a virtual thread per stage scales
+        // to many concurrent runs without sizing a platform thread pool; the stages of a
+        // wave still take bounded slots so that critical path stages start first
+        this.stageExecutor = new ParallelStageExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("workflow-stage-", 0).factory()),
+            maxParallelStages,
+            stageTimeout.toMillis());
+
+        logger.info("Created WorkflowExecutionPool with maxConcurrentExecutions={}, admissionTimeout={}",
+            maxConcurrentExecutions, admissionTimeout);
+    }
+
+    /**
+     * Acquires an execution slot for a workflow run.
+     * <p>
+     * Every successful call must be paired with {@link #releaseExecution()}.
+     * </p>
+     *
+     * @throws ConductorException if no slot became available within the admission timeout,
+     *         the pool is closed, or the thread was interrupted while waiting
+     */
+    public void acquireExecution() throws ConductorException {
+        if (closed) {
+            throw new ConductorException("Workflow execution pool has been closed");
+        }
+        try {
+            if (!executionPermits.tryAcquire(admissionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ConductorException("No execution slot available within " + admissionTimeout +
+                    " (" + maxConcurrentExecutions + " workflow runs already executing)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConductorException("Interrupted while waiting for an execution slot", e);
+        }
+    }
+
+    /**
+     * Releases an execution slot acquired with {@link #acquireExecution()}.
+     */
+    public void releaseExecution() {
+        executionPermits.release();
+    }
+
+    /**
+     * Callback creating an agent that is not pooled yet.
+     */
+    @FunctionalInterface
+    public interface AgentSupplier {
+        /**
+         * Creates the agent.
+         *
+         * @return the new agent
+         * @throws ConductorException if agent creation fails
+         */
+        SubAgent create() throws ConductorException;
+    }
+
+    /**
+     * Pool key of an agent: the owner is compared by identity, as two distinct
+     * owners never share agents even if they are equal.
+     */
+    private record AgentKey(Object owner, String key) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AgentKey other && owner == other.owner && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + key.hashCode();
+        }
+    }
+
+    /**
+     * Returns the pooled agent for a key, creating it on first use.
+     *
+     * @param key identifies the agent configuration; runs using the same key share the agent
+     * @param supplier creates the agent if it is not pooled yet
+     * @return the pooled agent
+     * @throws ConductorException if agent creation fails
+     */
+    public SubAgent getOrCreateAgent(String key, AgentSupplier supplier) throws ConductorException {
+        return getOrCreateAgent(null, key, supplier);
+    }
+
+    /**
+     * Returns the pooled agent of an owner for a key, creating it on first use.
+     * <p>
+     * Agents are created outside the pool lock, since creating one can build a
+     * provider client and load the agent's memory from the database; concurrent
+     * callers asking for the same agent wait for its creation, while callers
+     * asking for other agents do not. A failed creation is not pooled.
+     * </p>
+     *
+     * @param owner the object the agent belongs to, such as the orchestrator it runs
+     *              on, compared by identity; null for agents shared by key alone
+     * @param key identifies the agent configuration; runs using the same owner and key share the agent
+     * @param supplier creates the agent if it is not pooled yet
+     * @return the pooled agent
+     * @throws ConductorException if agent creation fails or the thread is interrupted
+     *         while waiting for another caller to create it
+     */
+    public SubAgent getOrCreateAgent(Object owner, String key, AgentSupplier supplier) throws ConductorException {
+        AgentKey agentKey = new AgentKey(owner, key);
+        CompletableFuture<SubAgent> created = new CompletableFuture<>();
+        CompletableFuture<SubAgent> pooled;
+        synchronized (agents) {
+            pooled = agents.get(agentKey);
+            if (pooled == null) {
+                agents.put(agentKey, created);
+            }
+        }
+        if (pooled != null) {
+            return awaitAgent(pooled);
+        }
+
+        try {
+            SubAgent agent = supplier.create();
+            created.complete(agent);
+            return agent;
+        } catch (ConductorException | RuntimeException | Error e) {
+            synchronized (agents) {
+                agents.remove(agentKey, created);
+            }
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static SubAgent awaitAgent(CompletableFuture<SubAgent> pooled) throws ConductorException {
+        try {
+            return pooled.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConductorException("Interrupted while waiting for agent creation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConductorException conductorException) {
+                throw conductorException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ConductorException("Agent creation failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Gets the stage executor shared by all runs of this pool.
+     *
+     * @return the shared parallel stage executor
+     */
+    public ParallelStageExecutor getStageExecutor() {
+        return stageExecutor;
+    }
+
+    /**
+     * Gets the stage durations recorded by all runs of this pool.
+     *
+     * @return the shared stage duration history
+     */
+    public StageDurationHistory getStageDurations() {
+        return stageDurations;
+    }
+
+    /**
+     * Gets the number of workflow runs currently executing.
+     *
+     * @return the number of active executions
+     */
+    public int getActiveExecutionCount() {
+        return maxConcurrentExecutions - executionPermits.availablePermits();
+    }
+
+    /**
+     * Gets the maximum number of workflow runs executing at once.
+     *
+     * @return the execution limit
+     */
+    public int getMaxConcurrentExecutions() {
+        return maxConcurrentExecutions;
+    }
+
+    /**
+     * Gets the number of pooled agents.
+     *
+     * @return the agent count
+     */
+    public int getAgentCount() {
+        synchronized (agents) {
+            return agents.size();
+        }
+    }
+
+    /**
+     * Gets the maximum number of pooled agents.
+     *
+     * @return the agent limit
+     */
+    public int getMaxAgents() {
+        return maxAgents;
+    }
+
+    /**
+     * Checks if the pool has been closed.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            synchronized (agents) {
+                agents.clear();
+            }
+            stageExecutor.shutdown();
+            logger.info("WorkflowExecutionPool closed");
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.skanga.conductor.engine.execution;
 
+import com.skanga.conductor.provider.TokenBudget;
+
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,6 +18,7 @@ public class WorkflowExecutionResult {
     private boolean success = true;
     private String errorMessage;
     private final Map<String, StageExecutionResult> stageResults = new LinkedHashMap<>();
+    private TokenBudget tokenBudget;
 
     public String getWorkflowName() {
         return workflowName;
@@ -56,6 +60,25 @@ public class WorkflowExecutionResult {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Checks whether the run was suspended waiting for deferred human approval.
+     * A suspended run is resumed by executing it again with the same run ID once
+     * its approvals are answered.
+     */
+    public boolean isAwaitingApproval() {
+        return !getAwaitingApprovalStages().isEmpty();
+    }
+
+    /**
+     * Gets the names of the stages the suspended run is waiting on.
+     */
+    public List<String> getAwaitingApprovalStages() {
+        return stageResults.entrySet().stream()
+            .filter(entry -> entry.getValue().isAwaitingApproval())
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
     public Map<String, StageExecutionResult> getStageResults() {
         return stageResults;
     }
@@ -68,6 +91,20 @@ public class WorkflowExecutionResult {
         return stageResults.get(stageName);
     }
 
+    /**
+     * Gets the budget charged with the LLM usage of the run, which also holds the
+     * tokens and cost it spent.
+     *
+     * @return the budget, or null if the run was not metered
+     */
+    public TokenBudget getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public void setTokenBudget(TokenBudget tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
     /**
      * Gets the total execution duration in milliseconds.
      */
@@ -112,8 +149,12 @@ public class WorkflowExecutionResult {
         StringBuilder sb = new StringBuilder();
         sb.append("Workflow: ").append(workflowName).append("\n");
         sb.append("Duration: ").append(String.format("%.2f", getDurationSeconds())).append("s\n");
-        sb.append("Status: ").append(success ? "SUCCESS" : "FAILED").append("\n");
+        sb.append("Status: ").append(success ? "SUCCESS" : isAwaitingApproval() ? "AWAITING APPROVAL" : "FAILED")
+            .append("\n");
         sb.append("Stages: ").append(getSuccessfulStageCount()).append("/").append(getStageCount()).append(" successful\n");
+        if (tokenBudget != null && tokenBudget.getCalls() > 0) {
+            sb.append("LLM usage: ").append(tokenBudget.describe()).append("\n");
+        }
 
         if (!success && errorMessage != null) {
             sb.append("Error: ").append(errorMessage).append("\n");
@@ -0,0 +1,561 @@
+package com.skanga.conductor.engine.scheduling;
+
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.WorkflowConfig;
+import com.skanga.conductor.engine.WorkflowEngine;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control and priority scheduling in front of {@link WorkflowEngine#execute(String...)}.
+ * <p>
+ * Submissions are queued instead of all starting at once, and at most
+ * {@code maxConcurrent} workflows execute at any time. When a slot frees up the
+ * next submission is chosen in three steps:
+ * </p>
+ * <ol>
+ * <li>a priority class is picked by weighted-fair (stride) scheduling, so
+ * interactive requests get most slots without starving batch jobs</li>
+ * <li>within the class, a tenant is picked the same way using per-tenant weights,
+ * so one tenant's burst cannot monopolize the class</li>
+ * <li>within the tenant, the submission with the earliest deadline runs first
+ * (submissions without a deadline run in arrival order after those with one)</li>
+ * </ol>
+ * <p>
+ * Queues are bounded per priority class. When a class queue is full the
+ * {@link OverflowPolicy} decides whether the submission is rejected immediately or
+ * waits for room. Submissions whose deadline passes while queued are failed
+ * rather than executed, and cancelling a queued submission's future removes it from
+ * the queue at once. Per-tenant queues only exist while they hold submissions, so
+ * tenants that come and go do not accumulate state. Queue depth, wait time and rejections are exported via
+ * the {@link MetricsRegistry} as {@code workflow.scheduler.*} metrics.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class WorkflowScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowScheduler.class);
+
+    /**
+     * Behaviour when the queue of a priority class is full.
+     */
+    public enum OverflowPolicy {
+        /** Reject the submission immediately. */
+        REJECT,
+        /** Block the submitting thread until room frees up or the enqueue timeout expires. */
+        QUEUE
+    }
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration enqueueTimeout;
+    private final Map<WorkflowSubmission.Priority, Integer> priorityWeights;
+    private final Map<String, Integer> tenantWeights;
+    private final MetricsRegistry metricsRegistry;
+    private final ExecutorService executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queueNotFull = lock.newCondition();
+    private final Map<WorkflowSubmission.Priority, ClassQueue> classQueues =
+        new EnumMap<>(WorkflowSubmission.Priority.class);
+    private double classVirtualTime = 0;
+    private long sequence = 0;
+    private int running = 0;
+    private boolean closed = false;
+
+    /**
+     * A queued submission awaiting dispatch.
+     */
+    private static final class Ticket {
+        final WorkflowSubmission submission;
+        final CompletableFuture<WorkflowEngine.WorkflowResult> future = new CompletableFuture<>();
+        final long sequence;
+        final long enqueuedNanos = System.nanoTime();
+
+        Ticket(WorkflowSubmission submission, long sequence) {
+            this.submission = submission;
+            this.sequence = sequence;
+        }
+    }
+
+    // Earliest deadline first; submissions without a deadline follow in arrival order
+    private static final Comparator<Ticket> DEADLINE_ORDER = Comparator
+        .comparing((Ticket t) -> t.submission.getDeadline(), Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingLong(t -> t.sequence);
+
+    /**
+     * Stride-scheduled queue: the non-empty queue with the lowest pass is served next,
+     * and serving it advances its pass by 1 / weight.
+     */
+    private static class StrideQueue {
+        final int weight;
+        double pass;
+
+        StrideQueue(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class TenantQueue extends StrideQueue {
+        final PriorityQueue<Ticket> tickets = new PriorityQueue<>(DEADLINE_ORDER);
+
+        TenantQueue(int weight) {
+            super(weight);
+        }
+    }
+
+    private static final class ClassQueue extends StrideQueue {
+        final Map<String, TenantQueue> tenants = new HashMap<>();
+        double tenantVirtualTime = 0;
+        int size = 0;
+
+        ClassQueue(int weight) {
+            super(weight);
+        }
+    }
+
+    private WorkflowScheduler(Builder builder) {
+        this.maxConcurrent = builder.maxConcurrent;
+        this.queueCapacity = builder.queueCapacity;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.enqueueTimeout = builder.enqueueTimeout;
+        this.priorityWeights = new EnumMap<>(builder.priorityWeights);
+        this.tenantWeights = Map.copyOf(builder.tenantWeights);
+        this.metricsRegistry = builder.metricsRegistry != null ? builder.metricsRegistry : MetricsRegistry.getInstance();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("workflow-scheduler-", 0).factory());
+        for (WorkflowSubmission.Priority priority : WorkflowSubmission.Priority.values()) {
+            classQueues.put(priority, new ClassQueue(priorityWeights.get(priority)));
+        }
+        logger.info("Created WorkflowScheduler with maxConcurrent={}, queueCapacity={}, overflowPolicy={}",
+            maxConcurrent, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * Creates a builder initialized from {@link WorkflowConfig}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(ApplicationConfig.getInstance().getWorkflowConfig());
+    }
+
+    /**
+     * Submits a workflow for execution.
+     *
+     * @param submission the workflow submission
+     * @return a future completed with the workflow result, or exceptionally if the workflow
+     *         fails, its deadline passes while queued, or the scheduler is closed
+     * @throws ConductorException if the submission is rejected by admission control
+     */
+    public CompletableFuture<WorkflowEngine.WorkflowResult> submit(WorkflowSubmission submission)
+            throws ConductorException {
+        if (submission == null) {
+            throw new IllegalArgumentException("submission cannot be null");
+        }
+        WorkflowSubmission.Priority priority = submission.getPriority();
+
+        lock.lock();
+        try {
+            ClassQueue classQueue = classQueues.get(priority);
+            if (classQueue.size >= queueCapacity) {
+                awaitRoom(classQueue, submission);
+            }
+            if (closed) {
+                throw new ConductorException("Workflow scheduler has been closed");
+            }
+
+            Ticket ticket = new Ticket(submission, sequence++);
+            enqueue(classQueue, ticket);
+            recordQueueDepth(priority, classQueue.size);
+            // Release the queue position of a submission cancelled while queued right away
+            ticket.future.whenComplete((result, error) -> {
+                if (ticket.future.isCancelled()) {
+                    removeCancelled(ticket);
+                }
+            });
+            dispatch();
+            return ticket.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for room in a full class queue according to the overflow policy.
+     */
+    private void awaitRoom(ClassQueue classQueue, WorkflowSubmission submission) throws ConductorException {
+        if (overflowPolicy == OverflowPolicy.REJECT) {
+            reject(submission, "queue_full");
+        }
+        long remainingNanos = enqueueTimeout.toNanos();
+        try {
+            while (classQueue.size >= queueCapacity && !closed) {
+                if (remainingNanos <= 0) {
+                    reject(submission, "enqueue_timeout");
+                }
+                remainingNanos = queueNotFull.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConductorException("Interrupted while waiting to enqueue workflow submission", e);
+        }
+    }
+
+    private void reject(WorkflowSubmission submission, String reason) throws ConductorException {
+        metricsRegistry.record(Metric.counter("workflow.scheduler.rejected",
+            Map.of("priority", priorityTag(submission.getPriority()), "reason", reason)));
+        throw new ConductorException("Workflow submission '" + submission.getId() + "' rejected: " +
+            submission.getPriority() + " queue is full (" + queueCapacity + " submissions)");
+    }
+
+    private void enqueue(ClassQueue classQueue, Ticket ticket) {
+        String tenant = ticket.submission.getTenant();
+        TenantQueue tenantQueue = classQueue.tenants.computeIfAbsent(tenant,
+            t -> new TenantQueue(tenantWeights.getOrDefault(t, 1)));
+        if (tenantQueue.tickets.isEmpty()) {
+            // A queue becoming active must not redeem credit accrued while it was idle
+            tenantQueue.pass = Math.max(tenantQueue.pass, classQueue.tenantVirtualTime);
+        }
+        if (classQueue.size == 0) {
+            classQueue.pass = Math.max(classQueue.pass, classVirtualTime);
+        }
+        tenantQueue.tickets.add(ticket);
+        classQueue.size++;
+    }
+
+    /**
+     * Removes a ticket cancelled by the caller from its queue, if it is still queued.
+     */
+    private void removeCancelled(Ticket ticket) {
+        lock.lock();
+        try {
+            WorkflowSubmission.Priority priority = ticket.submission.getPriority();
+            ClassQueue classQueue = classQueues.get(priority);
+            TenantQueue tenantQueue = classQueue.tenants.get(ticket.submission.getTenant());
+            if (tenantQueue == null || !tenantQueue.tickets.remove(ticket)) {
+                // Already dispatched, or dropped on close
+                return;
+            }
+            classQueue.size--;
+            removeIfEmpty(classQueue, ticket.submission.getTenant(), tenantQueue);
+            recordQueueDepth(priority, classQueue.size);
+            queueNotFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a tenant queue that holds no more tickets. Must hold the lock.
+     * <p>
+     * A returning tenant gets a new queue starting at the class virtual time, the
+     * same pass an idle queue would be advanced to, so forgetting the queue only
+     * forgoes the part of its last stride that was ahead of the virtual time.
+     * </p>
+     */
+    private static void removeIfEmpty(ClassQueue classQueue, String tenant, TenantQueue tenantQueue) {
+        if (tenantQueue.tickets.isEmpty()) {
+            classQueue.tenants.remove(tenant, tenantQueue);
+        }
+    }
+
+    /**
+     * Starts queued submissions while execution slots are free. Must hold the lock.
+     */
+    private void dispatch() {
+        while (running < maxConcurrent && !closed) {
+            Ticket ticket = nextTicket();
+            if (ticket == null) {
+                return;
+            }
+            if (ticket.future.isDone()) {
+                // Cancelled by the caller before its removal from the queue
+                continue;
+            }
+            if (ticket.submission.isExpired(Instant.now())) {
+                metricsRegistry.record(Metric.counter("workflow.scheduler.expired",
+                    Map.of("priority", priorityTag(ticket.submission.getPriority()))));
+                ticket.future.completeExceptionally(new ConductorException("Workflow submission '" +
+                    ticket.submission.getId() + "' missed its deadline " + ticket.submission.getDeadline() +
+                    " while queued"));
+                continue;
+            }
+            running++;
+            start(ticket);
+        }
+    }
+
+    /**
+     * Removes the next ticket by class, tenant and deadline order. Must hold the lock.
+     */
+    private Ticket nextTicket() {
+        ClassQueue classQueue = null;
+        WorkflowSubmission.Priority priority = null;
+        for (Map.Entry<WorkflowSubmission.Priority, ClassQueue> entry : classQueues.entrySet()) {
+            ClassQueue candidate = entry.getValue();
+            if (candidate.size > 0 && (classQueue == null || candidate.pass < classQueue.pass)) {
+                classQueue = candidate;
+                priority = entry.getKey();
+            }
+        }
+        if (classQueue == null) {
+            return null;
+        }
+
+        TenantQueue tenantQueue = null;
+        for (TenantQueue candidate : classQueue.tenants.values()) {
+            if (!candidate.tickets.isEmpty() && (tenantQueue == null || candidate.pass < tenantQueue.pass)) {
+                tenantQueue = candidate;
+            }
+        }
+
+        classVirtualTime = classQueue.pass;
+        classQueue.pass += 1.0 / classQueue.weight;
+        classQueue.tenantVirtualTime = tenantQueue.pass;
+        tenantQueue.pass += 1.0 / tenantQueue.weight;
+
+        Ticket ticket = tenantQueue.tickets.poll();
+        classQueue.size--;
+        removeIfEmpty(classQueue, ticket.submission.getTenant(), tenantQueue);
+        recordQueueDepth(priority, classQueue.size);
+        queueNotFull.signalAll();
+        return ticket;
+    }
+
+    private void start(Ticket ticket) {
+        WorkflowSubmission submission = ticket.submission;
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ticket.enqueuedNanos);
+        metricsRegistry.record(Metric.timer("workflow.scheduler.wait.time", waitMs,
+            Map.of("priority", priorityTag(submission.getPriority()), "tenant", submission.getTenant())));
+        logger.debug("Dispatching workflow submission '{}' ({}, tenant '{}') after {}ms in queue",
+            submission.getId(), submission.getPriority(), submission.getTenant(), waitMs);
+
+        executor.execute(() -> {
+            try {
+                ticket.future.complete(submission.getEngine().execute(submission.getInputs()));
+            } catch (Throwable t) {
+                ticket.future.completeExceptionally(t);
+            } finally {
+                lock.lock();
+                try {
+                    running--;
+                    dispatch();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private void recordQueueDepth(WorkflowSubmission.Priority priority, int depth) {
+        metricsRegistry.record(Metric.gauge("workflow.scheduler.queue.depth", depth,
+            Map.of("priority", priorityTag(priority))));
+    }
+
+    private static String priorityTag(WorkflowSubmission.Priority priority) {
+        return priority.name().toLowerCase();
+    }
+
+    /**
+     * Gets the number of queued submissions across all priority classes.
+     *
+     * @return the total queue depth
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return classQueues.values().stream().mapToInt(q -> q.size).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of queued submissions of a priority class.
+     *
+     * @param priority the priority class
+     * @return the class queue depth
+     */
+    public int getQueueDepth(WorkflowSubmission.Priority priority) {
+        lock.lock();
+        try {
+            return classQueues.get(priority).size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tenant queues holding submissions, across all priority classes.
+     *
+     * @return the tenant queue count
+     */
+    public int getTenantQueueCount() {
+        lock.lock();
+        try {
+            return classQueues.values().stream().mapToInt(q -> q.tenants.size()).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of workflows currently executing.
+     *
+     * @return the running count
+     */
+    public int getRunningCount() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the scheduler, failing all queued submissions.
+     * <p>
+     * Workflows already executing are allowed to finish.
+     * </p>
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (ClassQueue classQueue : classQueues.values()) {
+                for (TenantQueue tenantQueue : classQueue.tenants.values()) {
+                    for (Ticket ticket : tenantQueue.tickets) {
+                        ticket.future.completeExceptionally(
+                            new ConductorException("Workflow scheduler closed before submission '" +
+                                ticket.submission.getId() + "' was dispatched"));
+                    }
+                    tenantQueue.tickets.clear();
+                }
+                classQueue.tenants.clear();
+                classQueue.size = 0;
+            }
+            queueNotFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdown();
+        logger.info("WorkflowScheduler closed");
+    }
+
+    public static class Builder {
+        private int maxConcurrent;
+        private int queueCapacity;
+        private OverflowPolicy overflowPolicy;
+        private Duration enqueueTimeout;
+        private final Map<WorkflowSubmission.Priority, Integer> priorityWeights =
+            new EnumMap<>(WorkflowSubmission.Priority.class);
+        private final Map<String, Integer> tenantWeights = new HashMap<>();
+        private MetricsRegistry metricsRegistry;
+
+        private Builder(WorkflowConfig config) {
+            this.maxConcurrent = config.getSchedulerMaxConcurrent();
+            this.queueCapacity = config.getSchedulerQueueCapacity();
+            this.overflowPolicy = OverflowPolicy.valueOf(config.getSchedulerOverflowPolicy().toUpperCase());
+            this.enqueueTimeout = config.getSchedulerEnqueueTimeout();
+            priorityWeights.put(WorkflowSubmission.Priority.INTERACTIVE, 8);
+            priorityWeights.put(WorkflowSubmission.Priority.NORMAL, 4);
+            priorityWeights.put(WorkflowSubmission.Priority.BATCH, 1);
+        }
+
+        public Builder maxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of queued submissions per priority class.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets how long {@link OverflowPolicy#QUEUE} waits for room in a full queue.
+         */
+        public Builder enqueueTimeout(Duration enqueueTimeout) {
+            this.enqueueTimeout = enqueueTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the share of execution slots a priority class receives while other classes are backlogged.
+         */
+        public Builder priorityWeight(WorkflowSubmission.Priority priority, int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("priority weight must be at least 1");
+            }
+            this.priorityWeights.put(priority, weight);
+            return this;
+        }
+
+        /**
+         * Sets the share of its priority class a tenant receives; tenants default to weight 1.
+         */
+        public Builder tenantWeight(String tenant, int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("tenant weight must be at least 1");
+            }
+            this.tenantWeights.put(tenant, weight);
+            return this;
+        }
+
+        public Builder metricsRegistry(MetricsRegistry metricsRegistry) {
+            this.metricsRegistry = metricsRegistry;
+            return this;
+        }
+
+        public WorkflowScheduler build() {
+            if (maxConcurrent < 1) {
+                throw new IllegalArgumentException("maxConcurrent must be at least 1");
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity must be at least 1");
+            }
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("overflowPolicy cannot be null");
+            }
+            if (enqueueTimeout == null || enqueueTimeout.isNegative()) {
+                throw new IllegalArgumentException("enqueueTimeout must not be negative");
+            }
+            return new WorkflowScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.skanga.conductor.engine.scheduling;
+
+import com.skanga.conductor.engine.WorkflowEngine;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A request to execute a workflow through the {@link WorkflowScheduler}.
+ * <p>
+ * Besides the engine and its inputs, a submission carries the scheduling attributes
+ * the scheduler orders by: the priority class, the tenant (or workflow type) used
+ * for weighted-fair sharing, and an optional deadline.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class WorkflowSubmission {
+
+    /**
+     * Priority classes of workflow submissions.
+     */
+    public enum Priority {
+        /** Latency-sensitive requests with a user waiting on the result. */
+        INTERACTIVE,
+        /** Default class for regular requests. */
+        NORMAL,
+        /** Throughput-oriented background jobs. */
+        BATCH
+    }
+
+    private final String id;
+    private final WorkflowEngine engine;
+    private final String[] inputs;
+    private final String tenant;
+    private final Priority priority;
+    private final Instant deadline;
+
+    private WorkflowSubmission(Builder builder) {
+        this.id = builder.id != null ? builder.id : UUID.randomUUID().toString();
+        this.engine = builder.engine;
+        this.inputs = builder.inputs != null ? builder.inputs.clone() : new String[0];
+        this.tenant = builder.tenant;
+        this.priority = builder.priority;
+        this.deadline = builder.deadline;
+    }
+
+    /**
+     * Creates a builder for a submission executed by the given engine.
+     *
+     * @param engine the engine executing the workflow
+     * @return a new builder
+     */
+    public static Builder builder(WorkflowEngine engine) {
+        return new Builder(engine);
+    }
+
+    public String getId() { return id; }
+    public WorkflowEngine getEngine() { return engine; }
+    public String[] getInputs() { return inputs.clone(); }
+    public String getTenant() { return tenant; }
+    public Priority getPriority() { return priority; }
+    public Instant getDeadline() { return deadline; }
+
+    /**
+     * Checks if the deadline of this submission has passed.
+     *
+     * @param now the current time
+     * @return true if the submission has a deadline before {@code now}
+     */
+    public boolean isExpired(Instant now) {
+        return deadline != null && deadline.isBefore(now);
+    }
+
+    public static class Builder {
+        private final WorkflowEngine engine;
+        private String id;
+        private String[] inputs;
+        private String tenant = "default";
+        private Priority priority = Priority.NORMAL;
+        private Instant deadline;
+
+        private Builder(WorkflowEngine engine) {
+            this.engine = engine;
+        }
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder inputs(String... inputs) {
+            this.inputs = inputs;
+            return this;
+        }
+
+        /**
+         * Sets the tenant or workflow type this submission is accounted to.
+         */
+        public Builder tenant(String tenant) {
+            this.tenant = tenant;
+            return this;
+        }
+
+        public Builder priority(Priority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sets the time by which the workflow must have started; submissions still
+         * queued at their deadline are failed instead of executed.
+         */
+        public Builder deadline(Instant deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        public WorkflowSubmission build() {
+            if (engine == null) {
+                throw new IllegalArgumentException("workflow engine cannot be null");
+            }
+            if (tenant == null || tenant.isBlank()) {
+                throw new IllegalArgumentException("tenant cannot be null or blank");
+            }
+            if (priority == null) {
+                throw new IllegalArgumentException("priority cannot be null");
+            }
+            return new WorkflowSubmission(this);
+        }
+    }
+}
@@ -223,6 +223,63 @@ public class ConductorException extends Exception {
         }
     }
 
+    /**
+     * Unchecked exception thrown when work is abandoned because its
+     * {@link com.skanga.conductor.execution.CancellationToken} was cancelled or
+     * its deadline passed.
+     * <p>
+     * Cancellation is never retried. It is unchecked so that it passes through
+     * retry loops and functional interfaces unchanged up to the workflow that
+     * owns the token.
+     * </p>
+     *
+     * @since 2.0.0
+     * @see com.skanga.conductor.execution.CancellationToken
+     */
+    public static class ExecutionCancelledException extends ConductorRuntimeException {
+        /**
+         * Constructs a new ExecutionCancelledException with the specified detail message.
+         *
+         * @param message the detail message explaining why execution was cancelled
+         */
+        public ExecutionCancelledException(String message) {
+            super(message);
+        }
+
+        /**
+         * Constructs a new ExecutionCancelledException with the specified detail message and cause.
+         *
+         * @param message the detail message explaining why execution was cancelled
+         * @param cause the exception raised by the aborted operation
+         */
+        public ExecutionCancelledException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Unchecked exception thrown when an LLM call is refused because the token or
+     * cost budget of its workflow run is spent.
+     * <p>
+     * Like cancellation, an exhausted budget is never retried: it is unchecked so
+     * that it passes through retry loops and functional interfaces unchanged and
+     * fails the run fast.
+     * </p>
+     *
+     * @since 2.0.0
+     * @see com.skanga.conductor.provider.TokenBudget
+     */
+    public static class BudgetExceededException extends ConductorRuntimeException {
+        /**
+         * Constructs a new BudgetExceededException with the specified detail message.
+         *
+         * @param message the detail message describing the exhausted budget
+         */
+        public BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+
     /**
      * Exception thrown when LLM provider operations fail.
      * <p>
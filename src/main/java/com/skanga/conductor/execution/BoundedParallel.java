@@ -0,0 +1,100 @@
+package com.skanga.conductor.execution;
+
+import com.skanga.conductor.provider.UsageScope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a batch of tasks concurrently with bounded parallelism, failing fast.
+ * <p>
+ * Each task runs on its own virtual thread, at most {@code maxConcurrent} at a
+ * time, with the caller's context bound: a child of the caller's
+ * {@link CancellationToken} and the caller's {@link UsageScope}. The first task
+ * to fail cancels the child token, so the tasks still running or queued are
+ * abandoned, and its failure is reported rather than the cancellations it caused.
+ * A batch of a single task runs on the calling thread.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class BoundedParallel {
+
+    private BoundedParallel() {
+    }
+
+    /**
+     * Runs tasks concurrently and returns their results in task order.
+     *
+     * @param tasks the tasks to run
+     * @param maxConcurrent the maximum number of tasks running at a time
+     * @param name the name of the batch, used to name the threads and the cancellation reason
+     * @param <T> the type of the results
+     * @return the results, in the order of the tasks
+     * @throws ExecutionException if a task fails; its cause is the first failure
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int maxConcurrent, String name)
+            throws ExecutionException, InterruptedException {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        if (tasks.size() == 1) {
+            CancellationToken.current().throwIfCancelled();
+            try {
+                return List.of(tasks.get(0).call());
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+        }
+
+        CancellationToken token = CancellationToken.current().child();
+        UsageScope usageScope = UsageScope.current();
+        Semaphore permits = new Semaphore(maxConcurrent);
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(name + "-", 0).factory())) {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try (CancellationToken.Scope ignored = token.bind();
+                         UsageScope.Binding usage = usageScope.bind()) {
+                        token.throwIfCancelled();
+                        return task.call();
+                    } catch (Exception e) {
+                        // Fail fast: abandon the tasks still running or queued
+                        if (firstFailure.compareAndSet(null, e)) {
+                            token.cancel(name + " task failed");
+                        }
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            // Report the failure that cancelled the other tasks, not a cancellation it caused
+            Exception failure = firstFailure.get();
+            throw failure != null ? new ExecutionException(failure) : e;
+        } catch (InterruptedException e) {
+            token.cancel(name + " interrupted");
+            throw e;
+        } finally {
+            token.close();
+        }
+    }
+}
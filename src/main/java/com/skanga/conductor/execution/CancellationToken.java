@@ -0,0 +1,327 @@
+package com.skanga.conductor.execution;
+
+import com.skanga.conductor.exception.ConductorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline and cancellation signal shared by all work of a workflow run.
+ * <p>
+ * A token is cancelled explicitly with {@link #cancel(String)} or when its
+ * deadline passes. Child tokens created with {@link #child()} or
+ * {@link #withTimeout(Duration)} are cancelled together with their parent, so a
+ * run token cancels every stage and task of the run, while cancelling one stage
+ * leaves its siblings running.
+ * </p>
+ * <p>
+ * Blocking code reacts to cancellation in three ways:
+ * </p>
+ * <ul>
+ * <li>waits such as retry back-off and rate limiting use {@link #await(Duration)},
+ * which returns as soon as the token is cancelled</li>
+ * <li>blocking I/O such as HTTP calls to LLM providers is aborted by interrupting
+ * the calling thread, registered with {@link #interruptOnCancel()}</li>
+ * <li>loops check {@link #throwIfCancelled()} before starting further work</li>
+ * </ul>
+ * <p>
+ * Closing a token once its work has finished detaches it from its parent and its
+ * deadline timer without cancelling anything.
+ * </p>
+ * <p>
+ * Tokens are bound to the executing thread with {@link #bind()}, so code deep in
+ * the call chain, such as LLM providers, finds the token of its run through
+ * {@link #current()} without passing it through every interface.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class CancellationToken implements AutoCloseable {
+
+    private static final CancellationToken NONE = new CancellationToken(null, null);
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("cancellation-deadlines").factory());
+
+    private final Instant deadline;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+    private final ScheduledFuture<?> deadlineTask;
+    private final Scope parentRegistration;
+    private volatile String reason;
+
+    private CancellationToken(CancellationToken parent, Instant deadline) {
+        Instant parentDeadline = parent != null ? parent.deadline : null;
+        this.deadline = parentDeadline == null || (deadline != null && deadline.isBefore(parentDeadline))
+            ? deadline : parentDeadline;
+        this.parentRegistration = parent != null && parent != NONE
+            ? parent.onCancel(() -> cancel(parent.getReason()))
+            : null;
+        if (this.deadline != null && !isCancelled()) {
+            long delayMs = Math.max(0, Duration.between(Instant.now(), this.deadline).toMillis());
+            this.deadlineTask = DEADLINES.schedule(() -> cancel("deadline exceeded"), delayMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.deadlineTask = null;
+        }
+    }
+
+    /**
+     * Gets the token that is never cancelled.
+     *
+     * @return the shared token without deadline
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a token without deadline that can be cancelled explicitly.
+     *
+     * @return the new token
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(null, null);
+    }
+
+    /**
+     * Creates a token that is cancelled once the timeout has elapsed.
+     *
+     * @param timeout the time until the deadline
+     * @return the new token
+     */
+    public static CancellationToken withDeadline(Duration timeout) {
+        return new CancellationToken(null, Instant.now().plus(timeout));
+    }
+
+    /**
+     * Gets the token bound to the current thread.
+     *
+     * @return the bound token, or {@link #none()} if no token is bound
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    /**
+     * Binds this token to the current thread until the returned scope is closed.
+     *
+     * @return the scope restoring the previously bound token on close
+     */
+    public Scope bind() {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Creates a child token, cancelled with this token or on its own.
+     *
+     * @return the child token
+     */
+    public CancellationToken child() {
+        return new CancellationToken(this, null);
+    }
+
+    /**
+     * Creates a child token whose deadline is the earlier of this token's
+     * deadline and the given timeout.
+     *
+     * @param timeout the time until the child's own deadline
+     * @return the child token
+     */
+    public CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(this, Instant.now().plus(timeout));
+    }
+
+    /**
+     * Cancels this token and its children and runs the registered callbacks.
+     * Cancelling an already cancelled token has no effect.
+     *
+     * @param reason why the work is cancelled
+     */
+    public void cancel(String reason) {
+        if (this == NONE) {
+            return;
+        }
+        synchronized (this) {
+            if (this.reason != null) {
+                return;
+            }
+            this.reason = reason != null ? reason : "cancelled";
+        }
+        cancelled.countDown();
+        if (deadlineTask != null) {
+            deadlineTask.cancel(false);
+        }
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+        callbacks.clear();
+    }
+
+    /**
+     * Releases this token after its work has finished, without cancelling it.
+     * The token stops following its parent and its deadline.
+     */
+    @Override
+    public void close() {
+        if (deadlineTask != null) {
+            deadlineTask.cancel(false);
+        }
+        if (parentRegistration != null) {
+            parentRegistration.close();
+        }
+    }
+
+    /**
+     * Checks if this token has been cancelled or its deadline has passed.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        if (reason != null) {
+            return true;
+        }
+        if (deadline != null && !Instant.now().isBefore(deadline)) {
+            cancel("deadline exceeded");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets why the token was cancelled.
+     *
+     * @return the cancellation reason, or null if not cancelled
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets the deadline of this token.
+     *
+     * @return the deadline, or null if the token has none
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return the remaining time, zero once cancelled, or null if the token has no deadline
+     */
+    public Duration remaining() {
+        if (isCancelled()) {
+            return Duration.ZERO;
+        }
+        if (deadline == null) {
+            return null;
+        }
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * Throws if this token has been cancelled.
+     *
+     * @throws ConductorException.ExecutionCancelledException if cancelled
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new ConductorException.ExecutionCancelledException("Execution cancelled: " + reason);
+        }
+    }
+
+    /**
+     * Waits until the timeout elapses or the token is cancelled, whichever comes first.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if the token was cancelled
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        if (this == NONE) {
+            Thread.sleep(timeout.toMillis(), (int) (timeout.toNanos() % 1_000_000));
+            return false;
+        }
+        return cancelled.await(timeout.toNanos(), TimeUnit.NANOSECONDS) || isCancelled();
+    }
+
+    /**
+     * Registers a callback run once when the token is cancelled. If the token is
+     * already cancelled, the callback runs immediately.
+     *
+     * @param callback the callback
+     * @return the registration; closing it removes the callback
+     */
+    public Scope onCancel(Runnable callback) {
+        if (this == NONE) {
+            return () -> { };
+        }
+        callbacks.add(callback);
+        if (reason != null && callbacks.remove(callback)) {
+            callback.run();
+        }
+        return () -> callbacks.remove(callback);
+    }
+
+    /**
+     * Interrupts the current thread when the token is cancelled, aborting blocking
+     * I/O such as HTTP requests, until the returned scope is closed.
+     * <p>
+     * Close the scope as soon as the blocking call returns, so that a later
+     * cancellation does not interrupt unrelated work on a pooled thread.
+     * </p>
+     *
+     * @return the registration; closing it stops interrupting the thread
+     */
+    public Scope interruptOnCancel() {
+        if (this == NONE) {
+            return () -> { };
+        }
+        Thread thread = Thread.currentThread();
+        Object lock = new Object();
+        boolean[] active = {true};
+        Scope registration = onCancel(() -> {
+            synchronized (lock) {
+                if (active[0]) {
+                    thread.interrupt();
+                }
+            }
+        });
+        return () -> {
+            synchronized (lock) {
+                active[0] = false;
+            }
+            registration.close();
+        };
+    }
+
+    /**
+     * A binding or registration released by {@link #close()}.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
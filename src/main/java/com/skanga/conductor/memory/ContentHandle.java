@@ -0,0 +1,150 @@
+package com.skanga.conductor.memory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+
+/**
+ * Reference to a piece of text content that is either held on the heap or
+ * spilled to disk by an {@link OutputBlobStore}.
+ * <p>
+ * Handles let large stage outputs be passed around and kept for the length of
+ * a workflow run without holding their text on the heap. Consumers that only
+ * need to copy the content, such as output file writers, should stream it with
+ * {@link #writeTo(Writer)} rather than materialising it with {@link #asString()}.
+ * </p>
+ * <p>
+ * {@link #toString()} returns the content, so handles can be used directly as
+ * template variables.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see OutputBlobStore
+ */
+public interface ContentHandle {
+
+    /**
+     * Creates a handle holding the content on the heap.
+     *
+     * @param content the content
+     * @return the inline handle, or null if the content is null
+     */
+    static ContentHandle inline(String content) {
+        return content != null ? new Inline(content) : null;
+    }
+
+    /**
+     * Gets the length of the content in characters.
+     *
+     * @return the content length
+     */
+    long length();
+
+    /**
+     * Checks if the content is empty or contains only whitespace.
+     *
+     * @return true if the content is blank
+     */
+    boolean isBlank();
+
+    /**
+     * Checks if the content has been spilled to disk.
+     *
+     * @return true if the content is not held on the heap
+     */
+    boolean isSpilled();
+
+    /**
+     * Opens a reader over the content.
+     *
+     * @return the reader, to be closed by the caller
+     * @throws IOException if spilled content cannot be read
+     */
+    Reader openReader() throws IOException;
+
+    /**
+     * Reads the whole content into a string.
+     *
+     * @return the content
+     * @throws java.io.UncheckedIOException if spilled content cannot be read
+     */
+    String asString();
+
+    /**
+     * Copies the content to a writer without materialising it as a single string.
+     *
+     * @param writer the writer to copy to
+     * @throws IOException if the content cannot be read or written
+     */
+    default void writeTo(Writer writer) throws IOException {
+        try (Reader reader = openReader()) {
+            reader.transferTo(writer);
+        }
+    }
+
+    /**
+     * Reads up to the given number of leading characters of the content.
+     *
+     * @param maxChars the maximum number of characters
+     * @return the leading characters
+     * @throws IOException if spilled content cannot be read
+     */
+    default String head(int maxChars) throws IOException {
+        char[] buffer = new char[(int) Math.min(maxChars, length())];
+        int filled = 0;
+        try (Reader reader = openReader()) {
+            int read;
+            while (filled < buffer.length && (read = reader.read(buffer, filled, buffer.length - filled)) > 0) {
+                filled += read;
+            }
+        }
+        return new String(buffer, 0, filled);
+    }
+
+    /**
+     * Content held on the heap.
+     */
+    record Inline(String content) implements ContentHandle {
+
+        @Override
+        public long length() {
+            return content.length();
+        }
+
+        @Override
+        public boolean isBlank() {
+            return content.isBlank();
+        }
+
+        @Override
+        public boolean isSpilled() {
+            return false;
+        }
+
+        @Override
+        public Reader openReader() {
+            return new StringReader(content);
+        }
+
+        @Override
+        public String asString() {
+            return content;
+        }
+
+        @Override
+        public void writeTo(Writer writer) throws IOException {
+            writer.write(content);
+        }
+
+        @Override
+        public String head(int maxChars) {
+            return content.length() > maxChars ? content.substring(0, maxChars) : content;
+        }
+
+        @Override
+        public String toString() {
+            return content;
+        }
+    }
+}
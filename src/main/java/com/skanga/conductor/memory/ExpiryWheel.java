@@ -0,0 +1,352 @@
+package com.skanga.conductor.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel closing resources when they expire.
+ * <p>
+ * Time is divided into ticks of a fixed duration and the wheel holds one bucket
+ * per tick of a revolution. A resource is hashed to the bucket of the tick its
+ * deadline falls in, together with the number of full revolutions still to wait,
+ * so scheduling and cancelling are O(1) whatever the number of entries and each
+ * advance only visits the buckets of the ticks elapsed since the last one.
+ * Resources are closed at most one tick after their deadline, and never before it.
+ * </p>
+ * <p>
+ * Scheduling and cancelling threads never touch the buckets: entries are handed
+ * over through lock-free queues and applied by the thread advancing the wheel,
+ * under the wheel lock. The wheel is advanced by a dedicated daemon tick thread,
+ * started with the first entry and parked while the wheel is empty, and by
+ * explicit calls to {@link #advance()}. Resources are closed outside the lock.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see ResourceTracker
+ */
+final class ExpiryWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryWheel.class);
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    /** Longest delay tracked, which keeps deadline arithmetic clear of overflow. */
+    private static final long MAX_DELAY_NANOS = Long.MAX_VALUE / 4;
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final String threadName;
+    private final long startNanos = System.nanoTime();
+
+    private final Queue<Entry> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Thread tickThread;
+    private volatile boolean stopped;
+
+    // Guarded by lock
+    private long tick;
+    private int bucketed;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickDuration the duration of a tick, which bounds how late a resource is closed
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param threadName the name of the tick thread
+     */
+    ExpiryWheel(Duration tickDuration, int wheelSize, String threadName) {
+        if (tickDuration == null || tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("tick duration must be positive");
+        }
+        if (wheelSize < 1 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("wheel size must be between 1 and 1048576");
+        }
+        int length = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new Bucket[length];
+        for (int i = 0; i < length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = length - 1;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Schedules a resource to be closed at the given time.
+     *
+     * @param resource the resource
+     * @param expirationTime when to close it
+     * @return the handle of the scheduled entry
+     */
+    Entry schedule(AutoCloseable resource, Instant expirationTime) {
+        long delayNanos;
+        try {
+            delayNanos = Math.max(0, Duration.between(Instant.now(), expirationTime).toNanos());
+        } catch (ArithmeticException e) {
+            delayNanos = MAX_DELAY_NANOS;
+        }
+        Entry entry = new Entry(resource, expirationTime,
+            System.nanoTime() - startNanos + Math.min(delayNanos, MAX_DELAY_NANOS));
+        additions.offer(entry);
+        if (size.getAndIncrement() == 0) {
+            wakeTickThread();
+        }
+        return entry;
+    }
+
+    /**
+     * Closes every resource whose deadline has passed.
+     *
+     * @return the number of resources closed without error
+     */
+    int advance() {
+        List<Entry> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            long elapsed = System.nanoTime() - startNanos;
+            long elapsedTicks = elapsed / tickNanos;
+            applyCancellations();
+            if (bucketed == 0 && additions.isEmpty()) {
+                // Nothing scheduled: skip the idle ticks rather than walking empty buckets
+                tick = Math.max(tick, elapsedTicks);
+            }
+            while (tick < elapsedTicks) {
+                transferAdditions();
+                buckets[(int) (tick & mask)].expire(expired);
+                tick++;
+            }
+            transferAdditions();
+            // Entries due within the tick in progress need not wait for its end
+            buckets[(int) (tick & mask)].expireDue(elapsed, expired);
+        } finally {
+            lock.unlock();
+        }
+
+        int closed = 0;
+        for (Entry entry : expired) {
+            try {
+                entry.resource.close();
+                closed++;
+            } catch (Exception e) {
+                logger.debug("Error closing expired resource", e);
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Gets the number of resources scheduled and neither expired nor cancelled.
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Stops the tick thread. Resources still scheduled are only closed by explicit
+     * calls to {@link #advance()} from then on.
+     */
+    void stop() {
+        stopped = true;
+        Thread thread = tickThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void wakeTickThread() {
+        if (stopped) {
+            return;
+        }
+        if (started.compareAndSet(false, true)) {
+            Thread thread = Thread.ofPlatform().name(threadName).daemon().unstarted(this::run);
+            tickThread = thread;
+            thread.start();
+        } else {
+            Thread thread = tickThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private void run() {
+        logger.debug("Expiry wheel tick thread started");
+        while (!stopped) {
+            if (size.get() == 0) {
+                // Release cancelled entries, then sleep until something is scheduled
+                advance();
+                if (size.get() == 0 && !stopped) {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            LockSupport.parkNanos(this, tickNanos - elapsed % tickNanos);
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                logger.warn("Error advancing the expiry wheel: {}", e.getMessage());
+            }
+        }
+        logger.debug("Expiry wheel tick thread stopped");
+    }
+
+    private void applyCancellations() {
+        Entry entry;
+        while ((entry = cancellations.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        Entry entry;
+        while ((entry = additions.poll()) != null) {
+            if (entry.state != PENDING) {
+                continue;
+            }
+            long target = Math.max(entry.deadlineNanos / tickNanos, tick);
+            entry.remainingRounds = (target - tick) / buckets.length;
+            buckets[(int) (target & mask)].add(entry);
+        }
+    }
+
+    /**
+     * A scheduled resource, linked into the bucket of its deadline.
+     */
+    final class Entry implements ResourceTracker.ExpiryHandle {
+
+        private static final AtomicIntegerFieldUpdater<Entry> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        private final AutoCloseable resource;
+        private final Instant expirationTime;
+        private final long deadlineNanos;
+        private volatile int state = PENDING;
+
+        // Guarded by the wheel lock
+        private long remainingRounds;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(AutoCloseable resource, Instant expirationTime, long deadlineNanos) {
+            this.resource = resource;
+            this.expirationTime = expirationTime;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public Instant getExpirationTime() {
+            return expirationTime;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            size.decrementAndGet();
+            cancellations.offer(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly-linked list of the entries hashed to one tick, guarded by the wheel lock.
+     */
+    private final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+            }
+            tail = entry;
+            bucketed++;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            } else {
+                tail = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+            bucketed--;
+        }
+
+        void expireDue(long elapsed, List<Entry> expired) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.remainingRounds <= 0 && entry.deadlineNanos <= elapsed) {
+                    remove(entry);
+                    if (Entry.STATE.compareAndSet(entry, PENDING, EXPIRED)) {
+                        size.decrementAndGet();
+                        expired.add(entry);
+                    }
+                }
+                entry = next;
+            }
+        }
+
+        void expire(List<Entry> expired) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.remainingRounds <= 0) {
+                    remove(entry);
+                    if (Entry.STATE.compareAndSet(entry, PENDING, EXPIRED)) {
+                        size.decrementAndGet();
+                        expired.add(entry);
+                    }
+                } else {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+            }
+        }
+    }
+}
@@ -7,8 +7,18 @@ import com.skanga.conductor.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.management.MemoryUsage;
 import java.lang.ref.WeakReference;
 import java.time.Instant;
@@ -24,17 +34,30 @@ import java.util.concurrent.atomic.AtomicLong;
  * This class provides comprehensive memory management capabilities including:
  * </p>
  * <ul>
- * <li>Automatic garbage collection triggering based on memory thresholds</li>
+ * <li>Event-driven heap pressure detection from old generation occupancy after garbage collection</li>
+ * <li>Tiered relief: shedding registered caches, then running cleanup tasks</li>
  * <li>Resource cleanup registration and execution</li>
- * <li>Memory usage monitoring and alerting</li>
  * <li>Periodic cleanup of expired resources</li>
  * <li>Emergency cleanup during memory pressure</li>
  * <li>Metrics collection for memory usage patterns</li>
  * </ul>
  * <p>
- * The memory manager runs background tasks to monitor memory usage and
- * automatically clean up resources when necessary. It integrates with the
- * metrics system to provide visibility into memory usage patterns.
+ * Heap pressure is measured as the occupancy of the old generation after the
+ * last collection that covered it, which ignores garbage that the next
+ * collection would reclaim. Instead of polling the heap, the manager listens
+ * for garbage collection notifications and for the old generation pool's usage
+ * thresholds. When the occupancy reaches a threshold, relief is tiered by state:
+ * </p>
+ * <ul>
+ * <li>{@link MemoryState#WARNING}: registered {@link MemoryShedder}s drop their
+ * least recently used entries, before the heap is critical</li>
+ * <li>{@link MemoryState#CRITICAL}: shedders drop all entries and cleanup tasks run</li>
+ * <li>{@link MemoryState#EMERGENCY}: as critical, with aggressive cleanup tasks</li>
+ * </ul>
+ * <p>
+ * The manager never requests a garbage collection: forced collections are
+ * stop-the-world pauses in the middle of running workflows. If the JVM offers
+ * neither notifications nor thresholds, the heap is polled at the monitoring interval.
  * </p>
  * <p>
  * Thread Safety: This class is fully thread-safe for concurrent access.
@@ -53,6 +76,9 @@ public class MemoryManager implements AutoCloseable {
     private final double criticalThreshold;
     private final double emergencyThreshold;
 
+    // Minimum time between two relief actions while the state does not escalate
+    private static final long RELIEF_INTERVAL_MS = 60_000;
+
     // Cleanup intervals - configurable via MemoryConfig
     private final long monitoringIntervalMs;
     private final long cleanupIntervalMs;
@@ -67,6 +93,16 @@ public class MemoryManager implements AutoCloseable {
     // Delegated resource tracking
     private final ResourceTracker resourceTracker;
 
+    // Event-driven pressure detection; the pool is null when thresholds are not supported
+    private final MemoryPoolMXBean oldGenerationPool;
+    private final NotificationListener gcListener = this::handleGcNotification;
+    private final NotificationListener thresholdListener = this::handleThresholdNotification;
+    private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+    private final AtomicLong gcEventCount = new AtomicLong();
+    private volatile boolean eventDriven;
+    private volatile long lastCollectionUsed = -1;
+    private volatile long lastReliefTime;
+
     // Memory usage tracking
     private volatile double lastMemoryUsage = 0.0;
     private volatile MemoryState currentState = MemoryState.NORMAL;
@@ -129,8 +165,10 @@ public class MemoryManager implements AutoCloseable {
             return t;
         });
 
+        this.oldGenerationPool = findOldGenerationPool();
         startBackgroundTasks();
-        logger.info("MemoryManager initialized with monitoring enabled (warning={}%, critical={}%, emergency={}%)",
+        logger.info("MemoryManager initialized with {} monitoring (warning={}%, critical={}%, emergency={}%)",
+            isEventDriven() ? "event-driven" : "polling",
             warningThreshold * 100, criticalThreshold * 100, emergencyThreshold * 100);
     }
 
@@ -183,18 +221,19 @@ public class MemoryManager implements AutoCloseable {
      *
      * @param resource the resource to track
      * @param expirationTime when the resource should expire
+     * @return a handle to cancel tracking before the resource expires
      * @throws IllegalArgumentException if resource is null or expiration is in the past
      */
-    public void registerExpirableResource(AutoCloseable resource, Instant expirationTime) {
-        resourceTracker.registerExpirableResource(resource, expirationTime);
+    public ResourceTracker.ExpiryHandle registerExpirableResource(AutoCloseable resource, Instant expirationTime) {
+        return resourceTracker.registerExpirableResource(resource, expirationTime);
     }
 
     /**
      * Manually triggers memory cleanup.
      * <p>
-     * This method executes all registered cleanup tasks and performs
-     * garbage collection. It can be called manually when memory pressure
-     * is detected by the application.
+     * This method cleans up expired and collected resources and executes all
+     * registered cleanup tasks. It never requests a garbage collection; the
+     * memory released is reclaimed by the next regular collection.
      * </p>
      *
      * @param aggressive if true, performs more aggressive cleanup
@@ -216,21 +255,6 @@ public class MemoryManager implements AutoCloseable {
             // Execute registered cleanup tasks
             resourceTracker.executeCleanupTasks(aggressive);
 
-            // Suggest garbage collection
-            if (aggressive) {
-                System.gc();
-                // Schedule delayed memory check instead of blocking
-                // This allows cleanup thread to continue working while GC runs
-                long gcDelay = getGcSleepDelay();
-                if (gcDelay > 0) {
-                    // Schedule async check instead of blocking
-                    scheduler.schedule(() -> {
-                        double memoryAfterGC = getCurrentMemoryUsage();
-                        logger.debug("Post-GC memory usage: {:.1f}%", memoryAfterGC * 100);
-                    }, gcDelay, java.util.concurrent.TimeUnit.MILLISECONDS);
-                }
-            }
-
             double memoryAfter = getCurrentMemoryUsage();
             long duration = System.currentTimeMillis() - startTime;
             long memoryFreed = estimateMemoryFreed(memoryBefore, memoryAfter);
@@ -268,6 +292,26 @@ public class MemoryManager implements AutoCloseable {
         return max > 0 ? (double) used / max : 0.0;
     }
 
+    /**
+     * Gets the occupancy of the old generation after the last collection that
+     * covered it, as a fraction of its maximum size (0.0 to 1.0).
+     * <p>
+     * Falls back to the current heap usage when the JVM does not report it.
+     * </p>
+     *
+     * @return the post-GC occupancy
+     */
+    public double getPostGcOccupancy() {
+        if (oldGenerationPool != null) {
+            MemoryUsage collectionUsage = oldGenerationPool.getCollectionUsage();
+            long max = poolMax();
+            if (collectionUsage != null && max > 0) {
+                return (double) collectionUsage.getUsed() / max;
+            }
+        }
+        return getCurrentMemoryUsage();
+    }
+
     /**
      * Gets the current memory state based on usage thresholds.
      *
@@ -301,12 +345,12 @@ public class MemoryManager implements AutoCloseable {
     }
 
     /**
-     * Checks if memory usage is above the critical threshold.
+     * Checks if the post-GC occupancy is above the critical threshold.
      *
      * @return true if memory usage is critical
      */
     public boolean isMemoryPressureHigh() {
-        return getCurrentMemoryUsage() >= criticalThreshold;
+        return getPostGcOccupancy() >= criticalThreshold;
     }
 
     /**
@@ -317,7 +361,7 @@ public class MemoryManager implements AutoCloseable {
      * </p>
      */
     public void emergencyCleanup() {
-        double memoryUsage = getCurrentMemoryUsage();
+        double memoryUsage = getPostGcOccupancy();
         if (memoryUsage >= emergencyThreshold) {
             logger.warn("Emergency memory cleanup triggered - memory usage: {:.1f}%", memoryUsage * 100);
             performCleanup(true);
@@ -327,6 +371,7 @@ public class MemoryManager implements AutoCloseable {
     @Override
     public void close() {
         running.set(false);
+        removeListeners();
 
         try {
             scheduler.shutdown();
@@ -336,6 +381,7 @@ public class MemoryManager implements AutoCloseable {
 
             // Perform final cleanup
             performCleanup(false);
+            resourceTracker.close();
 
             logger.info("MemoryManager shutdown completed");
 
@@ -346,16 +392,19 @@ public class MemoryManager implements AutoCloseable {
     }
 
     /**
-     * Starts background monitoring and cleanup tasks.
+     * Starts pressure detection and the periodic cleanup task.
      */
     private void startBackgroundTasks() {
-        // Memory monitoring task
-        scheduler.scheduleAtFixedRate(
-            this::monitorMemoryUsage,
-            monitoringIntervalMs,
-            monitoringIntervalMs,
-            TimeUnit.MILLISECONDS
-        );
+        eventDriven = registerListeners();
+        if (!eventDriven) {
+            // No notifications or thresholds: fall back to polling the heap
+            scheduler.scheduleAtFixedRate(
+                this::monitorMemoryUsage,
+                monitoringIntervalMs,
+                monitoringIntervalMs,
+                TimeUnit.MILLISECONDS
+            );
+        }
 
         // Periodic cleanup task
         scheduler.scheduleAtFixedRate(
@@ -367,42 +416,204 @@ public class MemoryManager implements AutoCloseable {
     }
 
     /**
-     * Monitors memory usage and updates state.
+     * Finds the heap pool holding long-lived objects: the largest heap pool
+     * supporting both usage and collection usage thresholds.
      */
-    private void monitorMemoryUsage() {
-        if (!running.get()) {
-            return;
+    private static MemoryPoolMXBean findOldGenerationPool() {
+        MemoryPoolMXBean oldGeneration = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isValid()
+                    || !pool.isUsageThresholdSupported() || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            if (oldGeneration == null || pool.getUsage().getMax() > oldGeneration.getUsage().getMax()) {
+                oldGeneration = pool;
+            }
         }
+        return oldGeneration;
+    }
 
+    /**
+     * Sets the old generation thresholds and registers the notification listeners.
+     *
+     * @return true if pressure is detected from events
+     */
+    private boolean registerListeners() {
+        if (oldGenerationPool == null) {
+            return false;
+        }
+        long max = poolMax();
+        if (max <= 0) {
+            return false;
+        }
         try {
-            double memoryUsage = getCurrentMemoryUsage();
-            lastMemoryUsage = memoryUsage;
-
-            MemoryState newState = determineMemoryState(memoryUsage);
-            if (newState != currentState) {
-                logger.info("Memory state changed: {} -> {} (usage: {:.1f}%)",
-                    currentState, newState, memoryUsage * 100);
-                currentState = newState;
+            // Post-GC occupancy at the warning level, and usage between collections
+            // reaching the critical level as an early hint to shed caches
+            oldGenerationPool.setCollectionUsageThreshold((long) (max * warningThreshold));
+            oldGenerationPool.setUsageThreshold((long) (max * criticalThreshold));
+            if (memoryBean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(thresholdListener, null, null);
             }
-
-            // Record memory usage metrics
-            metricsRegistry.record(
-                com.skanga.conductor.metrics.Metric.gauge("memory.usage.heap.percentage", memoryUsage, Map.of())
-            );
-
-            // Trigger cleanup if memory usage is high
-            if (memoryUsage >= criticalThreshold) {
-                long timeSinceLastCleanup = System.currentTimeMillis() - lastCleanupTime.get();
-                if (timeSinceLastCleanup > 60_000) { // Don't cleanup too frequently
-                    performCleanup(memoryUsage >= emergencyThreshold);
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(gcListener, null, null);
+                    gcEmitters.add(emitter);
                 }
             }
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Heap pressure notifications unavailable, polling instead: {}", e.getMessage());
+            removeListeners();
+            return false;
+        }
+    }
+
+    private void removeListeners() {
+        if (memoryBean instanceof NotificationEmitter emitter) {
+            try {
+                emitter.removeNotificationListener(thresholdListener);
+            } catch (ListenerNotFoundException e) {
+                // Not registered
+            }
+        }
+        for (NotificationEmitter emitter : gcEmitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                // Not registered
+            }
+        }
+        gcEmitters.clear();
+    }
+
+    private long poolMax() {
+        long max = oldGenerationPool.getUsage().getMax();
+        if (max <= 0) {
+            max = memoryBean.getHeapMemoryUsage().getMax();
+        }
+        return max;
+    }
+
+    /**
+     * Re-evaluates pressure after a collection that changed the old generation's post-GC usage.
+     */
+    private void handleGcNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        gcEventCount.incrementAndGet();
+        MemoryUsage collectionUsage = oldGenerationPool.getCollectionUsage();
+        if (collectionUsage == null || collectionUsage.getUsed() == lastCollectionUsed) {
+            // Young collections leave the old generation's post-GC usage unchanged
+            return;
+        }
+        lastCollectionUsed = collectionUsage.getUsed();
+        dispatch(() -> onOccupancy((double) collectionUsage.getUsed() / poolMax()));
+    }
+
+    private void handleThresholdNotification(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            dispatch(() -> onOccupancy(getPostGcOccupancy()));
+        } else if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            dispatch(this::onOldGenerationFilling);
+        }
+    }
+
+    /**
+     * Runs notification handling off the JMX notification thread.
+     */
+    private void dispatch(Runnable task) {
+        if (!running.get()) {
+            return;
+        }
+        try {
+            scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Updates the memory state from an old generation occupancy and relieves
+     * pressure when the state escalates, or at most once a minute while it persists.
+     *
+     * @param occupancy the post-GC occupancy (0.0 to 1.0)
+     */
+    void onOccupancy(double occupancy) {
+        if (!running.get()) {
+            return;
+        }
+        lastMemoryUsage = occupancy;
+        metricsRegistry.record(
+            com.skanga.conductor.metrics.Metric.gauge("memory.usage.heap.percentage", occupancy, Map.of())
+        );
+
+        MemoryState previousState = currentState;
+        MemoryState newState = determineMemoryState(occupancy);
+        if (newState != previousState) {
+            logger.info("Memory state changed: {} -> {} (post-GC occupancy: {}%)",
+                previousState, newState, Math.round(occupancy * 100));
+            currentState = newState;
+        }
+        if (newState == MemoryState.NORMAL) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (newState.compareTo(previousState) > 0 || now - lastReliefTime >= RELIEF_INTERVAL_MS) {
+            lastReliefTime = now;
+            relieve(newState);
+        }
+    }
 
+    /**
+     * Sheds caches early when the old generation fills up between collections.
+     */
+    private void onOldGenerationFilling() {
+        long now = System.currentTimeMillis();
+        if (running.get() && currentState == MemoryState.NORMAL && now - lastReliefTime >= RELIEF_INTERVAL_MS) {
+            lastReliefTime = now;
+            shed(MemoryState.WARNING);
+        }
+    }
+
+    /**
+     * Relieves memory pressure in tiers: shedding caches, then running cleanup tasks.
+     */
+    private void relieve(MemoryState state) {
+        shed(state);
+        if (state.compareTo(MemoryState.WARNING) > 0) {
+            performCleanup(state == MemoryState.EMERGENCY);
+        }
+    }
+
+    private void shed(MemoryState level) {
+        long released = MemoryShedders.shedAll(level);
+        logger.info("Shed {} cached entries at memory state {}", released, level);
+        metricsRegistry.record(
+            com.skanga.conductor.metrics.Metric.counter("memory.shed.count", Map.of("level", level.name()))
+        );
+    }
+
+    /**
+     * Monitors memory usage and updates state, when notifications are unavailable.
+     */
+    private void monitorMemoryUsage() {
+        try {
+            onOccupancy(getCurrentMemoryUsage());
         } catch (Exception e) {
             logger.debug("Error monitoring memory usage", e);
         }
     }
 
+    boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    long getGcEventCount() {
+        return gcEventCount.get();
+    }
+
     /**
      * Determines memory state based on usage percentage.
      */
@@ -419,20 +630,6 @@ public class MemoryManager implements AutoCloseable {
     }
 
 
-    /**
-     * Gets the GC sleep delay from configuration.
-     */
-    private long getGcSleepDelay() {
-        try {
-            return com.skanga.conductor.config.ApplicationConfig.getInstance()
-                .getToolConfig()
-                .getMemoryGcSleepDelay();
-        } catch (Exception e) {
-            // Fallback if config is not available
-            return 100;
-        }
-    }
-
     /**
      * Estimates memory freed by comparing before and after usage.
      */
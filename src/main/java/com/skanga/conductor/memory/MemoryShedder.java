@@ -0,0 +1,27 @@
+package com.skanga.conductor.memory;
+
+/**
+ * A component holding memory it can release under heap pressure, such as a cache.
+ * <p>
+ * Shedders are registered with {@link MemoryShedders#register(MemoryShedder)} and
+ * called by the {@link MemoryManager} when the old generation occupancy after a
+ * garbage collection crosses a threshold. The level tells how much to release:
+ * at {@link MemoryManager.MemoryState#WARNING}, before the heap is critical, a
+ * cache should drop its least valuable entries; at higher levels it should drop
+ * everything it can rebuild.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see MemoryShedders
+ */
+@FunctionalInterface
+public interface MemoryShedder {
+
+    /**
+     * Releases memory held by this component.
+     *
+     * @param level the memory pressure level, above {@link MemoryManager.MemoryState#NORMAL}
+     * @return the number of entries released
+     */
+    int shedMemory(MemoryManager.MemoryState level);
+}
@@ -0,0 +1,118 @@
+package com.skanga.conductor.memory;
+
+import com.skanga.conductor.utils.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Process-wide registry of the components that release memory under heap pressure.
+ * <p>
+ * Caches register themselves on creation, wherever they are created, and every
+ * {@link MemoryManager} sheds them all when it detects pressure. Shedders are
+ * held through weak references, so registering does not keep a cache alive;
+ * register the cache object itself rather than a lambda capturing it.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see MemoryShedder
+ */
+public final class MemoryShedders {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryShedders.class);
+
+    private static final Queue<WeakReference<MemoryShedder>> shedders = new ConcurrentLinkedQueue<>();
+
+    private MemoryShedders() {
+    }
+
+    /**
+     * Registers a component to shed under memory pressure.
+     *
+     * @param shedder the component, held weakly
+     */
+    public static void register(MemoryShedder shedder) {
+        ValidationUtils.requireNonNull(shedder, "memory shedder");
+        shedders.add(new WeakReference<>(shedder));
+    }
+
+    /**
+     * Unregisters a component.
+     *
+     * @param shedder the component
+     */
+    public static void unregister(MemoryShedder shedder) {
+        shedders.removeIf(reference -> {
+            MemoryShedder registered = reference.get();
+            return registered == null || registered == shedder;
+        });
+    }
+
+    /**
+     * Sheds all registered components.
+     *
+     * @param level the memory pressure level
+     * @return the total number of entries released
+     */
+    public static long shedAll(MemoryManager.MemoryState level) {
+        long released = 0;
+        Iterator<WeakReference<MemoryShedder>> iterator = shedders.iterator();
+        while (iterator.hasNext()) {
+            MemoryShedder shedder = iterator.next().get();
+            if (shedder == null) {
+                iterator.remove();
+                continue;
+            }
+            try {
+                released += shedder.shedMemory(level);
+            } catch (Exception e) {
+                logger.warn("Error shedding memory from {}: {}", shedder.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Returns the number of registered components still alive.
+     *
+     * @return the number of registered shedders
+     */
+    public static int size() {
+        shedders.removeIf(reference -> reference.get() == null);
+        return shedders.size();
+    }
+
+    /**
+     * Sheds entries of a map kept in least recently used order, such as an
+     * access-ordered {@link java.util.LinkedHashMap} or a synchronized view of one:
+     * the older half at {@link MemoryManager.MemoryState#WARNING}, all entries above.
+     *
+     * @param map the map, synchronized on while shedding
+     * @param level the memory pressure level
+     * @return the number of entries removed
+     */
+    public static int shedEntries(Map<?, ?> map, MemoryManager.MemoryState level) {
+        synchronized (map) {
+            int size = map.size();
+            if (level.compareTo(MemoryManager.MemoryState.WARNING) > 0) {
+                map.clear();
+                return size;
+            }
+            int toRemove = size / 2;
+            Iterator<?> eldest = map.keySet().iterator();
+            for (int i = 0; i < toRemove && eldest.hasNext(); i++) {
+                eldest.next();
+                eldest.remove();
+            }
+            return toRemove;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.skanga.conductor.orchestration.TaskDefinition;
 import com.skanga.conductor.config.ApplicationConfig;
 
 import java.sql.*;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -53,6 +54,9 @@ public class MemoryStore implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(MemoryStore.class);
 
+    /** Number of pending work items a worker tries per claim before giving up. */
+    private static final int CLAIM_CANDIDATES = 8;
+
     private final DataSource dataSource;
     private final MemoryConfig memoryConfig;
     private final ReadWriteLock schemaLock = new ReentrantReadWriteLock();
@@ -118,6 +122,58 @@ public class MemoryStore implements AutoCloseable {
                         plan_json CLOB
                     );
                     """,
+                    """
+                    CREATE TABLE IF NOT EXISTS workflow_stage_checkpoints (
+                        run_id VARCHAR(255),
+                        stage_name VARCHAR(255),
+                        definition_hash VARCHAR(64) NOT NULL,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        result_json CLOB,
+                        PRIMARY KEY (run_id, stage_name)
+                    );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS workflow_approvals (
+                        run_id VARCHAR(255),
+                        stage_name VARCHAR(255),
+                        request_json CLOB,
+                        response_json CLOB,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        responded_at TIMESTAMP,
+                        PRIMARY KEY (run_id, stage_name)
+                    );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS stage_result_memo (
+                        cache_key VARCHAR(64) PRIMARY KEY,
+                        output CLOB,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        last_accessed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS work_queue (
+                        workflow_id VARCHAR(255),
+                        task_name VARCHAR(255),
+                        payload CLOB,
+                        status VARCHAR(16) NOT NULL,
+                        owner VARCHAR(255),
+                        lease_expires_at TIMESTAMP,
+                        version BIGINT DEFAULT 0 NOT NULL,
+                        attempts INT DEFAULT 0 NOT NULL,
+                        last_error CLOB,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        PRIMARY KEY (workflow_id, task_name)
+                    );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS latency_histograms (
+                        metric_key VARCHAR(512) PRIMARY KEY,
+                        histogram CLOB,
+                        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    );
+                    """,
+                    "CREATE INDEX IF NOT EXISTS idx_work_queue_status ON work_queue(status, created_at);",
                     "CREATE INDEX IF NOT EXISTS idx_agent_name ON subagent_memory(agent_name);"};
 
             try (Connection conn = dataSource.getConnection()) {
@@ -399,6 +455,736 @@ public class MemoryStore implements AutoCloseable {
         return Optional.empty();
     }
 
+    /**
+     * A persisted stage checkpoint of a YAML workflow run.
+     *
+     * @param stageName the name of the completed stage
+     * @param definitionHash hash of the workflow definition the stage was executed against
+     * @param resultJson the serialized stage result
+     */
+    public record StageCheckpoint(String stageName, String definitionHash, String resultJson) {}
+
+    /**
+     * Saves or updates the checkpoint of a completed workflow stage.
+     * <p>
+     * Uses a MERGE (upsert) operation keyed by run ID and stage name, so a stage
+     * re-executed within the same run replaces its previous checkpoint.
+     * </p>
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @param stageName the name of the completed stage (must not be null)
+     * @param definitionHash hash of the workflow definition the stage ran against
+     * @param resultJson the serialized stage result
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #loadStageCheckpoints(String)
+     */
+    public void saveStageCheckpoint(String runId, String stageName, String definitionHash, String resultJson) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "MERGE INTO workflow_stage_checkpoints (run_id, stage_name, definition_hash, created_at, result_json) " +
+                     "KEY(run_id, stage_name) VALUES(?,?,?,?,?)")) {
+            ps.setString(1, runId);
+            ps.setString(2, stageName);
+            ps.setString(3, definitionHash);
+            ps.setTimestamp(4, Timestamp.from(Instant.now()));
+            ps.setString(5, resultJson);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to persist stage checkpoint", e);
+        }
+    }
+
+    /**
+     * Loads all stage checkpoints recorded for a workflow run.
+     * <p>
+     * Checkpoints are returned in the order they were written. If the run has no
+     * checkpoints an empty list is returned.
+     * </p>
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @return the stage checkpoints of the run (never null, may be empty)
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #saveStageCheckpoint(String, String, String, String)
+     */
+    public List<StageCheckpoint> loadStageCheckpoints(String runId) {
+        List<StageCheckpoint> checkpoints = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT stage_name, definition_hash, result_json FROM workflow_stage_checkpoints " +
+                     "WHERE run_id=? ORDER BY created_at ASC")) {
+            ps.setString(1, runId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    checkpoints.add(new StageCheckpoint(
+                            rs.getString("stage_name"),
+                            rs.getString("definition_hash"),
+                            rs.getString("result_json")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load stage checkpoints", e);
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Deletes all stage checkpoints recorded for a workflow run.
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @return the number of deleted checkpoints
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public int deleteStageCheckpoints(String runId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "DELETE FROM workflow_stage_checkpoints WHERE run_id=?")) {
+            ps.setString(1, runId);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to delete stage checkpoints", e);
+        }
+    }
+
+    /**
+     * A persisted human approval request of a suspended workflow run.
+     *
+     * @param runId the workflow run waiting for the approval
+     * @param stageName the stage awaiting approval
+     * @param requestJson the serialized approval request
+     * @param responseJson the serialized response, or null while the request is pending
+     */
+    public record ApprovalRecord(String runId, String stageName, String requestJson, String responseJson) {}
+
+    /**
+     * Records a pending approval request unless the stage already has one.
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @param stageName the stage awaiting approval (must not be null)
+     * @param requestJson the serialized approval request
+     * @return true if the request was recorded, false if the stage already had one
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #saveApprovalResponse(String, String, String)
+     */
+    public boolean savePendingApproval(String runId, String stageName, String requestJson) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO workflow_approvals (run_id, stage_name, request_json, created_at) " +
+                     "SELECT ?,?,?,? WHERE NOT EXISTS " +
+                     "(SELECT 1 FROM workflow_approvals WHERE run_id=? AND stage_name=?)")) {
+            ps.setString(1, runId);
+            ps.setString(2, stageName);
+            ps.setString(3, requestJson);
+            ps.setTimestamp(4, Timestamp.from(Instant.now()));
+            ps.setString(5, runId);
+            ps.setString(6, stageName);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to persist approval request", e);
+        }
+    }
+
+    /**
+     * Records the response to a pending approval request.
+     * <p>
+     * Only the first response is kept: answering a request that was already
+     * answered, or that does not exist, leaves the store unchanged.
+     * </p>
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @param stageName the stage awaiting approval (must not be null)
+     * @param responseJson the serialized approval response
+     * @return true if a pending request was answered
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public boolean saveApprovalResponse(String runId, String stageName, String responseJson) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE workflow_approvals SET response_json=?, responded_at=? " +
+                     "WHERE run_id=? AND stage_name=? AND response_json IS NULL")) {
+            ps.setString(1, responseJson);
+            ps.setTimestamp(2, Timestamp.from(Instant.now()));
+            ps.setString(3, runId);
+            ps.setString(4, stageName);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to persist approval response", e);
+        }
+    }
+
+    /**
+     * Loads the approval request of a stage, answered or not.
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @param stageName the stage awaiting approval (must not be null)
+     * @return the approval record, or empty if the stage has none
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public Optional<ApprovalRecord> loadApproval(String runId, String stageName) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT run_id, stage_name, request_json, response_json FROM workflow_approvals " +
+                     "WHERE run_id=? AND stage_name=?")) {
+            ps.setString(1, runId);
+            ps.setString(2, stageName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(toApprovalRecord(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load approval request", e);
+        }
+    }
+
+    /**
+     * Loads all approval requests still waiting for a response, oldest first.
+     *
+     * @return the pending approval records (never null, may be empty)
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public List<ApprovalRecord> loadPendingApprovals() {
+        List<ApprovalRecord> approvals = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT run_id, stage_name, request_json, response_json FROM workflow_approvals " +
+                     "WHERE response_json IS NULL ORDER BY created_at ASC");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                approvals.add(toApprovalRecord(rs));
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load pending approvals", e);
+        }
+        return approvals;
+    }
+
+    /**
+     * Deletes the approval request of a stage.
+     *
+     * @param runId the unique identifier of the workflow run (must not be null)
+     * @param stageName the stage the request belongs to (must not be null)
+     * @return true if a request was deleted
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public boolean deleteApproval(String runId, String stageName) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "DELETE FROM workflow_approvals WHERE run_id=? AND stage_name=?")) {
+            ps.setString(1, runId);
+            ps.setString(2, stageName);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to delete approval request", e);
+        }
+    }
+
+    private static ApprovalRecord toApprovalRecord(ResultSet rs) throws SQLException {
+        return new ApprovalRecord(
+                rs.getString("run_id"),
+                rs.getString("stage_name"),
+                rs.getString("request_json"),
+                rs.getString("response_json"));
+    }
+
+    /**
+     * Loads a memoized stage output and marks it as recently used.
+     *
+     * @param cacheKey the content-addressed key of the stage inputs (must not be null)
+     * @return the memoized output, or null if no entry exists for the key
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #saveStageResultMemo(String, String, int)
+     */
+    public String loadStageResultMemo(String cacheKey) {
+        try (Connection conn = dataSource.getConnection()) {
+            String output = null;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT output FROM stage_result_memo WHERE cache_key=?")) {
+                ps.setString(1, cacheKey);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        output = rs.getString("output");
+                    }
+                }
+            }
+            if (output != null) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE stage_result_memo SET last_accessed_at=? WHERE cache_key=?")) {
+                    ps.setTimestamp(1, Timestamp.from(Instant.now()));
+                    ps.setString(2, cacheKey);
+                    ps.executeUpdate();
+                }
+            }
+            return output;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load memoized stage result", e);
+        }
+    }
+
+    /**
+     * Saves a memoized stage output and evicts the least recently used entries
+     * once the number of entries exceeds {@code maxEntries}.
+     *
+     * @param cacheKey the content-addressed key of the stage inputs (must not be null)
+     * @param output the stage output to memoize
+     * @param maxEntries the maximum number of memoized entries to retain (must be positive)
+     * @return the number of entries evicted to stay within the limit
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #loadStageResultMemo(String)
+     */
+    public int saveStageResultMemo(String cacheKey, String output, int maxEntries) {
+        try (Connection conn = dataSource.getConnection()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "MERGE INTO stage_result_memo (cache_key, output, created_at, last_accessed_at) " +
+                    "KEY(cache_key) VALUES(?,?,?,?)")) {
+                ps.setString(1, cacheKey);
+                ps.setString(2, output);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                ps.executeUpdate();
+            }
+
+            int excess;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM stage_result_memo")) {
+                rs.next();
+                excess = rs.getInt(1) - maxEntries;
+            }
+            if (excess <= 0) {
+                return 0;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "DELETE FROM stage_result_memo WHERE cache_key IN (" +
+                    "SELECT cache_key FROM stage_result_memo WHERE cache_key<>? " +
+                    "ORDER BY last_accessed_at ASC LIMIT ?)")) {
+                ps.setString(1, cacheKey);
+                ps.setInt(2, excess);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to persist memoized stage result", e);
+        }
+    }
+
+    /**
+     * Deletes all memoized stage results.
+     *
+     * @return the number of deleted entries
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public int clearStageResultMemo() {
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement()) {
+            return st.executeUpdate("DELETE FROM stage_result_memo");
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to clear memoized stage results", e);
+        }
+    }
+
+    /**
+     * Saves encoded latency histograms, replacing earlier versions of the same keys.
+     *
+     * @param histograms map of metric keys to encoded histograms
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #loadLatencyHistograms()
+     */
+    public void saveLatencyHistograms(Map<String, String> histograms) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                 "MERGE INTO latency_histograms (metric_key, histogram, updated_at) KEY(metric_key) VALUES(?,?,?)")) {
+            Timestamp now = Timestamp.from(Instant.now());
+            for (Map.Entry<String, String> entry : histograms.entrySet()) {
+                ps.setString(1, entry.getKey());
+                ps.setString(2, entry.getValue());
+                ps.setTimestamp(3, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to persist latency histograms", e);
+        }
+    }
+
+    /**
+     * Loads all persisted latency histograms.
+     *
+     * @return map of metric keys to encoded histograms
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #saveLatencyHistograms(Map)
+     */
+    public Map<String, String> loadLatencyHistograms() {
+        Map<String, String> histograms = new HashMap<>();
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT metric_key, histogram FROM latency_histograms")) {
+            while (rs.next()) {
+                histograms.put(rs.getString("metric_key"), rs.getString("histogram"));
+            }
+            return histograms;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load latency histograms", e);
+        }
+    }
+
+    /**
+     * Lifecycle states of an item in the distributed work queue.
+     */
+    public enum WorkStatus {
+        /** Waiting to be claimed by a worker. */
+        PENDING,
+        /** Leased by a worker until its lease expires. */
+        CLAIMED,
+        /** Finished; the output is stored in {@code TASK_OUTPUTS}. */
+        COMPLETED,
+        /** Failed on its last permitted attempt. */
+        FAILED
+    }
+
+    /**
+     * A work queue item leased by a worker.
+     * <p>
+     * The version acts as a fencing token: it changes whenever the item is claimed,
+     * so a worker whose lease expired and was taken over can no longer renew,
+     * complete or fail the item.
+     * </p>
+     *
+     * @param workflowId the workflow the item belongs to
+     * @param taskName the name of the task within the workflow
+     * @param payload the serialized task description
+     * @param owner the worker holding the lease
+     * @param version the version of the item at claim time
+     * @param attempts the number of times the item has been claimed, including this claim
+     */
+    public record WorkItem(String workflowId, String taskName, String payload, String owner,
+                           long version, int attempts) {}
+
+    /**
+     * The current state of a work queue item.
+     *
+     * @param taskName the name of the task within the workflow
+     * @param status the lifecycle state of the item
+     * @param attempts the number of times the item has been claimed
+     * @param lastError the error reported by the last failed attempt, or null
+     */
+    public record WorkItemState(String taskName, WorkStatus status, int attempts, String lastError) {}
+
+    /**
+     * Adds a task to the distributed work queue unless it is already pending or claimed.
+     * <p>
+     * An item left failed or completed by an earlier run is reset for the new
+     * attempt: it becomes pending again with the new payload, no attempts, no
+     * lease and no error. Its version is incremented, so a worker still holding
+     * a stale claim cannot complete it.
+     * </p>
+     *
+     * @param workflowId the unique identifier for the workflow (must not be null)
+     * @param taskName the name of the task within the workflow (must not be null)
+     * @param payload the serialized task description handed to the claiming worker
+     * @return true if the task was enqueued, false if it is already pending or claimed
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #claimWork(String, Duration)
+     */
+    public boolean enqueueWork(String workflowId, String taskName, String payload) {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE work_queue SET payload=?, status=?, owner=NULL, lease_expires_at=NULL, " +
+                    "attempts=0, last_error=NULL, version=version+1, created_at=CURRENT_TIMESTAMP " +
+                    "WHERE workflow_id=? AND task_name=? AND status IN (?,?)")) {
+                ps.setString(1, payload);
+                ps.setString(2, WorkStatus.PENDING.name());
+                ps.setString(3, workflowId);
+                ps.setString(4, taskName);
+                ps.setString(5, WorkStatus.FAILED.name());
+                ps.setString(6, WorkStatus.COMPLETED.name());
+                if (ps.executeUpdate() == 1) {
+                    return true;
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO work_queue (workflow_id, task_name, payload, status) " +
+                    "SELECT ?,?,?,? WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM work_queue WHERE workflow_id=? AND task_name=?)")) {
+                ps.setString(1, workflowId);
+                ps.setString(2, taskName);
+                ps.setString(3, payload);
+                ps.setString(4, WorkStatus.PENDING.name());
+                ps.setString(5, workflowId);
+                ps.setString(6, taskName);
+                return ps.executeUpdate() == 1;
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to enqueue work item", e);
+        }
+    }
+
+    /**
+     * Claims the oldest pending work item with a time-limited lease.
+     * <p>
+     * Claims use optimistic versioning: a candidate is only taken if its version is
+     * unchanged since it was read, so concurrent workers on any number of nodes never
+     * claim the same item twice. Lease expiry is computed with the database clock to
+     * avoid depending on synchronized clocks across nodes.
+     * </p>
+     *
+     * @param owner identifies the claiming worker (must not be null)
+     * @param leaseDuration how long the lease is held without a heartbeat
+     * @return the claimed item, or empty if no work is pending
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #renewLease(WorkItem, Duration)
+     * @see #completeWork(WorkItem, String)
+     */
+    public Optional<WorkItem> claimWork(String owner, Duration leaseDuration) {
+        try (Connection conn = dataSource.getConnection()) {
+            List<Object[]> candidates = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT workflow_id, task_name, version FROM work_queue WHERE status=? " +
+                    "ORDER BY created_at ASC LIMIT ?")) {
+                ps.setString(1, WorkStatus.PENDING.name());
+                ps.setInt(2, CLAIM_CANDIDATES);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        candidates.add(new Object[]{rs.getString(1), rs.getString(2), rs.getLong(3)});
+                    }
+                }
+            }
+            // Try candidates in turn; losing a race for one just moves on to the next
+            for (Object[] candidate : candidates) {
+                String workflowId = (String) candidate[0];
+                String taskName = (String) candidate[1];
+                long version = (Long) candidate[2];
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE work_queue SET status=?, owner=?, " +
+                        "lease_expires_at=DATEADD(MILLISECOND, ?, LOCALTIMESTAMP), " +
+                        "version=version+1, attempts=attempts+1 " +
+                        "WHERE workflow_id=? AND task_name=? AND version=? AND status=?")) {
+                    ps.setString(1, WorkStatus.CLAIMED.name());
+                    ps.setString(2, owner);
+                    ps.setLong(3, leaseDuration.toMillis());
+                    ps.setString(4, workflowId);
+                    ps.setString(5, taskName);
+                    ps.setLong(6, version);
+                    ps.setString(7, WorkStatus.PENDING.name());
+                    if (ps.executeUpdate() != 1) {
+                        continue;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT payload, attempts FROM work_queue WHERE workflow_id=? AND task_name=?")) {
+                    ps.setString(1, workflowId);
+                    ps.setString(2, taskName);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            return Optional.of(new WorkItem(workflowId, taskName, rs.getString("payload"),
+                                    owner, version + 1, rs.getInt("attempts")));
+                        }
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to claim work item", e);
+        }
+    }
+
+    /**
+     * Extends the lease of a claimed work item.
+     *
+     * @param item the item claimed by the caller
+     * @param leaseDuration the new lease duration, measured from now
+     * @return true if the lease was extended, false if it was lost to another worker
+     *         or the item is no longer claimed
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public boolean renewLease(WorkItem item, Duration leaseDuration) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE work_queue SET lease_expires_at=DATEADD(MILLISECOND, ?, LOCALTIMESTAMP) " +
+                     "WHERE workflow_id=? AND task_name=? AND version=? AND status=?")) {
+            ps.setLong(1, leaseDuration.toMillis());
+            ps.setString(2, item.workflowId());
+            ps.setString(3, item.taskName());
+            ps.setLong(4, item.version());
+            ps.setString(5, WorkStatus.CLAIMED.name());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to renew work item lease", e);
+        }
+    }
+
+    /**
+     * Marks a claimed work item as completed and stores its output in
+     * {@code TASK_OUTPUTS}, atomically.
+     *
+     * @param item the item claimed by the caller
+     * @param output the output produced by the task
+     * @return true if the item was completed, false if the caller no longer holds its lease
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     * @see #loadTaskOutputs(String)
+     */
+    public boolean completeWork(WorkItem item, String output) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE work_queue SET status=?, lease_expires_at=NULL " +
+                        "WHERE workflow_id=? AND task_name=? AND version=? AND status=?")) {
+                    ps.setString(1, WorkStatus.COMPLETED.name());
+                    ps.setString(2, item.workflowId());
+                    ps.setString(3, item.taskName());
+                    ps.setLong(4, item.version());
+                    ps.setString(5, WorkStatus.CLAIMED.name());
+                    if (ps.executeUpdate() != 1) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "MERGE INTO TASK_OUTPUTS KEY(workflow_id, task_name) VALUES(?,?,?)")) {
+                    ps.setString(1, item.workflowId());
+                    ps.setString(2, item.taskName());
+                    ps.setString(3, output);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to complete work item", e);
+        }
+    }
+
+    /**
+     * Records a failed attempt of a claimed work item. The item is re-queued unless
+     * it has used up {@code maxAttempts}, in which case it is marked as failed.
+     *
+     * @param item the item claimed by the caller
+     * @param error description of the failure
+     * @param maxAttempts the maximum number of attempts per item
+     * @return true if the failure was recorded, false if the caller no longer holds the lease
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public boolean failWork(WorkItem item, String error, int maxAttempts) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE work_queue SET status=CASE WHEN attempts>=? THEN ? ELSE ? END, " +
+                     "owner=NULL, lease_expires_at=NULL, last_error=? " +
+                     "WHERE workflow_id=? AND task_name=? AND version=? AND status=?")) {
+            ps.setInt(1, maxAttempts);
+            ps.setString(2, WorkStatus.FAILED.name());
+            ps.setString(3, WorkStatus.PENDING.name());
+            ps.setString(4, error);
+            ps.setString(5, item.workflowId());
+            ps.setString(6, item.taskName());
+            ps.setLong(7, item.version());
+            ps.setString(8, WorkStatus.CLAIMED.name());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to record work item failure", e);
+        }
+    }
+
+    /**
+     * Returns a claimed work item to the queue without counting the attempt, for
+     * a worker shutting down while the item was in progress.
+     *
+     * @param item the item claimed by the caller
+     * @return true if the item was released, false if the caller no longer holds the lease
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public boolean releaseWork(WorkItem item) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE work_queue SET status=?, owner=NULL, lease_expires_at=NULL, attempts=attempts-1 " +
+                     "WHERE workflow_id=? AND task_name=? AND version=? AND status=?")) {
+            ps.setString(1, WorkStatus.PENDING.name());
+            ps.setString(2, item.workflowId());
+            ps.setString(3, item.taskName());
+            ps.setLong(4, item.version());
+            ps.setString(5, WorkStatus.CLAIMED.name());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to release work item", e);
+        }
+    }
+
+    /**
+     * Re-queues claimed work items whose lease has expired, typically because the
+     * worker holding them crashed or lost its connection. Items that have used up
+     * {@code maxAttempts} are marked as failed instead.
+     *
+     * @param maxAttempts the maximum number of attempts per item
+     * @return the number of items released from expired leases
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public int requeueExpiredWork(int maxAttempts) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE work_queue SET status=CASE WHEN attempts>=? THEN ? ELSE ? END, " +
+                     "owner=NULL, lease_expires_at=NULL, last_error=?, version=version+1 " +
+                     "WHERE status=? AND lease_expires_at < LOCALTIMESTAMP")) {
+            ps.setInt(1, maxAttempts);
+            ps.setString(2, WorkStatus.FAILED.name());
+            ps.setString(3, WorkStatus.PENDING.name());
+            ps.setString(4, "Lease expired");
+            ps.setString(5, WorkStatus.CLAIMED.name());
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to re-queue expired work items", e);
+        }
+    }
+
+    /**
+     * Loads the state of all work queue items of a workflow, in enqueue order.
+     *
+     * @param workflowId the unique identifier for the workflow (must not be null)
+     * @return the item states (never null, may be empty)
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public List<WorkItemState> loadWorkItemStates(String workflowId) {
+        List<WorkItemState> states = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT task_name, status, attempts, last_error FROM work_queue " +
+                     "WHERE workflow_id=? ORDER BY created_at ASC")) {
+            ps.setString(1, workflowId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    states.add(new WorkItemState(
+                            rs.getString("task_name"),
+                            WorkStatus.valueOf(rs.getString("status")),
+                            rs.getInt("attempts"),
+                            rs.getString("last_error")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to load work item states", e);
+        }
+        return states;
+    }
+
+    /**
+     * Deletes all work queue items of a workflow.
+     *
+     * @param workflowId the unique identifier for the workflow (must not be null)
+     * @return the number of deleted items
+     * @throws ConductorException.MemoryStoreException if database operation fails
+     */
+    public int deleteWork(String workflowId) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM work_queue WHERE workflow_id=?")) {
+            ps.setString(1, workflowId);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new ConductorException.MemoryStoreException("Failed to delete work items", e);
+        }
+    }
+
     @Override
     public void close() throws Exception {
         if (dataSource == null) {
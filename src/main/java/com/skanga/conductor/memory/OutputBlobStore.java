@@ -0,0 +1,263 @@
+package com.skanga.conductor.memory;
+
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.MemoryConfig;
+import com.skanga.conductor.utils.SingletonHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.ref.Cleaner;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Store keeping large stage outputs on disk instead of the heap.
+ * <p>
+ * Content up to the inline threshold stays on the heap. Longer content is
+ * written GZIP-compressed to a file in the spill directory and referenced by a
+ * {@link ContentHandle}, so the heap held by a running workflow no longer grows
+ * with the length of its outputs. Generated text typically compresses three to
+ * four times, which keeps the disk footprint small as well.
+ * </p>
+ * <p>
+ * Spilled content that is read is kept in a soft reference, so repeated reads
+ * are served from memory while the garbage collector can still reclaim it under
+ * memory pressure. Spill files are deleted once their handle becomes unreachable.
+ * </p>
+ * <p>
+ * Spilling is best effort: if content cannot be written to disk it is kept
+ * on the heap.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see ContentHandle
+ */
+public class OutputBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputBlobStore.class);
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final SingletonHolder<OutputBlobStore> HOLDER = SingletonHolder.of(() -> {
+        MemoryConfig config = ApplicationConfig.getInstance().getMemoryConfig();
+        return new OutputBlobStore(config.getOutputSpillDirectory(), config.getOutputSpillThreshold());
+    });
+
+    private final Path directory;
+    private final int inlineThreshold;
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    /**
+     * Creates a store spilling content longer than the threshold.
+     *
+     * @param directory the directory spill files are written to, created on first use
+     * @param inlineThreshold the length in characters up to which content stays on the heap;
+     *                        0 keeps all content on the heap
+     */
+    public OutputBlobStore(Path directory, int inlineThreshold) {
+        if (directory == null) {
+            throw new IllegalArgumentException("spill directory cannot be null");
+        }
+        if (inlineThreshold < 0) {
+            throw new IllegalArgumentException("inline threshold cannot be negative");
+        }
+        this.directory = directory;
+        this.inlineThreshold = inlineThreshold;
+    }
+
+    /**
+     * Returns the shared store configured from {@link MemoryConfig}.
+     *
+     * @return the singleton instance
+     */
+    public static OutputBlobStore getInstance() {
+        return HOLDER.get();
+    }
+
+    /**
+     * Resets the singleton instance for testing purposes.
+     */
+    public static void resetInstance() {
+        HOLDER.reset();
+    }
+
+    /**
+     * Stores content, spilling it to disk if it exceeds the inline threshold.
+     *
+     * @param content the content
+     * @return the handle to the content, or null if the content is null
+     */
+    public ContentHandle store(String content) {
+        if (content == null) {
+            return null;
+        }
+        if (inlineThreshold == 0 || content.length() <= inlineThreshold) {
+            return ContentHandle.inline(content);
+        }
+        try {
+            return spill(content);
+        } catch (IOException e) {
+            logger.warn("Could not spill {} characters of output to {}, keeping it in memory: {}",
+                content.length(), directory, e.getMessage());
+            return ContentHandle.inline(content);
+        }
+    }
+
+    /**
+     * Moves the content of a handle to disk if it is held on the heap and exceeds
+     * the inline threshold.
+     *
+     * @param handle the handle
+     * @return a handle to the spilled content, or the given handle if it is not spilled
+     */
+    public ContentHandle spill(ContentHandle handle) {
+        if (handle == null || handle.isSpilled()) {
+            return handle;
+        }
+        ContentHandle stored = store(handle.asString());
+        return stored.isSpilled() ? stored : handle;
+    }
+
+    private ContentHandle spill(String content) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "output-", ".txt.gz");
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 8192), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        long size = Files.size(file);
+        spilledCount.incrementAndGet();
+        spilledBytes.addAndGet(size);
+        Spilled handle = new Spilled(file, content.length(), content.isBlank());
+        CLEANER.register(handle, new Deleter(file, size, spilledCount, spilledBytes));
+        return handle;
+    }
+
+    /**
+     * Gets the length above which content is spilled.
+     *
+     * @return the inline threshold in characters
+     */
+    public int getInlineThreshold() {
+        return inlineThreshold;
+    }
+
+    /**
+     * Gets the number of spill files currently on disk.
+     *
+     * @return the spill file count
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * Gets the total size of the spill files currently on disk.
+     *
+     * @return the size in bytes
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * Deletes a spill file once its handle is unreachable. Must not reference the handle.
+     */
+    private record Deleter(Path file, long size, AtomicLong count, AtomicLong bytes) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.debug("Could not delete spill file {}: {}", file, e.getMessage());
+            }
+            count.decrementAndGet();
+            bytes.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Content compressed in a spill file.
+     */
+    private static final class Spilled implements ContentHandle {
+
+        private final Path file;
+        private final long length;
+        private final boolean blank;
+        private volatile SoftReference<String> cached = new SoftReference<>(null);
+
+        private Spilled(Path file, long length, boolean blank) {
+            this.file = file;
+            this.length = length;
+            this.blank = blank;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public boolean isBlank() {
+            return blank;
+        }
+
+        @Override
+        public boolean isSpilled() {
+            return true;
+        }
+
+        @Override
+        public Reader openReader() throws IOException {
+            String content = cached.get();
+            if (content != null) {
+                return new StringReader(content);
+            }
+            return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 8192), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String asString() {
+            String content = cached.get();
+            if (content != null) {
+                return content;
+            }
+            try (Reader reader = openReader()) {
+                StringWriter writer = new StringWriter((int) length);
+                reader.transferTo(writer);
+                content = writer.toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read spilled output " + file, e);
+            }
+            cached = new SoftReference<>(content);
+            return content;
+        }
+
+        @Override
+        public String toString() {
+            return asString();
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package com.skanga.conductor.memory;
 
+import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.utils.ValidationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Tracks resources for automatic cleanup.
@@ -23,19 +23,75 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * <li>Expirable resources - Resources with expiration timestamps</li>
  * </ul>
  * <p>
+ * Expirable resources are kept in a hashed timing wheel: registering and
+ * cancelling are O(1) and a dedicated tick thread closes each resource within
+ * one tick of its expiration time, in any registration order and without
+ * waiting for a cleanup cycle. This scales to hundreds of thousands of tracked
+ * resources, such as cached agents, spilled outputs and sessions.
+ * </p>
+ * <p>
  * Thread Safety: This class is thread-safe for concurrent access.
  * </p>
  *
  * @since 2.0.0
  */
-public class ResourceTracker {
+public class ResourceTracker implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(ResourceTracker.class);
 
+    /** Number of ticks in one revolution of the expiry wheel. */
+    private static final int EXPIRY_WHEEL_SIZE = 512;
+
     // Tracked resources for cleanup
     private final Map<String, MemoryManager.CleanupTask> cleanupTasks = new ConcurrentHashMap<>();
     private final Map<String, WeakReference<AutoCloseable>> weakReferences = new ConcurrentHashMap<>();
-    private final Queue<TimestampedResource> expirableResources = new ConcurrentLinkedQueue<>();
+    private final ExpiryWheel expirableResources;
+
+    /**
+     * Handle of a registered expirable resource.
+     */
+    public interface ExpiryHandle {
+
+        /**
+         * Gets the time the resource expires at.
+         */
+        Instant getExpirationTime();
+
+        /**
+         * Stops tracking the resource without closing it.
+         *
+         * @return true if the resource was still tracked, false if it had already
+         *         expired or been cancelled
+         */
+        boolean cancel();
+
+        /**
+         * Checks whether tracking was cancelled before the resource expired.
+         */
+        boolean isCancelled();
+
+        /**
+         * Checks whether the resource has expired and been closed.
+         */
+        boolean isExpired();
+    }
+
+    /**
+     * Creates a tracker expiring resources with the configured tick duration.
+     */
+    public ResourceTracker() {
+        this(ApplicationConfig.getInstance().getMemoryConfig().getResourceExpiryTick());
+    }
+
+    /**
+     * Creates a tracker.
+     *
+     * @param expiryTick the tick duration of the expiry wheel, which bounds how
+     *                   late an expired resource is closed
+     */
+    public ResourceTracker(Duration expiryTick) {
+        this.expirableResources = new ExpiryWheel(expiryTick, EXPIRY_WHEEL_SIZE, "ResourceTracker-Expiry");
+    }
 
     /**
      * Registers a cleanup task.
@@ -85,8 +141,9 @@ public class ResourceTracker {
      *
      * @param resource the resource to track
      * @param expirationTime when the resource should expire
+     * @return a handle to cancel tracking before the resource expires
      */
-    public void registerExpirableResource(AutoCloseable resource, Instant expirationTime) {
+    public ExpiryHandle registerExpirableResource(AutoCloseable resource, Instant expirationTime) {
         ValidationUtils.requireNonNull(resource, "resource");
         ValidationUtils.requireNonNull(expirationTime, "expiration time");
 
@@ -94,33 +151,18 @@ public class ResourceTracker {
             throw new IllegalArgumentException("expiration time cannot be in the past");
         }
 
-        expirableResources.offer(new TimestampedResource(resource, expirationTime));
+        ExpiryHandle handle = expirableResources.schedule(resource, expirationTime);
         logger.debug("Registered expirable resource with expiration: {}", expirationTime);
+        return handle;
     }
 
     /**
-     * Cleans up expired resources.
+     * Cleans up expired resources not yet closed by the tick thread.
      *
      * @return number of resources cleaned up
      */
     public int cleanupExpiredResources() {
-        Instant now = Instant.now();
-        int cleanedCount = 0;
-
-        TimestampedResource resource;
-        while ((resource = expirableResources.peek()) != null) {
-            if (resource.expirationTime.isAfter(now)) {
-                break; // Resources are ordered by expiration time
-            }
-
-            expirableResources.poll();
-            try {
-                resource.resource.close();
-                cleanedCount++;
-            } catch (Exception e) {
-                logger.debug("Error closing expired resource", e);
-            }
-        }
+        int cleanedCount = expirableResources.advance();
 
         if (cleanedCount > 0) {
             logger.debug("Cleaned up {} expired resources", cleanedCount);
@@ -191,15 +233,11 @@ public class ResourceTracker {
     }
 
     /**
-     * Resource with expiration timestamp.
+     * Stops the expiry tick thread. Expirable resources still tracked are only
+     * closed by {@link #cleanupExpiredResources()} from then on.
      */
-    private static class TimestampedResource {
-        final AutoCloseable resource;
-        final Instant expirationTime;
-
-        TimestampedResource(AutoCloseable resource, Instant expirationTime) {
-            this.resource = resource;
-            this.expirationTime = expirationTime;
-        }
+    @Override
+    public void close() {
+        expirableResources.stop();
     }
 }
@@ -0,0 +1,174 @@
+package com.skanga.conductor.metrics;
+
+/**
+ * Compact streaming histogram of latencies supporting quantile estimates.
+ * <p>
+ * Durations are counted in logarithmic buckets growing by {@value #GROWTH} per
+ * bucket, so any quantile is estimated within about 4% of the true value using
+ * a fixed 256 counters, covering 1 ms to over 10 days. When the number of
+ * observations reaches {@value #MAX_COUNT}, all counts are halved, which keeps
+ * the histogram weighted towards recent behaviour as latencies drift.
+ * </p>
+ * <p>
+ * Histograms encode to a short text form listing only non-empty buckets, so
+ * they can be persisted and restored across restarts.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see LatencyStore
+ */
+public final class LatencyHistogram {
+
+    private static final double GROWTH = 1.08;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 256;
+    private static final long MAX_COUNT = 4096;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+
+    /**
+     * Records an observed duration.
+     *
+     * @param durationMs the duration in milliseconds; negative values are ignored
+     */
+    public synchronized void record(long durationMs) {
+        if (durationMs < 0) {
+            return;
+        }
+        if (count >= MAX_COUNT) {
+            decay();
+        }
+        counts[bucketOf(durationMs)]++;
+        count++;
+    }
+
+    /**
+     * Halves all counts, dropping buckets observed only once since the last decay.
+     */
+    private void decay() {
+        count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] >>= 1;
+            count += counts[i];
+        }
+    }
+
+    private static int bucketOf(long durationMs) {
+        if (durationMs <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, (int) Math.ceil(Math.log(durationMs) / LOG_GROWTH));
+    }
+
+    /**
+     * Estimates a quantile of the recorded durations.
+     * <p>
+     * The estimate is the upper bound of the bucket holding the quantile, so it
+     * never underestimates by more than rounding.
+     * </p>
+     *
+     * @param quantile the quantile between 0.0 and 1.0, e.g. 0.99
+     * @return the estimated duration in milliseconds, or -1 if nothing was recorded
+     */
+    public synchronized long quantile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("quantile must be between 0.0 and 1.0");
+        }
+        if (count == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (long) Math.ceil(Math.pow(GROWTH, i));
+            }
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, BUCKETS - 1));
+    }
+
+    /**
+     * Gets the number of observations currently weighted in the histogram.
+     *
+     * @return the observation count
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds the observations of another histogram to this one.
+     *
+     * @param other the histogram to merge
+     */
+    public void merge(LatencyHistogram other) {
+        long[] otherCounts;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += otherCounts[i];
+                count += otherCounts[i];
+            }
+            while (count > MAX_COUNT) {
+                decay();
+            }
+        }
+    }
+
+    /**
+     * Encodes the histogram as {@code bucket:count} pairs of non-empty buckets.
+     *
+     * @return the encoded histogram
+     */
+    public synchronized String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                if (!encoded.isEmpty()) {
+                    encoded.append(',');
+                }
+                encoded.append(i).append(':').append(counts[i]);
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Decodes a histogram created by {@link #encode()}.
+     *
+     * @param encoded the encoded histogram
+     * @return the decoded histogram
+     * @throws IllegalArgumentException if the encoding is malformed
+     */
+    public static LatencyHistogram decode(String encoded) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (encoded == null || encoded.isBlank()) {
+            return histogram;
+        }
+        try {
+            for (String pair : encoded.split(",")) {
+                int separator = pair.indexOf(':');
+                int bucket = Integer.parseInt(pair.substring(0, separator).trim());
+                long bucketCount = Long.parseLong(pair.substring(separator + 1).trim());
+                if (bucket < 0 || bucket >= BUCKETS || bucketCount < 0) {
+                    throw new IllegalArgumentException("Invalid histogram bucket: " + pair);
+                }
+                histogram.counts[bucket] += bucketCount;
+                histogram.count += bucketCount;
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed latency histogram: " + encoded, e);
+        }
+        while (histogram.count > MAX_COUNT) {
+            histogram.decay();
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,316 @@
+package com.skanga.conductor.metrics;
+
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.ResilienceConfig;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.utils.SingletonHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observed latencies of stages, tasks, agents and models, and the timeouts derived from them.
+ * <p>
+ * Each metric key keeps a {@link LatencyHistogram}. Once a key has enough
+ * observations, {@link #timeoutFor(Duration, String...)} derives its timeout as a
+ * high latency quantile times a multiplier, clamped between a floor and a ceiling.
+ * Timeouts thus follow the real behaviour of each stage: hung calls are reclaimed
+ * quickly when a stage is usually fast, while stages that are legitimately slow get
+ * the time they need. Keys without enough history use the static timeout.
+ * </p>
+ * <p>
+ * Calls that time out are recorded with the timeout they were given, so a stage that
+ * was cut off raises its next timeout rather than being killed at the same point again.
+ * </p>
+ * <p>
+ * Histograms are persisted to a {@link MemoryStore} attached with {@link #attach(MemoryStore)}
+ * and restored from it, so timeouts survive restarts. A store is attached to one memory
+ * store for its lifetime: {@link #forStore(MemoryStore)} returns the latency store of a
+ * memory store, so engines and executors persisting to different memory stores keep
+ * separate histograms and never count or write each other's observations. Latencies
+ * recorded without a memory store go to the unpersisted {@link #getInstance()}.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public class LatencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyStore.class);
+
+    private static final SingletonHolder<LatencyStore> HOLDER =
+        SingletonHolder.of(() -> new LatencyStore(configuredPolicy()));
+
+    /** Latency stores of memory stores; entries go away with their memory store. */
+    private static final Map<MemoryStore, LatencyStore> BY_MEMORY_STORE = new WeakHashMap<>();
+
+    /** Key aggregating all planner tasks, used while a task name has no history of its own. */
+    public static final String ALL_TASKS_KEY = "task:*";
+
+    private final TimeoutPolicy policy;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private volatile MemoryStore attachedStore;
+
+    /**
+     * How timeouts are derived from observed latencies.
+     *
+     * @param enabled whether adaptive timeouts are used at all
+     * @param quantile the latency quantile the timeout is based on
+     * @param multiplier the factor applied to the quantile
+     * @param minTimeoutMs the lower bound of adaptive timeouts
+     * @param maxTimeoutMs the upper bound of adaptive timeouts
+     * @param minSamples the observations required before a key's timeout is adapted
+     */
+    public record TimeoutPolicy(boolean enabled, double quantile, double multiplier,
+                                long minTimeoutMs, long maxTimeoutMs, int minSamples) {
+
+        /**
+         * Creates the policy configured in {@link ResilienceConfig}.
+         *
+         * @param config the resilience configuration
+         * @return the configured policy
+         */
+        public static TimeoutPolicy from(ResilienceConfig config) {
+            return new TimeoutPolicy(
+                config.isAdaptiveTimeoutEnabled(),
+                config.getAdaptiveTimeoutQuantile(),
+                config.getAdaptiveTimeoutMultiplier(),
+                config.getAdaptiveTimeoutMinDuration(),
+                config.getAdaptiveTimeoutMaxDuration(),
+                config.getAdaptiveTimeoutMinSamples());
+        }
+    }
+
+    /**
+     * Creates a store deriving timeouts with the given policy.
+     *
+     * @param policy the timeout policy
+     */
+    public LatencyStore(TimeoutPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("timeout policy cannot be null");
+        }
+        this.policy = policy;
+    }
+
+    private static TimeoutPolicy configuredPolicy() {
+        return TimeoutPolicy.from(ApplicationConfig.getInstance().getResilienceConfig());
+    }
+
+    /**
+     * Returns the shared latency store configured from {@link ResilienceConfig}, used
+     * for latencies recorded without a memory store. It is not persisted.
+     *
+     * @return the singleton instance
+     */
+    public static LatencyStore getInstance() {
+        return HOLDER.get();
+    }
+
+    /**
+     * Returns the latency store persisted to a memory store, configured from
+     * {@link ResilienceConfig}.
+     * <p>
+     * The first call for a memory store creates the latency store and restores the
+     * histograms saved in the memory store; later calls return the same instance,
+     * so persisted observations are loaded exactly once.
+     * </p>
+     *
+     * @param memoryStore the memory store, or null for the unpersisted {@link #getInstance()}
+     * @return the latency store of the memory store
+     */
+    public static LatencyStore forStore(MemoryStore memoryStore) {
+        if (memoryStore == null) {
+            return getInstance();
+        }
+        synchronized (BY_MEMORY_STORE) {
+            LatencyStore latencyStore = BY_MEMORY_STORE.get(memoryStore);
+            if (latencyStore == null) {
+                latencyStore = new LatencyStore(configuredPolicy());
+                latencyStore.attach(memoryStore);
+                BY_MEMORY_STORE.put(memoryStore, latencyStore);
+            }
+            return latencyStore;
+        }
+    }
+
+    /**
+     * Resets the singleton instance and the latency stores of memory stores for testing purposes.
+     */
+    public static void resetInstance() {
+        HOLDER.reset();
+        synchronized (BY_MEMORY_STORE) {
+            BY_MEMORY_STORE.clear();
+        }
+    }
+
+    /**
+     * Builds the key of a workflow stage.
+     *
+     * @param workflowName the workflow name
+     * @param stageName the stage name
+     * @return the metric key
+     */
+    public static String stageKey(String workflowName, String stageName) {
+        return "stage:" + workflowName + "/" + stageName;
+    }
+
+    /**
+     * Builds the key of a planner task.
+     *
+     * @param taskName the task name
+     * @return the metric key
+     */
+    public static String taskKey(String taskName) {
+        return "task:" + taskName;
+    }
+
+    /**
+     * Builds the key of an agent.
+     *
+     * @param agentName the agent name
+     * @return the metric key
+     */
+    public static String agentKey(String agentName) {
+        return "agent:" + agentName;
+    }
+
+    /**
+     * Builds the key of an LLM model.
+     *
+     * @param providerName the provider name
+     * @param modelName the model name
+     * @return the metric key
+     */
+    public static String modelKey(String providerName, String modelName) {
+        return "model:" + providerName + "/" + modelName;
+    }
+
+    /**
+     * Records an observed latency.
+     *
+     * @param key the metric key
+     * @param durationMs the latency in milliseconds
+     */
+    public void record(String key, long durationMs) {
+        if (key == null || durationMs < 0) {
+            return;
+        }
+        histograms.computeIfAbsent(key, k -> new LatencyHistogram()).record(durationMs);
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * Estimates a latency quantile.
+     *
+     * @param key the metric key
+     * @param quantile the quantile between 0.0 and 1.0
+     * @return the estimated latency in milliseconds, or -1 if nothing was recorded
+     */
+    public long getQuantile(String key, double quantile) {
+        LatencyHistogram histogram = histograms.get(key);
+        return histogram != null ? histogram.quantile(quantile) : -1;
+    }
+
+    /**
+     * Gets the number of observations weighted for a key.
+     *
+     * @param key the metric key
+     * @return the observation count
+     */
+    public long getCount(String key) {
+        LatencyHistogram histogram = histograms.get(key);
+        return histogram != null ? histogram.getCount() : 0;
+    }
+
+    /**
+     * Derives a timeout from the first key with enough observations.
+     * <p>
+     * Keys are tried in order, so callers can list a specific key followed by
+     * broader ones, such as a task followed by {@link #ALL_TASKS_KEY}.
+     * </p>
+     *
+     * @param fallback the static timeout used without enough history
+     * @param keys the metric keys to consult, most specific first
+     * @return the adaptive timeout, or {@code fallback}
+     */
+    public Duration timeoutFor(Duration fallback, String... keys) {
+        if (!policy.enabled()) {
+            return fallback;
+        }
+        for (String key : keys) {
+            LatencyHistogram histogram = histograms.get(key);
+            if (histogram != null && histogram.getCount() >= policy.minSamples()) {
+                long timeoutMs = (long) Math.ceil(histogram.quantile(policy.quantile()) * policy.multiplier());
+                return Duration.ofMillis(Math.clamp(timeoutMs, policy.minTimeoutMs(), policy.maxTimeoutMs()));
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Persists histograms to a memory store and restores those saved by earlier runs.
+     * <p>
+     * Restored observations are merged with those recorded since startup. Attaching
+     * the store that is already attached has no effect.
+     * </p>
+     *
+     * @param store the memory store to persist to
+     * @throws IllegalStateException if another memory store is already attached; use
+     *         {@link #forStore(MemoryStore)} to persist to several memory stores
+     */
+    public synchronized void attach(MemoryStore store) {
+        if (store == null || store == attachedStore) {
+            return;
+        }
+        if (attachedStore != null) {
+            throw new IllegalStateException("Latency store is already attached to another memory store");
+        }
+        try {
+            for (Map.Entry<String, String> entry : store.loadLatencyHistograms().entrySet()) {
+                LatencyHistogram restored = LatencyHistogram.decode(entry.getValue());
+                histograms.computeIfAbsent(entry.getKey(), k -> new LatencyHistogram()).merge(restored);
+            }
+        } catch (ConductorException.MemoryStoreException | IllegalArgumentException e) {
+            logger.warn("Could not restore latency histograms: {}", e.getMessage());
+        }
+        // Merged histograms include restored observations and must be written back in full
+        dirtyKeys.addAll(histograms.keySet());
+        attachedStore = store;
+    }
+
+    /**
+     * Writes histograms changed since the last flush to the attached memory store.
+     * Failures are logged, since latency history is advisory.
+     */
+    public void flush() {
+        MemoryStore store = attachedStore;
+        if (store == null || dirtyKeys.isEmpty()) {
+            return;
+        }
+        Map<String, String> changed = new HashMap<>();
+        for (String key : dirtyKeys) {
+            dirtyKeys.remove(key);
+            LatencyHistogram histogram = histograms.get(key);
+            if (histogram != null) {
+                changed.put(key, histogram.encode());
+            }
+        }
+        try {
+            store.saveLatencyHistograms(changed);
+        } catch (ConductorException.MemoryStoreException e) {
+            dirtyKeys.addAll(changed.keySet());
+            logger.warn("Could not persist latency histograms: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.skanga.conductor.orchestration;
+
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.ParallelismConfig;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Coordinates execution of task batches across worker nodes sharing one database.
+ *
+ * <p>Where {@link ParallelTaskExecutor} runs a batch on the cores of one JVM, this
+ * executor writes the ready tasks of each batch to the work queue of the
+ * {@link MemoryStore} and waits while {@link DistributedTaskWorker}s on any number
+ * of nodes claim and execute them. Task outputs are read back from
+ * {@code TASK_OUTPUTS}, where workers store them when they complete a task.</p>
+ *
+ * <p>Features:</p>
+ * <ul>
+ * <li>Dependency-aware batch ordering; a batch is only enqueued once the previous
+ * one has completed</li>
+ * <li>Tasks with an output from an earlier run are not enqueued again; tasks
+ * left failed by an earlier run are retried</li>
+ * <li>Tasks held by crashed workers are re-queued once their lease expires</li>
+ * <li>A task that has used up its attempts yields a failed result, and the
+ * batches after its batch are not executed</li>
+ * </ul>
+ *
+ * <p>The coordinator itself does not execute tasks, so at least one worker must be
+ * running against the same database.</p>
+ *
+ * @since 2.0.0
+ * @see DistributedTaskWorker
+ */
+public class DistributedTaskExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedTaskExecutor.class);
+
+    private final Duration pollInterval;
+    private final Duration batchTimeout;
+    private final int maxAttempts;
+
+    /**
+     * Work queue payload describing a task to a worker.
+     *
+     * @param userRequest the user's original request
+     * @param task the task to execute
+     */
+    record TaskPayload(String userRequest, TaskDefinition task) {}
+
+    /**
+     * Creates a distributed task executor configured from {@link ParallelismConfig}.
+     */
+    public DistributedTaskExecutor() {
+        this(ApplicationConfig.getInstance().getParallelismConfig());
+    }
+
+    private DistributedTaskExecutor(ParallelismConfig config) {
+        this(config.getDistributedPollInterval(),
+             Duration.ofSeconds(config.getBatchTimeoutSeconds()),
+             config.getDistributedMaxAttempts());
+    }
+
+    /**
+     * Creates a distributed task executor with custom configuration.
+     *
+     * @param pollInterval how often the work queue is checked for batch completion
+     * @param batchTimeout how long to wait for a batch to complete
+     * @param maxAttempts maximum attempts per task; must match the workers' setting
+     */
+    public DistributedTaskExecutor(Duration pollInterval, Duration batchTimeout, int maxAttempts) {
+        if (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("pollInterval must be positive");
+        }
+        if (batchTimeout == null || batchTimeout.isNegative() || batchTimeout.isZero()) {
+            throw new IllegalArgumentException("batchTimeout must be positive");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.pollInterval = pollInterval;
+        this.batchTimeout = batchTimeout;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Executes task batches on the worker nodes.
+     *
+     * @param workflowId workflow identifier
+     * @param userRequest user's original request
+     * @param taskBatches batches of independent tasks
+     * @param memoryStore store holding the work queue and task outputs
+     * @return list of execution results in original task order; a task that failed
+     *         on its last attempt, or was not executed because an earlier batch
+     *         failed, has a failed result
+     * @throws ConductorException if a batch times out or the thread is interrupted while waiting
+     */
+    public List<ExecutionResult> executeBatches(
+            String workflowId,
+            String userRequest,
+            List<List<TaskDefinition>> taskBatches,
+            MemoryStore memoryStore) throws ConductorException {
+
+        if (taskBatches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int totalTasks = taskBatches.stream().mapToInt(List::size).sum();
+        logger.info("Distributing {} tasks in {} batches for workflow '{}'",
+                  totalTasks, taskBatches.size(), workflowId);
+
+        Map<String, String> taskOutputs = memoryStore.loadTaskOutputs(workflowId);
+        Map<String, String> taskErrors = new HashMap<>();
+        for (int batchIndex = 0; batchIndex < taskBatches.size() && taskErrors.isEmpty(); batchIndex++) {
+            List<TaskDefinition> batch = taskBatches.get(batchIndex);
+            int enqueued = 0;
+            Set<String> awaited = new LinkedHashSet<>();
+            for (TaskDefinition task : batch) {
+                if (taskOutputs.containsKey(task.taskName)) {
+                    logger.debug("Task '{}' already completed, not enqueuing", task.taskName);
+                    continue;
+                }
+                awaited.add(task.taskName);
+                if (memoryStore.enqueueWork(workflowId, task.taskName,
+                        JsonUtils.toJson(new TaskPayload(userRequest, task)))) {
+                    enqueued++;
+                }
+            }
+            logger.info("Enqueued {} tasks of batch {} for workflow '{}'", enqueued, batchIndex + 1, workflowId);
+            if (awaited.isEmpty()) {
+                continue;
+            }
+
+            taskErrors = awaitBatch(workflowId, awaited, memoryStore);
+            taskOutputs = memoryStore.loadTaskOutputs(workflowId);
+            if (!taskErrors.isEmpty()) {
+                // Later batches depend on the outputs of this one
+                logger.error("Batch {} of workflow '{}' failed: {}", batchIndex + 1, workflowId, taskErrors.keySet());
+            }
+        }
+
+        List<ExecutionResult> orderedResults = new ArrayList<>();
+        for (List<TaskDefinition> batch : taskBatches) {
+            for (TaskDefinition task : batch) {
+                String output = taskOutputs.get(task.taskName);
+                if (output != null) {
+                    orderedResults.add(new ExecutionResult(true, output, null));
+                } else if (taskErrors.containsKey(task.taskName)) {
+                    orderedResults.add(new ExecutionResult(false, taskErrors.get(task.taskName), null));
+                } else {
+                    orderedResults.add(new ExecutionResult(false,
+                        "Task not executed: an earlier batch failed", null));
+                }
+            }
+        }
+        logger.info("Completed distributed execution of {} tasks for workflow '{}' with {} failed",
+            totalTasks, workflowId, taskErrors.size());
+        return orderedResults;
+    }
+
+    /**
+     * Waits until every awaited task of a batch is completed or has used up its
+     * attempts, re-queuing expired leases meanwhile. Only the work queue status
+     * is polled; the outputs are loaded once the batch is done.
+     *
+     * @return the errors of the failed tasks of the batch by task name, empty if all completed
+     */
+    private Map<String, String> awaitBatch(String workflowId, Set<String> taskNames, MemoryStore memoryStore)
+            throws ConductorException {
+        long deadline = System.nanoTime() + batchTimeout.toNanos();
+
+        while (true) {
+            Map<String, MemoryStore.WorkItemState> states = memoryStore.loadWorkItemStates(workflowId).stream()
+                .collect(Collectors.toMap(MemoryStore.WorkItemState::taskName, state -> state));
+
+            boolean done = true;
+            Map<String, String> taskErrors = new HashMap<>();
+            for (String taskName : taskNames) {
+                MemoryStore.WorkItemState state = states.get(taskName);
+                if (state != null && state.status() == MemoryStore.WorkStatus.COMPLETED) {
+                    continue;
+                }
+                if (state != null && state.status() == MemoryStore.WorkStatus.FAILED) {
+                    taskErrors.put(taskName, "Task execution failed: " + taskName +
+                        " after " + state.attempts() + " attempts: " + state.lastError());
+                } else {
+                    done = false;
+                }
+            }
+            if (done) {
+                return taskErrors;
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new ConductorException("Batch execution timed out after " + batchTimeout +
+                    " waiting for workers on workflow '" + workflowId + "'");
+            }
+            int requeued = memoryStore.requeueExpiredWork(maxAttempts);
+            if (requeued > 0) {
+                logger.warn("Re-queued {} tasks with expired leases for workflow '{}'", requeued, workflowId);
+            }
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConductorException("Interrupted while waiting for distributed batch", e);
+            }
+        }
+    }
+}
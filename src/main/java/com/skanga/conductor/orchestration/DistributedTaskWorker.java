@@ -0,0 +1,347 @@
+package com.skanga.conductor.orchestration;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.ParallelismConfig;
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Executes tasks claimed from the distributed work queue of a shared database.
+ *
+ * <p>Each worker runs a claim loop on its own thread: it leases the oldest pending
+ * task, renews the lease with periodic heartbeats while the task executes, and
+ * completes the task by storing its output in {@code TASK_OUTPUTS}. Failed tasks
+ * are re-queued until they have used up their attempts. A worker that loses its
+ * lease (for example after a long pause) cannot complete the task anymore; the
+ * task has been handed to another worker.</p>
+ *
+ * <p>Any number of workers on any number of nodes can serve the same database.
+ * Tasks are submitted by a {@link DistributedTaskExecutor}.</p>
+ *
+ * <p>Usage with try-with-resources:</p>
+ * <pre>{@code
+ * try (DistributedTaskWorker worker = DistributedTaskWorker.builder()
+ *         .memoryStore(memoryStore)
+ *         .agentFactory(task -> createAgent(task))
+ *         .build()) {
+ *     worker.start();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @since 2.0.0
+ * @see DistributedTaskExecutor
+ */
+public class DistributedTaskWorker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedTaskWorker.class);
+
+    private final String workerId;
+    private final MemoryStore memoryStore;
+    private final Function<TaskDefinition, SubAgent> agentFactory;
+    private final Duration leaseDuration;
+    private final Duration heartbeatInterval;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final PromptTemplateEngine templateEngine = new PromptTemplateEngine();
+    private final ScheduledExecutorService heartbeatScheduler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile Thread claimThread;
+
+    private DistributedTaskWorker(Builder builder) {
+        this.workerId = builder.workerId != null ? builder.workerId : "worker-" + UUID.randomUUID();
+        this.memoryStore = builder.memoryStore;
+        this.agentFactory = builder.agentFactory;
+        this.leaseDuration = builder.leaseDuration;
+        this.heartbeatInterval = builder.heartbeatInterval;
+        this.pollInterval = builder.pollInterval;
+        this.maxAttempts = builder.maxAttempts;
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, workerId + "-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a builder with defaults from {@link ParallelismConfig}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(ApplicationConfig.getInstance().getParallelismConfig());
+    }
+
+    /**
+     * Starts the claim loop. Calling this method on a running worker has no effect.
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            claimThread = Thread.ofVirtual().name(workerId).start(this::claimLoop);
+            logger.info("Distributed worker '{}' started", workerId);
+        }
+    }
+
+    private void claimLoop() {
+        while (running.get()) {
+            try {
+                Optional<MemoryStore.WorkItem> item = memoryStore.claimWork(workerId, leaseDuration);
+                if (item.isPresent()) {
+                    execute(item.get());
+                } else {
+                    // Idle workers also reclaim tasks from crashed peers
+                    memoryStore.requeueExpiredWork(maxAttempts);
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                if (!running.get()) {
+                    break; // interrupted by close()
+                }
+                logger.warn("Distributed worker '{}' could not poll the work queue: {}", workerId, e.getMessage());
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void execute(MemoryStore.WorkItem item) {
+        logger.debug("Worker '{}' claimed task '{}' of workflow '{}' (attempt {})",
+            workerId, item.taskName(), item.workflowId(), item.attempts());
+
+        AtomicBoolean leaseLost = new AtomicBoolean(false);
+        ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (!memoryStore.renewLease(item, leaseDuration)) {
+                    leaseLost.set(true);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Worker '{}' failed to renew lease of task '{}': {}",
+                    workerId, item.taskName(), e.getMessage());
+            }
+        }, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        try {
+            DistributedTaskExecutor.TaskPayload payload =
+                JsonUtils.fromJson(item.payload(), DistributedTaskExecutor.TaskPayload.class);
+            TaskDefinition task = payload.task();
+
+            // Outputs of earlier batches are read from the database, where the
+            // workers that executed them stored them
+            Map<String, Object> templateVars = ParallelTaskExecutor.buildTemplateVariables(
+                payload.userRequest(), memoryStore.loadTaskOutputs(item.workflowId()));
+            String prompt = templateEngine.render(task.promptTemplate, templateVars);
+
+            ExecutionResult result = agentFactory.apply(task).execute(new ExecutionInput(prompt, null));
+            if (!result.success()) {
+                throw new IllegalStateException("Agent reported failure: " + result.output());
+            }
+
+            heartbeat.cancel(false);
+            String output = result.output() != null ? result.output() : "";
+            if (memoryStore.completeWork(item, output)) {
+                completedCount.incrementAndGet();
+                logger.debug("Worker '{}' completed task '{}'", workerId, item.taskName());
+            } else {
+                logger.warn("Worker '{}' lost the lease of task '{}' before completing it{}",
+                    workerId, item.taskName(), leaseLost.get() ? " (heartbeat rejected)" : "");
+            }
+        } catch (Exception e) {
+            heartbeat.cancel(false);
+            if (!running.get()) {
+                release(item);
+                return;
+            }
+            failedCount.incrementAndGet();
+            logger.warn("Worker '{}' failed task '{}' (attempt {} of {}): {}",
+                workerId, item.taskName(), item.attempts(), maxAttempts, e.getMessage());
+            try {
+                memoryStore.failWork(item, e.getClass().getSimpleName() + ": " + e.getMessage(), maxAttempts);
+            } catch (RuntimeException re) {
+                // The lease expires and the task is re-queued by another node
+                logger.warn("Worker '{}' could not record failure of task '{}': {}",
+                    workerId, item.taskName(), re.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hands a task interrupted by {@link #close()} back to the queue; shutting down
+     * does not use up one of its attempts.
+     */
+    private void release(MemoryStore.WorkItem item) {
+        try {
+            if (memoryStore.releaseWork(item)) {
+                logger.info("Worker '{}' released task '{}' on shutdown", workerId, item.taskName());
+            }
+        } catch (RuntimeException e) {
+            // The lease expires and the task is re-queued by another node
+            logger.warn("Worker '{}' could not release task '{}': {}", workerId, item.taskName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the identifier this worker claims leases under.
+     *
+     * @return the worker ID
+     */
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Gets the number of tasks this worker has completed.
+     *
+     * @return the completed task count
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * Gets the number of failed task attempts of this worker.
+     *
+     * @return the failed attempt count
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Checks if the claim loop is running.
+     *
+     * @return true if running
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Stops claiming tasks. A task in progress is interrupted and, if it fails
+     * as a result, returned to the queue for another worker without counting
+     * the interrupted attempt.
+     */
+    @Override
+    public void close() {
+        if (running.compareAndSet(true, false)) {
+            Thread thread = claimThread;
+            if (thread != null) {
+                thread.interrupt();
+                try {
+                    thread.join(pollInterval.toMillis() + 1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            logger.info("Distributed worker '{}' stopped after completing {} tasks", workerId, completedCount.get());
+        }
+        heartbeatScheduler.shutdownNow();
+    }
+
+    public static class Builder {
+        private String workerId;
+        private MemoryStore memoryStore;
+        private Function<TaskDefinition, SubAgent> agentFactory;
+        private Duration leaseDuration;
+        private Duration heartbeatInterval;
+        private Duration pollInterval;
+        private int maxAttempts;
+
+        private Builder(ParallelismConfig config) {
+            this.leaseDuration = config.getDistributedLeaseDuration();
+            this.heartbeatInterval = config.getDistributedHeartbeatInterval();
+            this.pollInterval = config.getDistributedPollInterval();
+            this.maxAttempts = config.getDistributedMaxAttempts();
+        }
+
+        /**
+         * Sets the identifier leases are claimed under; defaults to a random ID.
+         */
+        public Builder workerId(String workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        public Builder memoryStore(MemoryStore memoryStore) {
+            this.memoryStore = memoryStore;
+            return this;
+        }
+
+        /**
+         * Sets the function creating the agent executing a claimed task on this node.
+         */
+        public Builder agentFactory(Function<TaskDefinition, SubAgent> agentFactory) {
+            this.agentFactory = agentFactory;
+            return this;
+        }
+
+        public Builder leaseDuration(Duration leaseDuration) {
+            this.leaseDuration = leaseDuration;
+            return this;
+        }
+
+        public Builder heartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+            return this;
+        }
+
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public DistributedTaskWorker build() {
+            if (memoryStore == null) {
+                throw new IllegalArgumentException("memory store cannot be null");
+            }
+            if (agentFactory == null) {
+                throw new IllegalArgumentException("agent factory cannot be null");
+            }
+            if (leaseDuration == null || leaseDuration.isNegative() || leaseDuration.isZero()) {
+                throw new IllegalArgumentException("leaseDuration must be positive");
+            }
+            if (heartbeatInterval == null || heartbeatInterval.isNegative() || heartbeatInterval.isZero()
+                    || heartbeatInterval.compareTo(leaseDuration) >= 0) {
+                throw new IllegalArgumentException("heartbeatInterval must be positive and shorter than leaseDuration");
+            }
+            if (pollInterval == null || pollInterval.isNegative() || pollInterval.isZero()) {
+                throw new IllegalArgumentException("pollInterval must be positive");
+            }
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            return new DistributedTaskWorker(this);
+        }
+    }
+}
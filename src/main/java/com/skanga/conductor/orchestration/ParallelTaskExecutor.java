@@ -2,16 +2,20 @@ package com.skanga.conductor.orchestration;
 
 import com.skanga.conductor.agent.SubAgent;
 import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
 import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.metrics.LatencyStore;
 import com.skanga.conductor.metrics.Metric;
 import com.skanga.conductor.metrics.MetricType;
 import com.skanga.conductor.metrics.MetricsRegistry;
 import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.templates.TemplateScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Function;
@@ -28,7 +32,8 @@ import java.util.function.Function;
  * <li>Parallel execution within batches</li>
  * <li>Dependency-aware batch ordering</li>
  * <li>Configurable thread pool size</li>
- * <li>Comprehensive error handling and timeout support</li>
+ * <li>Comprehensive error handling and timeout support, with task timeouts
+ * adapted to observed task latencies by {@link LatencyStore}</li>
  * <li>Metrics collection for performance monitoring</li>
  * <li>Graceful degradation to sequential execution on errors</li>
  * <li>AutoCloseable for proper resource cleanup</li>
@@ -63,7 +68,8 @@ public class ParallelTaskExecutor implements AutoCloseable {
      *
      * @param executorService executor service for running tasks
      * @param maxParallelism maximum number of parallel tasks per batch
-     * @param taskTimeoutSeconds timeout for individual task execution
+     * @param taskTimeoutSeconds timeout for individual task execution until enough
+     *        task latencies have been observed to derive adaptive timeouts
      */
     public ParallelTaskExecutor(ExecutorService executorService, int maxParallelism, long taskTimeoutSeconds) {
         this.templateEngine = new PromptTemplateEngine();
@@ -97,6 +103,8 @@ public class ParallelTaskExecutor implements AutoCloseable {
         // Track results by task name to maintain original order
         Map<String, ExecutionResult> resultsByTaskName = new ConcurrentHashMap<>();
         Map<String, String> taskOutputs = new ConcurrentHashMap<>(memoryStore.loadTaskOutputs(workflowId));
+        // Shared read-only by all tasks of a batch and extended once per completed batch
+        TemplateScope scope = buildTemplateVariables(userRequest, taskOutputs);
 
         long startTime = System.currentTimeMillis();
         int totalTasks = taskBatches.stream().mapToInt(List::size).sum();
@@ -114,7 +122,8 @@ public class ParallelTaskExecutor implements AutoCloseable {
                           batchIndex + 1, batch.size(),
                           batch.stream().map(t -> t.taskName).toList());
 
-                executeBatch(workflowId, userRequest, batch, agentFactory, taskOutputs, resultsByTaskName, memoryStore);
+                executeBatch(workflowId, batch, agentFactory, scope, taskOutputs, resultsByTaskName, memoryStore);
+                scope = extendScope(scope, batch, taskOutputs);
 
                 long batchDuration = System.currentTimeMillis() - batchStartTime;
                 logger.info("Completed batch {} in {}ms", batchIndex + 1, batchDuration);
@@ -177,6 +186,8 @@ public class ParallelTaskExecutor implements AutoCloseable {
             logger.error("Parallel execution failed for workflow '{}': {}", workflowId, e.getMessage(), e);
             metricsRegistry.recordError(workflowId, e.getClass().getSimpleName(), e.getMessage());
             throw new ConductorException("Parallel task execution failed", e);
+        } finally {
+            LatencyStore.forStore(memoryStore).flush();
         }
     }
 
@@ -185,9 +196,9 @@ public class ParallelTaskExecutor implements AutoCloseable {
      */
     private void executeBatch(
             String workflowId,
-            String userRequest,
             List<TaskDefinition> batch,
             Function<TaskDefinition, SubAgent> agentFactory,
+            TemplateScope scope,
             Map<String, String> taskOutputs,
             Map<String, ExecutionResult> resultsByTaskName,
             MemoryStore memoryStore) throws ConductorException {
@@ -195,7 +206,7 @@ public class ParallelTaskExecutor implements AutoCloseable {
         if (batch.size() == 1) {
             // Single task - execute directly
             TaskDefinition task = batch.get(0);
-            ExecutionResult result = executeTask(workflowId, userRequest, task, agentFactory, taskOutputs, memoryStore);
+            ExecutionResult result = executeTask(workflowId, task, agentFactory, scope, taskOutputs, memoryStore);
             resultsByTaskName.put(task.taskName, result);
             return;
         }
@@ -204,17 +215,34 @@ public class ParallelTaskExecutor implements AutoCloseable {
         int effectiveParallelism = Math.min(batch.size(), maxParallelism);
         List<CompletableFuture<TaskExecutionResult>> futures = new ArrayList<>();
 
+        // Cancelling a future does not stop its task, so tasks are cancelled through tokens
+        // which abort their LLM calls; the batch token follows the token of the caller
+        CancellationToken batchToken = CancellationToken.current().child();
+        long batchTimeoutMs = 0;
         for (TaskDefinition task : batch) {
+            long timeoutMs = taskTimeout(task, memoryStore).toMillis();
+            batchTimeoutMs = Math.max(batchTimeoutMs, timeoutMs);
+            CancellationToken taskToken = batchToken.child();
             CompletableFuture<TaskExecutionResult> future = CompletableFuture
                 .supplyAsync(() -> {
-                    try {
-                        ExecutionResult result = executeTask(workflowId, userRequest, task, agentFactory, taskOutputs, memoryStore);
+                    try (CancellationToken.Scope ignored = taskToken.bind()) {
+                        taskToken.throwIfCancelled();
+                        ExecutionResult result = executeTask(workflowId, task, agentFactory, scope, taskOutputs, memoryStore);
                         return new TaskExecutionResult(task.taskName, result, null);
                     } catch (Exception e) {
                         return new TaskExecutionResult(task.taskName, null, e);
+                    } finally {
+                        taskToken.close();
                     }
                 }, executorService)
-                .orTimeout(taskTimeoutSeconds, TimeUnit.SECONDS);
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    // A task cut off at its timeout raises the timeout of later runs
+                    if (error instanceof TimeoutException) {
+                        taskToken.cancel("task timed out after " + timeoutMs + "ms");
+                        LatencyStore.forStore(memoryStore).record(LatencyStore.taskKey(task.taskName), timeoutMs);
+                    }
+                });
 
             futures.add(future);
         }
@@ -222,7 +250,9 @@ public class ParallelTaskExecutor implements AutoCloseable {
         // Wait for all tasks in batch to complete
         try {
             CompletableFuture<Void> allTasks = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-            allTasks.get(taskTimeoutSeconds * batch.size(), TimeUnit.SECONDS);
+            // Tasks beyond the parallelism limit queue behind others, so allow for several rounds
+            int rounds = (batch.size() + effectiveParallelism - 1) / effectiveParallelism;
+            allTasks.get(batchTimeoutMs * rounds, TimeUnit.MILLISECONDS);
 
             // Collect results
             for (CompletableFuture<TaskExecutionResult> future : futures) {
@@ -235,22 +265,38 @@ public class ParallelTaskExecutor implements AutoCloseable {
 
         } catch (TimeoutException e) {
             logger.error("Batch execution timed out for workflow '{}'. Cancelling remaining tasks.", workflowId);
+            batchToken.cancel("batch execution timed out");
             futures.forEach(f -> f.cancel(true));
             throw new ConductorException("Batch execution timed out", e);
         } catch (ExecutionException | InterruptedException e) {
             logger.error("Batch execution failed for workflow '{}': {}", workflowId, e.getMessage());
+            batchToken.cancel("batch execution failed");
             throw new ConductorException("Batch execution failed", e);
+        } catch (ConductorException e) {
+            batchToken.cancel("batch execution failed");
+            throw e;
+        } finally {
+            batchToken.close();
         }
     }
 
+    /**
+     * Gets the timeout of a task: adaptive once the task, or planner tasks in
+     * general, have enough latency history, and the configured timeout before.
+     */
+    private Duration taskTimeout(TaskDefinition task, MemoryStore memoryStore) {
+        return LatencyStore.forStore(memoryStore).timeoutFor(Duration.ofSeconds(taskTimeoutSeconds),
+            LatencyStore.taskKey(task.taskName), LatencyStore.ALL_TASKS_KEY);
+    }
+
     /**
      * Executes a single task.
      */
     private ExecutionResult executeTask(
             String workflowId,
-            String userRequest,
             TaskDefinition task,
             Function<TaskDefinition, SubAgent> agentFactory,
+            TemplateScope scope,
             Map<String, String> taskOutputs,
             MemoryStore memoryStore) throws ConductorException {
 
@@ -266,14 +312,16 @@ public class ParallelTaskExecutor implements AutoCloseable {
             // Create agent for task
             SubAgent agent = agentFactory.apply(task);
 
-            // Build template variables
-            Map<String, Object> templateVars = buildTemplateVariables(userRequest, taskOutputs);
-
-            // Render prompt template
-            String agentPrompt = templateEngine.render(task.promptTemplate, templateVars);
+            // Render prompt template against the outputs of all earlier batches
+            String agentPrompt = templateEngine.render(task.promptTemplate, scope);
 
             // Execute task
+            long taskStartTime = System.currentTimeMillis();
             ExecutionResult result = agent.execute(new ExecutionInput(agentPrompt, null));
+            long taskDuration = System.currentTimeMillis() - taskStartTime;
+            LatencyStore latencyStore = LatencyStore.forStore(memoryStore);
+            latencyStore.record(LatencyStore.taskKey(task.taskName), taskDuration);
+            latencyStore.record(LatencyStore.ALL_TASKS_KEY, taskDuration);
 
             // Store output
             String output = result.output() != null ? result.output() : "";
@@ -293,25 +341,35 @@ public class ParallelTaskExecutor implements AutoCloseable {
 
     /**
      * Builds template variables for prompt rendering.
+     * <p>
+     * Shared with {@link DistributedTaskWorker} so tasks render identically on every node.
+     * </p>
      */
-    private Map<String, Object> buildTemplateVariables(String userRequest, Map<String, String> taskOutputs) {
-        Map<String, Object> templateVars = new HashMap<>();
-        templateVars.put("user_request", userRequest);
-
-        // Add all completed task outputs
-        templateVars.putAll(taskOutputs);
-
-        // Add prev_output as the most recent output
-        if (!taskOutputs.isEmpty()) {
-            String prevOutput = taskOutputs.values().stream()
-                .reduce((first, second) -> second)
-                .orElse("");
-            templateVars.put("prev_output", prevOutput);
-        } else {
-            templateVars.put("prev_output", "");
+    static TemplateScope buildTemplateVariables(String userRequest, Map<String, String> taskOutputs) {
+        // Add all completed task outputs, and prev_output as the most recent output
+        String prevOutput = "";
+        for (String output : taskOutputs.values()) {
+            prevOutput = output;
         }
+        return TemplateScope.empty()
+            .with("user_request", userRequest)
+            .withAll(taskOutputs)
+            .with("prev_output", prevOutput);
+    }
 
-        return templateVars;
+    /**
+     * Adds the outputs of a completed batch to the template scope, sharing the
+     * existing variables instead of copying them.
+     */
+    private static TemplateScope extendScope(TemplateScope scope, List<TaskDefinition> batch,
+                                             Map<String, String> taskOutputs) {
+        for (TaskDefinition task : batch) {
+            String output = taskOutputs.get(task.taskName);
+            if (output != null) {
+                scope = scope.with(task.taskName, output).with("prev_output", output);
+            }
+        }
+        return scope;
     }
 
     /**
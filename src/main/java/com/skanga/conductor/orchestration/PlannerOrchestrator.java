@@ -4,6 +4,7 @@ import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.memory.MemoryStore;
 import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.templates.TemplateScope;
 import com.skanga.conductor.utils.ValidationUtils;
 import com.skanga.conductor.agent.SubAgent;
 import com.skanga.conductor.agent.SubAgentRegistry;
@@ -41,6 +42,10 @@ import com.skanga.conductor.config.ParallelismConfig;
  * draft_chapter → prompt contains {{user_request}} → filled in with user’s request.
  * edit_chapter → prompt contains {{prev_output}} → filled with draft_chapter output.
  * critique_chapter → prompt contains {{draft_chapter}} → filled directly from stored outputs.
+ * <p>
+ * With {@code conductor.parallelism.mode=distributed}, planned tasks are not executed
+ * on this JVM: their dependency batches are handed to the {@link DistributedTaskWorker}s
+ * serving the memory store's database through a {@link DistributedTaskExecutor}.
  */
 public class PlannerOrchestrator extends Orchestrator {
 
@@ -48,10 +53,27 @@ public class PlannerOrchestrator extends Orchestrator {
     private final PromptTemplateEngine templateEngine;
     private final TaskDependencyAnalyzer dependencyAnalyzer;
     private final ParallelTaskExecutor parallelExecutor;
+    private final DistributedTaskExecutor distributedExecutor;
     private final ParallelismConfig parallelismConfig;
 
     public PlannerOrchestrator(SubAgentRegistry registry, MemoryStore memoryStore) {
+        this(registry, memoryStore,
+            ApplicationConfig.getInstance().getParallelismConfig().isDistributed()
+                ? new DistributedTaskExecutor() : null);
+    }
+
+    /**
+     * Creates an orchestrator handing planned tasks to distributed workers.
+     *
+     * @param registry the subagent registry
+     * @param memoryStore the memory store, whose database holds the work queue
+     * @param distributedExecutor the executor coordinating the workers, or null to
+     *        execute planned tasks on this JVM
+     */
+    public PlannerOrchestrator(SubAgentRegistry registry, MemoryStore memoryStore,
+                               DistributedTaskExecutor distributedExecutor) {
         super(registry, memoryStore);
+        this.distributedExecutor = distributedExecutor;
         this.templateEngine = new PromptTemplateEngine();
         this.dependencyAnalyzer = new TaskDependencyAnalyzer();
         this.parallelismConfig = ApplicationConfig.getInstance().getParallelismConfig();
@@ -185,6 +207,11 @@ public class PlannerOrchestrator extends Orchestrator {
             return Collections.emptyList();
         }
 
+        // Workers execute every task in distributed mode, so the local heuristics do not apply
+        if (distributedExecutor != null) {
+            return executeDistributed(workflowId, userRequest, plan, memoryStore);
+        }
+
         // Decide whether to use parallel or sequential execution
         if (shouldUseParallelExecution(plan)) {
             return executeInParallel(workflowId, userRequest, plan, workerProvider, memoryStore);
@@ -258,6 +285,21 @@ public class PlannerOrchestrator extends Orchestrator {
         }
     }
 
+    /**
+     * Executes tasks on the distributed workers using dependency-aware batching.
+     */
+    private List<ExecutionResult> executeDistributed(
+            String workflowId,
+            String userRequest,
+            TaskDefinition[] plan,
+            MemoryStore memoryStore) throws ConductorException {
+
+        List<List<TaskDefinition>> taskBatches = dependencyAnalyzer.groupTasksIntoBatches(plan);
+        logger.info("Distributing {} tasks in {} batches for workflow '{}'",
+                  plan.length, taskBatches.size(), workflowId);
+        return distributedExecutor.executeBatches(workflowId, userRequest, taskBatches, memoryStore);
+    }
+
     /**
      * Executes tasks sequentially (original implementation).
      */
@@ -279,6 +321,12 @@ public class PlannerOrchestrator extends Orchestrator {
         String prevOutput = taskOutputs.isEmpty() ? "" :
                 taskOutputs.values().stream().reduce((a, b) -> b).orElse("");
 
+        // Each task sees all earlier outputs through a shared scope that grows by one
+        // entry per task, instead of copying every output into a new map per task
+        TemplateScope scope = TemplateScope.empty()
+                .with("user_request", userRequest)
+                .withAll(taskOutputs);
+
         for (TaskDefinition td : plan) {
             if (taskOutputs.containsKey(td.taskName)) {
                 logger.info("Skipping completed task: {}", td.taskName);
@@ -298,15 +346,7 @@ public class PlannerOrchestrator extends Orchestrator {
                 throw new ConductorException("Failed to create implicit agent", e);
             }
 
-            // Create template variables map
-            Map<String, Object> templateVars = new HashMap<>();
-            templateVars.put("user_request", userRequest);
-            templateVars.put("prev_output", prevOutput != null ? prevOutput : "");
-
-            // Add all task outputs as template variables
-            for (Map.Entry<String, String> entry : taskOutputs.entrySet()) {
-                templateVars.put(entry.getKey(), entry.getValue());
-            }
+            TemplateScope templateVars = scope.with("prev_output", prevOutput != null ? prevOutput : "");
 
             // Use PromptTemplateEngine for consistent templating
             String agentPrompt = templateEngine.render(td.promptTemplate, templateVars);
@@ -317,6 +357,7 @@ public class PlannerOrchestrator extends Orchestrator {
             String output = res.output() != null ? res.output() : "";
             prevOutput = output;
             taskOutputs.put(td.taskName, output);
+            scope = scope.with(td.taskName, output);
 
             // Persist output for resumability
             memoryStore.saveTaskOutput(workflowId, td.taskName, output);
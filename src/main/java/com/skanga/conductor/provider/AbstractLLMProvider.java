@@ -2,12 +2,26 @@ package com.skanga.conductor.provider;
 
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.CancellationToken;
+import com.skanga.conductor.metrics.LatencyStore;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
 import com.skanga.conductor.resilience.CircuitBreakerManager;
 import com.skanga.conductor.retry.RetryExecutor;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import com.skanga.conductor.config.LLMConfig;
 
@@ -29,8 +43,18 @@ import com.skanga.conductor.config.LLMConfig;
  * <li>Retry execution with comprehensive logging and metrics</li>
  * <li>Consistent error handling and exception translation</li>
  * <li>Provider context tracking for enhanced diagnostics</li>
+ * <li>Token usage and cost accounting, with enforcement of workflow budgets</li>
  * </ul>
  * <p>
+ * The token usage of every successful call is recorded in the {@link MetricsRegistry}
+ * per provider and model, and per workflow, stage and agent when the call is made
+ * within a {@link UsageScope}: {@code llm.tokens.input}, {@code llm.tokens.output},
+ * {@code llm.cost.usd} for models with configured pricing, {@code llm.tokens.per_second}
+ * and {@code llm.calls} tagged with the finish reason. Calls are also charged to the
+ * {@link TokenBudget} of the scope, which may refuse them or redirect them to a
+ * downgrade provider once spent.
+ * </p>
+ * <p>
  * Thread Safety: This class is thread-safe, assuming the underlying
  * retry executor and application configuration are thread-safe.
  * </p>
@@ -129,18 +153,158 @@ public abstract class AbstractLLMProvider implements LLMProvider {
      */
     @Override
     public final String generate(String prompt) throws ConductorException.LLMProviderException {
+        return generateWithUsage(prompt).text();
+    }
+
+    /**
+     * Generates text with the same resilience patterns as {@link #generate(String)},
+     * returning the token usage of the call along with the text.
+     * <p>
+     * The call is charged to the budget of the bound {@link UsageScope}. Once the
+     * budget is spent, the call is refused or made by its downgrade provider.
+     * </p>
+     *
+     * @param prompt the text prompt to send to the LLM
+     * @return the generated text with its token usage
+     * @throws ConductorException.LLMProviderException if the LLM request fails after all retries
+     * @throws ConductorException.BudgetExceededException if the workflow budget is spent
+     */
+    @Override
+    public final GenerationResult generateWithUsage(String prompt) throws ConductorException.LLMProviderException {
+        LLMProvider downgrade = admit();
+        if (downgrade != null) {
+            return downgrade.generateWithUsage(prompt);
+        }
+        return call("generate_completion", getModelName(prompt), () -> generateDetailed(prompt), Function.identity());
+    }
+
+    /**
+     * Sends a conversation with tool specifications to a chat model, with the
+     * same rate limiting, circuit breaker, retry and exception handling as
+     * {@link #generate(String)}.
+     * <p>
+     * Providers implementing {@link ToolCallingLLMProvider} delegate to this
+     * method with their LangChain4j chat model.
+     * </p>
+     *
+     * @param model the chat model to call
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call; empty to request a text answer
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     * @throws ConductorException.BudgetExceededException if the workflow budget is spent
+     */
+    protected final ChatResponse chatWithTools(ChatModel model, List<ChatMessage> messages,
+                                               List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        // A downgrade provider without tool calling cannot take over: the conversation stays on this model
+        if (admit() instanceof ToolCallingLLMProvider downgrade) {
+            return downgrade.chat(messages, toolSpecifications);
+        }
+        ChatRequest.Builder request = ChatRequest.builder().messages(messages);
+        if (!toolSpecifications.isEmpty()) {
+            request.toolSpecifications(toolSpecifications);
+        }
+        ChatRequest chatRequest = request.build();
+        return call("chat_with_tools", getModelName(), () -> model.chat(chatRequest),
+            response -> GenerationResult.of(response, null));
+    }
+
+    /**
+     * Sends a prompt to a chat model, keeping the token usage and finish reason of
+     * the response.
+     * <p>
+     * Providers backed by a LangChain4j chat model override
+     * {@link #generateDetailed(String)} with this method.
+     * </p>
+     *
+     * @param model the chat model to call
+     * @param prompt the text prompt
+     * @return the generated text with its token usage
+     */
+    protected static GenerationResult chatForResult(ChatModel model, String prompt) {
+        ChatResponse response = model.chat(ChatRequest.builder().messages(UserMessage.from(prompt)).build());
+        return GenerationResult.of(response, prompt);
+    }
+
+    /**
+     * Admits a call against the budget of the bound usage scope.
+     *
+     * @return the downgrade provider to make the call instead, or null to make it here
+     */
+    private LLMProvider admit() {
+        TokenBudget budget = UsageScope.current().getBudget();
+        return budget != null ? budget.admit(this) : null;
+    }
+
+    /**
+     * Records the token usage of a successful call in the metrics and charges it to the bound budget.
+     */
+    private void recordUsage(String operation, String model, GenerationResult usage, long durationMs) {
+        LLMConfig llmConfig = ApplicationConfig.getInstance().getLLMConfig();
+        double cost = (usage.inputTokens() * llmConfig.getInputTokenPrice(model)
+            + usage.outputTokens() * llmConfig.getOutputTokenPrice(model)) / 1_000_000.0;
+        UsageScope scope = UsageScope.current();
+        if (scope.getBudget() != null) {
+            scope.getBudget().charge(usage, cost);
+        }
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        Map<String, String> tags = new HashMap<>();
+        tags.put("provider", providerName);
+        tags.put("model", String.valueOf(model));
+        tags.put("operation", operation);
+        if (scope.getWorkflow() != null) {
+            tags.put("workflow", scope.getWorkflow());
+        }
+        if (scope.getStage() != null) {
+            tags.put("stage", scope.getStage());
+        }
+        if (scope.getAgent() != null) {
+            tags.put("agent", scope.getAgent());
+        }
+        metrics.record(Metric.counter("llm.tokens.input", usage.inputTokens(), tags));
+        metrics.record(Metric.counter("llm.tokens.output", usage.outputTokens(), tags));
+        if (cost > 0) {
+            metrics.record(Metric.counter("llm.cost.usd", cost, tags));
+        }
+        if (durationMs > 0) {
+            metrics.record(Metric.gauge("llm.tokens.per_second", usage.outputTokens() * 1000.0 / durationMs, tags));
+        }
+        Map<String, String> callTags = new HashMap<>(tags);
+        callTags.put("finish_reason", usage.finishReason() != null ? usage.finishReason() : "UNKNOWN");
+        callTags.put("estimated", String.valueOf(usage.estimated()));
+        metrics.record(Metric.counter("llm.calls", callTags));
+    }
+
+    @FunctionalInterface
+    private interface ProviderCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Runs a call to the LLM service with rate limiting, circuit breaker protection and retries.
+     */
+    private <T> T call(String operation, String model, ProviderCall<T> providerCall,
+                       Function<T, GenerationResult> usageOf)
+            throws ConductorException.LLMProviderException {
         final String correlationId = UUID.randomUUID().toString();
         final Instant startTime = Instant.now();
-        final String operation = "generate_completion";
-        final String serviceName = "llm-" + providerName + "-" + getModelName(prompt);
+        final String serviceName = "llm-" + providerName + "-" + model;
+        // Calls of a cancelled workflow are abandoned: no rate limit wait, retry or request
+        final CancellationToken cancellationToken = CancellationToken.current();
+        cancellationToken.throwIfCancelled();
 
         // Apply rate limiting before attempting the request
         // Wait up to 30 seconds for a token to become available
         try {
-            if (!rateLimiter.acquire(java.time.Duration.ofSeconds(30))) {
+            if (!rateLimiter.acquire(java.time.Duration.ofSeconds(30), cancellationToken)) {
                 ProviderExceptionFactory.ProviderContext context =
                     ProviderExceptionFactory.ProviderContext.builder(providerName)
-                        .model(getModelName(prompt))
+                        .model(model)
                         .operation(operation)
                         .duration(30000L)
                         .correlationId(correlationId)
@@ -154,20 +318,27 @@ public abstract class AbstractLLMProvider implements LLMProvider {
 
         try {
             // Wrap the entire retry execution with circuit breaker protection
-            return CircuitBreakerManager.getInstance().executeWithProtection(
+            T response = CircuitBreakerManager.getInstance().executeWithProtection(
                 serviceName,
-                () -> retryExecutor.execute((Supplier<String>) () -> {
+                () -> retryExecutor.execute((Supplier<T>) () -> {
                 final long duration = System.currentTimeMillis() - startTime.toEpochMilli();
                 final int maxAttempts = retryExecutor.getRetryPolicy().getMaxAttempts();
 
-                try {
+                // Cancellation interrupts this thread, which aborts the outstanding HTTP request
+                try (CancellationToken.Scope ignored = cancellationToken.interruptOnCancel()) {
                     // Delegate to the concrete implementation
-                    return generateInternal(prompt);
+                    return providerCall.call();
                 } catch (Exception e) {
+                    if (cancellationToken.isCancelled()) {
+                        // Clear the interrupt raised by the cancellation before the thread is reused
+                        Thread.interrupted();
+                        throw new ConductorException.ExecutionCancelledException(
+                            "LLM call to " + providerName + " cancelled: " + cancellationToken.getReason(), e);
+                    }
                     // Create provider context for standardized exception creation
                     ProviderExceptionFactory.ProviderContext context =
                         ProviderExceptionFactory.ProviderContext.builder(providerName)
-                            .model(getModelName(prompt))
+                            .model(model)
                             .operation(operation)
                             .duration(duration)
                             .correlationId(correlationId)
@@ -188,12 +359,21 @@ public abstract class AbstractLLMProvider implements LLMProvider {
                     }
                 }
             }));
+            // Record the latency and token usage of successful calls per model
+            long durationMs = System.currentTimeMillis() - startTime.toEpochMilli();
+            LatencyStore.getInstance().record(LatencyStore.modelKey(providerName, model), durationMs);
+            if (response != null) {
+                recordUsage(operation, model, usageOf.apply(response), durationMs);
+            }
+            return response;
+        } catch (ConductorException.ExecutionCancelledException e) {
+            throw e;
         } catch (TransientLLMException e) {
             // Recreate the standardized exception from the original exception
             final long duration = System.currentTimeMillis() - startTime.toEpochMilli();
             ProviderExceptionFactory.ProviderContext context =
                 ProviderExceptionFactory.ProviderContext.builder(providerName)
-                    .model(getModelName(prompt))
+                    .model(model)
                     .operation(operation)
                     .duration(duration)
                     .correlationId(correlationId)
@@ -204,7 +384,7 @@ public abstract class AbstractLLMProvider implements LLMProvider {
             final long duration = System.currentTimeMillis() - startTime.toEpochMilli();
             ProviderExceptionFactory.ProviderContext context =
                 ProviderExceptionFactory.ProviderContext.builder(providerName)
-                    .model(getModelName(prompt))
+                    .model(model)
                     .operation(operation)
                     .duration(duration)
                     .correlationId(correlationId)
@@ -215,7 +395,7 @@ public abstract class AbstractLLMProvider implements LLMProvider {
             final long duration = System.currentTimeMillis() - startTime.toEpochMilli();
             ProviderExceptionFactory.ProviderContext context =
                 ProviderExceptionFactory.ProviderContext.builder(providerName)
-                    .model(getModelName(prompt))
+                    .model(model)
                     .operation(operation)
                     .duration(duration)
                     .correlationId(correlationId)
@@ -239,6 +419,24 @@ public abstract class AbstractLLMProvider implements LLMProvider {
      */
     protected abstract String generateInternal(String prompt) throws Exception;
 
+    /**
+     * Performs the actual LLM generation call, returning the token usage along
+     * with the text.
+     * <p>
+     * The default implementation calls {@link #generateInternal(String)} and
+     * estimates the usage from the text length. Providers able to read the usage
+     * reported by the model service override this method, typically with
+     * {@link #chatForResult(ChatModel, String)}.
+     * </p>
+     *
+     * @param prompt the text prompt to send to the LLM
+     * @return the generated text with its token usage
+     * @throws Exception if the LLM call fails (will be classified by base class)
+     */
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return GenerationResult.estimate(prompt, generateInternal(prompt));
+    }
+
     /**
      * Determines if an exception should be retried.
      * <p>
@@ -1,9 +1,15 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.model.bedrock.BedrockChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import software.amazon.awssdk.regions.Region;
 
+import java.util.List;
+
 /**
  * Amazon Bedrock LLM provider implementation using LangChain4j integration.
  * <p>
@@ -52,7 +58,7 @@ import software.amazon.awssdk.regions.Region;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class AmazonBedrockLLMProvider extends AbstractLLMProvider {
+public class AmazonBedrockLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final BedrockChatModel model;
     private final String modelId;
@@ -131,6 +137,28 @@ public class AmazonBedrockLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by Bedrock.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Builder for creating Amazon Bedrock LLM providers with fluent configuration.
      */
@@ -1,7 +1,13 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.model.anthropic.AnthropicChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.List;
 
 /**
  * Anthropic LLM provider implementation using LangChain4j integration.
@@ -30,7 +36,7 @@ import dev.langchain4j.model.anthropic.AnthropicChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class AnthropicLLMProvider extends AbstractLLMProvider {
+public class AnthropicLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final AnthropicChatModel model;
     private final String apiKey;
@@ -104,6 +110,28 @@ public class AnthropicLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by Anthropic.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Gets the effective model name, providing a default if null or blank.
      * For Anthropic, model names should be preserved exactly for API compatibility.
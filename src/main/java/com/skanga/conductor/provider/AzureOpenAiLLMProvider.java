@@ -1,7 +1,13 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.model.azure.AzureOpenAiChatModel;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.List;
 
 /**
  * Azure OpenAI LLM provider implementation using LangChain4j integration.
@@ -50,7 +56,7 @@ import dev.langchain4j.model.azure.AzureOpenAiChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class AzureOpenAiLLMProvider extends AbstractLLMProvider {
+public class AzureOpenAiLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final AzureOpenAiChatModel model;
     private final String apiKey;
@@ -133,6 +139,28 @@ public class AzureOpenAiLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by Azure OpenAI.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Builder for creating Azure OpenAI LLM providers with fluent configuration.
      */
@@ -1,8 +1,14 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
 
+import java.util.List;
+
 /**
  * Google Gemini LLM provider implementation using LangChain4j integration.
  * <p>
@@ -36,7 +42,7 @@ import dev.langchain4j.model.googleai.GoogleAiGeminiChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class GeminiLLMProvider extends AbstractLLMProvider {
+public class GeminiLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
     private final GoogleAiGeminiChatModel model;
     private final String apiKey;
     private final String modelName;
@@ -106,6 +112,28 @@ public class GeminiLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by Gemini.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Determines if an exception from Gemini API calls should be retried.
      * <p>
@@ -0,0 +1,68 @@
+package com.skanga.conductor.provider;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * The text generated by an LLM call together with its token usage.
+ * <p>
+ * Token counts come from the usage reported by the model service. Services or
+ * providers that do not report usage get counts estimated from the text length,
+ * which is flagged by {@link #estimated()} so accounting can tell the two apart.
+ * </p>
+ *
+ * @param text the generated text
+ * @param inputTokens the number of tokens in the prompt
+ * @param outputTokens the number of tokens generated
+ * @param finishReason why generation stopped, such as {@code STOP} or {@code LENGTH}, or null if unknown
+ * @param estimated whether the token counts are estimates rather than reported usage
+ *
+ * @since 2.0.0
+ * @see LLMProvider#generateWithUsage(String)
+ */
+public record GenerationResult(String text, int inputTokens, int outputTokens,
+                               String finishReason, boolean estimated) {
+
+    /** Average number of characters per token used for estimates. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /**
+     * Creates the result of a chat call from its response.
+     *
+     * @param response the chat response
+     * @param prompt the prompt sent, used to estimate the input tokens when the
+     *               response carries no usage; may be null
+     * @return the result
+     */
+    public static GenerationResult of(ChatResponse response, String prompt) {
+        String text = response.aiMessage() != null ? response.aiMessage().text() : null;
+        String finishReason = response.finishReason() != null ? response.finishReason().name() : null;
+        TokenUsage usage = response.tokenUsage();
+        if (usage == null || usage.inputTokenCount() == null || usage.outputTokenCount() == null) {
+            return new GenerationResult(text, estimateTokens(prompt), estimateTokens(text), finishReason, true);
+        }
+        return new GenerationResult(text, usage.inputTokenCount(), usage.outputTokenCount(), finishReason, false);
+    }
+
+    /**
+     * Creates a result with token counts estimated from the prompt and the generated text.
+     *
+     * @param prompt the prompt sent
+     * @param text the generated text
+     * @return the result
+     */
+    public static GenerationResult estimate(String prompt, String text) {
+        return new GenerationResult(text, estimateTokens(prompt), estimateTokens(text), null, true);
+    }
+
+    /**
+     * Gets the number of input and output tokens.
+     */
+    public int totalTokens() {
+        return inputTokens + outputTokens;
+    }
+
+    private static int estimateTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
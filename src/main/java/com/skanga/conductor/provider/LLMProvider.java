@@ -51,4 +51,22 @@ public interface LLMProvider {
      * @see ConversationalAgent#execute(ExecutionInput)
      */
     String generate(String prompt) throws ConductorException.LLMProviderException;
+
+    /**
+     * Generates text for the given prompt, returning the token usage of the call
+     * along with the text.
+     * <p>
+     * The default implementation estimates the usage from the length of the prompt
+     * and the response. Providers with access to the usage reported by the model
+     * service override it.
+     * </p>
+     *
+     * @param prompt the text prompt to send to the LLM, should not be null or empty
+     * @return the generated text with its token usage
+     * @throws ConductorException.LLMProviderException if the LLM request fails
+     * @since 2.0.0
+     */
+    default GenerationResult generateWithUsage(String prompt) throws ConductorException.LLMProviderException {
+        return GenerationResult.estimate(prompt, generate(prompt));
+    }
 }
\ No newline at end of file
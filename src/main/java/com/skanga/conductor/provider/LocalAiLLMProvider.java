@@ -1,8 +1,14 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.localai.LocalAiChatModel;
 
+import java.util.List;
+
 /**
  * LocalAI LLM provider implementation using LangChain4j integration.
  * <p>
@@ -43,7 +49,7 @@ import dev.langchain4j.model.localai.LocalAiChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class LocalAiLLMProvider extends AbstractLLMProvider {
+public class LocalAiLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final LocalAiChatModel model;
     private final String baseUrl;
@@ -119,6 +125,28 @@ public class LocalAiLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by LocalAI.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Builder for creating LocalAI LLM providers with fluent configuration.
      */
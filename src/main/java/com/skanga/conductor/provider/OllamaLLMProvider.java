@@ -1,8 +1,14 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.ollama.OllamaChatModel;
 
+import java.util.List;
+
 /**
  * Ollama LLM provider implementation using LangChain4j integration.
  * <p>
@@ -42,7 +48,7 @@ import dev.langchain4j.model.ollama.OllamaChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class OllamaLLMProvider extends AbstractLLMProvider {
+public class OllamaLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final OllamaChatModel model;
     private final String baseUrl;
@@ -117,6 +123,28 @@ public class OllamaLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by Ollama.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Builder for creating Ollama LLM providers with fluent configuration.
      */
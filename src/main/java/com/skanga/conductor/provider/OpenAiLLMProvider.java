@@ -1,8 +1,14 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
 import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 
+import java.util.List;
+
 /**
  * OpenAI LLM provider implementation using LangChain4j integration.
  * <p>
@@ -29,7 +35,7 @@ import dev.langchain4j.model.openai.OpenAiChatModel;
  * @see AbstractLLMProvider
  * @see LLMProvider
  */
-public class OpenAiLLMProvider extends AbstractLLMProvider {
+public class OpenAiLLMProvider extends AbstractLLMProvider implements ToolCallingLLMProvider {
 
     private final OpenAiChatModel model;
 
@@ -114,6 +120,28 @@ public class OpenAiLLMProvider extends AbstractLLMProvider {
         return model.chat(prompt);
     }
 
+    /**
+     * Generates text, keeping the token usage and finish reason reported by OpenAI.
+     */
+    @Override
+    protected GenerationResult generateDetailed(String prompt) throws Exception {
+        return chatForResult(model, prompt);
+    }
+
+    /**
+     * Sends a conversation with tool specifications to the model.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call
+     * @return the model response
+     * @throws ConductorException.LLMProviderException if the call fails after all retries
+     */
+    @Override
+    public ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            throws ConductorException.LLMProviderException {
+        return chatWithTools(model, messages, toolSpecifications);
+    }
+
     /**
      * Determines if an exception from OpenAI API calls should be retried.
      * <p>
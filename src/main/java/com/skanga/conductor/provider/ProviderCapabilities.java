@@ -57,7 +57,10 @@ public class ProviderCapabilities {
         EMBEDDING,
 
         /** Vision/image understanding */
-        VISION
+        VISION,
+
+        /** Native function calling with structured tool specifications */
+        TOOL_CALLING
     }
 
     /**
@@ -78,6 +81,9 @@ public class ProviderCapabilities {
         if (provider instanceof VisionLLMProvider) {
             capabilities.add(Capability.VISION);
         }
+        if (provider instanceof ToolCallingLLMProvider) {
+            capabilities.add(Capability.TOOL_CALLING);
+        }
 
         return capabilities;
     }
@@ -112,6 +118,16 @@ public class ProviderCapabilities {
         return provider instanceof VisionLLMProvider;
     }
 
+    /**
+     * Checks if provider supports native function calling.
+     *
+     * @param provider the provider to check
+     * @return true if function calling is supported
+     */
+    public static boolean supportsToolCalling(LLMProvider provider) {
+        return provider instanceof ToolCallingLLMProvider;
+    }
+
     /**
      * Checks if provider has all specified capabilities.
      *
@@ -164,6 +180,7 @@ public class ProviderCapabilities {
                 case STREAMING -> sb.append(" - Streaming responses");
                 case EMBEDDING -> sb.append(" - Vector embeddings");
                 case VISION -> sb.append(" - Image understanding");
+                case TOOL_CALLING -> sb.append(" - Native function calling");
             }
         }
 
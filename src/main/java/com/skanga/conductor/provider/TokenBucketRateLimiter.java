@@ -1,5 +1,7 @@
 package com.skanga.conductor.provider;
 
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.CancellationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,9 +108,24 @@ public class TokenBucketRateLimiter {
      * @throws InterruptedException if the thread is interrupted while waiting
      */
     public boolean acquire(Duration timeout) throws InterruptedException {
+        return acquire(timeout, CancellationToken.current());
+    }
+
+    /**
+     * Acquires a token, blocking if necessary until one becomes available, the
+     * timeout elapses or the cancellation token is cancelled.
+     *
+     * @param timeout maximum time to wait for a token
+     * @param cancellationToken the token abandoning the wait when cancelled
+     * @return true if token acquired, false if timeout elapsed
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ConductorException.ExecutionCancelledException if the cancellation token was cancelled
+     */
+    public boolean acquire(Duration timeout, CancellationToken cancellationToken) throws InterruptedException {
         long deadlineNanos = System.nanoTime() + timeout.toNanos();
 
         while (System.nanoTime() < deadlineNanos) {
+            cancellationToken.throwIfCancelled();
             if (tryAcquire()) {
                 return true;
             }
@@ -121,8 +138,8 @@ public class TokenBucketRateLimiter {
 
             // Wait for next token, but no more than remaining timeout
             long waitNanos = Math.min(nanosUntilNextToken, deadlineNanos - now);
-            if (waitNanos > 0) {
-                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            if (waitNanos > 0 && cancellationToken.await(Duration.ofNanos(waitNanos))) {
+                cancellationToken.throwIfCancelled();
             }
         }
 
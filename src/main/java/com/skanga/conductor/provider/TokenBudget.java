@@ -0,0 +1,189 @@
+package com.skanga.conductor.provider;
+
+import com.skanga.conductor.exception.ConductorException;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token and cost budget of a workflow run, which also meters what the run spends.
+ * <p>
+ * Every LLM call made while the budget is bound to the calling thread through a
+ * {@link UsageScope} is charged to it. Once either limit is reached, further calls
+ * are refused with a {@link ConductorException.BudgetExceededException}, failing
+ * the run fast, or, with the {@link Action#DOWNGRADE} action, sent to a cheaper
+ * downgrade provider for the rest of the run.
+ * </p>
+ * <p>
+ * The limits are soft. A call is admitted while the usage charged so far is below
+ * the limits, and its usage is only known, and charged, once it completes, so
+ * nothing is reserved for calls in flight. The call that reaches a limit is not cut
+ * short, and calls of parallel stages or tool calls admitted at the same time all
+ * complete: a run overshoots its limits by the usage of the calls in flight when
+ * the limit is reached, at most one call per concurrent caller. Set the limits
+ * below a hard spending cap by that margin.
+ * </p>
+ * <p>
+ * A limit of zero or less is unlimited; an unlimited budget only meters the run.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe; parallel stages charge it concurrently.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see UsageScope
+ */
+public final class TokenBudget {
+
+    /**
+     * What happens to LLM calls once the budget is spent.
+     */
+    public enum Action {
+        /** Refuse the calls, failing the run. */
+        FAIL,
+        /** Send the calls to the downgrade provider. */
+        DOWNGRADE
+    }
+
+    private final long maxTokens;
+    private final double maxCost;
+    private final Action action;
+    private final LLMProvider downgradeProvider;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder inputTokens = new LongAdder();
+    private final LongAdder outputTokens = new LongAdder();
+    private final DoubleAdder cost = new DoubleAdder();
+
+    /**
+     * Creates a budget.
+     *
+     * @param maxTokens the maximum number of input and output tokens, or zero for no limit
+     * @param maxCost the maximum cost in USD, or zero for no limit
+     * @param action what happens to calls once the budget is spent
+     * @param downgradeProvider the provider taking over the calls with the
+     *                          {@link Action#DOWNGRADE} action; ignored otherwise
+     * @throws IllegalArgumentException if the action is null, or is
+     *                                  {@link Action#DOWNGRADE} without a downgrade provider
+     */
+    public TokenBudget(long maxTokens, double maxCost, Action action, LLMProvider downgradeProvider) {
+        if (action == null) {
+            throw new IllegalArgumentException("budget action cannot be null");
+        }
+        if (action == Action.DOWNGRADE && downgradeProvider == null) {
+            throw new IllegalArgumentException("downgrade budget action requires a downgrade provider");
+        }
+        this.maxTokens = maxTokens;
+        this.maxCost = maxCost;
+        this.action = action;
+        this.downgradeProvider = action == Action.DOWNGRADE ? downgradeProvider : null;
+    }
+
+    /**
+     * Creates a budget without limits, which only meters usage.
+     *
+     * @return the budget
+     */
+    public static TokenBudget unlimited() {
+        return new TokenBudget(0, 0, Action.FAIL, null);
+    }
+
+    /**
+     * Admits an LLM call against this budget.
+     *
+     * @param caller the provider about to make the call
+     * @return the provider that should make the call instead, or null if the caller should make it
+     * @throws ConductorException.BudgetExceededException if the budget is spent and calls are refused
+     */
+    LLMProvider admit(LLMProvider caller) {
+        if (!isExceeded()) {
+            return null;
+        }
+        if (downgradeProvider != null) {
+            return downgradeProvider == caller ? null : downgradeProvider;
+        }
+        throw new ConductorException.BudgetExceededException("Workflow budget exceeded: " + describe());
+    }
+
+    /**
+     * Charges the usage of a completed call.
+     *
+     * @param result the result of the call
+     * @param callCost the cost of the call in USD
+     */
+    void charge(GenerationResult result, double callCost) {
+        calls.increment();
+        inputTokens.add(result.inputTokens());
+        outputTokens.add(result.outputTokens());
+        if (callCost > 0) {
+            cost.add(callCost);
+        }
+    }
+
+    /**
+     * Checks whether either limit has been reached.
+     */
+    public boolean isExceeded() {
+        return (maxTokens > 0 && getTotalTokens() >= maxTokens)
+            || (maxCost > 0 && getCost() >= maxCost);
+    }
+
+    public long getMaxTokens() {
+        return maxTokens;
+    }
+
+    public double getMaxCost() {
+        return maxCost;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Gets the number of LLM calls charged.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getInputTokens() {
+        return inputTokens.sum();
+    }
+
+    public long getOutputTokens() {
+        return outputTokens.sum();
+    }
+
+    public long getTotalTokens() {
+        return getInputTokens() + getOutputTokens();
+    }
+
+    /**
+     * Gets the cost charged in USD, counting only models with configured pricing.
+     */
+    public double getCost() {
+        return cost.sum();
+    }
+
+    /**
+     * Describes the usage charged against the limits.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder().append(getTotalTokens()).append(" tokens");
+        if (maxTokens > 0) {
+            description.append(" of ").append(maxTokens);
+        }
+        description.append(String.format(Locale.ROOT, ", $%.4f", getCost()));
+        if (maxCost > 0) {
+            description.append(String.format(Locale.ROOT, " of $%.4f", maxCost));
+        }
+        return description.append(" over ").append(getCalls()).append(" call(s)").toString();
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBudget{" + describe() + ", action=" + action + "}";
+    }
+}
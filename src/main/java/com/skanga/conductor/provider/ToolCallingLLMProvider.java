@@ -0,0 +1,52 @@
+package com.skanga.conductor.provider;
+
+import com.skanga.conductor.exception.ConductorException;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.List;
+
+/**
+ * Interface for LLM providers that support native function calling.
+ * <p>
+ * Instead of asking the model to write tool calls as JSON text, the tools are
+ * described with structured specifications and the model answers with
+ * structured tool execution requests. A single response can request several
+ * tool calls, which the caller runs and returns to the model as tool result
+ * messages in one follow-up turn.
+ * </p>
+ * <p>
+ * Providers that support function calling should implement this interface in
+ * addition to the base {@link LLMProvider} interface.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * if (provider instanceof ToolCallingLLMProvider toolCaller) {
+ *     ChatResponse response = toolCaller.chat(messages, toolSpecifications);
+ *     AiMessage message = response.aiMessage();
+ *     if (message.hasToolExecutionRequests()) {
+ *         // Run the requested tools and send back their results
+ *     }
+ * }
+ * }</pre>
+ *
+ * @since 2.0.0
+ * @see LLMProvider
+ * @see com.skanga.conductor.agent.ConversationalAgent
+ */
+public interface ToolCallingLLMProvider extends LLMProvider {
+
+    /**
+     * Sends a conversation to the model, offering it the given tools.
+     *
+     * @param messages the conversation so far
+     * @param toolSpecifications the tools the model may call; empty to request a text answer
+     * @return the model response, holding either text or tool execution requests
+     * @throws ConductorException.LLMProviderException if the LLM call fails
+     */
+    ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+        throws ConductorException.LLMProviderException;
+}
@@ -0,0 +1,125 @@
+package com.skanga.conductor.provider;
+
+/**
+ * Attribution of the LLM calls made on a thread to a workflow, stage and agent,
+ * together with the budget they are charged to.
+ * <p>
+ * Scopes are bound to the executing thread with {@link #bind()}, the same way as
+ * {@link com.skanga.conductor.execution.CancellationToken}s, so providers deep in the call chain find them through
+ * {@link #current()}. Code handing work to other threads binds the captured scope
+ * on them. Calls made outside any scope are still recorded, per provider and model
+ * only, and are charged to no budget.
+ * </p>
+ * <p>
+ * Scopes are immutable; {@link #withStage(String)} and {@link #withAgent(String)}
+ * derive narrower scopes sharing the same budget.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see TokenBudget
+ */
+public final class UsageScope {
+
+    /**
+     * Binding of a scope to a thread, restoring the previously bound scope when closed.
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<UsageScope> CURRENT = new ThreadLocal<>();
+    private static final UsageScope NONE = new UsageScope(null, null, null, null);
+
+    private final String workflow;
+    private final String stage;
+    private final String agent;
+    private final TokenBudget budget;
+
+    private UsageScope(String workflow, String stage, String agent, TokenBudget budget) {
+        this.workflow = workflow;
+        this.stage = stage;
+        this.agent = agent;
+        this.budget = budget;
+    }
+
+    /**
+     * Creates the scope of a workflow run.
+     *
+     * @param workflow the name of the workflow
+     * @param budget the budget of the run, or null to charge no budget
+     * @return the scope
+     */
+    public static UsageScope forWorkflow(String workflow, TokenBudget budget) {
+        return new UsageScope(workflow, null, null, budget);
+    }
+
+    /**
+     * Gets the scope bound to the current thread.
+     *
+     * @return the bound scope, or an empty scope if none is bound
+     */
+    public static UsageScope current() {
+        UsageScope scope = CURRENT.get();
+        return scope != null ? scope : NONE;
+    }
+
+    /**
+     * Derives the scope of a stage of this scope's workflow.
+     *
+     * @param stage the name of the stage
+     * @return the scope
+     */
+    public UsageScope withStage(String stage) {
+        return new UsageScope(workflow, stage, agent, budget);
+    }
+
+    /**
+     * Derives the scope of an agent running within this scope.
+     *
+     * @param agent the name of the agent
+     * @return the scope
+     */
+    public UsageScope withAgent(String agent) {
+        return new UsageScope(workflow, stage, agent, budget);
+    }
+
+    /**
+     * Binds this scope to the current thread until the returned scope is closed.
+     *
+     * @return the binding restoring the previously bound scope on close
+     */
+    public Binding bind() {
+        UsageScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public String getWorkflow() {
+        return workflow;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public String getAgent() {
+        return agent;
+    }
+
+    /**
+     * Gets the budget the calls are charged to.
+     *
+     * @return the budget, or null if calls are charged to no budget
+     */
+    public TokenBudget getBudget() {
+        return budget;
+    }
+}
@@ -3,6 +3,7 @@ package com.skanga.conductor.resilience;
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.ResilienceConfig;
 import com.skanga.conductor.utils.SingletonHolder;
+import com.skanga.conductor.exception.ConductorException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
@@ -231,6 +232,8 @@ public class CircuitBreakerManager {
             .minimumNumberOfCalls(config.getCircuitBreakerMinimumNumberOfCalls())
             .slidingWindowType(windowType)
             .slidingWindowSize(config.getCircuitBreakerSlidingWindowSize())
+            // Abandoned calls say nothing about the health of the service
+            .ignoreExceptions(ConductorException.ExecutionCancelledException.class)
             .build();
     }
 
@@ -249,7 +252,8 @@ public class CircuitBreakerManager {
             )
             .ignoreExceptions(
                 IllegalArgumentException.class,
-                IllegalStateException.class
+                IllegalStateException.class,
+                ConductorException.ExecutionCancelledException.class
             )
             .build();
     }
@@ -1,5 +1,7 @@
 package com.skanga.conductor.retry;
 
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +22,11 @@ import java.util.function.Supplier;
  * The executor supports both {@link Callable} and {@link Supplier} operations
  * and provides comprehensive logging and metrics for retry attempts.
  * </p>
+ * <p>
+ * Retries observe a {@link CancellationToken}: no further attempt is started
+ * once the token is cancelled, and back-off delays end early on cancellation.
+ * Without an explicit token, the token bound to the calling thread is used.
+ * </p>
  *
  * @since 1.0.0
  * @see RetryPolicy
@@ -65,7 +72,7 @@ public class RetryExecutor {
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, CancellationToken.current());
     }
 
     /**
@@ -82,8 +89,23 @@ public class RetryExecutor {
      * @throws RuntimeException if all retry attempts fail or a non-retryable exception occurs
      */
     public <T> T execute(Supplier<T> operation) {
+        return execute(operation, CancellationToken.current());
+    }
+
+    /**
+     * Executes a supplier operation with retry logic until it succeeds, the
+     * retry policy gives up, or the token is cancelled.
+     *
+     * @param <T> the return type of the operation
+     * @param operation the operation to execute
+     * @param token the token cancelling further attempts and back-off delays
+     * @return the result of the successful operation
+     * @throws ConductorException.ExecutionCancelledException if the token was cancelled
+     * @throws RuntimeException if all retry attempts fail or a non-retryable exception occurs
+     */
+    public <T> T execute(Supplier<T> operation, CancellationToken token) {
         try {
-            return executeInternal(operation);
+            return executeInternal(operation, token);
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -96,14 +118,16 @@ public class RetryExecutor {
      *
      * @param <T> the return type of the operation
      * @param operation the operation to execute
+     * @param token the token cancelling further attempts
      * @return the result of the successful operation
      * @throws Exception if all retry attempts fail or a non-retryable exception occurs
      */
-    private <T> T executeInternal(Supplier<T> operation) throws Exception {
+    private <T> T executeInternal(Supplier<T> operation, CancellationToken token) throws Exception {
         RetryContext context = retryPolicy.createContext();
         Throwable lastException = null;
 
         while (true) {
+            token.throwIfCancelled();
             try {
                 // Execute the operation
                 T result = operation.get();
@@ -131,6 +155,15 @@ public class RetryExecutor {
                 lastException = e;
             }
 
+            // Cancelled work is abandoned, never retried
+            if (lastException instanceof ConductorException.ExecutionCancelledException cancelled) {
+                throw cancelled;
+            }
+            if (token.isCancelled()) {
+                throw new ConductorException.ExecutionCancelledException(
+                    "Operation '" + operationName + "' cancelled: " + token.getReason(), lastException);
+            }
+
             // Record the failure
             context.recordFailure(lastException);
 
@@ -159,7 +192,10 @@ public class RetryExecutor {
                     lastException.getClass().getSimpleName(), delay);
 
                 try {
-                    Thread.sleep(delay.toMillis());
+                    if (token.await(delay)) {
+                        throw new ConductorException.ExecutionCancelledException(
+                            "Operation '" + operationName + "' cancelled: " + token.getReason(), lastException);
+                    }
                 } catch (InterruptedException interruptedException) {
                     // Restore interrupt status and exit
                     Thread.currentThread().interrupt();
@@ -2,6 +2,9 @@ package com.skanga.conductor.templates;
 
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.TemplateConfig;
+import com.skanga.conductor.memory.MemoryManager;
+import com.skanga.conductor.memory.MemoryShedder;
+import com.skanga.conductor.memory.MemoryShedders;
 import com.skanga.conductor.workflow.config.AgentConfigCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,7 +62,7 @@ import java.util.regex.Pattern;
  * <li>{@link VariableResolver} - Resolves variable references and applies filters</li>
  * <li>{@link TemplateFilters} - Provides built-in template filters</li>
  * <li>{@link TemplateValidator} - Validates template syntax</li>
- * <li>LRU Cache - Templates are compiled once and cached with automatic eviction</li>
+ * <li>LRU Cache - Templates are compiled once and cached with automatic eviction, and shed under memory pressure</li>
  * </ul>
  *
  * <p><strong>Thread Safety:</strong> This class is thread-safe for concurrent template rendering.
@@ -69,7 +72,7 @@ import java.util.regex.Pattern;
  * @see TemplateException for error handling
  * @see CacheStats for cache monitoring
  */
-public class PromptTemplateEngine implements AutoCloseable {
+public class PromptTemplateEngine implements AutoCloseable, MemoryShedder {
 
     private static final Logger logger = LoggerFactory.getLogger(PromptTemplateEngine.class);
     private static final Pattern TEMPLATE_VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]*)\\}\\}");
@@ -150,6 +153,9 @@ public class PromptTemplateEngine implements AutoCloseable {
         } else {
             this.cleanupScheduler = null;
         }
+        if (cachingEnabled) {
+            MemoryShedders.register(this);
+        }
     }
 
     /**
@@ -221,6 +227,9 @@ public class PromptTemplateEngine implements AutoCloseable {
         } else {
             this.cleanupScheduler = null;
         }
+        if (cachingEnabled) {
+            MemoryShedders.register(this);
+        }
     }
 
     /**
@@ -419,6 +428,7 @@ public class PromptTemplateEngine implements AutoCloseable {
      * Should be called when the engine is no longer needed to prevent resource leaks.
      */
     public void shutdown() {
+        MemoryShedders.unregister(this);
         if (cleanupScheduler != null && !cleanupScheduler.isShutdown()) {
             cleanupScheduler.shutdown();
             try {
@@ -490,6 +500,23 @@ public class PromptTemplateEngine implements AutoCloseable {
         cacheTtlEvictions.set(0);
     }
 
+    /**
+     * Sheds compiled templates under memory pressure: the least recently used
+     * half at the warning level, all of them above. Evictions are counted.
+     *
+     * @param level the memory pressure level
+     * @return the number of templates dropped
+     */
+    @Override
+    public int shedMemory(MemoryManager.MemoryState level) {
+        if (!cachingEnabled) {
+            return 0;
+        }
+        int removed = MemoryShedders.shedEntries(templateCache, level);
+        cacheEvictions.addAndGet(removed);
+        return removed;
+    }
+
     /**
      * Gets cache statistics including hit rate and eviction count.
      */
@@ -140,16 +140,17 @@ public class TemplateCompiler {
                 return "";
             }
 
+            // Loop variables are layered over the outer scope instead of copying it per item
+            TemplateScope outerScope = TemplateScope.over(variables);
             for (Object item : items) {
-                Map<String, Object> loopVars = new HashMap<>(variables);
-                loopVars.put("this", item);
+                TemplateScope loopVars = outerScope.with("this", item);
 
                 // If item is a map, add its entries to loop variables
                 if (item instanceof Map) {
                     Map<?, ?> itemMap = (Map<?, ?>) item;
                     for (Map.Entry<?, ?> entry : itemMap.entrySet()) {
                         if (entry.getKey() instanceof String) {
-                            loopVars.put((String) entry.getKey(), entry.getValue());
+                            loopVars = loopVars.with((String) entry.getKey(), entry.getValue());
                         }
                     }
                 }
@@ -0,0 +1,296 @@
+package com.skanga.conductor.templates;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, structurally shared scope of template variables.
+ * <p>
+ * Adding a variable with {@link #with(String, Object)} returns a new scope in
+ * O(log n) that shares all unchanged structure with the original, using a hash
+ * array mapped trie. Workflows that add one task output after another can therefore
+ * hand every task a complete view of all upstream outputs without copying them
+ * into a fresh map per task.
+ * </p>
+ * <p>
+ * A scope can also be layered over an existing map with {@link #over(Map)}. Its own
+ * variables shadow those of the underlying map, which is read through on lookup
+ * rather than copied. The underlying map must not be modified while the scope is in use.
+ * </p>
+ * <p>
+ * Scopes implement {@link Map} so they can be passed wherever template variables are
+ * expected; all mutating {@code Map} operations throw {@link UnsupportedOperationException}.
+ * </p>
+ * <p>
+ * Thread Safety: This class is immutable and thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class TemplateScope extends AbstractMap<String, Object> {
+
+    private static final Object ABSENT = new Object();
+    private static final TemplateScope EMPTY = new TemplateScope(Map.of(), Node.EMPTY, 0);
+
+    private final Map<String, ?> base;
+    private final Node root;
+    private final int ownSize;
+
+    private TemplateScope(Map<String, ?> base, Node root, int ownSize) {
+        this.base = base;
+        this.root = root;
+        this.ownSize = ownSize;
+    }
+
+    /**
+     * Gets the scope without any variables.
+     *
+     * @return the empty scope
+     */
+    public static TemplateScope empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a scope reading through to an existing map without copying it.
+     *
+     * @param base the variables visible in the scope (may be null)
+     * @return a scope over {@code base}, or {@code base} itself if it already is a scope
+     */
+    public static TemplateScope over(Map<String, ?> base) {
+        if (base instanceof TemplateScope scope) {
+            return scope;
+        }
+        if (base == null || base.isEmpty()) {
+            return EMPTY;
+        }
+        return new TemplateScope(base, Node.EMPTY, 0);
+    }
+
+    /**
+     * Returns a scope with one variable added or replaced.
+     *
+     * @param name the variable name (must not be null)
+     * @param value the variable value (may be null)
+     * @return the new scope; this scope is unchanged
+     */
+    public TemplateScope with(String name, Object value) {
+        Objects.requireNonNull(name, "variable name cannot be null");
+        int hash = name.hashCode();
+        boolean replaced = root.find(hash, 0, name) != ABSENT;
+        Node newRoot = root.put(hash, 0, new Leaf(hash, name, value));
+        return new TemplateScope(base, newRoot, replaced ? ownSize : ownSize + 1);
+    }
+
+    /**
+     * Returns a scope with all entries of a map added or replaced, in iteration order.
+     *
+     * @param variables the variables to add (may be null)
+     * @return the new scope; this scope is unchanged
+     */
+    public TemplateScope withAll(Map<String, ?> variables) {
+        TemplateScope scope = this;
+        if (variables != null) {
+            for (Map.Entry<String, ?> entry : variables.entrySet()) {
+                scope = scope.with(entry.getKey(), entry.getValue());
+            }
+        }
+        return scope;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        Object value = root.find(name.hashCode(), 0, name);
+        return value != ABSENT ? value : base.get(name);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String name)) {
+            return false;
+        }
+        return root.find(name.hashCode(), 0, name) != ABSENT || base.containsKey(name);
+    }
+
+    @Override
+    public int size() {
+        if (base.isEmpty()) {
+            return ownSize;
+        }
+        int size = ownSize;
+        for (String key : base.keySet()) {
+            if (key == null || root.find(key.hashCode(), 0, key) == ABSENT) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ownSize == 0 && base.isEmpty();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                List<Map.Entry<String, Object>> entries = new ArrayList<>(ownSize);
+                root.collect(entries);
+                for (Map.Entry<String, ?> entry : base.entrySet()) {
+                    String key = entry.getKey();
+                    if (key == null || root.find(key.hashCode(), 0, key) == ABSENT) {
+                        entries.add(new SimpleImmutableEntry<>(key, entry.getValue()));
+                    }
+                }
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return TemplateScope.this.size();
+            }
+        };
+    }
+
+    /**
+     * A variable stored in the trie.
+     */
+    private record Leaf(int hash, String key, Object value) {}
+
+    /**
+     * Variables whose names have the same hash code.
+     */
+    private record Collision(int hash, Leaf[] leaves) {
+
+        Object find(String key) {
+            for (Leaf leaf : leaves) {
+                if (leaf.key().equals(key)) {
+                    return leaf.value();
+                }
+            }
+            return ABSENT;
+        }
+
+        Collision put(Leaf leaf) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key().equals(leaf.key())) {
+                    Leaf[] updated = leaves.clone();
+                    updated[i] = leaf;
+                    return new Collision(hash, updated);
+                }
+            }
+            Leaf[] updated = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, updated, 0, leaves.length);
+            updated[leaves.length] = leaf;
+            return new Collision(hash, updated);
+        }
+    }
+
+    /**
+     * A trie node branching on five bits of the hash per level. The bitmap marks
+     * which of the 32 branches are occupied; slots holds only the occupied ones,
+     * each a {@link Leaf}, {@link Collision} or child {@code Node}.
+     */
+    private static final class Node {
+
+        static final Node EMPTY = new Node(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        Object find(int hash, int shift, String key) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) {
+                return ABSENT;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Leaf leaf) {
+                return leaf.key().equals(key) ? leaf.value() : ABSENT;
+            }
+            if (slot instanceof Collision collision) {
+                return collision.hash() == hash ? collision.find(key) : ABSENT;
+            }
+            return ((Node) slot).find(hash, shift + 5, key);
+        }
+
+        Node put(int hash, int shift, Leaf leaf) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] updated = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, updated, 0, index);
+                updated[index] = leaf;
+                System.arraycopy(slots, index, updated, index + 1, slots.length - index);
+                return new Node(bitmap | bit, updated);
+            }
+
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf existing) {
+                if (existing.key().equals(leaf.key())) {
+                    replacement = leaf;
+                } else if (existing.hash() == hash) {
+                    replacement = new Collision(hash, new Leaf[]{existing, leaf});
+                } else {
+                    replacement = branch(existing, existing.hash(), leaf, hash, shift + 5);
+                }
+            } else if (slot instanceof Collision collision) {
+                replacement = collision.hash() == hash
+                    ? collision.put(leaf)
+                    : branch(collision, collision.hash(), leaf, hash, shift + 5);
+            } else {
+                replacement = ((Node) slot).put(hash, shift + 5, leaf);
+            }
+            Object[] updated = slots.clone();
+            updated[index] = replacement;
+            return new Node(bitmap, updated);
+        }
+
+        /**
+         * Creates the node separating two entries with different hashes. The hashes
+         * differ in at least one bit, so this terminates by the last level.
+         */
+        private static Node branch(Object first, int firstHash, Object second, int secondHash, int shift) {
+            int firstIndex = (firstHash >>> shift) & 31;
+            int secondIndex = (secondHash >>> shift) & 31;
+            if (firstIndex == secondIndex) {
+                return new Node(1 << firstIndex,
+                    new Object[]{branch(first, firstHash, second, secondHash, shift + 5)});
+            }
+            Object[] slots = firstIndex < secondIndex
+                ? new Object[]{first, second}
+                : new Object[]{second, first};
+            return new Node((1 << firstIndex) | (1 << secondIndex), slots);
+        }
+
+        void collect(List<Map.Entry<String, Object>> entries) {
+            for (Object slot : slots) {
+                if (slot instanceof Leaf leaf) {
+                    entries.add(new SimpleImmutableEntry<>(leaf.key(), leaf.value()));
+                } else if (slot instanceof Collision collision) {
+                    for (Leaf leaf : collision.leaves()) {
+                        entries.add(new SimpleImmutableEntry<>(leaf.key(), leaf.value()));
+                    }
+                } else {
+                    ((Node) slot).collect(entries);
+                }
+            }
+        }
+    }
+}
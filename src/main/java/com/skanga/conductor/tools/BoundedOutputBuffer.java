@@ -0,0 +1,92 @@
+package com.skanga.conductor.tools;
+
+/**
+ * Character buffer keeping the head and tail of an output of any length.
+ * <p>
+ * The first quarter of the capacity keeps the start of the output and the rest
+ * is a ring buffer holding its most recent characters, so memory stays bounded
+ * while both the command banner and the final errors of a long build log are
+ * kept. Characters in between are counted and replaced by a marker.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+final class BoundedOutputBuffer {
+
+    private final int headLimit;
+    private final StringBuilder head;
+    private final char[] tail;
+    private int tailStart;
+    private int tailSize;
+    private long totalChars;
+
+    /**
+     * Creates a buffer.
+     *
+     * @param maxChars the maximum number of characters kept
+     */
+    BoundedOutputBuffer(int maxChars) {
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        this.headLimit = maxChars / 4;
+        this.head = new StringBuilder(Math.min(headLimit, 1024));
+        this.tail = new char[maxChars - headLimit];
+    }
+
+    synchronized void append(char[] chars, int offset, int length) {
+        totalChars += length;
+        int toHead = Math.min(length, headLimit - head.length());
+        if (toHead > 0) {
+            head.append(chars, offset, toHead);
+            offset += toHead;
+            length -= toHead;
+        }
+        if (length >= tail.length) {
+            System.arraycopy(chars, offset + length - tail.length, tail, 0, tail.length);
+            tailStart = 0;
+            tailSize = tail.length;
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (tailSize < tail.length) {
+                tail[(tailStart + tailSize++) % tail.length] = chars[offset + i];
+            } else {
+                tail[tailStart] = chars[offset + i];
+                tailStart = (tailStart + 1) % tail.length;
+            }
+        }
+    }
+
+    synchronized long getTotalChars() {
+        return totalChars;
+    }
+
+    synchronized long getTruncatedChars() {
+        return totalChars - head.length() - tailSize;
+    }
+
+    synchronized boolean isEmpty() {
+        return totalChars == 0;
+    }
+
+    /**
+     * Returns the kept output, with a marker where characters were dropped.
+     *
+     * @return the head and tail of the output
+     */
+    @Override
+    public synchronized String toString() {
+        long truncated = getTruncatedChars();
+        StringBuilder text = new StringBuilder(head.length() + tailSize + 64).append(head);
+        if (truncated > 0) {
+            text.append("\n... [").append(truncated).append(" characters truncated] ...\n");
+        }
+        int firstPart = Math.min(tailSize, tail.length - tailStart);
+        text.append(tail, tailStart, firstPart).append(tail, 0, tailSize - firstPart);
+        return text.toString();
+    }
+}
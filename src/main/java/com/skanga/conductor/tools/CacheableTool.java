@@ -0,0 +1,111 @@
+package com.skanga.conductor.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.utils.JsonUtils;
+
+import java.util.Iterator;
+import java.util.TreeMap;
+
+/**
+ * A tool that tells the result cache how to key and validate its results.
+ * <p>
+ * Tools listed in {@code conductor.tools.cache.tools} are cached by the
+ * {@link ToolRegistry} whether or not they implement this interface; implementing
+ * it lets a tool map equivalent arguments to the same cache key, invalidate
+ * cached results when the data they were computed from changes, and keep
+ * results that must not be reused out of the cache.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see CachingTool
+ */
+public interface CacheableTool extends Tool {
+
+    /**
+     * Normalizes tool arguments, so equivalent arguments share a cache entry.
+     * <p>
+     * The default trims the arguments and, for JSON objects, orders their fields
+     * by name and drops insignificant whitespace.
+     * </p>
+     *
+     * @param arguments the tool arguments
+     * @return the normalized arguments
+     */
+    default String normalizeArguments(String arguments) {
+        return canonicalArguments(arguments);
+    }
+
+    /**
+     * Returns the version of the data a call with these arguments reads, such as
+     * the modification time and size of a file. A cached result is only reused
+     * while the version is unchanged.
+     *
+     * @param arguments the tool arguments
+     * @return the data version, or null if the result of this call must not be cached
+     */
+    default String cacheVersion(String arguments) {
+        return "";
+    }
+
+    /**
+     * Checks if a result may be reused for later calls with the same arguments.
+     *
+     * @param result the result of a call
+     * @return true to cache the result; by default, successful results are cached
+     */
+    default boolean isCacheable(ExecutionResult result) {
+        return result != null && result.success();
+    }
+
+    /**
+     * Normalizes arguments: trimmed, and for JSON objects with fields ordered by
+     * name and without insignificant whitespace.
+     *
+     * @param arguments the tool arguments
+     * @return the normalized arguments
+     */
+    static String canonicalArguments(String arguments) {
+        String trimmed = arguments.strip();
+        if (!trimmed.startsWith("{")) {
+            return trimmed;
+        }
+        try {
+            StringBuilder canonical = new StringBuilder(trimmed.length());
+            appendCanonical(JsonUtils.parseJson(trimmed), canonical);
+            return canonical.toString();
+        } catch (RuntimeException e) {
+            return trimmed;
+        }
+    }
+
+    private static void appendCanonical(JsonNode node, StringBuilder canonical) {
+        if (node.isObject()) {
+            TreeMap<String, JsonNode> fields = new TreeMap<>();
+            node.fields().forEachRemaining(field -> fields.put(field.getKey(), field.getValue()));
+            canonical.append('{');
+            Iterator<String> names = fields.keySet().iterator();
+            while (names.hasNext()) {
+                String name = names.next();
+                canonical.append(TextNode.valueOf(name)).append(':');
+                appendCanonical(fields.get(name), canonical);
+                if (names.hasNext()) {
+                    canonical.append(',');
+                }
+            }
+            canonical.append('}');
+        } else if (node.isArray()) {
+            canonical.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) {
+                    canonical.append(',');
+                }
+                appendCanonical(node.get(i), canonical);
+            }
+            canonical.append(']');
+        } else {
+            canonical.append(node);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryManager;
+import com.skanga.conductor.memory.MemoryShedder;
+import com.skanga.conductor.memory.MemoryShedders;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import com.skanga.conductor.utils.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tool decorator reusing the results of earlier calls with the same arguments.
+ * <p>
+ * Results are keyed by the tool's normalized arguments and kept for a fixed
+ * time to live, in a least recently used cache of bounded size. For tools
+ * implementing {@link CacheableTool}, the tool normalizes the arguments, a
+ * cached result is dropped when the version of the data it was computed from
+ * changes, such as the modification time of a file, and the tool decides which
+ * results may be cached. Other tools have their arguments trimmed, JSON
+ * arguments put into canonical form, and their successful results cached.
+ * </p>
+ * <p>
+ * Concurrent calls with the same arguments share a single execution of the
+ * tool, so agents running in parallel do not repeat the same search.
+ * Hits and misses are recorded in the {@link MetricsRegistry} as the
+ * {@code tool.cache.hit} and {@code tool.cache.miss} counters, tagged with the
+ * tool name. Under heap pressure, the cache is shed through {@link MemoryShedders}.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see ToolRegistry
+ * @see CacheableTool
+ */
+public class CachingTool implements Tool, MemoryShedder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingTool.class);
+
+    private final Tool delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, CachedResult> cache;
+    private final Map<String, CompletableFuture<ExecutionResult>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private record CachedResult(ExecutionResult result, String version, long expiresAtNanos) {
+    }
+
+    /**
+     * Creates a caching decorator.
+     *
+     * @param delegate the tool whose results are cached
+     * @param ttl how long a result is reused
+     * @param maxEntries the maximum number of cached results
+     * @throws IllegalArgumentException if the tool is null, or the TTL or size is not positive
+     */
+    public CachingTool(Tool delegate, Duration ttl, int maxEntries) {
+        this(delegate, ttl, maxEntries, System::nanoTime);
+    }
+
+    CachingTool(Tool delegate, Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        ValidationUtils.requireNonNull(delegate, "delegate tool");
+        ValidationUtils.requireNonNull(ttl, "cache TTL");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("cache TTL must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        MemoryShedders.register(this);
+    }
+
+    @Override
+    public String toolName() {
+        return delegate.toolName();
+    }
+
+    @Override
+    public String toolDescription() {
+        return delegate.toolDescription();
+    }
+
+    @Override
+    public ExecutionResult runTool(ExecutionInput input) throws Exception {
+        String arguments = input != null ? input.content() : null;
+        if (arguments == null) {
+            return delegate.runTool(input);
+        }
+
+        String key = normalizeArguments(arguments);
+        String version = cacheVersion(arguments);
+        if (version == null) {
+            recordMiss();
+            return delegate.runTool(input);
+        }
+
+        CachedResult cached = cache.get(key);
+        if (cached != null) {
+            if (cached.version().equals(version) && nanoClock.getAsLong() - cached.expiresAtNanos() < 0) {
+                recordHit();
+                return cached.result();
+            }
+            cache.remove(key, cached);
+        }
+
+        // Share the execution with a concurrent call for the same arguments and data
+        String flightKey = key + '\u0000' + version;
+        CompletableFuture<ExecutionResult> execution = new CompletableFuture<>();
+        CompletableFuture<ExecutionResult> running = inFlight.putIfAbsent(flightKey, execution);
+        if (running != null) {
+            recordHit();
+            return awaitShared(running);
+        }
+
+        recordMiss();
+        try {
+            ExecutionResult result = delegate.runTool(input);
+            if (isCacheable(result)) {
+                cache.put(key, new CachedResult(result, version, nanoClock.getAsLong() + ttlNanos));
+            }
+            execution.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, execution);
+        }
+    }
+
+    private static ExecutionResult awaitShared(CompletableFuture<ExecutionResult> running) throws Exception {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String normalizeArguments(String arguments) {
+        return delegate instanceof CacheableTool cacheable
+            ? cacheable.normalizeArguments(arguments)
+            : CacheableTool.canonicalArguments(arguments);
+    }
+
+    private String cacheVersion(String arguments) {
+        if (!(delegate instanceof CacheableTool cacheable)) {
+            return "";
+        }
+        try {
+            return cacheable.cacheVersion(arguments);
+        } catch (RuntimeException e) {
+            logger.debug("Not caching {} call: {}", toolName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isCacheable(ExecutionResult result) {
+        return delegate instanceof CacheableTool cacheable
+            ? cacheable.isCacheable(result)
+            : result != null && result.success();
+    }
+
+    private void recordHit() {
+        hits.incrementAndGet();
+        MetricsRegistry.getInstance().record(Metric.counter("tool.cache.hit", Map.of("tool", toolName())));
+    }
+
+    private void recordMiss() {
+        misses.incrementAndGet();
+        MetricsRegistry.getInstance().record(Metric.counter("tool.cache.miss", Map.of("tool", toolName())));
+    }
+
+    /**
+     * Drops all cached results, for example after the data behind them changed.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Sheds cached results under memory pressure: the least recently used half
+     * at the warning level, all of them above.
+     *
+     * @param level the memory pressure level
+     * @return the number of results dropped
+     */
+    @Override
+    public int shedMemory(MemoryManager.MemoryState level) {
+        return MemoryShedders.shedEntries(cache, level);
+    }
+
+    /**
+     * Returns the decorated tool.
+     *
+     * @return the tool whose results are cached
+     */
+    public Tool getDelegate() {
+        return delegate;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -2,17 +2,24 @@ package com.skanga.conductor.tools;
 
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.ToolConfig;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Secure command execution tool with injection attack prevention.
@@ -34,6 +41,21 @@ import java.util.stream.Collectors;
  * Commands are executed directly via ProcessBuilder rather than through a shell.
  * </p>
  * <p>
+ * Standard output and standard error are drained concurrently while the command
+ * runs, so commands writing more than the pipe buffer do not block, and are
+ * captured separately into buffers of bounded size keeping the start and the
+ * end of the output. Output can be followed as it is produced with an
+ * {@link OutputListener}. {@link #runToolAsync} waits for the process exit
+ * without blocking a thread; the process is killed when the timeout elapses or
+ * the caller's {@link CancellationToken} is cancelled.
+ * </p>
+ * <p>
+ * With an {@link InterpreterPool}, Python and Node.js snippets ({@code python3 -c ...},
+ * {@code node -e ...}) that pass the same checks run in warm interpreter
+ * processes instead of a new process each. Their output is passed to the
+ * listener when the snippet completes.
+ * </p>
+ * <p>
  * Thread Safety: This class is thread-safe for concurrent command execution.
  * Each execution creates its own process and doesn't share mutable state.
  * </p>
@@ -43,10 +65,42 @@ import java.util.stream.Collectors;
  * @see ExecutionInput
  * @see ExecutionResult
  */
-public class CodeRunnerTool implements Tool {
+public class CodeRunnerTool implements Tool, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodeRunnerTool.class);
+
+    /** Default number of characters of each output stream kept in the result. */
+    public static final int DEFAULT_MAX_OUTPUT_CHARS = 64 * 1024;
 
     private final Duration timeout;
     private final Set<String> allowedCommands;
+    private final int maxOutputChars;
+    private final InterpreterPool interpreterPool;
+
+    /**
+     * The output stream a chunk of output was written to.
+     */
+    public enum StreamType {
+        STDOUT, STDERR
+    }
+
+    /**
+     * Receives command output as it is produced.
+     * <p>
+     * Called from the threads draining the process streams; chunks of one stream
+     * arrive in order, while chunks of the two streams may interleave.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface OutputListener {
+        /**
+         * Receives a chunk of output.
+         *
+         * @param stream the stream the chunk was written to
+         * @param chunk the output text
+         */
+        void onOutput(StreamType stream, String chunk);
+    }
 
     private static final Pattern COMMAND_PATTERN = Pattern.compile(
             "\"([^\"]*)\"|'([^']*)'|(\\S+)"
@@ -59,6 +113,12 @@ public class CodeRunnerTool implements Tool {
         ToolConfig config = ApplicationConfig.getInstance().getToolConfig();
         this.timeout = config.getCodeRunnerTimeout();
         this.allowedCommands = config.getCodeRunnerAllowedCommands();
+        this.maxOutputChars = config.getCodeRunnerMaxOutputChars();
+        this.interpreterPool = config.isCodeRunnerPoolEnabled()
+            ? new InterpreterPool(config.getCodeRunnerPoolInterpreters(), config.getCodeRunnerPoolSize(),
+                config.getCodeRunnerPoolMaxRuns(), config.getCodeRunnerPoolMaxMemory(),
+                config.getCodeRunnerPoolHealthCheckInterval())
+            : null;
     }
 
     public CodeRunnerTool(Duration timeout) {
@@ -66,8 +126,30 @@ public class CodeRunnerTool implements Tool {
     }
 
     public CodeRunnerTool(Duration timeout, Set<String> allowedCommands) {
+        this(timeout, allowedCommands, DEFAULT_MAX_OUTPUT_CHARS);
+    }
+
+    public CodeRunnerTool(Duration timeout, Set<String> allowedCommands, int maxOutputChars) {
+        this(timeout, allowedCommands, maxOutputChars, null);
+    }
+
+    /**
+     * Creates a CodeRunnerTool running interpreter snippets in a pool of warm processes.
+     *
+     * @param timeout the maximum run time of a command
+     * @param allowedCommands the commands allowed to run, or empty to allow all but blocked commands
+     * @param maxOutputChars the number of characters of each output stream kept
+     * @param interpreterPool the pool running supported snippets, or null to start a process for every command
+     */
+    public CodeRunnerTool(Duration timeout, Set<String> allowedCommands, int maxOutputChars,
+                          InterpreterPool interpreterPool) {
+        if (maxOutputChars < 1) {
+            throw new IllegalArgumentException("maxOutputChars must be positive");
+        }
         this.timeout = timeout;
         this.allowedCommands = allowedCommands != null ? allowedCommands : Set.of();
+        this.maxOutputChars = maxOutputChars;
+        this.interpreterPool = interpreterPool;
     }
 
     @Override
@@ -82,41 +164,187 @@ public class CodeRunnerTool implements Tool {
 
     @Override
     public ExecutionResult runTool(ExecutionInput toolInput) {
+        return runTool(toolInput, null);
+    }
+
+    /**
+     * Runs a command, passing its output to a listener as it is produced.
+     *
+     * @param toolInput the command to run
+     * @param listener the listener receiving output chunks, or null
+     * @return the execution result
+     */
+    public ExecutionResult runTool(ExecutionInput toolInput, OutputListener listener) {
+        try {
+            return runToolAsync(toolInput, listener).join();
+        } catch (CompletionException e) {
+            return new ExecutionResult(false, "Execution error: " + e.getCause().getMessage(), null);
+        }
+    }
+
+    /**
+     * Starts a command and returns its result when the process exits, without
+     * blocking a thread while waiting.
+     * <p>
+     * The process is killed when the timeout elapses or when the
+     * {@link CancellationToken} bound to the calling thread is cancelled.
+     * </p>
+     *
+     * @param toolInput the command to run
+     * @param listener the listener receiving output chunks, or null
+     * @return the execution result; validation and start failures complete it as unsuccessful
+     */
+    public CompletableFuture<ExecutionResult> runToolAsync(ExecutionInput toolInput, OutputListener listener) {
         ValidationResult inputValidation = validateInput(toolInput);
         if (!inputValidation.isValid()) {
-            return new ExecutionResult(false, inputValidation.getErrorMessage(), null);
+            return CompletableFuture.completedFuture(new ExecutionResult(false, inputValidation.getErrorMessage(), null));
+        }
+        String command = toolInput.content().trim();
+        List<String> commandArgs = parseCommand(command);
+        if (commandArgs.isEmpty()) {
+            return CompletableFuture.completedFuture(new ExecutionResult(false, "Invalid command format", null));
+        }
+        ValidationResult commandValidation = validateCommand(commandArgs);
+        if (!commandValidation.isValid()) {
+            return CompletableFuture.completedFuture(new ExecutionResult(false, commandValidation.getErrorMessage(), null));
         }
+        if (!allowedCommands.isEmpty() && !allowedCommands.contains(commandArgs.get(0))) {
+            return CompletableFuture.completedFuture(
+                new ExecutionResult(false, "Command not allowed: " + commandArgs.get(0), null));
+        }
+        if (interpreterPool != null && interpreterPool.supports(commandArgs)) {
+            return runPooled(commandArgs, listener);
+        }
+
+        Process p;
         try {
-            String command = toolInput.content().trim();
-            List<String> commandArgs = parseCommand(command);
-            if (commandArgs.isEmpty()) {
-                return new ExecutionResult(false, "Invalid command format", null);
-            }
-            ValidationResult commandValidation = validateCommand(commandArgs);
-            if (!commandValidation.isValid()) {
-                return new ExecutionResult(false, commandValidation.getErrorMessage(), null);
-            }
-            if (!allowedCommands.isEmpty() && !allowedCommands.contains(commandArgs.get(0))) {
-                return new ExecutionResult(false, "Command not allowed: " + commandArgs.get(0), null);
-            }
-            ProcessBuilder pb = new ProcessBuilder(commandArgs);
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
-            boolean finished = p.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
-            if (!finished) {
+            p = new ProcessBuilder(commandArgs).start();
+            // Commands get no input; an open stdin would block those reading it
+            p.getOutputStream().close();
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.completedFuture(new ExecutionResult(false, "Execution error: " + e.getMessage(), null));
+        }
+
+        BoundedOutputBuffer stdout = new BoundedOutputBuffer(maxOutputChars);
+        BoundedOutputBuffer stderr = new BoundedOutputBuffer(maxOutputChars);
+        CompletableFuture<Void> stdoutDrained = drain(p.getInputStream(), stdout, StreamType.STDOUT, listener);
+        CompletableFuture<Void> stderrDrained = drain(p.getErrorStream(), stderr, StreamType.STDERR, listener);
+        CancellationToken.Scope cancelRegistration = CancellationToken.current().onCancel(p::destroyForcibly);
+
+        // The timeout covers draining too: a background child may keep the streams open
+        return p.onExit()
+            .thenCompose(exited -> CompletableFuture.allOf(stdoutDrained, stderrDrained))
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(ignored -> completedResult(p.exitValue(), commandArgs.get(0), stdout, stderr))
+            .exceptionally(e -> {
                 p.destroyForcibly();
-                return new ExecutionResult(false, "Command timed out after " + timeout.toSeconds() + " seconds", null);
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    return new ExecutionResult(false, "Command timed out after " + timeout.toSeconds() + " seconds",
+                        Map.of("command", commandArgs.get(0), "stdout", stdout.toString(), "stderr", stderr.toString()));
+                }
+                return new ExecutionResult(false, "Execution error: " + cause.getMessage(), null);
+            })
+            .whenComplete((result, e) -> cancelRegistration.close());
+    }
+
+    /**
+     * Runs a snippet in a pooled interpreter on a virtual thread, under the caller's cancellation token.
+     */
+    private CompletableFuture<ExecutionResult> runPooled(List<String> commandArgs, OutputListener listener) {
+        CompletableFuture<ExecutionResult> completion = new CompletableFuture<>();
+        CancellationToken token = CancellationToken.current();
+        Thread.ofVirtual().name("code-runner-pooled").start(() -> {
+            try (CancellationToken.Scope ignored = token.bind()) {
+                InterpreterPool.Result result = interpreterPool.execute(commandArgs, timeout);
+                BoundedOutputBuffer stdout = new BoundedOutputBuffer(maxOutputChars);
+                BoundedOutputBuffer stderr = new BoundedOutputBuffer(maxOutputChars);
+                char[] out = result.stdout().toCharArray();
+                char[] err = result.stderr().toCharArray();
+                stdout.append(out, 0, out.length);
+                stderr.append(err, 0, err.length);
+                notifyListener(listener, StreamType.STDOUT, out, out.length);
+                notifyListener(listener, StreamType.STDERR, err, err.length);
+                completion.complete(completedResult(result.exitCode(), commandArgs.get(0), stdout, stderr));
+            } catch (TimeoutException e) {
+                completion.complete(new ExecutionResult(false,
+                    "Command timed out after " + timeout.toSeconds() + " seconds", null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completion.complete(new ExecutionResult(false, "Execution error: interrupted", null));
+            } catch (Exception e) {
+                completion.complete(new ExecutionResult(false, "Execution error: " + e.getMessage(), null));
             }
-            String output;
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
-                output = r.lines().collect(Collectors.joining("\n"));
+        });
+        return completion;
+    }
+
+    /**
+     * Reads a process stream on a virtual thread until it ends, into a buffer and a listener.
+     */
+    private static CompletableFuture<Void> drain(InputStream stream, BoundedOutputBuffer buffer,
+                                                 StreamType name, OutputListener listener) {
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        Thread.ofVirtual().name("code-runner-" + name.name().toLowerCase()).start(() -> {
+            char[] chars = new char[8192];
+            try (Reader reader = new InputStreamReader(stream)) {
+                int read;
+                while ((read = reader.read(chars)) >= 0) {
+                    buffer.append(chars, 0, read);
+                    notifyListener(listener, name, chars, read);
+                }
+            } catch (IOException e) {
+                // The stream is closed when the process is killed
+                logger.debug("Stopped reading {}: {}", name, e.getMessage());
+            } finally {
+                drained.complete(null);
             }
-            int code = p.exitValue();
-            boolean success = code == 0;
-            String result = "ExitCode=" + code + "\n" + output;
-            return new ExecutionResult(success, result, Map.of("exitCode", code, "command", commandArgs.get(0)));
-        } catch (Exception e) {
-            return new ExecutionResult(false, "Execution error: " + e.getMessage(), null);
+        });
+        return drained;
+    }
+
+    private static void notifyListener(OutputListener listener, StreamType name, char[] chars, int length) {
+        if (listener == null || length == 0) {
+            return;
+        }
+        try {
+            listener.onOutput(name, new String(chars, 0, length));
+        } catch (RuntimeException e) {
+            logger.warn("Output listener failed: {}", e.getMessage());
+        }
+    }
+
+    private static ExecutionResult completedResult(int code, String command, BoundedOutputBuffer stdout,
+                                                   BoundedOutputBuffer stderr) {
+        StringBuilder result = new StringBuilder("ExitCode=").append(code).append('\n')
+            .append(stripTrailingNewlines(stdout.toString()));
+        if (!stderr.isEmpty()) {
+            result.append("\n[stderr]\n").append(stripTrailingNewlines(stderr.toString()));
+        }
+        Map<String, Object> metadata = Map.of(
+            "exitCode", code,
+            "command", command,
+            "stdout", stdout.toString(),
+            "stderr", stderr.toString(),
+            "truncatedChars", stdout.getTruncatedChars() + stderr.getTruncatedChars());
+        return new ExecutionResult(code == 0, result.toString(), metadata);
+    }
+
+    private static String stripTrailingNewlines(String text) {
+        int end = text.length();
+        while (end > 0 && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Stops the warm interpreter processes, if any.
+     */
+    @Override
+    public void close() {
+        if (interpreterPool != null) {
+            interpreterPool.close();
         }
     }
 
@@ -4,14 +4,31 @@ import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.ToolConfig;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryManager;
+import com.skanga.conductor.memory.MemoryShedder;
+import com.skanga.conductor.memory.MemoryShedders;
 import com.skanga.conductor.tools.security.PathSecurityValidator;
+import com.skanga.conductor.utils.JsonUtils;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
 /**
  * Secure file reading tool with comprehensive path traversal prevention.
@@ -35,6 +52,26 @@ import java.nio.file.Paths;
  * their real paths to ensure symbolic links cannot be used to escape the sandbox.
  * </p>
  * <p>
+ * Besides a plain relative path, which reads the whole file, the tool accepts a
+ * JSON object selecting part of a file, so agents can page through files larger
+ * than the maximum file size:
+ * </p>
+ * <ul>
+ * <li>{@code {"path": "app.log", "offset": 0, "length": 65536}} reads a byte range</li>
+ * <li>{@code {"path": "app.log", "start_line": 1000, "line_count": 200}} reads a line window</li>
+ * <li>{@code {"path": "app.log", "chunk": 3, "chunk_size": 65536}} reads the fourth fixed-size chunk</li>
+ * </ul>
+ * <p>
+ * Partial reads never return more than the maximum file size, are aligned to
+ * character boundaries, and end with a line telling where the next read starts.
+ * Files from the memory-mapping threshold up are memory-mapped, so reading a
+ * region does not copy the rest of the file through the heap. Recently read
+ * regions are cached by path, modification time, size and range, and the line
+ * offsets found by line-window reads are remembered, so paging through a file in
+ * a multi-turn agent loop neither re-reads nor re-scans it. Programs can page
+ * through a file with {@link #chunks(String, int)}.
+ * </p>
+ * <p>
  * Thread Safety: This class is thread-safe for concurrent file reading operations.
  * </p>
  *
@@ -43,11 +80,30 @@ import java.nio.file.Paths;
  * @see ToolInput
  * @see ToolResult
  */
-public class FileReadTool implements Tool {
+public class FileReadTool implements CacheableTool, MemoryShedder {
+
+    /** Default size of a byte range or chunk when none is given. */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    /** Default number of lines of a line window when none is given. */
+    public static final int DEFAULT_LINE_COUNT = 200;
+
+    private static final long DEFAULT_MMAP_THRESHOLD = 1024 * 1024;
+    private static final long DEFAULT_CACHE_MAX_CHARS = 4 * 1024 * 1024;
+    private static final int SCAN_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_INDEXED_FILES = 32;
+    private static final int MAX_INDEXED_LINES = 4096;
 
     private final Path baseDir;
     private final long maxFileSize;
     private final PathSecurityValidator securityValidator;
+    private final long mmapThreshold;
+    private final RegionCache regionCache;
+    private final Map<FileKey, NavigableMap<Long, Long>> lineIndex = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FileKey, NavigableMap<Long, Long>> eldest) {
+            return size() > MAX_INDEXED_FILES;
+        }
+    };
 
     /**
      * Creates a new FileReadTool with configuration from ApplicationConfig.
@@ -68,6 +124,9 @@ public class FileReadTool implements Tool {
         }
         this.maxFileSize = config.getFileReadMaxSize();
         this.securityValidator = new PathSecurityValidator(baseDir, config.getFileReadAllowSymlinks());
+        this.mmapThreshold = config.getFileReadMmapThreshold();
+        this.regionCache = new RegionCache(config.getFileReadCacheMaxChars());
+        MemoryShedders.register(this);
     }
 
     /**
@@ -92,6 +151,9 @@ public class FileReadTool implements Tool {
         }
         this.maxFileSize = config.getFileReadMaxSize();
         this.securityValidator = new PathSecurityValidator(this.baseDir, config.getFileReadAllowSymlinks());
+        this.mmapThreshold = config.getFileReadMmapThreshold();
+        this.regionCache = new RegionCache(config.getFileReadCacheMaxChars());
+        MemoryShedders.register(this);
     }
 
     /**
@@ -117,6 +179,9 @@ public class FileReadTool implements Tool {
         }
         this.maxFileSize = config.getFileReadMaxSize();
         this.securityValidator = new PathSecurityValidator(this.baseDir, allowSymlinks);
+        this.mmapThreshold = config.getFileReadMmapThreshold();
+        this.regionCache = new RegionCache(config.getFileReadCacheMaxChars());
+        MemoryShedders.register(this);
     }
 
     /**
@@ -145,6 +210,9 @@ public class FileReadTool implements Tool {
         }
         this.maxFileSize = maxFileSize;
         this.securityValidator = new PathSecurityValidator(this.baseDir, allowSymlinks);
+        this.mmapThreshold = DEFAULT_MMAP_THRESHOLD;
+        this.regionCache = new RegionCache(DEFAULT_CACHE_MAX_CHARS);
+        MemoryShedders.register(this);
     }
 
     @Override
@@ -154,7 +222,10 @@ public class FileReadTool implements Tool {
 
     @Override
     public String toolDescription() {
-        return "Securely read a text file under the configured base directory. Input: relative path";
+        return "Securely read a text file under the configured base directory. Input: relative path, " +
+            "or JSON {\"path\", \"offset\", \"length\"} for a byte range, " +
+            "{\"path\", \"start_line\", \"line_count\"} for a line window, " +
+            "or {\"path\", \"chunk\", \"chunk_size\"} to page through large files";
     }
 
     @Override
@@ -167,52 +238,346 @@ public class FileReadTool implements Tool {
         }
 
         try {
-            String relativePath = input.content().trim();
+            ReadRequest request = ReadRequest.parse(input.content().trim());
+            String relativePath = request.path();
+            Path candidate = resolveFile(relativePath);
+            FileKey key = FileKey.of(candidate);
 
-            // Security validation
-            PathSecurityValidator.ValidationResult validation = securityValidator.validatePath(relativePath);
-            if (!validation.isValid()) {
-                return new ExecutionResult(false, validation.getErrorMessage(), null);
+            if (request.isWholeFile()) {
+                // Check file size
+                if (key.size() > maxFileSize) {
+                    return new ExecutionResult(false,
+                            String.format("File too large: %d bytes (max: %d bytes). " +
+                                "Read it in parts with offset/length, start_line/line_count or chunk arguments",
+                                key.size(), maxFileSize),
+                            null);
+                }
+
+                // Read and return file content with memory-efficient approach
+                FileRegion region = regionCache.get(key, "all");
+                if (region == null) {
+                    String content = readFileContent(candidate, key.size());
+                    region = new FileRegion(content, 0, key.size(), key.size(), -1, -1);
+                    regionCache.put(key, "all", region);
+                }
+                return new ExecutionResult(true, region.content(), null);
             }
 
-            Path candidate = baseDir.resolve(relativePath);
+            FileRegion region = readRegion(candidate, key, request);
+            return new ExecutionResult(true, region.content() + describeRegion(request, region), region.toMetadata());
 
-            // Additional security checks after resolution
-            PathSecurityValidator.ValidationResult postResolutionValidation = securityValidator.validateResolvedPath(candidate);
-            if (!postResolutionValidation.isValid()) {
-                return new ExecutionResult(false, postResolutionValidation.getErrorMessage(), null);
+        } catch (ReadRejectedException e) {
+            return new ExecutionResult(false, e.getMessage(), null);
+        } catch (IllegalArgumentException e) {
+            return new ExecutionResult(false, "Invalid read arguments: " + e.getMessage(), null);
+        } catch (IOException e) {
+            return new ExecutionResult(false, "Error reading file: " + e.getMessage(), null);
+        } catch (SecurityException e) {
+            return new ExecutionResult(false, "Security error: " + e.getMessage(), null);
+        } catch (Exception e) {
+            return new ExecutionResult(false, "Unexpected error: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Normalizes the path and read arguments, so equivalent reads share a cache entry.
+     *
+     * @param arguments the tool input
+     * @return the normalized input
+     */
+    @Override
+    public String normalizeArguments(String arguments) {
+        try {
+            ReadRequest request = ReadRequest.parse(arguments.trim());
+            return Paths.get(request.path()).normalize() + "|" + (request.isWholeFile() ? "all" : request.rangeKey());
+        } catch (RuntimeException e) {
+            return arguments.trim();
+        }
+    }
+
+    /**
+     * Returns the modification time and size of the file read, so cached results
+     * are dropped when the file changes.
+     *
+     * @param arguments the tool input
+     * @return the file version, or null if the path is rejected or the file cannot be read
+     */
+    @Override
+    public String cacheVersion(String arguments) {
+        try {
+            FileKey key = FileKey.of(resolveFile(ReadRequest.parse(arguments.trim()).path()));
+            return key.modifiedMillis() + ":" + key.size();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sheds cached file regions and line indexes under memory pressure.
+     *
+     * @param level the memory pressure level
+     * @return the number of regions and line indexes dropped
+     */
+    @Override
+    public int shedMemory(MemoryManager.MemoryState level) {
+        return regionCache.shed(level) + MemoryShedders.shedEntries(lineIndex, level);
+    }
+
+    /**
+     * Iterates over a file in chunks of about the given size, aligned to character
+     * boundaries, without reading more than one chunk at a time.
+     * <p>
+     * Chunks are read lazily as the iterator advances; I/O errors while reading
+     * a chunk are thrown as {@link UncheckedIOException}.
+     * </p>
+     *
+     * @param relativePath the file path relative to the base directory
+     * @param chunkSize the chunk size in bytes, at most the maximum file size
+     * @return an iterator over the chunks of the file
+     * @throws IOException if the path is rejected, or the file is missing or unreadable
+     */
+    public Iterator<FileChunk> chunks(String relativePath, int chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize > maxFileSize) {
+            throw new IllegalArgumentException("chunkSize must be positive and at most " + maxFileSize);
+        }
+        PathSecurityValidator.ValidationResult inputValidation = securityValidator.validateInput(relativePath);
+        if (!inputValidation.isValid()) {
+            throw new ReadRejectedException(inputValidation.getErrorMessage());
+        }
+        Path file = resolveFile(relativePath.trim());
+        FileKey key = FileKey.of(file);
+        return new Iterator<>() {
+            private long offset = 0;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return offset < key.size();
             }
 
-            // File existence and type checks
-            if (!Files.exists(candidate)) {
-                return new ExecutionResult(false, "File not found: " + relativePath, null);
+            @Override
+            public FileChunk next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    FileRegion region = readBytes(file, key, offset, chunkSize);
+                    offset = region.endOffset();
+                    return new FileChunk(index++, region.startOffset(), region.endOffset(), key.size(), region.content());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
+        };
+    }
+
+    /**
+     * Validates a relative path and resolves it to a readable regular file.
+     */
+    private Path resolveFile(String relativePath) throws IOException {
+        // Security validation
+        PathSecurityValidator.ValidationResult validation = securityValidator.validatePath(relativePath);
+        if (!validation.isValid()) {
+            throw new ReadRejectedException(validation.getErrorMessage());
+        }
+
+        Path candidate = baseDir.resolve(relativePath);
+
+        // Additional security checks after resolution
+        PathSecurityValidator.ValidationResult postResolutionValidation = securityValidator.validateResolvedPath(candidate);
+        if (!postResolutionValidation.isValid()) {
+            throw new ReadRejectedException(postResolutionValidation.getErrorMessage());
+        }
+
+        // File existence and type checks
+        if (!Files.exists(candidate)) {
+            throw new ReadRejectedException("File not found: " + relativePath);
+        }
+
+        if (Files.isDirectory(candidate)) {
+            throw new ReadRejectedException("Path is a directory, not a file: " + relativePath);
+        }
+        return candidate;
+    }
+
+    /**
+     * Reads the part of a file selected by a request, from the cache if possible.
+     */
+    private FileRegion readRegion(Path file, FileKey key, ReadRequest request) throws IOException {
+        String range = request.rangeKey();
+        FileRegion region = regionCache.get(key, range);
+        if (region != null) {
+            return region;
+        }
+        if (request.startLine() != null) {
+            region = readLines(file, key, request.startLine(), request.lineCount());
+        } else if (request.chunk() != null) {
+            region = readBytes(file, key, request.chunk() * request.chunkSize(), request.chunkSize());
+        } else {
+            region = readBytes(file, key, request.offset(), request.length());
+        }
+        regionCache.put(key, range, region);
+        return region;
+    }
+
+    /**
+     * Describes where a partial read ended, so the next read can continue from there.
+     */
+    private static String describeRegion(ReadRequest request, FileRegion region) {
+        boolean eof = region.endOffset() >= region.fileSize();
+        StringBuilder footer = new StringBuilder("\n[file_read: ");
+        if (region.startLine() > 0) {
+            footer.append("lines ").append(region.startLine()).append('-').append(region.endLine());
+            footer.append(eof ? ", end of file]" : "; next start_line " + (region.endLine() + 1) + "]");
+        } else if (request.chunk() != null) {
+            long chunkCount = Math.max(1, (region.fileSize() + request.chunkSize() - 1) / request.chunkSize());
+            footer.append("chunk ").append(request.chunk()).append(" of chunks 0-").append(chunkCount - 1);
+            footer.append(eof ? ", end of file]" : "; next chunk " + (request.chunk() + 1) + "]");
+        } else {
+            footer.append("bytes ").append(region.startOffset()).append('-').append(region.endOffset())
+                .append(" of ").append(region.fileSize());
+            footer.append(eof ? ", end of file]" : "; next offset " + region.endOffset() + "]");
+        }
+        return footer.toString();
+    }
 
-            if (Files.isDirectory(candidate)) {
-                return new ExecutionResult(false, "Path is a directory, not a file: " + relativePath, null);
+    /**
+     * Reads a byte range of a file, moved to the nearest character boundaries and
+     * limited to the maximum file size.
+     */
+    private FileRegion readBytes(Path file, FileKey key, long offset, long length) throws IOException {
+        long fileSize = key.size();
+        long from = Math.min(offset, fileSize);
+        long to = Math.min(fileSize, from + Math.min(length, maxFileSize));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Include a few bytes around the range to find the character boundaries
+            long windowStart = Math.max(0, from - 3);
+            long windowEnd = Math.min(fileSize, to + 3);
+            ByteBuffer window = load(channel, fileSize, windowStart, (int) (windowEnd - windowStart));
+            int start = alignToCharStart(window, (int) (from - windowStart));
+            int end = to >= fileSize ? window.limit() : alignToCharStart(window, (int) (to - windowStart));
+            if (end <= start && start < window.limit()) {
+                // The range is smaller than one character; return the whole character
+                end = start + 1;
+                while (end < window.limit() && isContinuationByte(window.get(end))) {
+                    end++;
+                }
             }
+            return new FileRegion(decode(window, start, end), windowStart + start, windowStart + end, fileSize, -1, -1);
+        }
+    }
 
-            // Check file size
-            long fileSize = Files.size(candidate);
-            if (fileSize > maxFileSize) {
-                return new ExecutionResult(false,
-                        String.format("File too large: %d bytes (max: %d bytes)", fileSize, maxFileSize),
-                        null);
+    /**
+     * Reads a window of lines of a file, scanning from the nearest line offset
+     * found by an earlier read of the same file version.
+     */
+    private FileRegion readLines(Path file, FileKey key, long startLine, int lineCount) throws IOException {
+        long fileSize = key.size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long from = lineOffset(channel, key, startLine);
+            long to = skipLines(channel, fileSize, from, lineCount);
+            rememberLineOffset(key, startLine + lineCount, to);
+            if (to - from > maxFileSize) {
+                throw new ReadRejectedException(String.format(
+                    "Line window too large: %d bytes (max: %d bytes). Request fewer lines", to - from, maxFileSize));
             }
+            ByteBuffer window = load(channel, fileSize, from, (int) (to - from));
+            String content = decode(window, 0, window.limit());
+            long lastLine = from == to ? startLine - 1 : startLine + content.chars().filter(c -> c == '\n').count()
+                - (content.endsWith("\n") ? 1 : 0);
+            return new FileRegion(content, from, to, fileSize, startLine, lastLine);
+        }
+    }
 
-            // Read and return file content with memory-efficient approach
-            String content = readFileContent(candidate, fileSize);
-            return new ExecutionResult(true, content, null);
+    /**
+     * Finds the byte offset of the start of a line, counting from 1.
+     */
+    private long lineOffset(FileChannel channel, FileKey key, long line) throws IOException {
+        if (line <= 1) {
+            return 0;
+        }
+        long knownLine = 1;
+        long knownOffset = 0;
+        synchronized (lineIndex) {
+            NavigableMap<Long, Long> offsets = lineIndex.get(key);
+            Map.Entry<Long, Long> nearest = offsets != null ? offsets.floorEntry(line) : null;
+            if (nearest != null) {
+                knownLine = nearest.getKey();
+                knownOffset = nearest.getValue();
+            }
+        }
+        long offset = skipLines(channel, key.size(), knownOffset, line - knownLine);
+        rememberLineOffset(key, line, offset);
+        return offset;
+    }
 
-        } catch (IOException e) {
-            return new ExecutionResult(false, "Error reading file: " + e.getMessage(), null);
-        } catch (SecurityException e) {
-            return new ExecutionResult(false, "Security error: " + e.getMessage(), null);
-        } catch (Exception e) {
-            return new ExecutionResult(false, "Unexpected error: " + e.getMessage(), null);
+    private void rememberLineOffset(FileKey key, long line, long offset) {
+        if (offset >= key.size()) {
+            return;
+        }
+        synchronized (lineIndex) {
+            NavigableMap<Long, Long> offsets = lineIndex.computeIfAbsent(key, k -> new TreeMap<>());
+            if (offsets.size() < MAX_INDEXED_LINES) {
+                offsets.put(line, offset);
+            }
+        }
+    }
+
+    /**
+     * Returns the offset just after the given number of line breaks from an offset,
+     * or the file size if the file has fewer lines.
+     */
+    private long skipLines(FileChannel channel, long fileSize, long from, long lines) throws IOException {
+        long remaining = lines;
+        long position = from;
+        while (remaining > 0 && position < fileSize) {
+            int segment = (int) Math.min(SCAN_SEGMENT_SIZE, fileSize - position);
+            ByteBuffer buffer = load(channel, fileSize, position, segment);
+            for (int i = 0; i < segment; i++) {
+                if (buffer.get(i) == '\n' && --remaining == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += segment;
+        }
+        return Math.min(position, fileSize);
+    }
+
+    /**
+     * Loads a region of a file: memory-mapped for files from the mapping
+     * threshold up, copied into a heap buffer for smaller files.
+     */
+    private ByteBuffer load(FileChannel channel, long fileSize, long position, int size) throws IOException {
+        if (fileSize >= mmapThreshold && size > 0) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int alignToCharStart(ByteBuffer buffer, int position) {
+        while (position > 0 && position < buffer.limit() && isContinuationByte(buffer.get(position))) {
+            position--;
         }
+        return position;
+    }
+
+    private static boolean isContinuationByte(byte b) {
+        return (b & 0xC0) == 0x80;
     }
 
+    private static String decode(ByteBuffer buffer, int start, int end) throws IOException {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(buffer.slice(start, end - start))
+            .toString();
+    }
 
     /**
      * Memory-efficient file reading that uses streaming for large files.
@@ -273,4 +638,174 @@ public class FileReadTool implements Tool {
         }
     }
 
+    /**
+     * A chunk of a file returned by {@link #chunks(String, int)}.
+     *
+     * @param index the zero-based chunk index
+     * @param startOffset the byte offset the chunk starts at
+     * @param endOffset the byte offset just after the chunk
+     * @param fileSize the size of the file in bytes
+     * @param content the chunk text
+     */
+    public record FileChunk(int index, long startOffset, long endOffset, long fileSize, String content) {
+
+        /**
+         * Checks if this is the last chunk of the file.
+         *
+         * @return true if the chunk ends at the end of the file
+         */
+        public boolean isLast() {
+            return endOffset >= fileSize;
+        }
+    }
+
+    /**
+     * The part of a file selected by a tool input.
+     */
+    record ReadRequest(String path, long offset, long length, Long startLine, int lineCount,
+                       Long chunk, int chunkSize) {
+
+        static ReadRequest parse(String input) {
+            if (!input.startsWith("{")) {
+                return new ReadRequest(input, 0, -1, null, 0, null, 0);
+            }
+            JsonNode arguments;
+            try {
+                arguments = JsonUtils.parseJson(input);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("expected a relative path or a JSON object");
+            }
+            String path = arguments.path("path").asText("").trim();
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("path is required");
+            }
+            if (arguments.has("start_line")) {
+                long startLine = arguments.get("start_line").asLong();
+                int lineCount = arguments.path("line_count").asInt(DEFAULT_LINE_COUNT);
+                if (startLine < 1 || lineCount < 1) {
+                    throw new IllegalArgumentException("start_line and line_count must be positive");
+                }
+                return new ReadRequest(path, 0, -1, startLine, lineCount, null, 0);
+            }
+            if (arguments.has("chunk")) {
+                long chunk = arguments.get("chunk").asLong();
+                int chunkSize = arguments.path("chunk_size").asInt(DEFAULT_CHUNK_SIZE);
+                if (chunk < 0 || chunkSize < 1) {
+                    throw new IllegalArgumentException("chunk must be non-negative and chunk_size positive");
+                }
+                return new ReadRequest(path, 0, -1, null, 0, chunk, chunkSize);
+            }
+            if (arguments.has("offset") || arguments.has("length")) {
+                long offset = arguments.path("offset").asLong(0);
+                long length = arguments.path("length").asLong(DEFAULT_CHUNK_SIZE);
+                if (offset < 0 || length < 1) {
+                    throw new IllegalArgumentException("offset must be non-negative and length positive");
+                }
+                return new ReadRequest(path, offset, length, null, 0, null, 0);
+            }
+            return new ReadRequest(path, 0, -1, null, 0, null, 0);
+        }
+
+        boolean isWholeFile() {
+            return length < 0 && startLine == null && chunk == null;
+        }
+
+        String rangeKey() {
+            if (startLine != null) {
+                return "lines:" + startLine + "+" + lineCount;
+            }
+            if (chunk != null) {
+                return "chunk:" + chunk + "x" + chunkSize;
+            }
+            return "bytes:" + offset + "+" + length;
+        }
+    }
+
+    /**
+     * Identifies a version of a file, so cached regions are not served after it changes.
+     */
+    record FileKey(Path path, long modifiedMillis, long size) {
+
+        static FileKey of(Path file) throws IOException {
+            return new FileKey(file.toRealPath(), Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+        }
+    }
+
+    /**
+     * Text read from a file with its position.
+     */
+    record FileRegion(String content, long startOffset, long endOffset, long fileSize, long startLine, long endLine) {
+
+        Map<String, Object> toMetadata() {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("start_offset", startOffset);
+            metadata.put("end_offset", endOffset);
+            metadata.put("file_size", fileSize);
+            metadata.put("eof", endOffset >= fileSize);
+            if (startLine > 0) {
+                metadata.put("start_line", startLine);
+                metadata.put("end_line", endLine);
+            }
+            return metadata;
+        }
+    }
+
+    /**
+     * Least recently used cache of file regions, bounded by their total length.
+     */
+    static final class RegionCache {
+
+        private final long maxChars;
+        private final LinkedHashMap<String, Map.Entry<FileKey, FileRegion>> regions = new LinkedHashMap<>(16, 0.75f, true);
+        private long cachedChars;
+
+        RegionCache(long maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        synchronized FileRegion get(FileKey key, String range) {
+            Map.Entry<FileKey, FileRegion> entry = regions.get(key.path() + "|" + range);
+            return entry != null && entry.getKey().equals(key) ? entry.getValue() : null;
+        }
+
+        /**
+         * Evicts the least recently used half of the cached characters at the
+         * warning level, and everything above it.
+         */
+        synchronized int shed(MemoryManager.MemoryState level) {
+            long target = level.compareTo(MemoryManager.MemoryState.WARNING) > 0 ? 0 : cachedChars / 2;
+            int removed = 0;
+            Iterator<Map.Entry<FileKey, FileRegion>> eldest = regions.values().iterator();
+            while (cachedChars > target && eldest.hasNext()) {
+                cachedChars -= eldest.next().getValue().content().length();
+                eldest.remove();
+                removed++;
+            }
+            return removed;
+        }
+
+        synchronized void put(FileKey key, String range, FileRegion region) {
+            long chars = region.content().length();
+            if (chars > maxChars / 4) {
+                // Large regions would evict everything else
+                return;
+            }
+            Map.Entry<FileKey, FileRegion> previous = regions.put(key.path() + "|" + range, Map.entry(key, region));
+            cachedChars += chars - (previous != null ? previous.getValue().content().length() : 0);
+            Iterator<Map.Entry<FileKey, FileRegion>> eldest = regions.values().iterator();
+            while (cachedChars > maxChars && eldest.hasNext()) {
+                cachedChars -= eldest.next().getValue().content().length();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * A read refused because of its path or size; the message is returned to the caller as is.
+     */
+    private static final class ReadRejectedException extends IOException {
+        ReadRejectedException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,369 @@
+package com.skanga.conductor.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.skanga.conductor.execution.CancellationToken;
+import com.skanga.conductor.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of long-lived interpreter processes running code snippets for the
+ * {@link CodeRunnerTool}, so repeated snippets do not pay interpreter startup.
+ * <p>
+ * Commands of the form {@code python3 -c <code>} and {@code node -e <code>} are
+ * sent to an idle worker of their interpreter instead of starting a process.
+ * Workers speak a line-framed JSON protocol on stdin and stdout: each request
+ * carries the code, each response its exit code, captured stdout and stderr,
+ * and the worker's memory use. A Node.js snippet completes once the timers and
+ * I/O it started are done or it calls {@code process.exit}, and a worker left
+ * with open handles is retired.
+ * </p>
+ * <p>
+ * Pooled snippets are not isolated from each other the way separate processes
+ * are. Each Python snippet gets a fresh globals dictionary and an empty stdin,
+ * but changes to builtins, {@code sys.modules}, {@code sys.path} and other
+ * interpreter state persist, as do the modules imported by earlier snippets.
+ * Node.js snippets run on the real globals, as under {@code node -e}: globals
+ * they add are removed afterwards, but changes to existing globals and to
+ * built-in prototypes persist. Workers are shared by every workflow using the
+ * pool, so a snippet can change the behavior of later, unrelated snippets;
+ * only enable the pool for snippets trusted not to do so.
+ * </p>
+ * <p>
+ * Workers run in a private temporary directory with a minimal environment.
+ * A worker is killed and replaced when a snippet exceeds its timeout, and
+ * retired after a number of runs or when its memory use grows past a limit.
+ * Workers idle for longer than the health check interval are pinged before
+ * reuse. Workers exit on their own when the JVM exits and their stdin closes.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see CodeRunnerTool
+ */
+public class InterpreterPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterpreterPool.class);
+
+    private static final Duration PING_TIMEOUT = Duration.ofSeconds(5);
+    private static final Set<String> PYTHON_INTERPRETERS = Set.of("python", "python3");
+    private static final Set<String> NODE_INTERPRETERS = Set.of("node", "nodejs");
+
+    private final int size;
+    private final int maxRuns;
+    private final long maxMemoryBytes;
+    private final long healthCheckIntervalNanos;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final AtomicLong workersStarted = new AtomicLong();
+    private volatile boolean closed;
+    private volatile Path sandboxDir;
+
+    /**
+     * Output of a snippet run by a pooled interpreter.
+     *
+     * @param exitCode the exit code; non-zero if the snippet raised an error
+     * @param stdout the captured standard output
+     * @param stderr the captured standard error
+     */
+    public record Result(int exitCode, String stdout, String stderr) {
+    }
+
+    private final class Slot {
+        final String interpreter;
+        final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+        final Semaphore permits = new Semaphore(size);
+
+        Slot(String interpreter) {
+            this.interpreter = interpreter;
+        }
+    }
+
+    /**
+     * Creates a pool. Workers are started on first use.
+     *
+     * @param interpreters the interpreter commands to pool; only Python and Node.js are supported
+     * @param size the maximum number of workers per interpreter
+     * @param maxRuns the number of snippets a worker runs before it is replaced
+     * @param maxMemoryBytes the memory use of a worker above which it is replaced
+     * @param healthCheckInterval the idle time after which a worker is pinged before reuse
+     */
+    public InterpreterPool(Set<String> interpreters, int size, int maxRuns, long maxMemoryBytes,
+                           Duration healthCheckInterval) {
+        if (size < 1 || maxRuns < 1 || maxMemoryBytes < 1) {
+            throw new IllegalArgumentException("Pool size, max runs and max memory must be positive");
+        }
+        this.size = size;
+        this.maxRuns = maxRuns;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.healthCheckIntervalNanos = healthCheckInterval.toNanos();
+        for (String interpreter : interpreters) {
+            if (PYTHON_INTERPRETERS.contains(interpreter) || NODE_INTERPRETERS.contains(interpreter)) {
+                slots.put(interpreter, new Slot(interpreter));
+            } else {
+                logger.warn("Interpreter {} cannot be pooled; only Python and Node.js are supported", interpreter);
+            }
+        }
+    }
+
+    /**
+     * Checks if a command can run in a pooled interpreter.
+     *
+     * @param commandArgs the parsed command
+     * @return true for {@code <python> -c <code>} and {@code <node> -e <code>} with a pooled interpreter
+     */
+    public boolean supports(List<String> commandArgs) {
+        if (closed || commandArgs.size() != 3 || !slots.containsKey(commandArgs.get(0))) {
+            return false;
+        }
+        String flag = PYTHON_INTERPRETERS.contains(commandArgs.get(0)) ? "-c" : "-e";
+        return flag.equals(commandArgs.get(1));
+    }
+
+    /**
+     * Runs a supported command in a pooled interpreter, waiting for a free worker if all are busy.
+     * <p>
+     * The worker is killed if the {@link CancellationToken} bound to the calling
+     * thread is cancelled.
+     * </p>
+     *
+     * @param commandArgs the parsed command, accepted by {@link #supports(List)}
+     * @param timeout the maximum time to wait for a worker and run the snippet
+     * @return the snippet output
+     * @throws TimeoutException if no worker became free or the snippet ran past the timeout
+     * @throws IOException if the worker fails or exits
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    public Result execute(List<String> commandArgs, Duration timeout)
+            throws TimeoutException, IOException, InterruptedException {
+        if (!supports(commandArgs)) {
+            throw new IllegalArgumentException("Command cannot run in the interpreter pool: " + commandArgs.get(0));
+        }
+        Slot slot = slots.get(commandArgs.get(0));
+        // Waiting for a worker and running the snippet share one deadline
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        if (!slot.permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("No interpreter worker became free");
+        }
+        Worker worker = null;
+        try {
+            worker = checkout(slot, deadlineNanos);
+            JsonNode response;
+            try (CancellationToken.Scope ignored = CancellationToken.current().onCancel(worker::destroy)) {
+                response = worker.call(Map.of("code", commandArgs.get(2)), deadlineNanos, timeout);
+            }
+            Result result = new Result(response.path("exit").asInt(1),
+                response.path("stdout").asText(""), response.path("stderr").asText(""));
+            release(slot, worker, response.path("rss").asLong(0), response.path("retire").asBoolean(false));
+            worker = null;
+            return result;
+        } finally {
+            if (worker != null) {
+                worker.destroy();
+            }
+            slot.permits.release();
+        }
+    }
+
+    /**
+     * Takes an idle healthy worker, or starts one.
+     */
+    private Worker checkout(Slot slot, long deadlineNanos) throws IOException {
+        Worker worker;
+        while ((worker = slot.idle.poll()) != null) {
+            if (worker.isHealthy(deadlineNanos)) {
+                return worker;
+            }
+            logger.debug("Replacing unhealthy {} worker", slot.interpreter);
+            worker.destroy();
+        }
+        return new Worker(slot.interpreter);
+    }
+
+    private void release(Slot slot, Worker worker, long rssBytes, boolean retire) {
+        worker.runs++;
+        worker.lastUsedNanos = System.nanoTime();
+        if (closed || retire || worker.runs >= maxRuns || rssBytes > maxMemoryBytes) {
+            logger.debug("Retiring {} worker after {} runs using {} bytes", slot.interpreter, worker.runs, rssBytes);
+            worker.destroy();
+        } else {
+            slot.idle.add(worker);
+        }
+    }
+
+    private Path sandboxDir() throws IOException {
+        if (sandboxDir == null) {
+            synchronized (this) {
+                if (sandboxDir == null) {
+                    sandboxDir = Files.createTempDirectory("conductor-interpreter-");
+                }
+            }
+        }
+        return sandboxDir;
+    }
+
+    private static String workerScript(String resource) {
+        try (InputStream script = InterpreterPool.class.getResourceAsStream("/interpreters/" + resource)) {
+            if (script == null) {
+                throw new IllegalStateException("Missing interpreter worker script: " + resource);
+            }
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the number of worker processes started, including replacements.
+     *
+     * @return the number of workers started
+     */
+    public long getWorkersStarted() {
+        return workersStarted.get();
+    }
+
+    /**
+     * Returns the number of idle workers of an interpreter.
+     *
+     * @param interpreter the interpreter command
+     * @return the number of idle workers
+     */
+    public int getIdleWorkers(String interpreter) {
+        Slot slot = slots.get(interpreter);
+        return slot != null ? slot.idle.size() : 0;
+    }
+
+    /**
+     * Stops all idle workers; busy workers are stopped when their snippet completes.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Slot slot : slots.values()) {
+            List<Worker> idle = new ArrayList<>();
+            slot.idle.drainTo(idle);
+            idle.forEach(Worker::destroy);
+        }
+    }
+
+    /**
+     * A long-lived interpreter process.
+     */
+    private final class Worker {
+        private final Process process;
+        private final BufferedWriter requests;
+        private final BufferedReader responses;
+        private int runs;
+        private long lastUsedNanos = System.nanoTime();
+
+        Worker(String interpreter) throws IOException {
+            List<String> command = PYTHON_INTERPRETERS.contains(interpreter)
+                ? List.of(interpreter, "-u", "-c", workerScript("python_worker.py"))
+                : List.of(interpreter, "-e", workerScript("node_worker.js"));
+            ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(sandboxDir().toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+            Map<String, String> environment = builder.environment();
+            String path = environment.get("PATH");
+            environment.clear();
+            if (path != null) {
+                environment.put("PATH", path);
+            }
+            environment.put("PYTHONIOENCODING", "utf-8");
+            environment.put("PYTHONDONTWRITEBYTECODE", "1");
+            this.process = builder.start();
+            this.requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.responses = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            workersStarted.incrementAndGet();
+            logger.debug("Started {} worker (pid {})", interpreter, process.pid());
+        }
+
+        /**
+         * Sends a request and waits for its response, killing the worker at the deadline.
+         *
+         * @param timeout the timeout the deadline was derived from, for the error message
+         */
+        JsonNode call(Map<String, Object> request, long deadlineNanos, Duration timeout)
+                throws IOException, TimeoutException {
+            long id = requestIds.incrementAndGet();
+            // Whichever of the response and the deadline settles the call first wins
+            AtomicBoolean settled = new AtomicBoolean();
+            long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+            CompletableFuture.delayedExecutor(remainingNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (settled.compareAndSet(false, true)) {
+                    destroy();
+                }
+            });
+
+            String line;
+            try {
+                Map<String, Object> framed = new HashMap<>(request);
+                framed.put("id", id);
+                requests.write(JsonUtils.toJson(framed));
+                requests.newLine();
+                requests.flush();
+                line = responses.readLine();
+            } catch (IOException e) {
+                line = null;
+            }
+            if (!settled.compareAndSet(false, true)) {
+                throw new TimeoutException("Snippet timed out after " + timeout.toMillis() + " ms");
+            }
+            if (line == null) {
+                throw new IOException("Interpreter worker exited");
+            }
+            JsonNode response = JsonUtils.parseJson(line);
+            if (response.path("id").asLong() != id) {
+                throw new IOException("Interpreter worker answered out of order");
+            }
+            return response;
+        }
+
+        boolean isHealthy(long deadlineNanos) {
+            if (!process.isAlive()) {
+                return false;
+            }
+            if (System.nanoTime() - lastUsedNanos < healthCheckIntervalNanos) {
+                return true;
+            }
+            try {
+                long pingDeadlineNanos = Math.min(deadlineNanos, System.nanoTime() + PING_TIMEOUT.toNanos());
+                return call(Map.of("ping", true), pingDeadlineNanos, PING_TIMEOUT).path("pong").asBoolean(false);
+            } catch (IOException | TimeoutException | RuntimeException e) {
+                return false;
+            }
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.skanga.conductor.tools;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * A search service queried by the {@link WebSearchTool}.
+ * <p>
+ * A backend builds the HTTP request for a query and turns the response body
+ * into formatted results. The tool sends the requests of all its backends
+ * concurrently on a shared HTTP client, so backends pointing at a local stub
+ * server can replace the public search services in tests and benchmarks.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see WebSearchTool
+ */
+public interface SearchBackend {
+
+    /**
+     * Returns the backend name, reported in the result metadata.
+     *
+     * @return the backend name
+     */
+    String name();
+
+    /**
+     * Builds the request searching for a query.
+     *
+     * @param query the search query
+     * @return the HTTP request
+     */
+    HttpRequest buildRequest(String query);
+
+    /**
+     * Formats the results in a successful response.
+     *
+     * @param body the response body
+     * @param query the search query
+     * @return the formatted results, or null if the response holds no useful results
+     * @throws Exception if the response cannot be parsed
+     */
+    String parseResults(String body, String query) throws Exception;
+
+    /**
+     * Returns how long to wait for this backend before giving up on it.
+     *
+     * @return the backend timeout
+     */
+    Duration timeout();
+}
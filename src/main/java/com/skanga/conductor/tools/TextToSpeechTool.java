@@ -2,20 +2,39 @@ package com.skanga.conductor.tools;
 
 import com.skanga.conductor.config.ApplicationConfig;
 import com.skanga.conductor.config.ToolConfig;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Text-to-Speech audio generation tool with multiple TTS backends.
@@ -42,6 +61,14 @@ import java.util.concurrent.atomic.AtomicLong;
  * <li>Automatic volume normalization</li>
  * </ul>
  * <p>
+ * Long texts are split at sentence boundaries into segments of a bounded length,
+ * which are synthesized in parallel, at most a configured number at a time, and
+ * joined by copying their sample data into the output file. Synthesized segments
+ * are cached by engine and content in a {@code .tts-cache} directory under the
+ * output directory, so repeated phrases are not synthesized again; the cache is
+ * pruned of its least recently used segments beyond its size limit.
+ * </p>
+ * <p>
  * <strong>Installation Requirements:</strong>
  * </p>
  * <ul>
@@ -61,7 +88,21 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class TextToSpeechTool implements Tool {
 
+    private static final Logger logger = LoggerFactory.getLogger(TextToSpeechTool.class);
+
+    /** Default number of segments synthesized at once. */
+    public static final int DEFAULT_MAX_PARALLEL = 4;
+    /** Default maximum length of a segment in characters. */
+    public static final int DEFAULT_SEGMENT_MAX_CHARS = 500;
+    /** Default size limit of the segment cache in bytes. */
+    public static final long DEFAULT_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final String CACHE_DIRECTORY = ".tts-cache";
+
     private final Path outDir;
+    private final int segmentMaxChars;
+    private final long cacheMaxBytes;
+    private final Semaphore synthesisPermits;
     private final int sampleRate = 16000;
     private final int ttsSampleRate = 22050;
 
@@ -102,6 +143,9 @@ public class TextToSpeechTool implements Tool {
     public TextToSpeechTool() {
         ToolConfig config = ApplicationConfig.getInstance().getToolConfig();
         this.outDir = Paths.get(config.getAudioOutputDir());
+        this.segmentMaxChars = config.getTtsSegmentMaxChars();
+        this.cacheMaxBytes = config.getTtsCacheMaxBytes();
+        this.synthesisPermits = new Semaphore(config.getTtsMaxParallel());
     }
 
     /**
@@ -110,7 +154,25 @@ public class TextToSpeechTool implements Tool {
      * @param outDir the directory where generated audio files will be saved
      */
     public TextToSpeechTool(Path outDir) {
+        this(outDir, DEFAULT_MAX_PARALLEL, DEFAULT_SEGMENT_MAX_CHARS, DEFAULT_CACHE_MAX_BYTES);
+    }
+
+    /**
+     * Creates a new TextToSpeechTool with custom synthesis settings.
+     *
+     * @param outDir the directory where generated audio files will be saved
+     * @param maxParallel the maximum number of segments synthesized at once
+     * @param segmentMaxChars the maximum length of a segment in characters
+     * @param cacheMaxBytes the size limit of the segment cache, 0 to disable caching
+     */
+    public TextToSpeechTool(Path outDir, int maxParallel, int segmentMaxChars, long cacheMaxBytes) {
+        if (maxParallel < 1 || segmentMaxChars < 1 || cacheMaxBytes < 0) {
+            throw new IllegalArgumentException("Invalid text-to-speech synthesis settings");
+        }
         this.outDir = outDir;
+        this.segmentMaxChars = segmentMaxChars;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.synthesisPermits = new Semaphore(maxParallel);
     }
 
     /**
@@ -167,10 +229,8 @@ public class TextToSpeechTool implements Tool {
                 text = "Silent audio";
             }
 
-            // Ensure output directory exists (thread-safe)
-            synchronized (TextToSpeechTool.class) {
-                Files.createDirectories(outDir);
-            }
+            // Creating existing directories concurrently is safe
+            Files.createDirectories(outDir);
 
             // Detect available TTS engine
             TTSEngine engine = detectAvailableTTSEngine();
@@ -181,31 +241,34 @@ public class TextToSpeechTool implements Tool {
             String filename = String.format("tts_%s_%d_%d.wav", engine.name().toLowerCase(), timestamp, counter);
             Path outFile = outDir.resolve(filename);
 
-            // Generate audio using detected engine
-            boolean success = false;
-            switch (engine) {
-                case ESPEAK_NG:
-                case ESPEAK:
-                    success = generateTTSWithESpeak(text, outFile, engine);
-                    break;
-                case FESTIVAL:
-                    success = generateTTSWithFestival(text, outFile);
-                    break;
-                case WINDOWS_SAPI:
-                    success = generateTTSWithWindowsSAPI(text, outFile);
-                    break;
-                case SYNTHETIC:
-                default:
-                    success = generateSyntheticAudio(text, outFile);
-                    break;
+            List<String> segments = splitIntoSegments(text, segmentMaxChars);
+            List<Segment> parts = synthesizeSegments(segments, engine);
+            if (parts == null) {
+                return new ExecutionResult(false, "Failed to generate audio with " + engine.name(), null);
             }
+            try {
+                if (parts.size() == 1) {
+                    Files.copy(parts.get(0).file(), outFile, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    WavFiles.concatenate(parts.stream().map(Segment::file).toList(), outFile);
+                }
+            } finally {
+                for (Segment part : parts) {
+                    if (!part.keep()) {
+                        Files.deleteIfExists(part.file());
+                    }
+                }
+            }
+            pruneCache();
 
-            if (success && Files.exists(outFile)) {
+            if (Files.exists(outFile)) {
                 String engineInfo = (engine == TTSEngine.SYNTHETIC) ?
                     " (⚠️ Using synthetic fallback - install eSpeak-NG for real TTS)" :
                     String.format(" (✅ Generated using %s TTS)", engine.name().toLowerCase().replace("_", " "));
 
-                return new ExecutionResult(true, outFile.toAbsolutePath().toString() + engineInfo, null);
+                long cachedSegments = parts.stream().filter(Segment::fromCache).count();
+                return new ExecutionResult(true, outFile.toAbsolutePath().toString() + engineInfo,
+                    Map.of("engine", engine.name(), "segments", parts.size(), "cachedSegments", cachedSegments));
             } else {
                 return new ExecutionResult(false, "Failed to generate audio with " + engine.name(), null);
             }
@@ -215,6 +278,192 @@ public class TextToSpeechTool implements Tool {
         }
     }
 
+    /**
+     * A synthesized segment: its audio file, whether it came from the cache, and
+     * whether the file is kept after the output is written.
+     */
+    private record Segment(Path file, boolean fromCache, boolean keep) {
+    }
+
+    /**
+     * Splits text at sentence ends and line breaks, then packs consecutive
+     * sentences into segments of at most the given length. Sentences longer than
+     * a segment are split at word boundaries.
+     *
+     * @param text the text to split
+     * @param maxChars the maximum segment length
+     * @return the segments in order
+     */
+    static List<String> splitIntoSegments(String text, int maxChars) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String sentence : text.split("(?<=[.!?;:])\\s+|\\s*\\R+\\s*")) {
+            sentence = sentence.strip();
+            while (sentence.length() > maxChars) {
+                int cut = sentence.lastIndexOf(' ', maxChars);
+                if (cut <= 0) {
+                    cut = maxChars;
+                }
+                flushSegment(current, segments);
+                segments.add(sentence.substring(0, cut).strip());
+                sentence = sentence.substring(cut).strip();
+            }
+            if (sentence.isEmpty()) {
+                continue;
+            }
+            if (!current.isEmpty() && current.length() + 1 + sentence.length() > maxChars) {
+                flushSegment(current, segments);
+            }
+            if (!current.isEmpty()) {
+                current.append(' ');
+            }
+            current.append(sentence);
+        }
+        flushSegment(current, segments);
+        if (segments.isEmpty()) {
+            segments.add(text);
+        }
+        return segments;
+    }
+
+    private static void flushSegment(StringBuilder current, List<String> segments) {
+        if (!current.isEmpty()) {
+            segments.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    /**
+     * Synthesizes segments in parallel on virtual threads, bounded by the synthesis
+     * permits; repeated segments are synthesized once.
+     *
+     * @return the segment audio in order, or null if a segment could not be synthesized
+     */
+    private List<Segment> synthesizeSegments(List<String> segments, TTSEngine engine)
+            throws IOException, InterruptedException {
+        Path workDir = Files.createDirectories(outDir.resolve(CACHE_DIRECTORY));
+        CancellationToken token = CancellationToken.current();
+        Map<String, Future<Segment>> bySegment = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("tts-segment-", 0).factory())) {
+            for (String segment : segments) {
+                bySegment.computeIfAbsent(segment, text -> executor.submit(() -> {
+                    try (CancellationToken.Scope ignored = token.bind()) {
+                        return synthesizeSegment(text, engine, workDir);
+                    }
+                }));
+            }
+            List<Segment> parts = new ArrayList<>(segments.size());
+            for (String segment : segments) {
+                Segment part = bySegment.get(segment).get();
+                if (part == null) {
+                    executor.shutdownNow();
+                    return null;
+                }
+                parts.add(part);
+            }
+            return parts;
+        } catch (ExecutionException e) {
+            throw new IOException("Segment synthesis failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Returns the cached audio of a segment, or synthesizes it.
+     *
+     * @return the segment audio, or null if synthesis failed
+     */
+    private Segment synthesizeSegment(String text, TTSEngine engine, Path workDir)
+            throws IOException, InterruptedException {
+        Path cached = workDir.resolve(cacheKey(engine, text) + ".wav");
+        if (cacheMaxBytes > 0 && Files.isRegularFile(cached)) {
+            try {
+                // Mark as recently used for cache pruning
+                Files.setLastModifiedTime(cached, FileTime.from(Instant.now()));
+                return new Segment(cached, true, true);
+            } catch (IOException e) {
+                logger.debug("Cached segment {} disappeared: {}", cached.getFileName(), e.getMessage());
+            }
+        }
+
+        synthesisPermits.acquire();
+        try {
+            CancellationToken.current().throwIfCancelled();
+            Path segmentFile = Files.createTempFile(workDir, "segment-", ".wav");
+            boolean success = switch (engine) {
+                case ESPEAK_NG, ESPEAK -> generateTTSWithESpeak(text, segmentFile, engine);
+                case FESTIVAL -> generateTTSWithFestival(text, segmentFile);
+                case WINDOWS_SAPI -> generateTTSWithWindowsSAPI(text, segmentFile);
+                case SYNTHETIC -> generateSyntheticAudio(text, segmentFile);
+            };
+            if (!success) {
+                Files.deleteIfExists(segmentFile);
+                return null;
+            }
+            if (cacheMaxBytes > 0) {
+                Files.move(segmentFile, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return new Segment(cached, false, true);
+            }
+            return new Segment(segmentFile, false, false);
+        } finally {
+            synthesisPermits.release();
+        }
+    }
+
+    private static String cacheKey(TTSEngine engine, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(engine.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Deletes the least recently used cached segments while the cache exceeds its size limit.
+     */
+    private void pruneCache() {
+        if (cacheMaxBytes == 0) {
+            return;
+        }
+        record CachedFile(Path path, long size, long lastModified) {
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(outDir.resolve(CACHE_DIRECTORY))) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().startsWith("segment-")) {
+                    continue; // Still being synthesized
+                }
+                try {
+                    files.add(new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                } catch (IOException e) {
+                    // Deleted concurrently
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not list TTS cache: {}", e.getMessage());
+            return;
+        }
+        long total = files.stream().mapToLong(CachedFile::size).sum();
+        if (total <= cacheMaxBytes) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        for (CachedFile file : files) {
+            if (total <= cacheMaxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file.path());
+                total -= file.size();
+            } catch (IOException e) {
+                logger.debug("Could not prune cached segment {}: {}", file.path().getFileName(), e.getMessage());
+            }
+        }
+    }
+
     /**
      * Detects the best available TTS engine on the system.
      *
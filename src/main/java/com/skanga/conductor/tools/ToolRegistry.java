@@ -1,6 +1,8 @@
 package com.skanga.conductor.tools;
 
 import com.skanga.conductor.agent.ConversationalAgent;
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.ToolConfig;
 import com.skanga.conductor.utils.ValidationUtils;
 
 import java.util.Map;
@@ -22,6 +24,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * when the application starts.
  * </p>
  * <p>
+ * Tools named in {@code conductor.tools.cache.tools} are registered wrapped in a
+ * {@link CachingTool}, so repeated calls with the same arguments reuse earlier
+ * results within the configured TTL. Cache TTL and size can be set per tool.
+ * </p>
+ * <p>
  * Thread Safety: This class is fully thread-safe for concurrent access.
  * </p>
  *
@@ -31,12 +38,30 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ToolRegistry {
     private final Map<String, Tool> tools = new ConcurrentHashMap<>();
+    private final ToolConfig cacheConfig;
+
+    /**
+     * Creates a registry caching tool results as configured in the application configuration.
+     */
+    public ToolRegistry() {
+        this(ApplicationConfig.getInstance().getToolConfig());
+    }
+
+    /**
+     * Creates a registry caching tool results as configured.
+     *
+     * @param cacheConfig the tool configuration selecting the cached tools, or null to cache no results
+     */
+    public ToolRegistry(ToolConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+    }
 
     /**
      * Registers a tool in the registry.
      * <p>
      * The tool is stored using its {@link Tool#toolName()} as the key.
      * If a tool with the same name already exists, it will be replaced.
+     * Tools configured for result caching are wrapped in a {@link CachingTool}.
      * </p>
      *
      * @param tool the tool to register, must not be null
@@ -46,9 +71,29 @@ public class ToolRegistry {
         ValidationUtils.requireNonNull(tool, "tool");
         String toolName = tool.toolName();
         ValidationUtils.requireNonBlank(toolName, "tool name");
+        if (cacheConfig != null && !(tool instanceof CachingTool)
+                && cacheConfig.getResultCacheTools().contains(toolName)) {
+            tool = new CachingTool(tool, cacheConfig.getResultCacheTtl(toolName),
+                cacheConfig.getResultCacheMaxEntries(toolName));
+        }
         tools.put(toolName, tool);
     }
 
+    /**
+     * Drops the cached results of a tool.
+     *
+     * @param name the name of the tool
+     * @return true if the tool's results are cached, false if it is not registered or not cached
+     * @throws IllegalArgumentException if name is null or blank
+     */
+    public boolean invalidateCache(String name) {
+        if (get(name) instanceof CachingTool cachingTool) {
+            cachingTool.invalidateAll();
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Retrieves a tool by its unique name.
      *
@@ -0,0 +1,143 @@
+package com.skanga.conductor.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Reads PCM WAV headers and concatenates WAV files without decoding them.
+ *
+ * @since 2.0.0
+ */
+final class WavFiles {
+
+    static final int HEADER_SIZE = 44;
+
+    private WavFiles() {
+    }
+
+    /**
+     * Format and data location of a PCM WAV file.
+     *
+     * @param sampleRate the sample rate in Hz
+     * @param channels the number of channels
+     * @param bitsPerSample the bits per sample
+     * @param dataOffset the offset of the sample data
+     * @param dataLength the length of the sample data in bytes
+     */
+    record WavFormat(int sampleRate, int channels, int bitsPerSample, long dataOffset, long dataLength) {
+
+        boolean sameEncoding(WavFormat other) {
+            return sampleRate == other.sampleRate && channels == other.channels
+                && bitsPerSample == other.bitsPerSample;
+        }
+    }
+
+    /**
+     * Reads the format of a WAV file, walking its chunks to the sample data.
+     * <p>
+     * A data length larger than the file, as written by engines streaming to a
+     * pipe, is replaced by the bytes actually present.
+     * </p>
+     */
+    static WavFormat readFormat(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != 0x46464952 || header.getInt(8) != 0x45564157) { // "RIFF", "WAVE"
+                throw new IOException("Not a WAV file: " + file.getFileName());
+            }
+            int sampleRate = 0;
+            int channels = 0;
+            int bitsPerSample = 0;
+            long position = 12;
+            ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            while (position + 8 <= channel.size()) {
+                chunk.clear();
+                readFully(channel, chunk, position);
+                int id = chunk.getInt(0);
+                long size = Integer.toUnsignedLong(chunk.getInt(4));
+                if (id == 0x20746d66) { // "fmt "
+                    ByteBuffer fmt = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+                    readFully(channel, fmt, position + 8);
+                    if (fmt.getShort(0) != 1) {
+                        throw new IOException("Not PCM audio: " + file.getFileName());
+                    }
+                    channels = fmt.getShort(2);
+                    sampleRate = fmt.getInt(4);
+                    bitsPerSample = fmt.getShort(14);
+                } else if (id == 0x61746164) { // "data"
+                    if (sampleRate == 0) {
+                        throw new IOException("WAV data before format: " + file.getFileName());
+                    }
+                    long available = channel.size() - position - 8;
+                    return new WavFormat(sampleRate, channels, bitsPerSample, position + 8, Math.min(size, available));
+                }
+                position += 8 + size + (size & 1);
+            }
+            throw new IOException("WAV file has no data: " + file.getFileName());
+        }
+    }
+
+    /**
+     * Writes the sample data of WAV files of the same encoding to one WAV file,
+     * copying the data channel to channel.
+     *
+     * @return the format of the written file
+     */
+    static WavFormat concatenate(List<Path> parts, Path target) throws IOException {
+        WavFormat first = readFormat(parts.get(0));
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.position(HEADER_SIZE);
+            long dataLength = 0;
+            for (Path part : parts) {
+                WavFormat format = readFormat(part);
+                if (!format.sameEncoding(first)) {
+                    throw new IOException("Audio segments have different formats");
+                }
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long copied = 0;
+                    while (copied < format.dataLength()) {
+                        copied += in.transferTo(format.dataOffset() + copied, format.dataLength() - copied, out);
+                    }
+                }
+                dataLength += format.dataLength();
+            }
+            if (dataLength > 0xFFFFFFFFL - 36) {
+                throw new IOException("Audio too long for a WAV file");
+            }
+            ByteBuffer header = header(first.sampleRate(), first.channels(), first.bitsPerSample(), dataLength);
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+            return new WavFormat(first.sampleRate(), first.channels(), first.bitsPerSample(), HEADER_SIZE, dataLength);
+        }
+    }
+
+    /**
+     * Builds a canonical 44-byte PCM WAV header.
+     */
+    static ByteBuffer header(int sampleRate, int channels, int bitsPerSample, long dataLength) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0x46464952).putInt((int) (36 + dataLength)).putInt(0x45564157);
+        header.putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) channels)
+            .putInt(sampleRate).putInt(sampleRate * blockAlign).putShort((short) blockAlign)
+            .putShort((short) bitsPerSample);
+        header.putInt(0x61746164).putInt((int) dataLength);
+        return header.flip();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated WAV file");
+            }
+        }
+    }
+}
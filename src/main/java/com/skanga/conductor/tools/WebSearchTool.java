@@ -1,9 +1,14 @@
 package com.skanga.conductor.tools;
 
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.ToolConfig;
+import com.skanga.conductor.execution.CancellationToken;
 import com.skanga.conductor.execution.ExecutionInput;
 import com.skanga.conductor.execution.ExecutionResult;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -12,6 +17,13 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,11 +33,17 @@ import java.util.regex.Pattern;
  * This tool attempts real web searches using the following approach:
  * </p>
  * <ol>
- * <li>Try DuckDuckGo Instant Answer API (free, no keys needed)</li>
- * <li>Fallback to DuckDuckGo HTML scraping</li>
- * <li>Final fallback to mock results if all else fails</li>
+ * <li>Query the DuckDuckGo Instant Answer API (free, no keys needed) and
+ * DuckDuckGo HTML search concurrently; the first useful result wins and the
+ * other request is cancelled</li>
+ * <li>Fall back to mock results if no backend returns results in time</li>
  * </ol>
  * <p>
+ * Each backend has its own timeout, and requests share one HTTP/2 client so
+ * connections are reused across searches. Backends are pluggable through
+ * {@link SearchBackend}, so a local stub server can stand in for DuckDuckGo.
+ * </p>
+ * <p>
  * The tool is designed to be resilient and will always return some result,
  * even if real web search fails.
  * </p>
@@ -38,16 +56,24 @@ import java.util.regex.Pattern;
  * @see ExecutionInput
  * @see ExecutionResult
  */
-public class WebSearchTool implements Tool {
+public class WebSearchTool implements CacheableTool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSearchTool.class);
+
+    /** Metadata of results falling back to mock results because the real search failed. */
+    private static final Map<String, Object> FALLBACK_METADATA = Map.of("fallback", true);
 
     private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
             .connectTimeout(Duration.ofSeconds(10))
             .build();
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private static final String DUCKDUCKGO_API = "https://api.duckduckgo.com/";
-    private static final String DUCKDUCKGO_SEARCH = "https://html.duckduckgo.com/html/";
+    /** DuckDuckGo Instant Answer API endpoint. */
+    public static final URI DUCKDUCKGO_API = URI.create("https://api.duckduckgo.com/");
+    /** DuckDuckGo HTML search endpoint. */
+    public static final URI DUCKDUCKGO_SEARCH = URI.create("https://html.duckduckgo.com/html/");
 
     private static final Pattern RESULT_PATTERN = Pattern.compile(
         "<h2 class=\"result__title\">.*?<a.*?href=\"([^\"]*?)\".*?>(.*?)</a>.*?</h2>.*?" +
@@ -55,6 +81,108 @@ public class WebSearchTool implements Tool {
         Pattern.DOTALL
     );
 
+    private final List<SearchBackend> backends;
+
+    /**
+     * Creates a WebSearchTool querying DuckDuckGo with the timeouts from ApplicationConfig.
+     */
+    public WebSearchTool() {
+        this(defaultBackends(ApplicationConfig.getInstance().getToolConfig()));
+    }
+
+    /**
+     * Creates a WebSearchTool querying the given backends concurrently.
+     *
+     * @param backends the search backends
+     * @throws IllegalArgumentException if no backend is given
+     */
+    public WebSearchTool(List<SearchBackend> backends) {
+        if (backends == null || backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one search backend is required");
+        }
+        this.backends = List.copyOf(backends);
+    }
+
+    private static List<SearchBackend> defaultBackends(ToolConfig config) {
+        return List.of(
+            instantAnswerBackend(DUCKDUCKGO_API, config.getWebSearchInstantTimeout()),
+            htmlSearchBackend(DUCKDUCKGO_SEARCH, config.getWebSearchHtmlTimeout()));
+    }
+
+    /**
+     * Creates a backend for the DuckDuckGo Instant Answer API or a compatible service.
+     *
+     * @param endpoint the API endpoint
+     * @param timeout the backend timeout
+     * @return the backend
+     */
+    public static SearchBackend instantAnswerBackend(URI endpoint, Duration timeout) {
+        return new SearchBackend() {
+            @Override
+            public String name() {
+                return "instant_answer";
+            }
+
+            @Override
+            public HttpRequest buildRequest(String query) {
+                String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+                return HttpRequest.newBuilder()
+                        .uri(URI.create(endpoint + "?q=" + encodedQuery + "&format=json&no_html=1&skip_disambig=1"))
+                        .header("User-Agent", "Conductor-WebSearch/1.0")
+                        .timeout(timeout)
+                        .GET()
+                        .build();
+            }
+
+            @Override
+            public String parseResults(String body, String query) throws Exception {
+                return formatDuckDuckGoInstantResults(OBJECT_MAPPER.readTree(body), query);
+            }
+
+            @Override
+            public Duration timeout() {
+                return timeout;
+            }
+        };
+    }
+
+    /**
+     * Creates a backend scraping DuckDuckGo HTML search results or a compatible page.
+     *
+     * @param endpoint the search page endpoint
+     * @param timeout the backend timeout
+     * @return the backend
+     */
+    public static SearchBackend htmlSearchBackend(URI endpoint, Duration timeout) {
+        return new SearchBackend() {
+            @Override
+            public String name() {
+                return "html_search";
+            }
+
+            @Override
+            public HttpRequest buildRequest(String query) {
+                String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+                return HttpRequest.newBuilder()
+                        .uri(URI.create(endpoint + "?q=" + encodedQuery))
+                        .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                        .timeout(timeout)
+                        .GET()
+                        .build();
+            }
+
+            @Override
+            public String parseResults(String body, String query) {
+                return parseDuckDuckGoHTML(body, query);
+            }
+
+            @Override
+            public Duration timeout() {
+                return timeout;
+            }
+        };
+    }
+
     /**
      * Returns the name identifier for this tool.
      *
@@ -97,88 +225,99 @@ public class WebSearchTool implements Tool {
 
         String query = toolInput.content().trim();
 
-        // Try multiple search strategies with fallbacks
         try {
-            // Strategy 1: DuckDuckGo Instant Answer API
-            String instantResults = tryDuckDuckGoInstantAPI(query);
-            if (instantResults != null && !instantResults.trim().isEmpty()) {
-                return new ExecutionResult(true, instantResults, null);
+            SearchHit hit = searchAll(query);
+            if (hit != null) {
+                return new ExecutionResult(true, hit.results(), Map.of("backend", hit.backend()));
             }
-
-            // Strategy 2: DuckDuckGo HTML scraping
-            String htmlResults = tryDuckDuckGoHTMLScraping(query);
-            if (htmlResults != null && !htmlResults.trim().isEmpty()) {
-                return new ExecutionResult(true, htmlResults, null);
-            }
-
-            // Strategy 3: Final fallback to mock results
-            return new ExecutionResult(true, createMockResults(query), null);
+            // Final fallback to mock results
+            return new ExecutionResult(true, createMockResults(query), FALLBACK_METADATA);
 
         } catch (Exception e) {
             // If all strategies fail, return mock results with warning
             String mockResults = createMockResults(query);
             String resultWithWarning = "⚠️ Real web search failed, showing mock results:\n\n" + mockResults;
-            return new ExecutionResult(true, resultWithWarning, null);
+            return new ExecutionResult(true, resultWithWarning, FALLBACK_METADATA);
         }
     }
 
+    private record SearchHit(String backend, String results) {
+    }
+
     /**
-     * Attempts to get instant answers from DuckDuckGo API.
+     * Queries all backends concurrently and returns the first useful result,
+     * cancelling the requests still running.
      *
-     * @param query the search query
-     * @return formatted results or null if no results
+     * @return the first result, or null if no backend returned results in time
      */
-    private String tryDuckDuckGoInstantAPI(String query) {
-        try {
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = DUCKDUCKGO_API + "?q=" + encodedQuery + "&format=json&no_html=1&skip_disambig=1";
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", "Conductor-WebSearch/1.0")
-                    .timeout(Duration.ofSeconds(10))
-                    .GET()
-                    .build();
+    private SearchHit searchAll(String query) {
+        CompletableFuture<SearchHit> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(backends.size());
+        List<CompletableFuture<HttpResponse<String>>> requests = new ArrayList<>(backends.size());
+        for (SearchBackend backend : backends) {
+            CompletableFuture<HttpResponse<String>> request;
+            try {
+                request = HTTP_CLIENT.sendAsync(backend.buildRequest(query), HttpResponse.BodyHandlers.ofString());
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            requests.add(request);
+            request.orTimeout(backend.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(response -> parse(backend, response, query))
+                .whenComplete((results, e) -> {
+                    if (e != null) {
+                        logger.debug("Search backend {} failed: {}", backend.name(), e.getMessage());
+                    }
+                    if (results != null) {
+                        first.complete(new SearchHit(backend.name(), results));
+                    } else if (pending.decrementAndGet() == 0) {
+                        first.complete(null);
+                    }
+                });
+        }
 
-            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        try (CancellationToken.Scope ignored = CancellationToken.current().onCancel(() -> first.complete(null))) {
+            return first.join();
+        } finally {
+            // Abort the requests that lost or timed out
+            requests.forEach(request -> request.cancel(true));
+        }
+    }
 
-            if (response.statusCode() == 200) {
-                JsonNode json = OBJECT_MAPPER.readTree(response.body());
-                return formatDuckDuckGoInstantResults(json, query);
-            }
+    private static String parse(SearchBackend backend, HttpResponse<String> response, String query) {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            String results = backend.parseResults(response.body(), query);
+            return results != null && !results.trim().isEmpty() ? results : null;
         } catch (Exception e) {
-            // Silently fail and try next strategy
+            logger.debug("Search backend {} returned an unreadable response: {}", backend.name(), e.getMessage());
+            return null;
         }
-        return null;
     }
 
     /**
-     * Attempts to scrape search results from DuckDuckGo HTML.
+     * Normalizes a query for caching: case and runs of whitespace do not change search results.
      *
-     * @param query the search query
-     * @return formatted results or null if scraping fails
+     * @param arguments the search query
+     * @return the normalized query
      */
-    private String tryDuckDuckGoHTMLScraping(String query) {
-        try {
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = DUCKDUCKGO_SEARCH + "?q=" + encodedQuery;
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                    .timeout(Duration.ofSeconds(15))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    @Override
+    public String normalizeArguments(String arguments) {
+        return arguments.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 
-            if (response.statusCode() == 200) {
-                return parseDuckDuckGoHTML(response.body(), query);
-            }
-        } catch (Exception e) {
-            // Silently fail and try next strategy
-        }
-        return null;
+    /**
+     * Keeps mock fallback results out of the cache, so a later call retries the real search.
+     *
+     * @param result the search result
+     * @return true for successful real search results
+     */
+    @Override
+    public boolean isCacheable(ExecutionResult result) {
+        return result != null && result.success()
+            && !(result.metadata() instanceof Map<?, ?> metadata && Boolean.TRUE.equals(metadata.get("fallback")));
     }
 
     /**
@@ -188,7 +327,7 @@ public class WebSearchTool implements Tool {
      * @param query the original query
      * @return formatted search results
      */
-    private String formatDuckDuckGoInstantResults(JsonNode json, String query) {
+    private static String formatDuckDuckGoInstantResults(JsonNode json, String query) {
         StringBuilder results = new StringBuilder();
         results.append("🔍 Search results for: ").append(query).append("\n\n");
 
@@ -247,7 +386,7 @@ public class WebSearchTool implements Tool {
      * @param query the original query
      * @return formatted search results
      */
-    private String parseDuckDuckGoHTML(String html, String query) {
+    private static String parseDuckDuckGoHTML(String html, String query) {
         StringBuilder results = new StringBuilder();
         results.append("🔍 Web search results for: ").append(query).append("\n\n");
 
@@ -274,7 +413,7 @@ public class WebSearchTool implements Tool {
      * @param html the HTML text to clean
      * @return clean text
      */
-    private String cleanHtml(String html) {
+    private static String cleanHtml(String html) {
         if (html == null) return "";
         return html.replaceAll("<[^>]*>", "")
                    .replaceAll("&amp;", "&")
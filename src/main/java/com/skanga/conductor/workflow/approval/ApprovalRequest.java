@@ -15,12 +15,20 @@ public class ApprovalRequest {
 
     public ApprovalRequest(String workflowName, String stageName, String stageDescription,
                           String generatedContent, String reviewContent) {
+        this(workflowName, stageName, stageDescription, generatedContent, reviewContent, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a request made at the given time, such as one restored from an {@link ApprovalStore}.
+     */
+    public ApprovalRequest(String workflowName, String stageName, String stageDescription,
+                          String generatedContent, String reviewContent, long requestTime) {
         this.workflowName = workflowName;
         this.stageName = stageName;
         this.stageDescription = stageDescription;
         this.generatedContent = generatedContent;
         this.reviewContent = reviewContent;
-        this.requestTime = System.currentTimeMillis();
+        this.requestTime = requestTime;
     }
 
     public String getWorkflowName() {
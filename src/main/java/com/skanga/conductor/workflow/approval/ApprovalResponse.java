@@ -17,9 +17,16 @@ public class ApprovalResponse {
     private final long responseTime;
 
     public ApprovalResponse(Decision decision, String feedback) {
+        this(decision, feedback, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a response given at the given time, such as one restored from an {@link ApprovalStore}.
+     */
+    public ApprovalResponse(Decision decision, String feedback, long responseTime) {
         this.decision = decision;
         this.feedback = feedback;
-        this.responseTime = System.currentTimeMillis();
+        this.responseTime = responseTime;
     }
 
     public static ApprovalResponse approve() {
@@ -0,0 +1,242 @@
+package com.skanga.conductor.workflow.approval;
+
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Durable store of the approval requests of suspended workflow runs.
+ * <p>
+ * With deferred approval, a stage requiring approval does not hold its workflow
+ * thread while a human reviews it. The engine checkpoints the stage, records its
+ * request here and suspends the run, releasing its threads and its execution slot,
+ * so any number of runs can wait for reviewers at once. A response is submitted
+ * with {@link #respond}, from any thread or any node sharing the memory store, and
+ * the run resumes when it is executed again with the same run ID: approved stages
+ * continue and rejected ones fail the run.
+ * </p>
+ * <p>
+ * Response listeners registered on a store are called when a response is submitted
+ * through that store, which lets applications resume runs as soon as a reviewer
+ * answers. Runs can also be resumed by polling {@link #getResponse}.
+ * </p>
+ * <p>
+ * Thread Safety: This class is thread-safe; all requests live in the memory store.
+ * </p>
+ *
+ * @since 2.0.0
+ * @see MemoryStore#savePendingApproval(String, String, String)
+ */
+public class ApprovalStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalStore.class);
+
+    private final MemoryStore memoryStore;
+    private final List<ResponseListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives responses submitted to the store.
+     */
+    @FunctionalInterface
+    public interface ResponseListener {
+        /**
+         * Called after a response to a pending approval has been recorded.
+         *
+         * @param approval the answered approval, identifying the run to resume
+         * @param response the response
+         */
+        void onResponse(PendingApproval approval, ApprovalResponse response);
+    }
+
+    /**
+     * Serializable snapshot of an {@link ApprovalRequest}.
+     */
+    static class RequestSnapshot {
+        public String workflowName;
+        public String stageName;
+        public String stageDescription;
+        public String generatedContent;
+        public String reviewContent;
+        public long requestTime;
+
+        static RequestSnapshot of(ApprovalRequest request) {
+            RequestSnapshot snapshot = new RequestSnapshot();
+            snapshot.workflowName = request.getWorkflowName();
+            snapshot.stageName = request.getStageName();
+            snapshot.stageDescription = request.getStageDescription();
+            snapshot.generatedContent = request.getGeneratedContent();
+            snapshot.reviewContent = request.getReviewContent();
+            snapshot.requestTime = request.getRequestTime();
+            return snapshot;
+        }
+
+        ApprovalRequest toRequest() {
+            return new ApprovalRequest(workflowName, stageName, stageDescription,
+                generatedContent, reviewContent, requestTime);
+        }
+    }
+
+    /**
+     * Serializable snapshot of an {@link ApprovalResponse}.
+     */
+    static class ResponseSnapshot {
+        public ApprovalResponse.Decision decision;
+        public String feedback;
+        public long responseTime;
+
+        static ResponseSnapshot of(ApprovalResponse response) {
+            ResponseSnapshot snapshot = new ResponseSnapshot();
+            snapshot.decision = response.getDecision();
+            snapshot.feedback = response.getFeedback();
+            snapshot.responseTime = response.getResponseTime();
+            return snapshot;
+        }
+
+        ApprovalResponse toResponse() {
+            return new ApprovalResponse(decision, feedback, responseTime);
+        }
+    }
+
+    /**
+     * Creates an approval store backed by the given memory store.
+     *
+     * @param memoryStore the memory store used to persist approval requests
+     */
+    public ApprovalStore(MemoryStore memoryStore) {
+        if (memoryStore == null) {
+            throw new IllegalArgumentException("memory store cannot be null");
+        }
+        this.memoryStore = memoryStore;
+    }
+
+    /**
+     * Records an approval request of a suspended run.
+     *
+     * @param runId the ID of the suspended run
+     * @param request the approval request
+     * @return true if the request was recorded, false if the stage already had one
+     */
+    public boolean submit(String runId, ApprovalRequest request) {
+        if (runId == null || request == null) {
+            throw new IllegalArgumentException("run ID and request cannot be null");
+        }
+        boolean recorded = memoryStore.savePendingApproval(runId, request.getStageName(),
+            JsonUtils.toJson(RequestSnapshot.of(request)));
+        if (recorded) {
+            logger.info("Stage '{}' of run '{}' is awaiting approval", request.getStageName(), runId);
+        }
+        return recorded;
+    }
+
+    /**
+     * Lists the approval requests still waiting for a response, oldest first.
+     *
+     * @return the pending approvals
+     */
+    public List<PendingApproval> listPending() {
+        List<PendingApproval> pending = new ArrayList<>();
+        for (MemoryStore.ApprovalRecord record : memoryStore.loadPendingApprovals()) {
+            pending.add(toPendingApproval(record));
+        }
+        return pending;
+    }
+
+    /**
+     * Gets the approval request of a stage, whether answered or not.
+     *
+     * @param runId the ID of the run
+     * @param stageName the name of the stage
+     * @return the request, or empty if the stage has none
+     */
+    public Optional<PendingApproval> getRequest(String runId, String stageName) {
+        return memoryStore.loadApproval(runId, stageName).map(this::toPendingApproval);
+    }
+
+    /**
+     * Gets the response to the approval request of a stage.
+     *
+     * @param runId the ID of the run
+     * @param stageName the name of the stage
+     * @return the response, or empty if the request is unanswered or does not exist
+     */
+    public Optional<ApprovalResponse> getResponse(String runId, String stageName) {
+        return memoryStore.loadApproval(runId, stageName)
+            .filter(record -> record.responseJson() != null)
+            .map(record -> JsonUtils.fromJson(record.responseJson(), ResponseSnapshot.class).toResponse());
+    }
+
+    /**
+     * Answers a pending approval request and notifies the response listeners.
+     *
+     * @param runId the ID of the suspended run
+     * @param stageName the name of the stage awaiting approval
+     * @param response the response
+     * @return true if a pending request was answered, false if there was none or it
+     *         was already answered
+     */
+    public boolean respond(String runId, String stageName, ApprovalResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("response cannot be null");
+        }
+        if (!memoryStore.saveApprovalResponse(runId, stageName, JsonUtils.toJson(ResponseSnapshot.of(response)))) {
+            return false;
+        }
+        logger.info("Stage '{}' of run '{}' answered: {}", stageName, runId, response.getDecision());
+
+        Optional<PendingApproval> approval = getRequest(runId, stageName);
+        if (approval.isPresent()) {
+            for (ResponseListener listener : listeners) {
+                try {
+                    listener.onResponse(approval.get(), response);
+                } catch (RuntimeException e) {
+                    logger.warn("Approval response listener failed for run '{}': {}", runId, e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the approval request of a stage, once its response has been applied.
+     *
+     * @param runId the ID of the run
+     * @param stageName the name of the stage
+     * @return true if a request was removed
+     */
+    public boolean remove(String runId, String stageName) {
+        return memoryStore.deleteApproval(runId, stageName);
+    }
+
+    /**
+     * Registers a listener called when a response is submitted through this store.
+     *
+     * @param listener the listener
+     */
+    public void addResponseListener(ResponseListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a response listener.
+     *
+     * @param listener the listener
+     * @return true if the listener was registered
+     */
+    public boolean removeResponseListener(ResponseListener listener) {
+        return listeners.remove(listener);
+    }
+
+    private PendingApproval toPendingApproval(MemoryStore.ApprovalRecord record) {
+        return new PendingApproval(record.runId(),
+            JsonUtils.fromJson(record.requestJson(), RequestSnapshot.class).toRequest());
+    }
+}
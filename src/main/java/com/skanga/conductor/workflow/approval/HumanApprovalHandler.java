@@ -22,6 +22,22 @@ public interface HumanApprovalHandler {
     ApprovalResponse requestApproval(ApprovalRequest request, long timeoutMs)
             throws ApprovalTimeoutException, ApprovalException;
 
+    /**
+     * Notifies the handler of a deferred approval request.
+     * <p>
+     * With deferred approval the workflow does not call {@link #requestApproval}:
+     * its run is checkpointed and suspended instead, and resumes once a response
+     * is submitted through {@link ApprovalStore#respond}. Handlers delivering
+     * requests asynchronously, such as by email, chat or a review queue, forward
+     * the request here. The default implementation does nothing, leaving the
+     * request to be picked up from {@link ApprovalStore#listPending()}.
+     * </p>
+     *
+     * @param approval the pending approval, identifying the suspended run
+     */
+    default void approvalDeferred(PendingApproval approval) {
+    }
+
     /**
      * Checks if this handler supports interactive approval.
      * Non-interactive handlers might auto-approve or always reject.
@@ -0,0 +1,17 @@
+package com.skanga.conductor.workflow.approval;
+
+/**
+ * An approval request a suspended workflow run is waiting on.
+ *
+ * @param runId the ID of the suspended run, used to resume it
+ * @param request the approval request
+ */
+public record PendingApproval(String runId, ApprovalRequest request) {
+
+    /**
+     * Gets the name of the stage awaiting approval.
+     */
+    public String stageName() {
+        return request.getStageName();
+    }
+}
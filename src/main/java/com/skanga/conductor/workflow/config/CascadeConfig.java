@@ -0,0 +1,106 @@
+package com.skanga.conductor.workflow.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Configuration for model cascade stage execution.
+ * Runs the stage's primary agent with the smallest, fastest model first and
+ * escalates to the next, larger model only when an attempt fails or its
+ * output is flagged by the confidence check.
+ */
+public class CascadeConfig {
+
+    /**
+     * Models the primary agent runs with, cheapest first. Each model replaces
+     * the model of the agent definition.
+     */
+    private List<String> models;
+
+    /**
+     * Whether outputs of models below the last one are checked for low
+     * confidence: hedging or declining openings and outputs shorter than
+     * {@link #minLength}.
+     */
+    @JsonProperty("confidence_check")
+    private Boolean confidenceCheck = true;
+
+    /**
+     * Minimum length in characters of an output trusted by the confidence check.
+     */
+    @JsonProperty("min_length")
+    private Integer minLength = 1;
+
+    /**
+     * Openings of outputs distrusted by the confidence check, replacing the
+     * default refusal and hedging phrases when set.
+     */
+    @JsonProperty("refusal_prefixes")
+    private List<String> refusalPrefixes;
+
+    // Default constructor for Jackson
+    public CascadeConfig() {}
+
+    public List<String> getModels() {
+        return models;
+    }
+
+    public void setModels(List<String> models) {
+        this.models = models;
+    }
+
+    public Boolean getConfidenceCheck() {
+        return confidenceCheck;
+    }
+
+    public void setConfidenceCheck(Boolean confidenceCheck) {
+        this.confidenceCheck = confidenceCheck;
+    }
+
+    public Integer getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(Integer minLength) {
+        this.minLength = minLength;
+    }
+
+    public List<String> getRefusalPrefixes() {
+        return refusalPrefixes;
+    }
+
+    public void setRefusalPrefixes(List<String> refusalPrefixes) {
+        this.refusalPrefixes = refusalPrefixes;
+    }
+
+    /**
+     * Checks if outputs below the last model are checked for low confidence.
+     */
+    public boolean isConfidenceCheckEnabled() {
+        return confidenceCheck == null || confidenceCheck;
+    }
+
+    /**
+     * Validates the cascade configuration.
+     */
+    public void validate() throws IllegalArgumentException {
+        if (models == null || models.size() < 2) {
+            throw new IllegalArgumentException("Cascade requires at least two models");
+        }
+
+        for (String model : models) {
+            if (model == null || model.trim().isEmpty()) {
+                throw new IllegalArgumentException("Cascade model names cannot be empty");
+            }
+        }
+
+        if (refusalPrefixes != null && refusalPrefixes.stream().anyMatch(p -> p == null || p.isBlank())) {
+            throw new IllegalArgumentException("Cascade refusal prefixes cannot be empty");
+        }
+
+        if (minLength != null && minLength < 0) {
+            throw new IllegalArgumentException("Cascade min length cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.skanga.conductor.workflow.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Configuration for map-reduce stage execution.
+ * Splits a large input into token-bounded chunks, processes the chunks in
+ * parallel with the stage's "map" agent and combines the partial results
+ * with its "reduce" agent.
+ */
+public class MapReduceConfig {
+
+    /** Source value combining the outputs of all completed stages, in workflow order. */
+    public static final String COMPLETED_STAGES_SOURCE = "completed_stages";
+
+    /**
+     * The input to split: the name of a completed stage, whose output is used,
+     * {@value #COMPLETED_STAGES_SOURCE}, or the name of a template variable.
+     */
+    private String source;
+
+    /**
+     * Name of the variable holding the current chunk in the map prompt.
+     */
+    private String variable = "chunk";
+
+    /**
+     * Maximum size of a chunk in estimated tokens.
+     */
+    @JsonProperty("chunk_tokens")
+    private Integer chunkTokens = 2000;
+
+    /**
+     * Number of estimated tokens repeated from the end of a chunk at the start
+     * of the next one, so content spanning a boundary is seen whole.
+     */
+    @JsonProperty("overlap_tokens")
+    private Integer overlapTokens = 0;
+
+    /**
+     * Maximum number of chunks processed concurrently.
+     */
+    @JsonProperty("max_concurrent")
+    private Integer maxConcurrent = 4;
+
+    /**
+     * Maximum number of partial results combined by one reduce call. Larger
+     * numbers of partial results are reduced in a tree, level by level.
+     */
+    @JsonProperty("fan_in")
+    private Integer fanIn = 8;
+
+    // Default constructor for Jackson
+    public MapReduceConfig() {}
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    public void setVariable(String variable) {
+        this.variable = variable;
+    }
+
+    public Integer getChunkTokens() {
+        return chunkTokens;
+    }
+
+    public void setChunkTokens(Integer chunkTokens) {
+        this.chunkTokens = chunkTokens;
+    }
+
+    public Integer getOverlapTokens() {
+        return overlapTokens;
+    }
+
+    public void setOverlapTokens(Integer overlapTokens) {
+        this.overlapTokens = overlapTokens;
+    }
+
+    public Integer getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(Integer maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public Integer getFanIn() {
+        return fanIn;
+    }
+
+    public void setFanIn(Integer fanIn) {
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * Validates the map-reduce configuration.
+     */
+    public void validate() throws IllegalArgumentException {
+        if (source == null || source.trim().isEmpty()) {
+            throw new IllegalArgumentException("Map-reduce requires a source");
+        }
+
+        if (variable == null || variable.trim().isEmpty()) {
+            throw new IllegalArgumentException("Map-reduce chunk variable name is required");
+        }
+
+        if (chunkTokens == null || chunkTokens < 1) {
+            throw new IllegalArgumentException("Chunk tokens must be positive");
+        }
+
+        if (overlapTokens != null && (overlapTokens < 0 || overlapTokens >= chunkTokens)) {
+            throw new IllegalArgumentException("Overlap tokens must be non-negative and smaller than chunk tokens");
+        }
+
+        if (maxConcurrent == null || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent must be positive");
+        }
+
+        if (fanIn == null || fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+    }
+}
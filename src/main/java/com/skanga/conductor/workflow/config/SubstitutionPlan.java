@@ -0,0 +1,162 @@
+package com.skanga.conductor.workflow.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A configuration string compiled into literal and variable segments.
+ * <p>
+ * Recognizes the same {@code ${VAR_NAME}} and {@code ${VAR_NAME:-default_value}}
+ * placeholders as {@link VariableSubstitution}, but parses each distinct source
+ * string once. Evaluating a plan only appends segments, so re-resolving configuration
+ * for every workflow run needs no regex matching, and strings without placeholders
+ * are returned as they are.
+ * </p>
+ * <p>
+ * Thread Safety: Plans are immutable and the plan cache is thread-safe.
+ * </p>
+ *
+ * @since 2.0.0
+ */
+public final class SubstitutionPlan {
+
+    /** Bound on cached plans; the cache is cleared when exceeded. */
+    private static final int MAX_CACHED_PLANS = 4096;
+    private static final Map<String, SubstitutionPlan> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the value of a placeholder.
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * Resolves a variable.
+         *
+         * @param name the variable name
+         * @param defaultValue the default value of the placeholder, or null if it has none
+         * @return the replacement text
+         */
+        String resolve(String name, String defaultValue);
+    }
+
+    /**
+     * A segment of a plan; variables have a non-null name, literals only text.
+     */
+    private record Segment(String text, String name, String defaultValue) {}
+
+    private final String source;
+    private final Segment[] segments;
+
+    private SubstitutionPlan(String source, Segment[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Gets the plan for a source string, compiling and caching it on first use.
+     *
+     * @param source the string to compile (must not be null)
+     * @return the compiled plan
+     */
+    public static SubstitutionPlan compile(String source) {
+        SubstitutionPlan plan = CACHE.get(source);
+        if (plan != null) {
+            return plan;
+        }
+        plan = parse(source);
+        if (CACHE.size() >= MAX_CACHED_PLANS) {
+            CACHE.clear();
+        }
+        CACHE.put(source, plan);
+        return plan;
+    }
+
+    /**
+     * Splits a string into segments. A placeholder is {@code ${}, a name of at least
+     * one character other than {@code }} and {@code :}, an optional {@code :-} followed
+     * by a default without {@code }}, and a closing {@code }}. Text that starts like a
+     * placeholder but does not complete one stays literal.
+     */
+    private static SubstitutionPlan parse(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int literalStart = 0;
+        int searchFrom = 0;
+        while (true) {
+            int start = source.indexOf("${", searchFrom);
+            if (start < 0) {
+                break;
+            }
+            int nameStart = start + 2;
+            int nameEnd = nameStart;
+            while (nameEnd < source.length() && source.charAt(nameEnd) != '}' && source.charAt(nameEnd) != ':') {
+                nameEnd++;
+            }
+            if (nameEnd == nameStart || nameEnd == source.length()) {
+                searchFrom = start + 1;
+                continue;
+            }
+
+            String defaultValue = null;
+            int end;
+            if (source.charAt(nameEnd) == '}') {
+                end = nameEnd;
+            } else if (source.startsWith(":-", nameEnd)) {
+                end = source.indexOf('}', nameEnd + 2);
+                if (end < 0) {
+                    searchFrom = start + 1;
+                    continue;
+                }
+                defaultValue = source.substring(nameEnd + 2, end);
+            } else {
+                searchFrom = start + 1;
+                continue;
+            }
+
+            if (start > literalStart) {
+                segments.add(new Segment(source.substring(literalStart, start), null, null));
+            }
+            segments.add(new Segment(null, source.substring(nameStart, nameEnd), defaultValue));
+            literalStart = end + 1;
+            searchFrom = end + 1;
+        }
+        if (segments.isEmpty()) {
+            return new SubstitutionPlan(source, new Segment[0]);
+        }
+        if (literalStart < source.length()) {
+            segments.add(new Segment(source.substring(literalStart), null, null));
+        }
+        return new SubstitutionPlan(source, segments.toArray(new Segment[0]));
+    }
+
+    /**
+     * Checks if the source string contains no placeholders.
+     *
+     * @return true if evaluating this plan always returns the source string
+     */
+    public boolean isConstant() {
+        return segments.length == 0;
+    }
+
+    /**
+     * Evaluates the plan, resolving each placeholder in order.
+     *
+     * @param resolver resolves the placeholders
+     * @return the substituted string; the source string itself if it has no placeholders
+     */
+    public String evaluate(Resolver resolver) {
+        if (segments.length == 0) {
+            return source;
+        }
+        StringBuilder result = new StringBuilder(source.length() + 16);
+        for (Segment segment : segments) {
+            if (segment.name() == null) {
+                result.append(segment.text());
+            } else {
+                result.append(resolver.resolve(segment.name(), segment.defaultValue()));
+            }
+        }
+        return result.toString();
+    }
+}
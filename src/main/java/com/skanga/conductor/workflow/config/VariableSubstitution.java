@@ -8,20 +8,19 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Handles variable substitution in configuration files.
  * Supports environment variables, system properties, built-in variables, and iteration contexts.
+ * <p>
+ * Strings are compiled once into {@link SubstitutionPlan}s, and object structures are
+ * only copied along paths that actually contain placeholders.
+ * </p>
  */
 public class VariableSubstitution {
 
     private static final Logger logger = LoggerFactory.getLogger(VariableSubstitution.class);
 
-    // Pattern to match ${VAR_NAME} or ${VAR_NAME:-default_value}
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{([^}:]+)(?::[-]([^}]*))?\\}");
-
     private final Map<String, String> builtInVariables;
     private Map<String, Object> runtimeContext;
 
@@ -159,31 +158,54 @@ public class VariableSubstitution {
         }
 
         Object data = context.getData();
-        Object substitutedData = substituteInObject(data);
-        return new WorkflowContext(substitutedData);
+        Object substitutedData = substituteInObject(data, runtimeContext);
+        return data == substitutedData ? context : new WorkflowContext(substitutedData);
     }
 
     /**
      * Recursively substitutes variables in an object structure.
+     * <p>
+     * Maps and lists without placeholders anywhere below them are returned as they
+     * are; only containers on the path to a changed value are copied.
+     * </p>
      */
-    private Object substituteInObject(Object obj) {
+    private Object substituteInObject(Object obj, Map<String, Object> context) {
         if (obj instanceof String) {
-            return substitute((String) obj);
+            return substitute((String) obj, context);
         } else if (obj instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) obj;
+            java.util.List<Object> values = new java.util.ArrayList<>(map.size());
+            boolean changed = false;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object value = substituteInObject(entry.getValue(), context);
+                values.add(value);
+                changed |= value != entry.getValue() || !(entry.getKey() instanceof String);
+            }
+            if (!changed) {
+                return obj;
+            }
             Map<String, Object> result = new HashMap<>();
+            int index = 0;
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = entry.getKey() instanceof String ? (String) entry.getKey() : String.valueOf(entry.getKey());
-                result.put(key, substituteInObject(entry.getValue()));
+                result.put(key, values.get(index++));
             }
             return result;
         } else if (obj instanceof java.util.List<?>) {
             java.util.List<?> list = (java.util.List<?>) obj;
-            java.util.List<Object> result = new java.util.ArrayList<>();
+            java.util.List<Object> result = null;
+            int index = 0;
             for (Object item : list) {
-                result.add(substituteInObject(item));
+                Object value = substituteInObject(item, context);
+                if (result == null && value != item) {
+                    result = new java.util.ArrayList<>(list.subList(0, index));
+                }
+                if (result != null) {
+                    result.add(value);
+                }
+                index++;
             }
-            return result;
+            return result != null ? result : obj;
         } else {
             return obj;
         }
@@ -194,30 +216,29 @@ public class VariableSubstitution {
      * Supports ${VAR_NAME} and ${VAR_NAME:-default_value} patterns.
      */
     public String substitute(String input) {
+        return substitute(input, runtimeContext);
+    }
+
+    private String substitute(String input, Map<String, Object> context) {
         if (input == null || input.isEmpty()) {
             return input;
         }
-
-        Matcher matcher = VARIABLE_PATTERN.matcher(input);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String variableName = matcher.group(1);
-            String defaultValue = matcher.group(2);
-
-            String value = resolveVariable(variableName, defaultValue);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        SubstitutionPlan plan = SubstitutionPlan.compile(input);
+        if (plan.isConstant()) {
+            return input;
         }
+        return plan.evaluate((name, defaultValue) -> resolveVariable(name, defaultValue, context));
+    }
 
-        matcher.appendTail(result);
-        return result.toString();
+    private String resolveVariable(String variableName, String defaultValue) {
+        return resolveVariable(variableName, defaultValue, runtimeContext);
     }
 
     /**
      * Resolves a variable value from various sources.
      * Priority: Runtime context > Built-in variables > System properties > Environment variables > Default value
      */
-    private String resolveVariable(String variableName, String defaultValue) {
+    private String resolveVariable(String variableName, String defaultValue, Map<String, Object> runtimeContext) {
         // Check runtime context first (for iteration variables, stage results, etc.)
         if (runtimeContext != null) {
             Object contextValue = resolveFromContext(variableName, runtimeContext);
@@ -383,15 +404,14 @@ public class VariableSubstitution {
      * Substitutes variables in a string using a specific runtime context without modifying this instance.
      */
     public String substituteWithContext(String input, Map<String, Object> context) {
-        VariableSubstitution tempSubstitution = withContext(context);
-        return tempSubstitution.substitute(input);
+        // Resolves against the given context directly rather than through a copy made by withContext
+        return substitute(input, context != null ? context : Map.of());
     }
 
     /**
      * Substitutes variables in an object using a specific runtime context.
      */
     public Object substituteObjectWithContext(Object obj, Map<String, Object> context) {
-        VariableSubstitution tempSubstitution = withContext(context);
-        return tempSubstitution.substituteInObject(obj);
+        return substituteInObject(obj, context != null ? context : Map.of());
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.skanga.conductor.workflow.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skanga.conductor.config.ApplicationConfig;
+import com.skanga.conductor.config.WorkflowConfig;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import org.slf4j.Logger;
@@ -8,9 +10,22 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loads and validates workflow and agent configurations from YAML files.
@@ -26,8 +41,15 @@ import java.nio.file.Paths;
  * This ensures workflow definitions are valid before execution begins,
  * preventing runtime failures due to configuration errors.
  * </p>
+ * <p>
+ * Loaded configurations are cached by path and content hash, so loading an
+ * unchanged file again skips parsing, validation and substitution; cached
+ * objects are shared between callers and must be treated as read-only. With
+ * hot reload enabled, cached files are watched and changed files are reloaded
+ * in the background, so loads of watched files need no file access at all.
+ * </p>
  */
-public class WorkflowConfigLoader {
+public class WorkflowConfigLoader implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkflowConfigLoader.class);
 
@@ -35,6 +57,29 @@ public class WorkflowConfigLoader {
     private final VariableSubstitution variableSubstitution;
     private final WorkflowSchemaValidator schemaValidator;
     private final boolean schemaValidationEnabled;
+    private final boolean cachingEnabled;
+    private final Map<String, CachedConfig> configCache = new ConcurrentHashMap<>();
+    private volatile ConfigWatcher watcher;
+
+    /**
+     * Parses and validates the content of a configuration file.
+     */
+    @FunctionalInterface
+    private interface ConfigParser {
+        Object parse(String filePath, String content) throws IOException;
+    }
+
+    /**
+     * A validated configuration and the content it was parsed from.
+     *
+     * @param filePath the path the configuration was loaded from
+     * @param contentHash SHA-256 hash of the file content
+     * @param value the parsed configuration
+     * @param parser reparses the file on change
+     * @param watched whether changes of the file are picked up by the watcher
+     */
+    private record CachedConfig(String filePath, String contentHash, Object value,
+                                ConfigParser parser, boolean watched) {}
 
     /**
      * Creates a new WorkflowConfigLoader with schema validation enabled.
@@ -45,14 +90,33 @@ public class WorkflowConfigLoader {
 
     /**
      * Creates a new WorkflowConfigLoader with configurable schema validation.
+     * Caching and hot reload are configured from {@link WorkflowConfig}.
      *
      * @param schemaValidationEnabled whether to enable JSON schema validation
      */
     public WorkflowConfigLoader(boolean schemaValidationEnabled) {
+        this(schemaValidationEnabled, ApplicationConfig.getInstance().getWorkflowConfig());
+    }
+
+    private WorkflowConfigLoader(boolean schemaValidationEnabled, WorkflowConfig config) {
+        this(schemaValidationEnabled, config.isConfigCacheEnabled());
+        if (cachingEnabled && config.isConfigHotReloadEnabled()) {
+            enableHotReload();
+        }
+    }
+
+    /**
+     * Creates a new WorkflowConfigLoader with configurable schema validation and caching.
+     *
+     * @param schemaValidationEnabled whether to enable JSON schema validation
+     * @param cachingEnabled whether to cache loaded configurations
+     */
+    public WorkflowConfigLoader(boolean schemaValidationEnabled, boolean cachingEnabled) {
         this.yamlMapper = createYamlMapper();
         this.variableSubstitution = new VariableSubstitution();
         this.schemaValidationEnabled = schemaValidationEnabled;
         this.schemaValidator = schemaValidationEnabled ? new WorkflowSchemaValidator() : null;
+        this.cachingEnabled = cachingEnabled;
 
         if (schemaValidationEnabled) {
             logger.info("WorkflowConfigLoader initialized with schema validation enabled");
@@ -90,10 +154,11 @@ public class WorkflowConfigLoader {
      * @throws IllegalArgumentException if configuration is invalid
      */
     public WorkflowDefinition loadWorkflow(String filePath) throws IOException {
-        logger.info("Loading workflow from: {}", filePath);
+        return (WorkflowDefinition) load("workflow", "Workflow", filePath, this::parseWorkflow);
+    }
 
-        // Read the raw YAML content for schema validation
-        String yamlContent = readFileContent(filePath);
+    private WorkflowDefinition parseWorkflow(String filePath, String yamlContent) throws IOException {
+        logger.info("Loading workflow from: {}", filePath);
 
         // Perform JSON schema validation BEFORE parsing to object model
         if (schemaValidationEnabled) {
@@ -138,6 +203,199 @@ public class WorkflowConfigLoader {
         return workflow;
     }
 
+    /**
+     * Loads a configuration file through the cache.
+     * <p>
+     * Files registered with the watcher are served from the cache without file
+     * access; all other files are read and only parsed if their content hash
+     * differs from the cached one.
+     * </p>
+     */
+    private Object load(String kind, String description, String filePath, ConfigParser parser) throws IOException {
+        if (!cachingEnabled) {
+            return parser.parse(filePath, readFileContent(filePath, description));
+        }
+
+        String cacheKey = kind + ":" + filePath;
+        CachedConfig cached = configCache.get(cacheKey);
+        if (cached != null && cached.watched() && watcher != null) {
+            return cached.value();
+        }
+
+        String content = readFileContent(filePath, description);
+        String contentHash = contentHash(content);
+        if (cached != null && cached.contentHash().equals(contentHash)) {
+            logger.debug("Using cached {} configuration for: {}", kind, filePath);
+            return cached.value();
+        }
+
+        Object value = parser.parse(filePath, content);
+        ConfigWatcher currentWatcher = watcher;
+        boolean watched = currentWatcher != null && currentWatcher.watch(filePath, cacheKey);
+        configCache.put(cacheKey, new CachedConfig(filePath, contentHash, value, parser, watched));
+        return value;
+    }
+
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Reparses a watched file after a change and swaps the cached configuration.
+     * If the new content is invalid, the entry is dropped so that the next load
+     * reports the error instead of serving the outdated configuration.
+     */
+    private void reload(String cacheKey) {
+        CachedConfig cached = configCache.get(cacheKey);
+        if (cached == null) {
+            return;
+        }
+        try {
+            String content = Files.readString(Paths.get(cached.filePath()));
+            String contentHash = contentHash(content);
+            if (contentHash.equals(cached.contentHash())) {
+                return;
+            }
+            Object value = cached.parser().parse(cached.filePath(), content);
+            configCache.put(cacheKey, new CachedConfig(cached.filePath(), contentHash, value, cached.parser(), true));
+            logger.info("Reloaded changed configuration: {}", cached.filePath());
+        } catch (Exception e) {
+            configCache.remove(cacheKey);
+            logger.warn("Failed to reload changed configuration {}: {}", cached.filePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Starts watching cached configuration files for changes. Changed files are
+     * reloaded in the background and swapped into the cache atomically, so loads of
+     * watched files no longer read the file. Has no effect if caching is disabled
+     * or hot reload is already enabled.
+     *
+     * @throws IllegalStateException if the file system does not support watching
+     */
+    public synchronized void enableHotReload() {
+        if (!cachingEnabled || watcher != null) {
+            return;
+        }
+        try {
+            watcher = new ConfigWatcher();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start configuration file watcher", e);
+        }
+        logger.info("Hot reload of workflow configuration files enabled");
+    }
+
+    /**
+     * Checks if cached configuration files are watched for changes.
+     *
+     * @return true if hot reload is enabled
+     */
+    public boolean isHotReloadEnabled() {
+        return watcher != null;
+    }
+
+    /**
+     * Gets the number of cached configurations.
+     *
+     * @return the cache size
+     */
+    public int getCacheSize() {
+        return configCache.size();
+    }
+
+    /**
+     * Removes all cached configurations.
+     */
+    public void clearCache() {
+        configCache.clear();
+    }
+
+    /**
+     * Stops watching configuration files and clears the cache.
+     */
+    @Override
+    public synchronized void close() {
+        ConfigWatcher currentWatcher = watcher;
+        watcher = null;
+        if (currentWatcher != null) {
+            currentWatcher.close();
+        }
+        configCache.clear();
+    }
+
+    /**
+     * Watches the directories of cached files and reloads changed files on a
+     * background thread.
+     */
+    private final class ConfigWatcher {
+        private final WatchService watchService;
+        private final Map<Path, Set<String>> cacheKeysByFile = new ConcurrentHashMap<>();
+        private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+        private final Thread thread;
+
+        ConfigWatcher() throws IOException {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.thread = Thread.ofPlatform().daemon().name("workflow-config-watcher").start(this::run);
+        }
+
+        /**
+         * Registers a cached file; returns false for classpath resources, which cannot change.
+         */
+        boolean watch(String filePath, String cacheKey) {
+            Path file = Paths.get(filePath).toAbsolutePath().normalize();
+            if (!Files.isRegularFile(file)) {
+                return false;
+            }
+            Path directory = file.getParent();
+            try {
+                if (watchedDirectories.add(directory)) {
+                    directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+            } catch (IOException | ClosedWatchServiceException e) {
+                watchedDirectories.remove(directory);
+                logger.warn("Cannot watch configuration directory {}: {}", directory, e.getMessage());
+                return false;
+            }
+            cacheKeysByFile.computeIfAbsent(file, f -> ConcurrentHashMap.newKeySet()).add(cacheKey);
+            return true;
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name) {
+                            Set<String> cacheKeys = cacheKeysByFile.get(directory.resolve(name));
+                            if (cacheKeys != null) {
+                                cacheKeys.forEach(WorkflowConfigLoader.this::reload);
+                            }
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Watcher closed
+            }
+        }
+
+        void close() {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing configuration watcher: {}", e.getMessage());
+            }
+            thread.interrupt();
+        }
+    }
+
     /**
      * Reads file content from file system or classpath.
      *
@@ -145,17 +403,18 @@ public class WorkflowConfigLoader {
      * @return file content as string
      * @throws IOException if file cannot be read
      */
-    private String readFileContent(String filePath) throws IOException {
+    private String readFileContent(String filePath, String description) throws IOException {
         Path path = Paths.get(filePath);
         if (Files.exists(path)) {
             return Files.readString(path);
         } else {
             // Try classpath
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-            if (inputStream == null) {
-                throw new IOException("Workflow file not found: " + filePath);
+            try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath)) {
+                if (inputStream == null) {
+                    throw new IOException(description + " file not found: " + filePath);
+                }
+                return new String(inputStream.readAllBytes());
             }
-            return new String(inputStream.readAllBytes());
         }
     }
 
@@ -168,22 +427,15 @@ public class WorkflowConfigLoader {
      * @throws IllegalArgumentException if configuration is invalid
      */
     public AgentConfigCollection loadAgents(String filePath) throws IOException {
+        return (AgentConfigCollection) load("agents", "Agent config", filePath, this::parseAgents);
+    }
+
+    private AgentConfigCollection parseAgents(String filePath, String content) throws IOException {
         logger.info("Loading agents from: {}", filePath);
 
-        // Try to load from file system first, then from classpath
         AgentConfigCollection agentConfig;
         try {
-            Path path = Paths.get(filePath);
-            if (Files.exists(path)) {
-                agentConfig = yamlMapper.readValue(path.toFile(), AgentConfigCollection.class);
-            } else {
-                // Try classpath
-                InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-                if (inputStream == null) {
-                    throw new IOException("Agent config file not found: " + filePath);
-                }
-                agentConfig = yamlMapper.readValue(inputStream, AgentConfigCollection.class);
-            }
+            agentConfig = yamlMapper.readValue(content, AgentConfigCollection.class);
         } catch (IOException e) {
             logger.error("Failed to parse agent config YAML: {}", e.getMessage());
             throw new IOException("Failed to parse agent config from " + filePath + ": " + e.getMessage(), e);
@@ -214,24 +466,16 @@ public class WorkflowConfigLoader {
      * @return parsed context as a generic map
      * @throws IOException if file cannot be read or parsed
      */
-    @SuppressWarnings("unchecked")
     public WorkflowContext loadContext(String filePath) throws IOException {
+        return (WorkflowContext) load("context", "Context", filePath, this::parseContext);
+    }
+
+    private WorkflowContext parseContext(String filePath, String content) throws IOException {
         logger.info("Loading context from: {}", filePath);
 
-        // Try to load from file system first, then from classpath
         Object contextData;
         try {
-            Path path = Paths.get(filePath);
-            if (Files.exists(path)) {
-                contextData = yamlMapper.readValue(path.toFile(), Object.class);
-            } else {
-                // Try classpath
-                InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath);
-                if (inputStream == null) {
-                    throw new IOException("Context file not found: " + filePath);
-                }
-                contextData = yamlMapper.readValue(inputStream, Object.class);
-            }
+            contextData = yamlMapper.readValue(content, Object.class);
         } catch (IOException e) {
             logger.error("Failed to parse context YAML: {}", e.getMessage());
             throw new IOException("Failed to parse context from " + filePath + ": " + e.getMessage(), e);
@@ -108,6 +108,15 @@ public class WorkflowDefinition {
         @JsonProperty("max_words_per_chapter")
         private Integer maxWordsPerChapter = 1200;
 
+        @JsonProperty("token_budget")
+        private Long tokenBudget;
+
+        @JsonProperty("cost_budget")
+        private Double costBudget;
+
+        @JsonProperty("budget_action")
+        private String budgetAction = "fail";
+
         public String getOutputDir() {
             return outputDir;
         }
@@ -147,6 +156,40 @@ public class WorkflowDefinition {
         public void setMaxWordsPerChapter(Integer maxWordsPerChapter) {
             this.maxWordsPerChapter = maxWordsPerChapter;
         }
+
+        /**
+         * Gets the maximum number of LLM tokens a run may spend, or null for no limit.
+         */
+        public Long getTokenBudget() {
+            return tokenBudget;
+        }
+
+        public void setTokenBudget(Long tokenBudget) {
+            this.tokenBudget = tokenBudget;
+        }
+
+        /**
+         * Gets the maximum LLM cost in USD a run may spend, or null for no limit.
+         */
+        public Double getCostBudget() {
+            return costBudget;
+        }
+
+        public void setCostBudget(Double costBudget) {
+            this.costBudget = costBudget;
+        }
+
+        /**
+         * Gets what happens to LLM calls once a budget is spent: "fail" to fail
+         * the run, or "downgrade" to send them to the engine's downgrade provider.
+         */
+        public String getBudgetAction() {
+            return budgetAction;
+        }
+
+        public void setBudgetAction(String budgetAction) {
+            this.budgetAction = budgetAction;
+        }
     }
 
     /**
@@ -30,6 +30,13 @@ public class WorkflowStage {
     @JsonProperty("iteration")
     private IterationConfig iteration;
 
+    @JsonProperty("map_reduce")
+    private MapReduceConfig mapReduce;
+
+    private Boolean memoize;
+
+    private CascadeConfig cascade;
+
     // Default constructor for Jackson
     public WorkflowStage() {}
 
@@ -105,6 +112,30 @@ public class WorkflowStage {
         this.iteration = iteration;
     }
 
+    public MapReduceConfig getMapReduce() {
+        return mapReduce;
+    }
+
+    public void setMapReduce(MapReduceConfig mapReduce) {
+        this.mapReduce = mapReduce;
+    }
+
+    public CascadeConfig getCascade() {
+        return cascade;
+    }
+
+    public void setCascade(CascadeConfig cascade) {
+        this.cascade = cascade;
+    }
+
+    public Boolean getMemoize() {
+        return memoize;
+    }
+
+    public void setMemoize(Boolean memoize) {
+        this.memoize = memoize;
+    }
+
     /**
      * Configuration for human approval requirements in this stage.
      */
@@ -187,6 +218,33 @@ public class WorkflowStage {
             }
         }
 
+        // Validate map-reduce configuration if present
+        if (mapReduce != null) {
+            if (iteration != null) {
+                throw new IllegalArgumentException("Stage '" + name + "' cannot combine iteration and map_reduce");
+            }
+            if (getAgentId("map") == null) {
+                throw new IllegalArgumentException("Map-reduce stage '" + name + "' requires a 'map' agent");
+            }
+            try {
+                mapReduce.validate();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid map_reduce configuration in stage '" + name + "': " + e.getMessage());
+            }
+        }
+
+        // Validate cascade configuration if present
+        if (cascade != null) {
+            if (mapReduce != null) {
+                throw new IllegalArgumentException("Stage '" + name + "' cannot combine cascade and map_reduce");
+            }
+            try {
+                cascade.validate();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cascade configuration in stage '" + name + "': " + e.getMessage());
+            }
+        }
+
         // Validate approval configuration for iterative stages
         if (isIterative() && approval != null && approval.isPerItem()) {
             if (iteration.isParallelEnabled()) {
@@ -222,6 +280,18 @@ public class WorkflowStage {
         return approval != null && approval.isRequired();
     }
 
+    /**
+     * Checks if the output of this stage may be memoized.
+     * Unless set explicitly, LLM stages are memoized and tool stages are not,
+     * since tools usually have side effects or read changing external state.
+     */
+    public boolean isMemoizationEnabled(String agentType) {
+        if (memoize != null) {
+            return memoize;
+        }
+        return agentType == null || agentType.isEmpty() || "llm".equalsIgnoreCase(agentType);
+    }
+
     /**
      * Checks if this stage is configured for iteration.
      */
@@ -229,6 +299,20 @@ public class WorkflowStage {
         return iteration != null;
     }
 
+    /**
+     * Checks if this stage splits its input into chunks processed by map and reduce agents.
+     */
+    public boolean isMapReduce() {
+        return mapReduce != null;
+    }
+
+    /**
+     * Checks if this stage escalates through a cascade of models.
+     */
+    public boolean isCascade() {
+        return cascade != null;
+    }
+
     /**
      * Checks if this stage should execute iterations in parallel.
      */
@@ -3,6 +3,7 @@ package com.skanga.conductor.workflow.output;
 import com.skanga.conductor.workflow.config.WorkflowDefinition;
 import com.skanga.conductor.workflow.config.WorkflowStage;
 import com.skanga.conductor.engine.execution.StageExecutionResult;
+import com.skanga.conductor.memory.ContentHandle;
 
 import java.util.Map;
 
@@ -61,6 +62,20 @@ public class OutputGenerationRequest {
         return stageResult.getAgentResponse();
     }
 
+    /**
+     * Gets the handle to the primary content, for streaming large content to files.
+     */
+    public ContentHandle getPrimaryContentHandle() {
+        return stageResult.getAgentResponseContent();
+    }
+
+    /**
+     * Gets the handle to the review content, for streaming large content to files.
+     */
+    public ContentHandle getReviewContentHandle() {
+        return stageResult.getReviewResponseContent();
+    }
+
     /**
      * Gets the review content if available.
      */
@@ -1,9 +1,12 @@
 package com.skanga.conductor.workflow.output;
 
+import com.skanga.conductor.memory.ContentHandle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -64,11 +67,11 @@ public class StandardFileOutputGenerator implements FileOutputGenerator {
         // Ensure parent directories exist
         Files.createDirectories(outputFile.getParent());
 
-        // Generate file content
-        String content = generateFileContent(request, outputFile);
-
-        // Write the file
-        Files.write(outputFile, content.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        // Stream the content into the file, so large spilled outputs are never loaded whole
+        try (Writer writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFileContent(request, outputFile, writer);
+        }
 
         return outputFile;
     }
@@ -96,7 +99,7 @@ public class StandardFileOutputGenerator implements FileOutputGenerator {
         return substituteVariablesInString(template, allVariables);
     }
 
-    private String generateFileContent(OutputGenerationRequest request, Path outputFile) {
+    private void writeFileContent(OutputGenerationRequest request, Path outputFile, Writer writer) throws IOException {
         StringBuilder content = new StringBuilder();
 
         // Add file header
@@ -104,16 +107,21 @@ public class StandardFileOutputGenerator implements FileOutputGenerator {
         content.append("\n\n");
 
         // Add main content
-        if (request.getPrimaryContent() != null) {
+        ContentHandle primaryContent = request.getPrimaryContentHandle();
+        if (primaryContent != null) {
             content.append("## Generated Content\n\n");
-            content.append(request.getPrimaryContent());
+            writer.append(content);
+            content.setLength(0);
+            primaryContent.writeTo(writer);
             content.append("\n\n");
         }
 
         // Add review content if available
         if (request.hasReview()) {
             content.append("## Review Feedback\n\n");
-            content.append(request.getReviewContent());
+            writer.append(content);
+            content.setLength(0);
+            request.getReviewContentHandle().writeTo(writer);
             content.append("\n\n");
         }
 
@@ -131,7 +139,7 @@ public class StandardFileOutputGenerator implements FileOutputGenerator {
         // Add generation metadata
         content.append(generateFileFooter(request));
 
-        return content.toString();
+        writer.append(content);
     }
 
     private String generateFileHeader(OutputGenerationRequest request, Path outputFile) {
@@ -43,6 +43,24 @@ public class AgentFactory {
      * </p>
      */
     public SubAgent createAgent(AgentDefinition definition, AgentCreator agentCreator) throws ConductorException {
+        return createAgent(definition, agentCreator, null);
+    }
+
+    /**
+     * Creates an agent based on its definition, running on a given model of the
+     * configured provider instead of the configured model.
+     * <p>
+     * Model cascades use this to create one agent per tier from a single definition.
+     * </p>
+     *
+     * @param definition the agent definition
+     * @param agentCreator the agent creator
+     * @param model the model the agent's provider uses, or null for the configured model
+     * @return the agent
+     * @throws ConductorException if the agent cannot be created
+     */
+    public SubAgent createAgent(AgentDefinition definition, AgentCreator agentCreator, String model)
+            throws ConductorException {
         if (definition == null) {
             throw new IllegalArgumentException("Agent definition cannot be null");
         }
@@ -59,9 +77,9 @@ public class AgentFactory {
 
         switch (agentType.toLowerCase()) {
             case "llm":
-                return createLLMAgent(definition, agentCreator);
+                return createLLMAgent(definition, agentCreator, model);
             case "tool":
-                return createToolAgent(definition, agentCreator);
+                return createToolAgent(definition, agentCreator, model);
             default:
                 throw new ConductorException("Unsupported agent type: " + agentType);
         }
@@ -70,13 +88,14 @@ public class AgentFactory {
     /**
      * Creates an LLM-based agent.
      */
-    private SubAgent createLLMAgent(AgentDefinition definition, AgentCreator agentCreator) throws ConductorException {
+    private SubAgent createLLMAgent(AgentDefinition definition, AgentCreator agentCreator, String model)
+            throws ConductorException {
         String agentId = generateAgentId(definition);
         String role = definition.getRole();
 
         // Get LLM provider - for now, use the orchestrator's default provider
         // Future enhancement: support per-agent provider configuration
-        LLMProvider llmProvider = getDefaultLLMProvider();
+        LLMProvider llmProvider = getDefaultLLMProvider(model);
 
         // Create the agent using the orchestrator
         String promptTemplate = definition.getPromptTemplate();
@@ -101,7 +120,8 @@ public class AgentFactory {
     /**
      * Creates a tool-based agent.
      */
-    private SubAgent createToolAgent(AgentDefinition definition, AgentCreator agentCreator) throws ConductorException {
+    private SubAgent createToolAgent(AgentDefinition definition, AgentCreator agentCreator, String model)
+            throws ConductorException {
         String agentId = generateAgentId(definition);
         String role = definition.getRole();
 
@@ -117,14 +137,14 @@ public class AgentFactory {
             switch (toolStrategy.toLowerCase()) {
                 case "llm-tool":
                     // Create LLMToolAgent - uses LLM to determine which tools to call
-                    LLMProvider llmProvider = getDefaultLLMProvider();
+                    LLMProvider llmProvider = getDefaultLLMProvider(model);
                     agent = createLLMToolAgent(agentId, role, llmProvider, agentCreator);
                     logger.info("Created LLM-Tool agent: {} ({})", agentId, role);
                     break;
 
                 case "direct-tool":
                     // Create ToolUsingAgent - calls tools directly based on prompt patterns
-                    agent = createDirectToolAgent(agentId, role, agentCreator);
+                    agent = createDirectToolAgent(agentId, role, getDefaultLLMProvider(model), agentCreator);
                     logger.info("Created Direct-Tool agent: {} ({})", agentId, role);
                     break;
 
@@ -165,12 +185,13 @@ public class AgentFactory {
      * share the same memory context, enabling proper inter-agent communication.
      * </p>
      */
-    private SubAgent createDirectToolAgent(String agentId, String role, AgentCreator agentCreator) throws ConductorException {
+    private SubAgent createDirectToolAgent(String agentId, String role, LLMProvider llmProvider, AgentCreator agentCreator)
+            throws ConductorException {
         try {
             // Use the agent creator's shared memory store to ensure consistency
             MemoryStore sharedMemoryStore = agentCreator.getMemoryStore();
             // Use ConversationalAgent with LLM provider for direct tool mode
-            return new ConversationalAgent(agentId, role, getDefaultLLMProvider(), toolRegistry, sharedMemoryStore);
+            return new ConversationalAgent(agentId, role, llmProvider, toolRegistry, sharedMemoryStore);
         } catch (Exception e) {
             throw new ConductorException("Failed to create direct tool agent: " + e.getMessage(), e);
         }
@@ -195,16 +216,38 @@ public class AgentFactory {
         return agentId + "-" + timestamp;
     }
 
+    /**
+     * Describes the LLM provider and model that agents created by this factory use.
+     * <p>
+     * The description changes whenever the configured provider, model or endpoint
+     * changes, so it can be used to fingerprint LLM outputs.
+     * </p>
+     *
+     * @return a description of the configured provider, e.g. {@code openai/gpt-4o@https://...}
+     */
+    public String describeProvider() {
+        try {
+            com.skanga.conductor.demo.DemoConfig config = com.skanga.conductor.demo.DemoConfig.getInstance();
+            return config.getDemoProviderType() + "/" + config.getDemoProviderModel() +
+                "@" + config.getDemoProviderBaseUrl();
+        } catch (Exception e) {
+            logger.debug("Unable to describe configured LLM provider: {}", e.getMessage());
+            return "unknown";
+        }
+    }
+
     /**
      * Gets the default LLM provider based on configuration.
      * Uses the same configuration system as the demo classes.
+     *
+     * @param model the model to use instead of the configured one, or null
      */
-    private LLMProvider getDefaultLLMProvider() {
+    private LLMProvider getDefaultLLMProvider(String model) {
         try {
             // Use the same configuration approach as BookCreationDemo
             com.skanga.conductor.demo.DemoConfig config = com.skanga.conductor.demo.DemoConfig.getInstance();
             String providerType = config.getDemoProviderType();
-            String modelName = config.getDemoProviderModel();
+            String modelName = model != null && !model.isBlank() ? model : config.getDemoProviderModel();
             String baseUrl = config.getDemoProviderBaseUrl();
 
             logger.info("Creating LLM provider: {} with model: {}", providerType, modelName);
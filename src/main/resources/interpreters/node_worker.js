@@ -0,0 +1,187 @@
+// Conductor interpreter pool worker for Node.js.
+// Protocol: one JSON request per line on stdin, one JSON response per line on
+// the original stdout. Requests are {"id": n, "code": "..."} or {"id": n, "ping": true}.
+// Snippets run with the real globals, like under `node -e`: their output to
+// process.stdout and process.stderr is captured until they finish, which is when
+// the timers and I/O they started have completed or they call process.exit.
+// Globals a snippet adds are removed afterwards, but changes to existing globals
+// and built-in prototypes persist into later runs; a snippet leaving handles
+// open asks for its worker to be retired.
+const readline = require('readline');
+const path = require('path');
+const vm = require('vm');
+
+const protocolWrite = process.stdout.write.bind(process.stdout);
+const exitWorker = process.exit.bind(process);
+const timers = { setTimeout, setInterval, setImmediate, clearTimeout, clearInterval, clearImmediate };
+const workerGlobals = new Set(Object.getOwnPropertyNames(globalThis));
+
+class ExitSignal {
+  constructor(code) {
+    this.code = code;
+  }
+}
+
+let current = null;
+let pending = Promise.resolve();
+
+function capture(stream) {
+  return (chunk, encoding, callback) => {
+    if (typeof encoding === 'function') {
+      callback = encoding;
+      encoding = undefined;
+    }
+    if (current) {
+      current[stream].push(Buffer.isBuffer(chunk) ? chunk.toString('utf8') : String(chunk));
+    }
+    if (callback) {
+      process.nextTick(callback);
+    }
+    return true;
+  };
+}
+
+process.stdout.write = capture('stdout');
+process.stderr.write = capture('stderr');
+process.exit = (code) => {
+  throw new ExitSignal(code === undefined ? (process.exitCode || 0) : code);
+};
+
+// Track the timers of the running snippet, so process.exit can drop them like exiting would
+function tracked(schedule, clear, repeating) {
+  return (callback, ...args) => {
+    const snippet = current;
+    if (!snippet || typeof callback !== 'function') {
+      return schedule(callback, ...args);
+    }
+    const handle = schedule((...callbackArgs) => {
+      if (!repeating) {
+        snippet.timers.delete(handle);
+      }
+      callback(...callbackArgs);
+    }, ...args);
+    snippet.timers.set(handle, clear);
+    return handle;
+  };
+}
+
+globalThis.setTimeout = tracked(timers.setTimeout, timers.clearTimeout, false);
+globalThis.setImmediate = tracked(timers.setImmediate, timers.clearImmediate, false);
+globalThis.setInterval = tracked(timers.setInterval, timers.clearInterval, true);
+globalThis.clearTimeout = (handle) => {
+  if (current) current.timers.delete(handle);
+  timers.clearTimeout(handle);
+};
+globalThis.clearInterval = (handle) => {
+  if (current) current.timers.delete(handle);
+  timers.clearInterval(handle);
+};
+globalThis.clearImmediate = (handle) => {
+  if (current) current.timers.delete(handle);
+  timers.clearImmediate(handle);
+};
+
+function fail(error) {
+  if (!current) {
+    return;
+  }
+  if (error instanceof ExitSignal) {
+    current.finish(error.code);
+  } else {
+    current.stderr.push(((error && error.stack) || String(error)) + '\n');
+    current.finish(1);
+  }
+}
+
+process.on('uncaughtException', fail);
+process.on('unhandledRejection', fail);
+
+// Counted from immediates, where the running immediate itself is not listed
+function activeResources() {
+  const counts = new Map();
+  for (const type of process.getActiveResourcesInfo()) {
+    counts.set(type, (counts.get(type) || 0) + 1);
+  }
+  return counts;
+}
+
+function hasResourcesBeyond(baseline) {
+  for (const [type, count] of activeResources()) {
+    if (count > (baseline.get(type) || 0)) {
+      return true;
+    }
+  }
+  return false;
+}
+
+function run(code) {
+  return new Promise((resolve) => {
+    const snippet = { stdout: [], stderr: [], timers: new Map(), done: false };
+    let baseline = new Map();
+    snippet.finish = (exit) => {
+      if (snippet.done) {
+        return;
+      }
+      snippet.done = true;
+      for (const [handle, clear] of snippet.timers) {
+        clear(handle);
+      }
+      // Let a timer callback that called process.exit unwind before counting what is left
+      timers.setTimeout(() => timers.setImmediate(() => {
+        current = null;
+        for (const name of Object.getOwnPropertyNames(globalThis)) {
+          if (!workerGlobals.has(name)) {
+            delete globalThis[name];
+          }
+        }
+        process.exitCode = undefined;
+        resolve({
+          exit,
+          stdout: snippet.stdout.join(''),
+          stderr: snippet.stderr.join(''),
+          retire: hasResourcesBeyond(baseline)
+        });
+      }), 0);
+    };
+
+    // Finished once nothing the snippet started is left in the event loop
+    const check = () => {
+      if (snippet.done) {
+        return;
+      }
+      if (!hasResourcesBeyond(baseline)) {
+        snippet.finish(process.exitCode || 0);
+      } else {
+        timers.setTimeout(() => timers.setImmediate(check), 1);
+      }
+    };
+
+    timers.setImmediate(() => {
+      baseline = activeResources();
+      current = snippet;
+      try {
+        const main = vm.compileFunction(code, ['exports', 'require', 'module', '__filename', '__dirname'],
+          { filename: '[eval]' });
+        const module = { exports: {} };
+        main.call(module.exports, module.exports, require, module, path.join(process.cwd(), '[eval]'), '.');
+      } catch (e) {
+        fail(e);
+        return;
+      }
+      timers.setImmediate(check);
+    });
+  });
+}
+
+readline.createInterface({ input: process.stdin }).on('line', (line) => {
+  const request = JSON.parse(line);
+  pending = pending.then(async () => {
+    const response = request.ping ? { pong: true } : await run(request.code);
+    response.id = request.id;
+    response.rss = process.memoryUsage().rss;
+    protocolWrite(JSON.stringify(response) + '\n');
+  });
+}).on('close', () => {
+  // Handles left open by snippets must not keep the worker alive
+  pending.then(() => exitWorker(0));
+});
@@ -0,0 +1,52 @@
+# Conductor interpreter pool worker for Python.
+# Protocol: one JSON request per line on stdin, one JSON response per line on
+# the original stdout. Requests are {"id": n, "code": "..."} or {"id": n, "ping": true}.
+# Each run gets fresh globals and an empty stdin; its stdout and stderr are
+# captured and returned. Nothing else is reset: changes to builtins,
+# sys.modules, sys.path and other interpreter state persist into later runs.
+import contextlib, io, json, os, sys, traceback
+
+try:
+    import resource
+except ImportError:
+    resource = None
+
+requests = os.fdopen(os.dup(0), "r", encoding="utf-8")
+protocol = os.fdopen(os.dup(1), "w", encoding="utf-8")
+# Keep snippets, child processes and native code off the protocol streams
+os.dup2(os.open(os.devnull, os.O_RDONLY), 0)
+os.dup2(os.open(os.devnull, os.O_WRONLY), 1)
+
+
+def rss_bytes():
+    if resource is None:
+        return 0
+    return resource.getrusage(resource.RUSAGE_SELF).ru_maxrss * 1024
+
+
+def run(code):
+    out, err = io.StringIO(), io.StringIO()
+    exit_code = 0
+    sys.stdin = io.StringIO()
+    with contextlib.redirect_stdout(out), contextlib.redirect_stderr(err):
+        try:
+            exec(compile(code, "<string>", "exec"), {"__name__": "__main__"})
+        except SystemExit as e:
+            if e.code is None or isinstance(e.code, int):
+                exit_code = e.code or 0
+            else:
+                print(e.code, file=sys.stderr)
+                exit_code = 1
+        except BaseException:
+            traceback.print_exc()
+            exit_code = 1
+    return {"exit": exit_code, "stdout": out.getvalue(), "stderr": err.getvalue()}
+
+
+for line in requests:
+    request = json.loads(line)
+    response = {"pong": True} if request.get("ping") else run(request["code"])
+    response["id"] = request["id"]
+    response["rss"] = rss_bytes()
+    protocol.write(json.dumps(response) + "\n")
+    protocol.flush()
@@ -0,0 +1,183 @@
+package com.skanga.conductor.agent;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.provider.ProviderCapabilities;
+import com.skanga.conductor.provider.ToolCallingLLMProvider;
+import com.skanga.conductor.testbase.AgentTestBase;
+import com.skanga.conductor.tools.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for native parallel function calling in ConversationalAgent.
+ */
+@DisplayName("ConversationalAgent Tool Calling Tests")
+class ConversationalAgentToolCallingTest extends AgentTestBase {
+
+    /**
+     * Provider answering chat calls from a script and recording each request.
+     */
+    private static class ScriptedToolCallingProvider implements ToolCallingLLMProvider {
+        private final Function<Integer, AiMessage> script;
+        final List<List<ChatMessage>> conversations = new ArrayList<>();
+        final List<List<ToolSpecification>> offeredTools = new ArrayList<>();
+        final AtomicInteger generateCalls = new AtomicInteger();
+
+        ScriptedToolCallingProvider(Function<Integer, AiMessage> script) {
+            this.script = script;
+        }
+
+        @Override
+        public synchronized ChatResponse chat(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+            conversations.add(List.copyOf(messages));
+            offeredTools.add(List.copyOf(toolSpecifications));
+            return ChatResponse.builder().aiMessage(script.apply(conversations.size())).build();
+        }
+
+        @Override
+        public String generate(String prompt) {
+            generateCalls.incrementAndGet();
+            return "text protocol answer";
+        }
+    }
+
+    /**
+     * Tool that sleeps and tracks how many of its calls run at once.
+     */
+    private static class SlowTool implements Tool {
+        private final String name;
+        private final AtomicInteger running;
+        private final AtomicInteger peak;
+
+        SlowTool(String name, AtomicInteger running, AtomicInteger peak) {
+            this.name = name;
+            this.running = running;
+            this.peak = peak;
+        }
+
+        @Override
+        public String toolName() {
+            return name;
+        }
+
+        @Override
+        public String toolDescription() {
+            return "Slow tool " + name;
+        }
+
+        @Override
+        public ExecutionResult runTool(ExecutionInput input) throws Exception {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(200);
+            } finally {
+                running.decrementAndGet();
+            }
+            return new ExecutionResult(true, name + " saw " + input.content(), null);
+        }
+    }
+
+    private static ToolExecutionRequest request(String id, String tool, String argument) {
+        return ToolExecutionRequest.builder()
+            .id(id)
+            .name(tool)
+            .arguments("{\"arguments\": \"" + argument + "\"}")
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should run tool calls of one response concurrently and answer in one follow-up turn")
+    void shouldRunToolCallsConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        for (String name : List.of("slow_a", "slow_b", "slow_c")) {
+            toolRegistry.register(new SlowTool(name, running, peak));
+        }
+        ScriptedToolCallingProvider provider = new ScriptedToolCallingProvider(call -> call == 1
+            ? AiMessage.from(List.of(
+                request("1", "slow_a", "alpha"), request("2", "slow_b", "beta"), request("3", "slow_c", "gamma")))
+            : AiMessage.from("combined answer"));
+        ConversationalAgent agent = createAgentWithProvider("parallel-tools", "Agent with tools", null, provider);
+
+        long start = System.nanoTime();
+        ExecutionResult result = agent.execute(new ExecutionInput("Use all the tools", null));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.success());
+        assertEquals("combined answer", result.output());
+        assertEquals(Map.of("toolCalls", 3), result.metadata());
+        assertEquals(2, provider.conversations.size());
+        assertEquals(0, provider.generateCalls.get());
+        assertTrue(peak.get() > 1, "tool calls should overlap");
+        assertTrue(elapsedMillis < 550, "tool calls ran sequentially: " + elapsedMillis + "ms");
+
+        List<ChatMessage> followUp = provider.conversations.get(1);
+        List<String> results = followUp.stream()
+            .filter(ToolExecutionResultMessage.class::isInstance)
+            .map(message -> ((ToolExecutionResultMessage) message).text())
+            .toList();
+        assertEquals(List.of("slow_a saw alpha", "slow_b saw beta", "slow_c saw gamma"), results);
+    }
+
+    @Test
+    @DisplayName("Should offer registered tools as specifications and return plain answers directly")
+    void shouldReturnPlainAnswer() throws Exception {
+        ScriptedToolCallingProvider provider = new ScriptedToolCallingProvider(call -> AiMessage.from("direct answer"));
+        ConversationalAgent agent = createAgentWithProvider("plain-answer", "Agent with tools", null, provider);
+
+        ExecutionResult result = agent.execute(new ExecutionInput("What is two plus two?", null));
+
+        assertEquals("direct answer", result.output());
+        assertNull(result.metadata());
+        List<String> offered = provider.offeredTools.get(0).stream().map(ToolSpecification::name).toList();
+        assertEquals(List.of("echo_tool", "success_tool", "test_tool"), offered);
+        assertTrue(ProviderCapabilities.supportsToolCalling(provider));
+    }
+
+    @Test
+    @DisplayName("Should report unknown tools to the model instead of failing")
+    void shouldReportUnknownTool() throws Exception {
+        ScriptedToolCallingProvider provider = new ScriptedToolCallingProvider(call -> call == 1
+            ? AiMessage.from(List.of(request("1", "missing_tool", "x")))
+            : AiMessage.from("recovered"));
+        ConversationalAgent agent = createAgentWithProvider("unknown-native-tool", "Agent with tools", null, provider);
+
+        ExecutionResult result = agent.execute(new ExecutionInput("Call a missing tool", null));
+
+        assertEquals("recovered", result.output());
+        ToolExecutionResultMessage toolResult = (ToolExecutionResultMessage) provider.conversations.get(1).get(2);
+        assertTrue(toolResult.text().contains("ERROR: unknown tool missing_tool"));
+    }
+
+    @Test
+    @DisplayName("Should stop offering tools in the last round")
+    void shouldBoundToolRounds() throws Exception {
+        ScriptedToolCallingProvider provider = new ScriptedToolCallingProvider(call ->
+            call < 5 ? AiMessage.from(List.of(request(String.valueOf(call), "test_tool", "again")))
+                : AiMessage.from("final answer"));
+        ConversationalAgent agent = createAgentWithProvider("bounded-rounds", "Agent with tools", null, provider);
+
+        ExecutionResult result = agent.execute(new ExecutionInput("Keep calling tools", null));
+
+        assertEquals("final answer", result.output());
+        assertEquals(5, provider.conversations.size());
+        assertFalse(provider.offeredTools.get(3).isEmpty());
+        assertTrue(provider.offeredTools.get(4).isEmpty());
+        assertEquals(Map.of("toolCalls", 4), result.metadata());
+    }
+}
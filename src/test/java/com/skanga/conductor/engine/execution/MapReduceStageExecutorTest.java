@@ -0,0 +1,140 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.workflow.config.MapReduceConfig;
+import com.skanga.conductor.workflow.config.WorkflowStage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for chunking and map-reduce execution of large stage inputs.
+ */
+@DisplayName("MapReduceStageExecutor Tests")
+class MapReduceStageExecutorTest {
+
+    private static List<String> numbers(int count) {
+        return IntStream.range(0, count).mapToObj(String::valueOf).toList();
+    }
+
+    @Test
+    @DisplayName("Should split text into token-bounded chunks at paragraph breaks")
+    void shouldSplitAtParagraphBreaks() {
+        String paragraph = "word ".repeat(30).strip();
+        String text = String.join("\n\n", Collections.nCopies(10, paragraph));
+
+        List<String> chunks = TextChunker.split(text, 100, 0);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(TextChunker.estimateTokens(chunk) <= 100, "chunk exceeds the token limit");
+            assertTrue(chunk.startsWith("word") && chunk.endsWith("word"), "chunk should not cut words");
+        }
+        assertEquals(text.replace("\n\n", "").replace(" ", "").length(),
+            String.join("", chunks).replace("\n\n", "").replace(" ", "").length());
+        assertTrue(TextChunker.split("   ", 100, 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should repeat the end of a chunk at the start of the next when overlapping")
+    void shouldOverlapChunks() {
+        String text = IntStream.range(0, 200).mapToObj(i -> "w" + i).reduce((a, b) -> a + " " + b).orElseThrow();
+
+        List<String> chunks = TextChunker.split(text, 50, 10);
+
+        assertTrue(chunks.size() > 1);
+        String lastWordOfFirst = chunks.get(0).substring(chunks.get(0).lastIndexOf(' ') + 1);
+        assertTrue(chunks.get(1).contains(lastWordOfFirst + " "), "next chunk should start with the overlap");
+    }
+
+    @Test
+    @DisplayName("Should map chunks concurrently within the limit and keep their order")
+    void shouldMapConcurrentlyWithinLimit() throws ConductorException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        MapReduceStageExecutor executor = new MapReduceStageExecutor(3, 8);
+
+        MapReduceStageExecutor.Result result = executor.execute(numbers(12), (chunk, index, total) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return "m" + chunk + "/" + total;
+        }, null);
+
+        assertEquals(3, peak.get());
+        assertEquals(12, result.chunkCount());
+        assertEquals(0, result.reduceCalls());
+        assertEquals(String.join(MapReduceStageExecutor.PARTIAL_SEPARATOR,
+            numbers(12).stream().map(n -> "m" + n + "/12").toList()), result.output());
+    }
+
+    @Test
+    @DisplayName("Should reduce partial results in a tree bounded by the fan-in")
+    void shouldReduceInTree() throws ConductorException {
+        List<Integer> reduceSizes = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger finalCalls = new AtomicInteger();
+        MapReduceStageExecutor executor = new MapReduceStageExecutor(4, 4);
+
+        MapReduceStageExecutor.Result result = executor.execute(numbers(20),
+            (chunk, index, total) -> chunk,
+            (partials, finalReduce) -> {
+                reduceSizes.add(partials.size());
+                if (finalReduce) {
+                    finalCalls.incrementAndGet();
+                }
+                return "(" + String.join("+", partials) + ")";
+            });
+
+        // 20 partials -> 5 -> 2 -> final
+        assertEquals(3, result.reduceLevels());
+        assertEquals(7, result.reduceCalls());
+        assertEquals(1, finalCalls.get());
+        assertTrue(reduceSizes.stream().allMatch(size -> size <= 4));
+        assertEquals(numbers(20), List.of(result.output().replaceAll("[()]", "").split("\\+")));
+    }
+
+    @Test
+    @DisplayName("Should fail with the first failing chunk")
+    void shouldFailWithFirstFailure() {
+        MapReduceStageExecutor executor = new MapReduceStageExecutor(2, 4);
+
+        ConductorException error = assertThrows(ConductorException.class, () ->
+            executor.execute(numbers(6), (chunk, index, total) -> {
+                if (index == 1) {
+                    throw new ConductorException("chunk 1 is malformed");
+                }
+                return chunk;
+            }, (partials, finalReduce) -> String.join(",", partials)));
+
+        assertEquals("chunk 1 is malformed", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should require a map agent for map-reduce stages")
+    void shouldRequireMapAgent() {
+        MapReduceConfig config = new MapReduceConfig();
+        config.setSource("research");
+        WorkflowStage stage = new WorkflowStage();
+        stage.setName("summarize");
+        stage.setMapReduce(config);
+        stage.setAgents(Map.of("reduce", "summarizer"));
+
+        assertThrows(IllegalArgumentException.class, stage::validate);
+
+        stage.setAgents(Map.of("map", "extractor", "reduce", "summarizer"));
+        assertDoesNotThrow(stage::validate);
+        assertTrue(stage.isMapReduce());
+    }
+}
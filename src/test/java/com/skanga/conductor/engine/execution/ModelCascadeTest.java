@@ -0,0 +1,234 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.engine.YamlWorkflowEngine;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.metrics.InMemoryMetricsCollector;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.workflow.config.AgentDefinition;
+import com.skanga.conductor.workflow.config.CascadeConfig;
+import com.skanga.conductor.workflow.config.WorkflowConfigLoader;
+import com.skanga.conductor.workflow.templates.AgentFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for model cascades escalating stages from small to large models.
+ */
+@DisplayName("ModelCascade Tests")
+class ModelCascadeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final InMemoryMetricsCollector collector = new InMemoryMetricsCollector();
+
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry.getInstance().register(collector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.getInstance().unregister(collector);
+    }
+
+    private static SubAgent agentAnswering(String output) throws ConductorException {
+        SubAgent agent = mock(SubAgent.class);
+        when(agent.execute(any())).thenReturn(new ExecutionResult(true, output, null));
+        return agent;
+    }
+
+    private static ModelCascade cascade(SubAgent small, SubAgent large, boolean confidenceCheck) {
+        return new ModelCascade(List.of(
+            new ModelCascade.Tier("small", attempt -> small),
+            new ModelCascade.Tier("large", attempt -> large)),
+            confidenceCheck ? ModelCascade.confidenceCheck(1) : null);
+    }
+
+    private List<Metric> metrics(String name, String stage) {
+        return collector.getMetricsByName(name).stream()
+            .filter(metric -> stage.equals(metric.tags().get("stage")))
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Should escalate to the next tier when the validator rejects the output")
+    void shouldEscalateOnValidationFailure() throws Exception {
+        SubAgent small = agentAnswering("short");
+        SubAgent large = agentAnswering("a long and complete answer");
+        StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
+            .stageName("cascade-validation")
+            .maxRetries(1)
+            .resultValidator(result -> result.getOutput().length() > 10
+                ? StageExecutor.ValidationResult.valid()
+                : StageExecutor.ValidationResult.invalid("too short"))
+            .cascade(cascade(small, large, false))
+            .build();
+
+        StageExecutor.StageResult result = new StageExecutor().executeStage(
+            config, attempt -> fail("cascade tiers replace the agent creator"),
+            (attempt, ctx) -> "Answer", new HashMap<>());
+
+        assertEquals("a long and complete answer", result.getOutput());
+        assertEquals("large", result.getTier());
+        assertEquals(2, result.getAttempt());
+        verify(small, times(1)).execute(any());
+        verify(large, times(1)).execute(any());
+
+        List<Metric> escalations = metrics("llm.cascade.escalations", "cascade-validation");
+        assertEquals(1, escalations.size());
+        assertEquals("small", escalations.get(0).tags().get("from"));
+        assertEquals("large", escalations.get(0).tags().get("to"));
+        assertEquals("validation", escalations.get(0).tags().get("reason"));
+        List<String> outcomes = metrics("llm.cascade.attempts", "cascade-validation").stream()
+            .map(metric -> metric.tags().get("tier") + ":" + metric.tags().get("outcome"))
+            .toList();
+        assertEquals(List.of("small:rejected", "large:accepted"), outcomes);
+    }
+
+    @Test
+    @DisplayName("Should accept confident output of the first tier without escalating")
+    void shouldAcceptFirstTier() throws Exception {
+        SubAgent small = agentAnswering("Paris is the capital of France.");
+        SubAgent large = agentAnswering("unused");
+        StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
+            .stageName("cascade-accept")
+            .cascade(cascade(small, large, true))
+            .build();
+
+        StageExecutor.StageResult result = new StageExecutor().executeStage(
+            config, attempt -> null, (attempt, ctx) -> "Capital of France?", new HashMap<>());
+
+        assertEquals("small", result.getTier());
+        verifyNoInteractions(large);
+        assertTrue(metrics("llm.cascade.escalations", "cascade-accept").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should escalate outputs flagged by the confidence check and on failures")
+    void shouldEscalateOnLowConfidenceAndFailure() throws Exception {
+        SubAgent small = agentAnswering("I'm not sure, but it might be Lyon.");
+        SubAgent medium = mock(SubAgent.class);
+        when(medium.execute(any())).thenThrow(new ConductorException("model overloaded"));
+        SubAgent large = agentAnswering("I'm not sure either.");
+        ModelCascade cascade = new ModelCascade(List.of(
+            new ModelCascade.Tier("small", attempt -> small),
+            new ModelCascade.Tier("medium", attempt -> medium),
+            new ModelCascade.Tier("large", attempt -> large)),
+            ModelCascade.confidenceCheck(1));
+        StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
+            .stageName("cascade-confidence")
+            .maxRetries(1)
+            .cascade(cascade)
+            .build();
+
+        StageExecutor.StageResult result = new StageExecutor().executeStage(
+            config, attempt -> null, (attempt, ctx) -> "Capital of France?", new HashMap<>());
+
+        assertEquals("large", result.getTier(), "the last tier is accepted as it is");
+        assertEquals("I'm not sure either.", result.getOutput());
+        assertEquals(List.of("low_confidence", "failure"),
+            metrics("llm.cascade.escalations", "cascade-confidence").stream()
+                .map(metric -> metric.tags().get("reason")).toList());
+    }
+
+    @Test
+    @DisplayName("Should flag blank, short and refusing outputs")
+    void shouldFlagLowConfidenceOutputs() {
+        var check = ModelCascade.confidenceCheck(10);
+
+        assertTrue(check.test(null));
+        assertTrue(check.test("   "));
+        assertTrue(check.test("Paris"));
+        assertTrue(check.test("  As an AI language model, I have no opinion on capitals."));
+        assertFalse(check.test("Paris is the capital of France."));
+        assertFalse(check.test("Replies such as \"I cannot help\" are refusals; this one answers the question."));
+
+        var custom = ModelCascade.confidenceCheck(1, List.of("UNKNOWN"));
+        assertTrue(custom.test("unknown: no data"));
+        assertFalse(custom.test("I cannot stress this enough: Paris."));
+        assertThrows(IllegalArgumentException.class, () -> new ModelCascade(List.of(), null));
+    }
+
+    @Test
+    @DisplayName("Should validate cascade configuration")
+    void shouldValidateCascadeConfig() {
+        CascadeConfig config = new CascadeConfig();
+        config.setModels(List.of("gpt-4o-mini"));
+        assertThrows(IllegalArgumentException.class, config::validate);
+
+        config.setModels(List.of("gpt-4o-mini", "gpt-4o"));
+        config.validate();
+        assertTrue(config.isConfidenceCheckEnabled());
+
+        config.setMinLength(-1);
+        assertThrows(IllegalArgumentException.class, config::validate);
+    }
+
+    @Test
+    @DisplayName("Should run the primary agent of a YAML stage on each cascade model")
+    void shouldCascadeYamlStageModels() throws Exception {
+        SubAgent small = agentAnswering("I cannot answer that.");
+        SubAgent large = agentAnswering("A detailed outline of the topic.");
+        AgentFactory agentFactory = mock(AgentFactory.class);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any(), eq("small-model"))).thenReturn(small);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any(), eq("large-model"))).thenReturn(large);
+        when(agentFactory.describeProvider()).thenReturn("mock/test-model@local");
+
+        Path workflow = tempDir.resolve("workflow.yaml");
+        Files.writeString(workflow, """
+            workflow:
+              name: cascade-workflow
+              version: "1.0"
+            stages:
+              - name: outline
+                agents:
+                  primary: outliner
+                cascade:
+                  models: [small-model, large-model]
+            """);
+        Path agents = tempDir.resolve("agents.yaml");
+        Files.writeString(agents, """
+            agents:
+              outliner:
+                type: llm
+                role: outliner
+                prompt_template: outline-template
+            prompt_templates:
+              outline-template:
+                user: "Outline {{topic}}"
+            """);
+
+        try (MemoryStore memoryStore = new MemoryStore(
+                "jdbc:h2:mem:cascade-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "")) {
+            YamlWorkflowEngine engine = new YamlWorkflowEngine(new WorkflowConfigLoader(), agentFactory,
+                    new PromptTemplateEngine(), new StageExecutor(), null)
+                .loadWorkflow(workflow.toString())
+                .loadAgents(agents.toString())
+                .withOrchestrator(mock(Orchestrator.class), memoryStore);
+            WorkflowExecutionResult result = engine.executeInternal("topic");
+            engine.close();
+
+            assertTrue(result.isSuccess(), result.getErrorMessage());
+            assertEquals("A detailed outline of the topic.", result.getStageResult("outline").getAgentResponse());
+        }
+        verify(small, times(1)).execute(any());
+        verify(agentFactory, never()).createAgent(any(AgentDefinition.class), any());
+    }
+}
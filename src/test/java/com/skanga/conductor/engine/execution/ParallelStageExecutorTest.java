@@ -8,9 +8,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -332,4 +336,93 @@ class ParallelStageExecutorTest {
         // Cleanup
         testExecutor.shutdown();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldApplyIndividualStageTimeouts() throws Exception {
+        // Given - Stage1 is slow but has a generous timeout, Stage2 hangs past its short one
+        List<WorkflowStage> stages = List.of(mockStage1, mockStage2);
+        List<String> timedOut = new ArrayList<>();
+        ParallelStageExecutor.StageTimeouts timeouts = new ParallelStageExecutor.StageTimeouts() {
+            @Override
+            public long timeoutMs(WorkflowStage stage) {
+                return stage == mockStage1 ? 2000L : 100L;
+            }
+
+            @Override
+            public void onTimeout(WorkflowStage stage, long timeoutMs) {
+                timedOut.add(stage.getName() + ":" + timeoutMs);
+            }
+        };
+
+        // When
+        ConductorException exception = assertThrows(ConductorException.class, () ->
+            executor.executeStages(stages, stage -> {
+                try {
+                    Thread.sleep(stage == mockStage1 ? 200 : 5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return stage.getName();
+            }, timeouts));
+
+        // Then
+        assertTrue(exception.getMessage().contains("Stage2"));
+        assertTrue(exception.getMessage().contains("100ms"));
+        assertEquals(List.of("Stage2:100"), timedOut);
+        assertEquals("Stage1", executor.executeStages(List.of(mockStage1), stage -> stage.getName(), timeouts)
+            .get("Stage1"));
+    }
+
+    @Test
+    void shouldKeepRunningStagesAfterStageLeavesInterruptFlagSet() {
+        // Given - one slot, and a stage returning with its interrupt flag set like the code runner
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        ParallelStageExecutor oneSlot = new ParallelStageExecutor(singleThread, 1, 5000L);
+        List<WorkflowStage> stages = List.of(mockStage1, mockStage2, mockStage3);
+
+        try {
+            // When
+            Map<String, String> results = assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                oneSlot.executeStages(stages, stage -> {
+                    if (stage == mockStage1) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return stage.getName();
+                }));
+
+            // Then
+            assertEquals(Map.of("Stage1", "Stage1", "Stage2", "Stage2", "Stage3", "Stage3"), results);
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldFailWaveWhenLaterStageTimesOutWhileEarlierStageRuns() {
+        // Given - Stage1 runs for a while within its timeout, Stage2 hangs past its short one
+        ExecutorService twoThreads = Executors.newFixedThreadPool(2);
+        ParallelStageExecutor twoSlots = new ParallelStageExecutor(twoThreads, 2, 5000L);
+        List<WorkflowStage> stages = List.of(mockStage1, mockStage2);
+        ParallelStageExecutor.StageTimeouts timeouts = stage -> stage == mockStage1 ? 10000L : 100L;
+        long start = System.nanoTime();
+
+        try {
+            // When
+            ConductorException exception = assertThrows(ConductorException.class, () ->
+                twoSlots.executeStages(stages, stage -> {
+                    try {
+                        Thread.sleep(stage == mockStage1 ? 3000 : 10000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return stage.getName();
+                }, timeouts));
+
+            // Then - the timeout is reported without waiting for Stage1
+            assertTrue(exception.getMessage().contains("Stage2"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        } finally {
+            twoThreads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.engine.YamlWorkflowEngine;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.workflow.config.AgentDefinition;
+import com.skanga.conductor.workflow.config.WorkflowConfigLoader;
+import com.skanga.conductor.workflow.config.WorkflowDefinition;
+import com.skanga.conductor.workflow.config.WorkflowStage;
+import com.skanga.conductor.workflow.templates.AgentFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for stage checkpointing and resume of YAML workflow runs.
+ */
+@DisplayName("StageCheckpointStore Tests")
+class StageCheckpointStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MemoryStore memoryStore;
+    private StageCheckpointStore checkpointStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        memoryStore = new MemoryStore("jdbc:h2:mem:checkpoints-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        checkpointStore = new StageCheckpointStore(memoryStore);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        memoryStore.close();
+    }
+
+    @Test
+    @DisplayName("Should round-trip a stage result through a checkpoint")
+    void shouldRoundTripStageResult() throws Exception {
+        StageExecutionResult result = new StageExecutionResult();
+        result.setStartTime(1000L);
+        result.setEndTime(2500L);
+        result.setAgentResponse("chapter text");
+        result.setReviewResponse("looks good");
+        result.setApprovalRequested(true);
+        result.setApproved(true);
+        result.addGeneratedFile(Path.of("out", "chapter.md"));
+
+        checkpointStore.save("run-1", "hash-a", "chapter-1", result);
+
+        Map<String, StageExecutionResult> restored = checkpointStore.loadCompletedStages("run-1", "hash-a");
+        StageExecutionResult restoredResult = restored.get("chapter-1");
+        assertNotNull(restoredResult);
+        assertTrue(restoredResult.isSuccess());
+        assertEquals("chapter text", restoredResult.getAgentResponse());
+        assertEquals("looks good", restoredResult.getReviewResponse());
+        assertTrue(restoredResult.isApproved());
+        assertEquals(1500L, restoredResult.getDurationMs());
+        assertEquals(List.of(Path.of("out", "chapter.md")), restoredResult.getGeneratedFiles());
+    }
+
+    @Test
+    @DisplayName("Should return no stages for an unknown run")
+    void shouldReturnNoStagesForUnknownRun() throws Exception {
+        assertTrue(checkpointStore.loadCompletedStages("missing-run", "hash-a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject resuming against a changed definition")
+    void shouldRejectChangedDefinition() {
+        checkpointStore.save("run-1", "hash-a", "stage-1", successfulResult("output"));
+
+        ConductorException e = assertThrows(ConductorException.class,
+            () -> checkpointStore.loadCompletedStages("run-1", "hash-b"));
+        assertTrue(e.getMessage().contains("run-1"));
+    }
+
+    @Test
+    @DisplayName("Should clear checkpoints of a run")
+    void shouldClearCheckpoints() throws Exception {
+        checkpointStore.save("run-1", "hash-a", "stage-1", successfulResult("one"));
+        checkpointStore.save("run-1", "hash-a", "stage-2", successfulResult("two"));
+        checkpointStore.save("run-2", "hash-a", "stage-1", successfulResult("other"));
+
+        assertEquals(2, checkpointStore.clear("run-1"));
+        assertTrue(checkpointStore.loadCompletedStages("run-1", "hash-a").isEmpty());
+        assertEquals(1, checkpointStore.loadCompletedStages("run-2", "hash-a").size());
+    }
+
+    @Test
+    @DisplayName("Should compute a stable definition hash that tracks content changes")
+    void shouldComputeStableDefinitionHash() {
+        WorkflowDefinition first = definition("Write {{topic}}");
+        WorkflowDefinition same = definition("Write {{topic}}");
+        WorkflowDefinition changed = definition("Rewrite {{topic}}");
+
+        assertEquals(StageCheckpointStore.computeDefinitionHash(first),
+            StageCheckpointStore.computeDefinitionHash(same));
+        assertNotEquals(StageCheckpointStore.computeDefinitionHash(first),
+            StageCheckpointStore.computeDefinitionHash(changed));
+    }
+
+    @Test
+    @DisplayName("Should resume a failed run from the first incomplete wave")
+    void shouldResumeFromFirstIncompleteWave() throws Exception {
+        AtomicInteger outlineCalls = new AtomicInteger();
+        AtomicInteger chapterCalls = new AtomicInteger();
+        AtomicBoolean chapterFails = new AtomicBoolean(true);
+
+        SubAgent outlineAgent = mock(SubAgent.class);
+        when(outlineAgent.execute(any())).thenAnswer(invocation -> {
+            outlineCalls.incrementAndGet();
+            return new ExecutionResult(true, "the outline", null);
+        });
+        SubAgent chapterAgent = mock(SubAgent.class);
+        when(chapterAgent.execute(any())).thenAnswer(invocation -> {
+            chapterCalls.incrementAndGet();
+            return chapterFails.get()
+                ? new ExecutionResult(false, "provider outage", null)
+                : new ExecutionResult(true, "the chapter", null);
+        });
+
+        AgentFactory agentFactory = mock(AgentFactory.class);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any())).thenAnswer(invocation -> {
+            AgentDefinition definition = invocation.getArgument(0);
+            return "outliner".equals(definition.getRole()) ? outlineAgent : chapterAgent;
+        });
+
+        YamlWorkflowEngine firstAttempt = createEngine(agentFactory);
+        WorkflowExecutionResult failed = firstAttempt.executeInternal("topic");
+        firstAttempt.close();
+
+        assertFalse(failed.isSuccess());
+        assertEquals(1, outlineCalls.get());
+
+        chapterFails.set(false);
+        YamlWorkflowEngine secondAttempt = createEngine(agentFactory);
+        WorkflowExecutionResult resumed = secondAttempt.executeInternal("topic");
+        secondAttempt.close();
+
+        assertTrue(resumed.isSuccess(), resumed.getErrorMessage());
+        assertEquals(1, outlineCalls.get(), "Checkpointed stage should not be re-executed");
+        assertEquals(2, chapterCalls.get());
+        assertEquals("the outline", resumed.getStageResult("outline").getAgentResponse());
+        assertEquals("the chapter", resumed.getStageResult("chapter").getAgentResponse());
+
+        // A completed run leaves no checkpoints, so the same run ID starts over
+        YamlWorkflowEngine rerun = createEngine(agentFactory);
+        assertTrue(rerun.executeInternal("topic").isSuccess());
+        rerun.close();
+        assertEquals(2, outlineCalls.get());
+    }
+
+    private YamlWorkflowEngine createEngine(AgentFactory agentFactory) throws Exception {
+        Path workflow = tempDir.resolve("workflow.yaml");
+        Files.writeString(workflow, """
+            workflow:
+              name: checkpoint-workflow
+              version: "1.0"
+            stages:
+              - name: outline
+                agents:
+                  primary: outliner
+              - name: chapter
+                depends_on: [outline]
+                agents:
+                  primary: writer
+            """);
+        Path agents = tempDir.resolve("agents.yaml");
+        Files.writeString(agents, """
+            agents:
+              outliner:
+                type: llm
+                role: outliner
+                prompt_template: outline-template
+              writer:
+                type: llm
+                role: writer
+                prompt_template: writer-template
+            prompt_templates:
+              outline-template:
+                user: "Outline {{topic}}"
+              writer-template:
+                user: "Write about {{topic}}"
+            """);
+
+        return new YamlWorkflowEngine(new WorkflowConfigLoader(), agentFactory,
+                new PromptTemplateEngine(), new StageExecutor(), null)
+            .loadWorkflow(workflow.toString())
+            .loadAgents(agents.toString())
+            .withOrchestrator(mock(Orchestrator.class), memoryStore)
+            .withCheckpointing("book-run-1");
+    }
+
+    private static StageExecutionResult successfulResult(String output) {
+        StageExecutionResult result = new StageExecutionResult();
+        result.setAgentResponse(output);
+        return result;
+    }
+
+    private static WorkflowDefinition definition(String description) {
+        WorkflowDefinition.WorkflowMetadata metadata = new WorkflowDefinition.WorkflowMetadata();
+        metadata.setName("hash-workflow");
+        WorkflowStage stage = new WorkflowStage();
+        stage.setName("stage-1");
+        stage.setDescription(description);
+        stage.setAgents(Map.of("primary", "writer"));
+        WorkflowDefinition definition = new WorkflowDefinition();
+        definition.setMetadata(metadata);
+        definition.setStages(List.of(stage));
+        return definition;
+    }
+}
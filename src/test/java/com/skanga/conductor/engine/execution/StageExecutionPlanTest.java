@@ -0,0 +1,84 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.workflow.config.WorkflowStage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for wave planning and critical-path ordering of workflow stages.
+ */
+@DisplayName("StageExecutionPlan Tests")
+class StageExecutionPlanTest {
+
+    private static WorkflowStage stage(String name, String... dependsOn) {
+        WorkflowStage stage = new WorkflowStage();
+        stage.setName(name);
+        stage.setDependsOn(List.of(dependsOn));
+        return stage;
+    }
+
+    private static List<String> names(List<WorkflowStage> stages) {
+        return stages.stream().map(WorkflowStage::getName).toList();
+    }
+
+    // "quick" is a single stage; "start" heads the chain start -> middle -> end
+    private static final List<WorkflowStage> STAGES = List.of(
+        stage("quick"), stage("start"), stage("middle", "start"), stage("end", "middle"));
+
+    @Test
+    @DisplayName("Should group stages into dependency waves")
+    void shouldGroupStagesIntoWaves() {
+        StageExecutionPlan plan = new StageExecutionPlan(STAGES);
+
+        assertEquals(3, plan.getWaveCount());
+        assertEquals(2, plan.getMaxParallelism());
+        assertEquals(List.of("end"), names(plan.getLeafStages()));
+    }
+
+    @Test
+    @DisplayName("Should compute the heaviest remaining chain per stage")
+    void shouldComputeRemainingPathWeights() {
+        StageExecutionPlan plan = new StageExecutionPlan(STAGES);
+        Map<String, Double> durations = Map.of("quick", 100.0, "start", 10.0, "middle", 20.0, "end", 30.0);
+
+        Map<String, Double> remaining = plan.getRemainingPathWeights(durations::get);
+
+        assertEquals(100.0, remaining.get("quick"));
+        assertEquals(60.0, remaining.get("start"));
+        assertEquals(50.0, remaining.get("middle"));
+        assertEquals(30.0, remaining.get("end"));
+    }
+
+    @Test
+    @DisplayName("Should order ready stages longest remaining path first")
+    void shouldOrderByCriticalPath() {
+        StageExecutionPlan plan = new StageExecutionPlan(STAGES);
+        List<WorkflowStage> ready = plan.getRootStages();
+
+        assertEquals(List.of("start", "quick"), names(plan.orderByCriticalPath(ready, name -> 1.0)));
+        assertEquals(List.of("quick", "start"), names(plan.orderByCriticalPath(ready,
+            name -> name.equals("quick") ? 500.0 : 10.0)));
+    }
+
+    @Test
+    @DisplayName("Should estimate stage durations from recorded history")
+    void shouldEstimateDurationsFromHistory() {
+        StageDurationHistory history = new StageDurationHistory();
+        assertFalse(history.hasHistory("wf"));
+        assertEquals(1.0, history.estimateMillis("wf", "research"));
+
+        history.record("wf", "research", 1000);
+        history.record("wf", "research", 2000);
+        history.record("wf", "summary", 100);
+
+        assertTrue(history.hasHistory("wf"));
+        assertEquals(1300.0, history.estimateMillis("wf", "research"), 0.001);
+        assertEquals(700.0, history.estimateMillis("wf", "unknown"), 0.001);
+        assertEquals(1.0, history.estimateMillis("other", "research"));
+    }
+}
@@ -0,0 +1,228 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.engine.YamlWorkflowEngine;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.metrics.InMemoryMetricsCollector;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.workflow.config.AgentDefinition;
+import com.skanga.conductor.workflow.config.WorkflowConfigLoader;
+import com.skanga.conductor.workflow.templates.AgentFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for content-addressed memoization of stage outputs.
+ */
+@DisplayName("StageResultMemo Tests")
+class StageResultMemoTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MemoryStore memoryStore;
+    private StageResultMemo memo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        memoryStore = new MemoryStore("jdbc:h2:mem:memo-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        memo = new StageResultMemo(memoryStore, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        memoryStore.close();
+    }
+
+    @Test
+    @DisplayName("Should derive keys from fingerprint and prompt")
+    void shouldDeriveKeysFromFingerprintAndPrompt() {
+        String key = memo.keyFor("writer|openai/gpt-4o", "Write about cats");
+
+        assertEquals(64, key.length());
+        assertEquals(key, memo.keyFor("writer|openai/gpt-4o", "Write about cats"));
+        assertNotEquals(key, memo.keyFor("writer|openai/gpt-4o", "Write about dogs"));
+        assertNotEquals(key, memo.keyFor("writer|anthropic/claude", "Write about cats"));
+    }
+
+    @Test
+    @DisplayName("Should store and look up outputs while counting hits and misses")
+    void shouldStoreAndLookUpOutputs() {
+        String key = memo.keyFor("fp", "prompt");
+
+        assertEquals(Optional.empty(), memo.lookup(key));
+        memo.store(key, "output");
+        assertEquals(Optional.of("output"), memo.lookup(key));
+
+        assertEquals(1, memo.getHitCount());
+        assertEquals(1, memo.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should export hits, misses and evictions to the metrics registry")
+    void shouldExportMetrics() {
+        InMemoryMetricsCollector collector = new InMemoryMetricsCollector();
+        MetricsRegistry.getInstance().register(collector);
+        try {
+            StageResultMemo bounded = new StageResultMemo(memoryStore, 1);
+            String key = bounded.keyFor("fp", "prompt");
+            bounded.lookup(key, "draft");
+            bounded.store(key, "output");
+            bounded.lookup(key, "draft");
+            bounded.store(bounded.keyFor("fp", "other"), "other output");
+
+            assertEquals("draft", collector.getMetricsByName("workflow.memo.miss").get(0).tags().get("stage"));
+            assertEquals(1, collector.getMetricsByName("workflow.memo.hit").size());
+            assertEquals(1, collector.getMetricsByName("workflow.memo.evicted").get(0).value());
+        } finally {
+            MetricsRegistry.getInstance().unregister(collector);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entries beyond the limit")
+    void shouldEvictLeastRecentlyUsedEntries() throws Exception {
+        StageResultMemo bounded = new StageResultMemo(memoryStore, 2);
+        bounded.store("a", "first");
+        Thread.sleep(10);
+        bounded.store("b", "second");
+        Thread.sleep(10);
+        bounded.lookup("a");
+        Thread.sleep(10);
+        bounded.store("c", "third");
+
+        assertTrue(bounded.lookup("a").isPresent());
+        assertTrue(bounded.lookup("b").isEmpty());
+        assertTrue(bounded.lookup("c").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should reuse memoized output without creating an agent")
+    void shouldReuseMemoizedOutput() throws Exception {
+        SubAgent agent = mock(SubAgent.class);
+        when(agent.execute(any())).thenReturn(new ExecutionResult(true, "fresh", null));
+        StageExecutor executor = new StageExecutor();
+        StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
+            .stageName("draft")
+            .memoization(memo, "fp")
+            .build();
+
+        StageExecutor.StageResult first = executor.executeStage(config, attempt -> agent,
+            (attempt, ctx) -> "Write a draft", new HashMap<>());
+        StageExecutor.StageResult second = executor.executeStage(config, attempt -> agent,
+            (attempt, ctx) -> "Write a draft", new HashMap<>());
+
+        assertFalse(first.isMemoized());
+        assertTrue(second.isMemoized());
+        assertEquals("fresh", second.getOutput());
+        verify(agent, times(1)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should not memoize output that failed validation")
+    void shouldNotMemoizeInvalidOutput() throws Exception {
+        SubAgent agent = mock(SubAgent.class);
+        when(agent.execute(any())).thenReturn(new ExecutionResult(true, "too short", null));
+        StageExecutor executor = new StageExecutor();
+        StageExecutor.ExecutionConfig config = new StageExecutor.ExecutionConfig.Builder()
+            .stageName("draft")
+            .maxRetries(2)
+            .resultValidator(result -> StageExecutor.ValidationResult.invalid("needs more words"))
+            .memoization(memo, "fp")
+            .build();
+
+        executor.executeStage(config, attempt -> agent, (attempt, ctx) -> "Write a draft", new HashMap<>());
+
+        assertTrue(memo.lookup(memo.keyFor("fp", "Write a draft")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should skip unchanged stages on re-run unless they opt out")
+    void shouldSkipUnchangedStagesOnRerun() throws Exception {
+        AtomicInteger outlineCalls = new AtomicInteger();
+        AtomicInteger researchCalls = new AtomicInteger();
+        SubAgent outlineAgent = mock(SubAgent.class);
+        when(outlineAgent.execute(any())).thenAnswer(invocation -> {
+            outlineCalls.incrementAndGet();
+            return new ExecutionResult(true, "the outline", null);
+        });
+        SubAgent researchAgent = mock(SubAgent.class);
+        when(researchAgent.execute(any())).thenAnswer(invocation -> {
+            researchCalls.incrementAndGet();
+            return new ExecutionResult(true, "fresh research", null);
+        });
+
+        AgentFactory agentFactory = mock(AgentFactory.class);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any())).thenAnswer(invocation -> {
+            AgentDefinition definition = invocation.getArgument(0);
+            return "outliner".equals(definition.getRole()) ? outlineAgent : researchAgent;
+        });
+        when(agentFactory.describeProvider()).thenReturn("mock/test-model@local");
+
+        for (int run = 0; run < 2; run++) {
+            YamlWorkflowEngine engine = createEngine(agentFactory);
+            WorkflowExecutionResult result = engine.executeInternal("topic");
+            engine.close();
+            assertTrue(result.isSuccess(), result.getErrorMessage());
+            assertEquals("the outline", result.getStageResult("outline").getAgentResponse());
+        }
+
+        assertEquals(1, outlineCalls.get(), "Unchanged stage should be served from the memo");
+        assertEquals(2, researchCalls.get(), "Stage with memoize: false should always run");
+    }
+
+    private YamlWorkflowEngine createEngine(AgentFactory agentFactory) throws Exception {
+        Path workflow = tempDir.resolve("workflow.yaml");
+        Files.writeString(workflow, """
+            workflow:
+              name: memo-workflow
+              version: "1.0"
+            stages:
+              - name: outline
+                agents:
+                  primary: outliner
+              - name: research
+                depends_on: [outline]
+                memoize: false
+                agents:
+                  primary: researcher
+            """);
+        Path agents = tempDir.resolve("agents.yaml");
+        Files.writeString(agents, """
+            agents:
+              outliner:
+                type: llm
+                role: outliner
+                prompt_template: outline-template
+              researcher:
+                type: llm
+                role: researcher
+                prompt_template: research-template
+            prompt_templates:
+              outline-template:
+                user: "Outline {{topic}}"
+              research-template:
+                user: "Research {{topic}}"
+            """);
+
+        return new YamlWorkflowEngine(new WorkflowConfigLoader(), agentFactory,
+                new PromptTemplateEngine(), new StageExecutor(), null)
+            .loadWorkflow(workflow.toString())
+            .loadAgents(agents.toString())
+            .withOrchestrator(mock(Orchestrator.class), memoryStore)
+            .withResultMemo(memo);
+    }
+}
@@ -0,0 +1,298 @@
+package com.skanga.conductor.engine.execution;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.engine.YamlWorkflowEngine;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.workflow.config.AgentDefinition;
+import com.skanga.conductor.workflow.config.WorkflowConfigLoader;
+import com.skanga.conductor.workflow.config.WorkflowStage;
+import com.skanga.conductor.workflow.templates.AgentFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for execution resources shared by concurrent workflow runs.
+ */
+@DisplayName("WorkflowExecutionPool Tests")
+class WorkflowExecutionPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private WorkflowExecutionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new WorkflowExecutionPool(2, Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should reject runs beyond the concurrent execution limit")
+    void shouldRejectRunsBeyondLimit() throws Exception {
+        pool.acquireExecution();
+        pool.acquireExecution();
+        assertEquals(2, pool.getActiveExecutionCount());
+
+        assertThrows(ConductorException.class, () -> pool.acquireExecution());
+
+        pool.releaseExecution();
+        pool.acquireExecution();
+        assertEquals(2, pool.getActiveExecutionCount());
+    }
+
+    @Test
+    @DisplayName("Should create each pooled agent once")
+    void shouldCreatePooledAgentOnce() throws Exception {
+        SubAgent agent = mock(SubAgent.class);
+
+        assertSame(agent, pool.getOrCreateAgent("writer", () -> agent));
+        assertSame(agent, pool.getOrCreateAgent("writer", () -> fail("agent should be pooled")));
+        assertEquals(1, pool.getAgentCount());
+    }
+
+    @Test
+    @DisplayName("Should keep the agents of distinct owners apart")
+    void shouldKeepAgentsOfDistinctOwnersApart() throws Exception {
+        SubAgent first = mock(SubAgent.class);
+        SubAgent second = mock(SubAgent.class);
+        Object firstOwner = new Object();
+
+        assertSame(first, pool.getOrCreateAgent(firstOwner, "writer", () -> first));
+        assertSame(second, pool.getOrCreateAgent(new Object(), "writer", () -> second));
+        assertSame(first, pool.getOrCreateAgent(firstOwner, "writer", () -> fail("agent should be pooled")));
+    }
+
+    @Test
+    @DisplayName("Should not block other agents while one is being created")
+    void shouldCreateAgentsOutsideLock() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SubAgent slow = mock(SubAgent.class);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<SubAgent> slowCreation = callers.submit(() -> pool.getOrCreateAgent("slow", () -> {
+                creating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new ConductorException("interrupted", e);
+                }
+                return slow;
+            }));
+            assertTrue(creating.await(5, TimeUnit.SECONDS));
+            Future<SubAgent> waiting = callers.submit(() -> pool.getOrCreateAgent("slow",
+                () -> fail("agent should be created once")));
+
+            SubAgent fast = mock(SubAgent.class);
+            assertSame(fast, pool.getOrCreateAgent("fast", () -> fast));
+
+            release.countDown();
+            assertSame(slow, slowCreation.get(5, TimeUnit.SECONDS));
+            assertSame(slow, waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used agents beyond the limit")
+    void shouldEvictLeastRecentlyUsedAgents() throws Exception {
+        try (WorkflowExecutionPool bounded = new WorkflowExecutionPool(1, Duration.ZERO, Duration.ofSeconds(1), 2)) {
+            SubAgent first = mock(SubAgent.class);
+            bounded.getOrCreateAgent("first", () -> first);
+            bounded.getOrCreateAgent("second", () -> mock(SubAgent.class));
+            bounded.getOrCreateAgent("first", () -> fail("agent should be pooled"));
+            bounded.getOrCreateAgent("third", () -> mock(SubAgent.class));
+
+            assertEquals(2, bounded.getAgentCount());
+            assertSame(first, bounded.getOrCreateAgent("first", () -> fail("recently used agent was evicted")));
+            SubAgent recreated = mock(SubAgent.class);
+            assertSame(recreated, bounded.getOrCreateAgent("second", () -> recreated));
+        }
+    }
+
+    @Test
+    @DisplayName("Should propagate agent creation failures")
+    void shouldPropagateAgentCreationFailures() {
+        ConductorException e = assertThrows(ConductorException.class,
+            () -> pool.getOrCreateAgent("broken", () -> {
+                throw new ConductorException("no provider");
+            }));
+        assertEquals("no provider", e.getMessage());
+        assertEquals(0, pool.getAgentCount());
+    }
+
+    @Test
+    @DisplayName("Should execute each stage of a wave with its own result")
+    void shouldExecuteEachStageOfWave() throws Exception {
+        List<WorkflowStage> stages = new ArrayList<>();
+        for (String name : List.of("a", "b", "c")) {
+            WorkflowStage stage = new WorkflowStage();
+            stage.setName(name);
+            stages.add(stage);
+        }
+
+        Map<String, String> results = pool.getStageExecutor().executeStages(stages, stage -> stage.getName() + "-done");
+
+        assertEquals(Map.of("a", "a-done", "b", "b-done", "c", "c-done"), results);
+    }
+
+    @Test
+    @DisplayName("Should start critical path stages first when a wave has more stages than slots")
+    void shouldStartCriticalPathFirst() throws Exception {
+        // "head" starts a two-stage chain; the short stages have no dependents
+        List<WorkflowStage> stages = new ArrayList<>();
+        for (String name : List.of("short-1", "short-2", "head", "tail")) {
+            WorkflowStage stage = new WorkflowStage();
+            stage.setName(name);
+            if (name.equals("tail")) {
+                stage.setDependsOn(List.of("head"));
+            }
+            stages.add(stage);
+        }
+        StageExecutionPlan plan = new StageExecutionPlan(stages);
+        List<WorkflowStage> wave = plan.getExecutionWaves().get(0).getStages().stream()
+            .sorted(Comparator.comparing(WorkflowStage::getName).reversed())
+            .toList();
+        assertEquals(List.of("short-2", "short-1", "head"), wave.stream().map(WorkflowStage::getName).toList());
+
+        try (WorkflowExecutionPool bounded = new WorkflowExecutionPool(1, Duration.ZERO, Duration.ofSeconds(10), 1, 2)) {
+            List<String> started = new CopyOnWriteArrayList<>();
+            ParallelStageExecutor.StageTask<String> task = stage -> {
+                started.add(stage.getName());
+                try {
+                    Thread.sleep(stage.getName().startsWith("short") ? 100 : 300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return stage.getName();
+            };
+
+            long unorderedMs = timeWave(bounded, wave, task);
+            started.clear();
+            long orderedMs = timeWave(bounded, plan.orderByCriticalPath(wave, stageName -> 1.0), task);
+
+            assertEquals("head", started.get(0));
+            // Unordered: the short stages take both slots and the head starts 100ms late
+            assertTrue(orderedMs < unorderedMs, "ordered " + orderedMs + "ms, unordered " + unorderedMs + "ms");
+        }
+    }
+
+    private static long timeWave(WorkflowExecutionPool pool, List<WorkflowStage> wave,
+                                 ParallelStageExecutor.StageTask<String> task) throws ConductorException {
+        long start = System.nanoTime();
+        assertEquals(3, pool.getStageExecutor().executeStages(wave, task).size());
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    @DisplayName("Should run concurrent workflows on one engine with isolated state and pooled agents")
+    void shouldRunConcurrentWorkflowsInIsolation() throws Exception {
+        SubAgent echoAgent = mock(SubAgent.class);
+        when(echoAgent.execute(any())).thenAnswer(invocation -> {
+            ExecutionInput input = invocation.getArgument(0);
+            Thread.sleep(20);
+            return new ExecutionResult(true, input.content(), null);
+        });
+        AgentFactory agentFactory = mock(AgentFactory.class);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any())).thenReturn(echoAgent);
+
+        // Six callers compete for two execution slots and queue until one frees up
+        WorkflowExecutionPool sharedPool = new WorkflowExecutionPool(2, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        YamlWorkflowEngine engine = createEngine(agentFactory, sharedPool);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<WorkflowExecutionResult>> runs = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String topic = "topic-" + i;
+                runs.add(callers.submit(() -> engine.executeInternal(topic)));
+            }
+
+            for (int i = 0; i < runs.size(); i++) {
+                WorkflowExecutionResult result = runs.get(i).get();
+                assertTrue(result.isSuccess(), result.getErrorMessage());
+                assertTrue(result.getStageResult("outline").getAgentResponse().endsWith("Outline topic-" + i));
+                assertTrue(result.getStageResult("chapter").getAgentResponse().endsWith("Write topic-" + i));
+            }
+        } finally {
+            callers.shutdownNow();
+            engine.close();
+        }
+
+        // One agent per agent definition, shared by all runs
+        verify(agentFactory, times(2)).createAgent(any(AgentDefinition.class), any());
+        assertEquals(0, sharedPool.getActiveExecutionCount());
+        assertFalse(sharedPool.isClosed(), "Shared pool must outlive the engine");
+        sharedPool.close();
+    }
+
+    private YamlWorkflowEngine createEngine(AgentFactory agentFactory, WorkflowExecutionPool sharedPool)
+            throws Exception {
+        Path workflow = tempDir.resolve("workflow.yaml");
+        Files.writeString(workflow, """
+            workflow:
+              name: concurrent-workflow
+              version: "1.0"
+            stages:
+              - name: outline
+                agents:
+                  primary: outliner
+              - name: chapter
+                depends_on: [outline]
+                agents:
+                  primary: writer
+            """);
+        Path agents = tempDir.resolve("agents.yaml");
+        Files.writeString(agents, """
+            agents:
+              outliner:
+                type: llm
+                role: outliner
+                prompt_template: outline-template
+              writer:
+                type: llm
+                role: writer
+                prompt_template: writer-template
+            prompt_templates:
+              outline-template:
+                user: "Outline {{topic}}"
+              writer-template:
+                user: "Write {{topic}}"
+            """);
+
+        return new YamlWorkflowEngine(new WorkflowConfigLoader(), agentFactory,
+                new PromptTemplateEngine(), new StageExecutor(), null)
+            .loadWorkflow(workflow.toString())
+            .loadAgents(agents.toString())
+            .withOrchestrator(mock(Orchestrator.class), null)
+            .withExecutionPool(sharedPool);
+    }
+}
@@ -0,0 +1,250 @@
+package com.skanga.conductor.engine.scheduling;
+
+import com.skanga.conductor.engine.WorkflowEngine;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for admission control and priority scheduling of workflow submissions.
+ */
+@DisplayName("WorkflowScheduler Tests")
+class WorkflowSchedulerTest {
+
+    private final List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+    private WorkflowEngine engine;
+    private WorkflowScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = mock(WorkflowEngine.class);
+        when(engine.execute(any(String[].class))).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            if ("blocker".equals(name)) {
+                releaseBlocker.await(10, TimeUnit.SECONDS);
+            }
+            executionOrder.add(name);
+            return mock(WorkflowEngine.WorkflowResult.class);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocker.countDown();
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    private WorkflowScheduler.Builder singleSlotScheduler() {
+        return WorkflowScheduler.builder()
+            .maxConcurrent(1)
+            .queueCapacity(100)
+            .metricsRegistry(mock(MetricsRegistry.class));
+    }
+
+    private CompletableFuture<WorkflowEngine.WorkflowResult> submit(String name, WorkflowSubmission.Priority priority,
+                                                                    String tenant) throws ConductorException {
+        return scheduler.submit(WorkflowSubmission.builder(engine)
+            .inputs(name)
+            .priority(priority)
+            .tenant(tenant)
+            .build());
+    }
+
+    /**
+     * Occupies the only execution slot so that subsequent submissions queue up.
+     */
+    private CompletableFuture<WorkflowEngine.WorkflowResult> occupySlot() throws Exception {
+        CompletableFuture<WorkflowEngine.WorkflowResult> blocker =
+            submit("blocker", WorkflowSubmission.Priority.BATCH, "ops");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getRunningCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return blocker;
+    }
+
+    @Test
+    @DisplayName("Should queue submissions beyond the concurrency limit")
+    void shouldQueueBeyondConcurrencyLimit() throws Exception {
+        scheduler = singleSlotScheduler().build();
+        CompletableFuture<WorkflowEngine.WorkflowResult> blocker = occupySlot();
+        CompletableFuture<WorkflowEngine.WorkflowResult> queued =
+            submit("queued", WorkflowSubmission.Priority.NORMAL, "acme");
+
+        assertEquals(1, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueueDepth());
+        assertFalse(queued.isDone());
+
+        releaseBlocker.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("blocker", "queued"), executionOrder);
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should dispatch interactive submissions ahead of queued batch jobs")
+    void shouldPrioritizeInteractiveSubmissions() throws Exception {
+        scheduler = singleSlotScheduler().build();
+        occupySlot();
+        submit("batch-1", WorkflowSubmission.Priority.BATCH, "ops");
+        submit("batch-2", WorkflowSubmission.Priority.BATCH, "ops");
+        CompletableFuture<WorkflowEngine.WorkflowResult> interactive =
+            submit("interactive", WorkflowSubmission.Priority.INTERACTIVE, "web");
+
+        releaseBlocker.countDown();
+        interactive.get(5, TimeUnit.SECONDS);
+        waitForExecutions(4);
+
+        assertEquals(List.of("blocker", "interactive", "batch-1", "batch-2"), executionOrder);
+    }
+
+    @Test
+    @DisplayName("Should share slots between tenants by weight")
+    void shouldShareSlotsBetweenTenantsByWeight() throws Exception {
+        scheduler = singleSlotScheduler().tenantWeight("gold", 2).build();
+        occupySlot();
+        for (int i = 0; i < 6; i++) {
+            submit("gold-" + i, WorkflowSubmission.Priority.NORMAL, "gold");
+            submit("free-" + i, WorkflowSubmission.Priority.NORMAL, "free");
+        }
+
+        releaseBlocker.countDown();
+        waitForExecutions(13);
+
+        List<String> firstSix = executionOrder.subList(1, 7);
+        assertEquals(4, firstSix.stream().filter(name -> name.startsWith("gold")).count());
+        assertEquals(2, firstSix.stream().filter(name -> name.startsWith("free")).count());
+    }
+
+    @Test
+    @DisplayName("Should order a tenant's submissions by deadline and fail expired ones")
+    void shouldOrderByDeadlineAndExpire() throws Exception {
+        scheduler = singleSlotScheduler().build();
+        occupySlot();
+        Instant now = Instant.now();
+        scheduler.submit(WorkflowSubmission.builder(engine).inputs("no-deadline").build());
+        scheduler.submit(WorkflowSubmission.builder(engine).inputs("late").deadline(now.plusSeconds(60)).build());
+        scheduler.submit(WorkflowSubmission.builder(engine).inputs("soon").deadline(now.plusSeconds(30)).build());
+        CompletableFuture<WorkflowEngine.WorkflowResult> expired = scheduler.submit(
+            WorkflowSubmission.builder(engine).inputs("expired").deadline(now.minusSeconds(1)).build());
+
+        releaseBlocker.countDown();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> expired.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConductorException.class, e.getCause());
+        waitForExecutions(4);
+
+        assertEquals(List.of("blocker", "soon", "late", "no-deadline"), executionOrder);
+    }
+
+    @Test
+    @DisplayName("Should reject submissions when the class queue is full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        scheduler = singleSlotScheduler().queueCapacity(1).build();
+        occupySlot();
+        submit("queued", WorkflowSubmission.Priority.NORMAL, "acme");
+
+        assertThrows(ConductorException.class, () -> submit("overflow", WorkflowSubmission.Priority.NORMAL, "acme"));
+        // Other classes have their own capacity
+        assertDoesNotThrow(() -> submit("interactive", WorkflowSubmission.Priority.INTERACTIVE, "acme"));
+    }
+
+    @Test
+    @DisplayName("Should wait for room under the queue overflow policy")
+    void shouldWaitForRoomUnderQueuePolicy() throws Exception {
+        scheduler = singleSlotScheduler()
+            .queueCapacity(1)
+            .overflowPolicy(WorkflowScheduler.OverflowPolicy.QUEUE)
+            .enqueueTimeout(Duration.ofSeconds(5))
+            .build();
+        occupySlot();
+        submit("queued", WorkflowSubmission.Priority.NORMAL, "acme");
+
+        CompletableFuture<CompletableFuture<WorkflowEngine.WorkflowResult>> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return submit("waiting", WorkflowSubmission.Priority.NORMAL, "acme");
+            } catch (ConductorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        releaseBlocker.countDown();
+        waiting.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("blocker", "queued", "waiting"), executionOrder);
+    }
+
+    @Test
+    @DisplayName("Should release the queue position of cancelled submissions at once")
+    void shouldRemoveCancelledSubmissions() throws Exception {
+        scheduler = singleSlotScheduler().queueCapacity(1).build();
+        occupySlot();
+        CompletableFuture<WorkflowEngine.WorkflowResult> cancelled =
+            submit("cancelled", WorkflowSubmission.Priority.NORMAL, "acme");
+
+        cancelled.cancel(false);
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(0, scheduler.getTenantQueueCount());
+
+        CompletableFuture<WorkflowEngine.WorkflowResult> next =
+            assertDoesNotThrow(() -> submit("next", WorkflowSubmission.Priority.NORMAL, "acme"));
+        releaseBlocker.countDown();
+        next.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("blocker", "next"), executionOrder);
+    }
+
+    @Test
+    @DisplayName("Should drop tenant queues once they are drained")
+    void shouldDropDrainedTenantQueues() throws Exception {
+        scheduler = singleSlotScheduler().build();
+        occupySlot();
+        for (int i = 0; i < 5; i++) {
+            submit("tenant-" + i, WorkflowSubmission.Priority.NORMAL, "tenant-" + i);
+        }
+        assertEquals(5, scheduler.getTenantQueueCount());
+
+        releaseBlocker.countDown();
+        waitForExecutions(6);
+        assertEquals(0, scheduler.getTenantQueueCount());
+    }
+
+    @Test
+    @DisplayName("Should fail queued submissions on close")
+    void shouldFailQueuedSubmissionsOnClose() throws Exception {
+        scheduler = singleSlotScheduler().build();
+        occupySlot();
+        CompletableFuture<WorkflowEngine.WorkflowResult> queued =
+            submit("queued", WorkflowSubmission.Priority.NORMAL, "acme");
+
+        scheduler.close();
+
+        assertTrue(queued.isCompletedExceptionally());
+        assertThrows(ConductorException.class, () -> submit("late", WorkflowSubmission.Priority.NORMAL, "acme"));
+    }
+
+    private void waitForExecutions(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executionOrder.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, executionOrder.size());
+    }
+}
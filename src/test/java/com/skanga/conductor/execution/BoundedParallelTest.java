@@ -0,0 +1,79 @@
+package com.skanga.conductor.execution;
+
+import com.skanga.conductor.provider.TokenBudget;
+import com.skanga.conductor.provider.UsageScope;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bounded, fail-fast parallel batches.
+ */
+@DisplayName("BoundedParallel Tests")
+class BoundedParallelTest {
+
+    @Test
+    @DisplayName("Should return results in task order without exceeding the concurrency bound")
+    void shouldBoundConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int value = i;
+            tasks.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20 - value * 2);
+                running.decrementAndGet();
+                return value;
+            });
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), BoundedParallel.invokeAll(tasks, 3, "bounded"));
+        assertTrue(peak.get() <= 3, "peak concurrency " + peak.get());
+    }
+
+    @Test
+    @DisplayName("Should report the first failure and cancel the other tasks")
+    void shouldFailFast() {
+        CancellationToken[] seen = new CancellationToken[1];
+        List<Callable<String>> tasks = List.of(
+            () -> {
+                throw new IllegalStateException("boom");
+            },
+            () -> {
+                seen[0] = CancellationToken.current();
+                while (!CancellationToken.current().isCancelled()) {
+                    Thread.sleep(5);
+                }
+                return "abandoned";
+            });
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> BoundedParallel.invokeAll(tasks, 2, "fail-fast"));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertTrue(seen[0] == null || seen[0].isCancelled());
+    }
+
+    @Test
+    @DisplayName("Should bind the caller's usage scope on the task threads")
+    void shouldPropagateUsageScope() throws Exception {
+        List<Callable<String>> tasks = List.of(
+            () -> UsageScope.current().getAgent(),
+            () -> UsageScope.current().getWorkflow() + "/" + UsageScope.current().getStage());
+
+        List<String> results;
+        try (UsageScope.Binding ignored = UsageScope.forWorkflow("book", TokenBudget.unlimited())
+                .withStage("outline").withAgent("writer").bind()) {
+            results = BoundedParallel.invokeAll(tasks, 2, "usage");
+        }
+
+        assertEquals(List.of("writer", "book/outline"), results);
+    }
+}
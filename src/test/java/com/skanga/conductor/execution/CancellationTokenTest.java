@@ -0,0 +1,143 @@
+package com.skanga.conductor.execution;
+
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.provider.TokenBucketRateLimiter;
+import com.skanga.conductor.retry.FixedDelayRetryPolicy;
+import com.skanga.conductor.retry.RetryExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for deadline and cancellation propagation.
+ */
+@DisplayName("CancellationToken Tests")
+class CancellationTokenTest {
+
+    @Test
+    @DisplayName("Should cancel children with their parent but not the parent with a child")
+    void shouldPropagateCancellationToChildren() {
+        CancellationToken parent = CancellationToken.create();
+        CancellationToken first = parent.child();
+        CancellationToken second = parent.child();
+
+        first.cancel("stage failed");
+        assertTrue(first.isCancelled());
+        assertFalse(parent.isCancelled());
+        assertFalse(second.isCancelled());
+
+        parent.cancel("workflow failed");
+        assertTrue(second.isCancelled());
+        assertEquals("workflow failed", second.getReason());
+        assertEquals("stage failed", first.getReason());
+    }
+
+    @Test
+    @DisplayName("Should stop following the parent once closed")
+    void shouldDetachClosedChild() {
+        CancellationToken parent = CancellationToken.create();
+        CancellationToken child = parent.child();
+        child.close();
+
+        parent.cancel("done");
+
+        assertFalse(child.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Should cancel at the deadline and wake waiting threads")
+    void shouldCancelAtDeadline() throws InterruptedException {
+        CancellationToken token = CancellationToken.withDeadline(Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        assertTrue(token.await(Duration.ofSeconds(5)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 2000, "await should return at the deadline, took " + elapsedMs + "ms");
+        assertEquals("deadline exceeded", token.getReason());
+        assertThrows(ConductorException.ExecutionCancelledException.class, token::throwIfCancelled);
+    }
+
+    @Test
+    @DisplayName("Should inherit the earlier deadline of the parent")
+    void shouldInheritParentDeadline() {
+        CancellationToken parent = CancellationToken.withDeadline(Duration.ofSeconds(1));
+        CancellationToken child = parent.withTimeout(Duration.ofHours(1));
+
+        assertEquals(parent.getDeadline(), child.getDeadline());
+        assertTrue(child.remaining().compareTo(Duration.ofSeconds(1)) <= 0);
+        parent.close();
+        child.close();
+    }
+
+    @Test
+    @DisplayName("Should interrupt a blocked thread when cancelled")
+    void shouldInterruptBlockedThread() throws InterruptedException {
+        CancellationToken token = CancellationToken.create();
+        AtomicInteger outcome = new AtomicInteger();
+        Thread worker = new Thread(() -> {
+            try (CancellationToken.Scope ignored = token.interruptOnCancel()) {
+                Thread.sleep(10_000);
+                outcome.set(1);
+            } catch (InterruptedException e) {
+                outcome.set(2);
+            }
+        });
+        worker.start();
+        Thread.sleep(50);
+
+        token.cancel("workflow cancelled");
+        worker.join(2000);
+
+        assertFalse(worker.isAlive());
+        assertEquals(2, outcome.get());
+    }
+
+    @Test
+    @DisplayName("Should expose the bound token to the current thread")
+    void shouldBindTokenToThread() {
+        CancellationToken token = CancellationToken.create();
+        assertSame(CancellationToken.none(), CancellationToken.current());
+
+        try (CancellationToken.Scope ignored = token.bind()) {
+            assertSame(token, CancellationToken.current());
+        }
+
+        assertSame(CancellationToken.none(), CancellationToken.current());
+    }
+
+    @Test
+    @DisplayName("Should not retry once the token is cancelled")
+    void shouldNotRetryAfterCancellation() {
+        CancellationToken token = CancellationToken.create();
+        RetryExecutor executor = new RetryExecutor(new FixedDelayRetryPolicy(5, Duration.ofSeconds(10)), "cancel-test");
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        assertThrows(ConductorException.ExecutionCancelledException.class, () -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            token.cancel("workflow deadline exceeded");
+            throw new RuntimeException("timeout");
+        }, token));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1, attempts.get());
+        assertTrue(elapsedMs < 5000, "back-off should be skipped, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Should abandon rate limiter waits when cancelled")
+    void shouldAbandonRateLimiterWait() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+        assertTrue(limiter.tryAcquire());
+        CancellationToken token = CancellationToken.create();
+        token.cancel("workflow cancelled");
+
+        assertThrows(ConductorException.ExecutionCancelledException.class,
+            () -> limiter.acquire(Duration.ofSeconds(5), token));
+    }
+}
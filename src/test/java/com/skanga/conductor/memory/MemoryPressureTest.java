@@ -0,0 +1,138 @@
+package com.skanga.conductor.memory;
+
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for event-driven heap pressure detection and tiered memory relief.
+ */
+@DisplayName("Memory Pressure Tests")
+class MemoryPressureTest {
+
+    private MemoryManager memoryManager;
+
+    /**
+     * Shedder recording the levels it is called with.
+     */
+    private static class RecordingShedder implements MemoryShedder {
+        final List<MemoryManager.MemoryState> levels = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public int shedMemory(MemoryManager.MemoryState level) {
+            levels.add(level);
+            return 1;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        memoryManager = new MemoryManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        memoryManager.close();
+    }
+
+    @Test
+    @DisplayName("Should shed caches before running cleanup tasks, escalating with the state")
+    void shouldRelieveInTiers() {
+        RecordingShedder shedder = new RecordingShedder();
+        MemoryShedders.register(shedder);
+        List<Boolean> cleanups = Collections.synchronizedList(new ArrayList<>());
+        memoryManager.registerCleanupTask("recording", cleanups::add);
+
+        try {
+            memoryManager.onOccupancy(0.80);
+            assertEquals(List.of(MemoryManager.MemoryState.WARNING), shedder.levels);
+            assertTrue(cleanups.isEmpty(), "cleanup tasks should not run before the heap is critical");
+
+            memoryManager.onOccupancy(0.90);
+            assertEquals(MemoryManager.MemoryState.CRITICAL, shedder.levels.get(1));
+            assertEquals(List.of(false), cleanups);
+
+            memoryManager.onOccupancy(0.97);
+            assertEquals(MemoryManager.MemoryState.EMERGENCY, memoryManager.getCurrentMemoryState());
+            assertEquals(MemoryManager.MemoryState.EMERGENCY, shedder.levels.get(2));
+            assertEquals(List.of(false, true), cleanups);
+
+            // The same state again within the relief interval does nothing
+            memoryManager.onOccupancy(0.96);
+            assertEquals(3, shedder.levels.size());
+            assertEquals(2, cleanups.size());
+
+            memoryManager.onOccupancy(0.40);
+            assertEquals(MemoryManager.MemoryState.NORMAL, memoryManager.getCurrentMemoryState());
+            assertEquals(3, shedder.levels.size());
+        } finally {
+            MemoryShedders.unregister(shedder);
+        }
+    }
+
+    @Test
+    @DisplayName("Should listen for garbage collections instead of polling")
+    void shouldObserveGarbageCollections() throws InterruptedException {
+        assertTrue(memoryManager.isEventDriven(), "HotSpot collectors emit GC notifications");
+
+        System.gc();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (memoryManager.getGcEventCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(memoryManager.getGcEventCount() > 0);
+        double occupancy = memoryManager.getPostGcOccupancy();
+        assertTrue(occupancy >= 0.0 && occupancy <= 1.0);
+    }
+
+    @Test
+    @DisplayName("Should shed the least recently used half at warning and everything above")
+    void shouldShedEntriesByLevel() {
+        Map<Integer, String> cache = new LinkedHashMap<>(16, 0.75f, true);
+        IntStream.range(0, 10).forEach(i -> cache.put(i, "value" + i));
+        cache.get(0);
+        cache.get(1);
+
+        assertEquals(5, MemoryShedders.shedEntries(cache, MemoryManager.MemoryState.WARNING));
+        assertEquals(Set.of(7, 8, 9, 0, 1), cache.keySet());
+
+        assertEquals(5, MemoryShedders.shedEntries(cache, MemoryManager.MemoryState.CRITICAL));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should shed registered template caches and hold shedders weakly")
+    void shouldShedRegisteredCaches() throws InterruptedException {
+        try (PromptTemplateEngine engine = new PromptTemplateEngine(true, 100)) {
+            for (int i = 0; i < 6; i++) {
+                engine.render("Template " + i + ": {{name}}", Map.of("name", "value"));
+            }
+            assertEquals(6, engine.getCacheStats().getCurrentSize());
+
+            assertTrue(MemoryShedders.shedAll(MemoryManager.MemoryState.WARNING) >= 3);
+            assertEquals(3, engine.getCacheStats().getCurrentSize());
+        }
+
+        MemoryShedders.register(new RecordingShedder());
+        int registered = MemoryShedders.size();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (MemoryShedders.size() >= registered && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(MemoryShedders.size() < registered, "unreachable shedders should be dropped");
+    }
+}
@@ -0,0 +1,100 @@
+package com.skanga.conductor.memory;
+
+import com.skanga.conductor.engine.execution.StageExecutionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for spilling large outputs to disk.
+ */
+@DisplayName("OutputBlobStore Tests")
+class OutputBlobStoreTest {
+
+    @TempDir
+    Path spillDir;
+
+    private static String chapter(int paragraphs) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            text.append("Paragraph ").append(i).append(": the quick brown fox jumps over the lazy dog.\n");
+        }
+        return text.toString();
+    }
+
+    private long spillFileCount() throws Exception {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep content up to the threshold on the heap")
+    void shouldKeepSmallContentInline() throws Exception {
+        OutputBlobStore store = new OutputBlobStore(spillDir, 1000);
+
+        ContentHandle handle = store.store("short answer");
+
+        assertFalse(handle.isSpilled());
+        assertEquals("short answer", handle.asString());
+        assertEquals(0, spillFileCount());
+        assertNull(store.store(null));
+    }
+
+    @Test
+    @DisplayName("Should spill large content to a compressed file and read it back")
+    void shouldSpillLargeContent() throws Exception {
+        OutputBlobStore store = new OutputBlobStore(spillDir, 1000);
+        String content = chapter(500);
+
+        ContentHandle handle = store.store(content);
+
+        assertTrue(handle.isSpilled());
+        assertEquals(content.length(), handle.length());
+        assertFalse(handle.isBlank());
+        assertEquals(1, spillFileCount());
+        assertEquals(1, store.getSpilledCount());
+        assertTrue(store.getSpilledBytes() < content.length() / 2, "spilled content should be compressed");
+
+        StringWriter streamed = new StringWriter();
+        handle.writeTo(streamed);
+        assertEquals(content, streamed.toString());
+        assertEquals(content, handle.asString());
+        assertEquals(content, handle.toString());
+        assertEquals(content.substring(0, 50), handle.head(50));
+    }
+
+    @Test
+    @DisplayName("Should keep all content inline when spilling is disabled")
+    void shouldNotSpillWithZeroThreshold() throws Exception {
+        OutputBlobStore store = new OutputBlobStore(spillDir, 0);
+
+        assertFalse(store.store(chapter(500)).isSpilled());
+        assertEquals(0, spillFileCount());
+    }
+
+    @Test
+    @DisplayName("Should spill stage responses while keeping them readable")
+    void shouldSpillStageResponses() {
+        OutputBlobStore store = new OutputBlobStore(spillDir, 1000);
+        String response = chapter(200);
+        StageExecutionResult result = new StageExecutionResult();
+        result.setAgentResponse(response);
+        result.setReviewResponse("Looks good");
+
+        result.spillResponses(store);
+
+        assertTrue(result.getAgentResponseContent().isSpilled());
+        assertFalse(result.getReviewResponseContent().isSpilled());
+        assertEquals(response, result.getAgentResponse());
+        assertEquals(response.substring(0, 100) + "...", result.getAgentResponsePreview());
+        assertTrue(result.hasReview());
+    }
+}
@@ -0,0 +1,125 @@
+package com.skanga.conductor.memory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for expiring resources with the timing wheel.
+ */
+@DisplayName("ResourceTracker Tests")
+class ResourceTrackerTest {
+
+    private final ResourceTracker tracker = new ResourceTracker(Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        tracker.close();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within " + timeout);
+            Thread.sleep(5);
+        }
+    }
+
+    private static class Resource implements AutoCloseable {
+        volatile Instant closedAt;
+
+        boolean isClosed() {
+            return closedAt != null;
+        }
+
+        @Override
+        public void close() {
+            closedAt = Instant.now();
+        }
+    }
+
+    @Test
+    @DisplayName("Should expire resources promptly regardless of registration order")
+    void shouldExpireOutOfOrderWithoutSweep() throws Exception {
+        Resource late = new Resource();
+        Resource early = new Resource();
+        tracker.registerExpirableResource(late, Instant.now().plusSeconds(60));
+        Instant earlyExpiry = Instant.now().plusMillis(50);
+        ResourceTracker.ExpiryHandle handle = tracker.registerExpirableResource(early, earlyExpiry);
+
+        awaitTrue(early::isClosed, Duration.ofSeconds(5));
+
+        assertFalse(early.closedAt.isBefore(earlyExpiry), "resource closed before it expired");
+        assertTrue(handle.isExpired());
+        assertFalse(late.isClosed());
+        assertEquals(1, tracker.getExpirableResourceCount());
+    }
+
+    @Test
+    @DisplayName("Should stop tracking a cancelled resource without closing it")
+    void shouldCancelTracking() throws Exception {
+        Resource resource = new Resource();
+        ResourceTracker.ExpiryHandle handle =
+            tracker.registerExpirableResource(resource, Instant.now().plusMillis(30));
+
+        assertTrue(handle.cancel());
+        assertFalse(handle.cancel());
+        assertTrue(handle.isCancelled());
+        assertEquals(0, tracker.getExpirableResourceCount());
+
+        Thread.sleep(100);
+        tracker.cleanupExpiredResources();
+        assertFalse(resource.isClosed());
+        assertFalse(handle.isExpired());
+    }
+
+    @Test
+    @DisplayName("Should close due resources on an explicit sweep after the tick thread stops")
+    void shouldSweepAfterClose() throws Exception {
+        tracker.close();
+        Resource resource = new Resource();
+        tracker.registerExpirableResource(resource, Instant.now().plusMillis(20));
+
+        Thread.sleep(60);
+        assertFalse(resource.isClosed());
+
+        assertEquals(1, tracker.cleanupExpiredResources());
+        assertTrue(resource.isClosed());
+        assertEquals(0, tracker.getExpirableResourceCount());
+    }
+
+    @Test
+    @DisplayName("Should track hundreds of thousands of resources")
+    void shouldScaleToManyResources() throws Exception {
+        int count = 200_000;
+        AtomicInteger closed = new AtomicInteger();
+        List<ResourceTracker.ExpiryHandle> handles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long delay = 100 + ThreadLocalRandom.current().nextLong(400);
+            handles.add(tracker.registerExpirableResource(closed::incrementAndGet, Instant.now().plusMillis(delay)));
+        }
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 4) {
+            if (handles.get(i).cancel()) {
+                cancelled++;
+            }
+        }
+
+        int expected = count - cancelled;
+
+        awaitTrue(() -> closed.get() == expected, Duration.ofSeconds(30));
+
+        assertEquals(0, tracker.getExpirableResourceCount());
+        assertEquals(expected, handles.stream().filter(ResourceTracker.ExpiryHandle::isExpired).count());
+    }
+}
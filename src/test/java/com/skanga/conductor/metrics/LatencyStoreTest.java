@@ -0,0 +1,138 @@
+package com.skanga.conductor.metrics;
+
+import com.skanga.conductor.memory.MemoryStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for latency histograms and the adaptive timeouts derived from them.
+ */
+@DisplayName("LatencyStore Tests")
+class LatencyStoreTest {
+
+    private static final LatencyStore.TimeoutPolicy POLICY =
+        new LatencyStore.TimeoutPolicy(true, 0.99, 3.0, 1000, 60_000, 10);
+
+    @Test
+    @DisplayName("Should estimate quantiles within the bucket accuracy")
+    void shouldEstimateQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.quantile(0.5), 500 * 0.08);
+        assertEquals(990, histogram.quantile(0.99), 990 * 0.08);
+        assertTrue(histogram.quantile(0.99) >= 990);
+        assertEquals(-1, new LatencyHistogram().quantile(0.5));
+    }
+
+    @Test
+    @DisplayName("Should round-trip histograms through their encoding")
+    void shouldEncodeAndDecode() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5);
+        histogram.record(120);
+        histogram.record(120);
+        histogram.record(30_000);
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+        assertEquals(histogram.encode(), decoded.encode());
+        assertEquals(histogram.quantile(0.5), decoded.quantile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.decode("x:1"));
+    }
+
+    @Test
+    @DisplayName("Should weight recent observations once the histogram is full")
+    void shouldDecayOldObservations() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 4096; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 8192; i++) {
+            histogram.record(10_000);
+        }
+
+        assertTrue(histogram.getCount() <= 4096);
+        assertTrue(histogram.quantile(0.5) >= 10_000);
+    }
+
+    @Test
+    @DisplayName("Should derive clamped timeouts from the first key with enough history")
+    void shouldDeriveAdaptiveTimeouts() {
+        LatencyStore store = new LatencyStore(POLICY);
+        Duration fallback = Duration.ofMinutes(5);
+        for (int i = 0; i < 20; i++) {
+            store.record("fast", 2000);
+            store.record("tiny", 10);
+            store.record("slow", 100_000);
+        }
+        store.record("sparse", 2000);
+
+        long fastTimeout = store.timeoutFor(fallback, "fast").toMillis();
+        assertTrue(fastTimeout >= 6000 && fastTimeout <= 6500, "p99 x 3: " + fastTimeout);
+        assertEquals(Duration.ofSeconds(1), store.timeoutFor(fallback, "tiny"));
+        assertEquals(Duration.ofMinutes(1), store.timeoutFor(fallback, "slow"));
+        assertEquals(fallback, store.timeoutFor(fallback, "sparse", "unknown"));
+        assertEquals(fastTimeout, store.timeoutFor(fallback, "sparse", "fast").toMillis());
+
+        LatencyStore disabled = new LatencyStore(new LatencyStore.TimeoutPolicy(false, 0.99, 3.0, 1000, 60_000, 10));
+        disabled.record("fast", 2000);
+        assertEquals(fallback, disabled.timeoutFor(fallback, "fast"));
+    }
+
+    @Test
+    @DisplayName("Should persist histograms and restore them in a new store")
+    void shouldPersistAcrossRestarts() throws Exception {
+        String url = "jdbc:h2:mem:latency-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (MemoryStore memoryStore = new MemoryStore(url, "sa", "")) {
+            LatencyStore first = new LatencyStore(POLICY);
+            first.attach(memoryStore);
+            for (int i = 0; i < 15; i++) {
+                first.record(LatencyStore.stageKey("wf", "research"), 4000);
+            }
+            first.flush();
+
+            LatencyStore restarted = new LatencyStore(POLICY);
+            restarted.attach(memoryStore);
+
+            String key = LatencyStore.stageKey("wf", "research");
+            assertEquals(15, restarted.getCount(key));
+            assertEquals(first.getQuantile(key, 0.99), restarted.getQuantile(key, 0.99));
+            assertEquals(first.timeoutFor(Duration.ZERO, key), restarted.timeoutFor(Duration.ZERO, key));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the histograms of different memory stores apart and load each once")
+    void shouldScopeHistogramsPerMemoryStore() throws Exception {
+        String key = LatencyStore.stageKey("wf", "draft");
+        try (MemoryStore storeA = new MemoryStore("jdbc:h2:mem:latency-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+             MemoryStore storeB = new MemoryStore("jdbc:h2:mem:latency-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "")) {
+            // Engines on two memory stores taking turns: A, B, then A again
+            LatencyStore latencyA = LatencyStore.forStore(storeA);
+            latencyA.record(key, 100);
+            latencyA.record(key, 100);
+            latencyA.flush();
+            LatencyStore latencyB = LatencyStore.forStore(storeB);
+            latencyB.record(key, 200);
+            latencyB.flush();
+
+            assertSame(latencyA, LatencyStore.forStore(storeA));
+            assertEquals(2, LatencyStore.forStore(storeA).getCount(key));
+            assertEquals(1, latencyB.getCount(key));
+            assertEquals(1, storeB.loadLatencyHistograms().size());
+            assertEquals(1, LatencyHistogram.decode(storeB.loadLatencyHistograms().get(key)).getCount());
+            assertThrows(IllegalStateException.class, () -> latencyA.attach(storeB));
+        } finally {
+            LatencyStore.resetInstance();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.skanga.conductor.orchestration;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.agent.SubAgentRegistry;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.provider.LLMProvider;
+import com.skanga.conductor.utils.JsonUtils;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.*;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for lease-based distributed task execution. Each worker uses its own
+ * {@link MemoryStore} connected to an H2 server, like a separate node would.
+ */
+@DisplayName("DistributedTaskExecutor Tests")
+class DistributedTaskExecutorTest {
+
+    private Server server;
+    private String jdbcUrl;
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+        jdbcUrl = "jdbc:h2:tcp://localhost:" + port + "/mem:distributed-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources.reversed()) {
+            resource.close();
+        }
+        server.stop();
+    }
+
+    private MemoryStore node() throws Exception {
+        MemoryStore store = new MemoryStore(jdbcUrl, "sa", "");
+        resources.add(store);
+        return store;
+    }
+
+    private DistributedTaskWorker startWorker(String workerId, SubAgent agent, Duration lease) throws Exception {
+        DistributedTaskWorker worker = DistributedTaskWorker.builder()
+            .workerId(workerId)
+            .memoryStore(node())
+            .agentFactory(task -> agent)
+            .leaseDuration(lease)
+            .heartbeatInterval(lease.dividedBy(3))
+            .pollInterval(Duration.ofMillis(20))
+            .maxAttempts(2)
+            .build();
+        resources.add(worker);
+        worker.start();
+        return worker;
+    }
+
+    private static DistributedTaskExecutor coordinator() {
+        return new DistributedTaskExecutor(Duration.ofMillis(20), Duration.ofSeconds(20), 2);
+    }
+
+    @Test
+    @DisplayName("Should spread batches over workers on separate connections")
+    void shouldSpreadBatchesOverWorkers() throws Exception {
+        Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+        SubAgent echoAgent = mock(SubAgent.class);
+        when(echoAgent.execute(any())).thenAnswer(invocation -> {
+            ExecutionInput input = invocation.getArgument(0);
+            executions.computeIfAbsent(input.content(), k -> new AtomicInteger()).incrementAndGet();
+            Thread.sleep(50);
+            return new ExecutionResult(true, "done:" + input.content(), null);
+        });
+
+        List<DistributedTaskWorker> workers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            workers.add(startWorker("node-" + i, echoAgent, Duration.ofSeconds(5)));
+        }
+
+        List<TaskDefinition> research = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            research.add(new TaskDefinition("research_" + i, "Research", "research " + i + " of {{user_request}}"));
+        }
+        List<TaskDefinition> summary = List.of(
+            new TaskDefinition("summary", "Summarize", "summarize {{research_0}} and {{research_5}}"));
+
+        List<ExecutionResult> results = coordinator().executeBatches(
+            "wf-1", "java", List.of(research, summary), node());
+
+        assertEquals(7, results.size());
+        assertEquals("done:research 0 of java", results.get(0).output());
+        assertEquals("done:summarize done:research 0 of java and done:research 5 of java", results.get(6).output());
+        executions.values().forEach(count -> assertEquals(1, count.get(), "each task must run exactly once"));
+        // Workers count a task after committing it, so stop them before reading the counts
+        workers.forEach(DistributedTaskWorker::close);
+        assertEquals(7, workers.stream().mapToLong(DistributedTaskWorker::getCompletedCount).sum());
+        assertTrue(workers.stream().filter(w -> w.getCompletedCount() > 0).count() > 1,
+            "tasks should be spread over several workers");
+    }
+
+    @Test
+    @DisplayName("Should let only one of many concurrent claimers lease an item")
+    void shouldLeaseItemToSingleClaimer() throws Exception {
+        MemoryStore producer = node();
+        producer.enqueueWork("wf-2", "task", "{}");
+        List<MemoryStore> nodes = List.of(node(), node(), node(), node());
+
+        ExecutorService claimers = Executors.newFixedThreadPool(nodes.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<MemoryStore.WorkItem>>> claims = new ArrayList<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                MemoryStore store = nodes.get(i);
+                String owner = "node-" + i;
+                claims.add(claimers.submit(() -> {
+                    start.await();
+                    return store.claimWork(owner, Duration.ofSeconds(30));
+                }));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (Future<Optional<MemoryStore.WorkItem>> claim : claims) {
+                claimed += claim.get(10, TimeUnit.SECONDS).isPresent() ? 1 : 0;
+            }
+            assertEquals(1, claimed);
+        } finally {
+            claimers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should re-queue expired leases and fence off the previous owner")
+    void shouldRequeueExpiredLeases() throws Exception {
+        MemoryStore store = node();
+        store.enqueueWork("wf-3", "task", "{}");
+
+        MemoryStore.WorkItem stale = store.claimWork("crashed-node", Duration.ofMillis(50)).orElseThrow();
+        assertTrue(store.claimWork("other-node", Duration.ofSeconds(30)).isEmpty());
+
+        Thread.sleep(150);
+        assertEquals(1, store.requeueExpiredWork(3));
+        MemoryStore.WorkItem reclaimed = store.claimWork("other-node", Duration.ofSeconds(30)).orElseThrow();
+        assertEquals(2, reclaimed.attempts());
+
+        assertFalse(store.renewLease(stale, Duration.ofSeconds(30)));
+        assertFalse(store.completeWork(stale, "stale output"));
+        assertTrue(store.completeWork(reclaimed, "fresh output"));
+        assertEquals("fresh output", store.loadTaskOutputs("wf-3").get("task"));
+    }
+
+    @Test
+    @DisplayName("Should fail a task once it has used up its attempts and retry it on a later run")
+    void shouldFailTaskAfterMaxAttempts() throws Exception {
+        SubAgent failingAgent = mock(SubAgent.class);
+        when(failingAgent.execute(any())).thenThrow(new ConductorException("provider unavailable"));
+        DistributedTaskWorker failingWorker = startWorker("node-0", failingAgent, Duration.ofSeconds(5));
+
+        MemoryStore store = node();
+        List<List<TaskDefinition>> batches = List.of(
+            List.of(new TaskDefinition("broken", "Broken", "x")),
+            List.of(new TaskDefinition("dependent", "Dependent", "use {{broken}}")));
+        List<ExecutionResult> results = coordinator().executeBatches("wf-4", "java", batches, store);
+
+        assertFalse(results.get(0).success());
+        assertTrue(results.get(0).output().contains("broken"));
+        assertTrue(results.get(0).output().contains("provider unavailable"));
+        assertFalse(results.get(1).success(), "tasks after a failed batch must not run");
+        verify(failingAgent, times(2)).execute(any());
+        assertEquals(List.of("broken"), store.loadWorkItemStates("wf-4").stream()
+            .map(MemoryStore.WorkItemState::taskName).toList());
+        assertEquals(MemoryStore.WorkStatus.FAILED, store.loadWorkItemStates("wf-4").get(0).status());
+
+        // A later run re-enqueues the failed task with fresh attempts
+        failingWorker.close();
+        SubAgent echoAgent = mock(SubAgent.class);
+        when(echoAgent.execute(any())).thenAnswer(invocation ->
+            new ExecutionResult(true, "done:" + ((ExecutionInput) invocation.getArgument(0)).content(), null));
+        startWorker("node-1", echoAgent, Duration.ofSeconds(5));
+
+        results = coordinator().executeBatches("wf-4", "java", batches, store);
+
+        assertTrue(results.stream().allMatch(ExecutionResult::success));
+        assertEquals("done:use done:x", results.get(1).output());
+        MemoryStore.WorkItemState retried = store.loadWorkItemStates("wf-4").get(0);
+        assertEquals(MemoryStore.WorkStatus.COMPLETED, retried.status());
+        assertEquals(1, retried.attempts());
+        assertNull(retried.lastError());
+    }
+
+    @Test
+    @DisplayName("Should return a task interrupted by shutdown to the queue without using an attempt")
+    void shouldReleaseTaskOnShutdown() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        SubAgent slowAgent = mock(SubAgent.class);
+        when(slowAgent.execute(any())).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(30_000);
+            return new ExecutionResult(true, "late", null);
+        });
+        DistributedTaskWorker worker = DistributedTaskWorker.builder()
+            .workerId("node-0")
+            .memoryStore(node())
+            .agentFactory(task -> slowAgent)
+            .leaseDuration(Duration.ofSeconds(5))
+            .heartbeatInterval(Duration.ofSeconds(1))
+            .pollInterval(Duration.ofMillis(20))
+            .maxAttempts(1)
+            .build();
+        resources.add(worker);
+
+        MemoryStore store = node();
+        store.enqueueWork("wf-6", "task", JsonUtils.toJson(
+            new DistributedTaskExecutor.TaskPayload("java", new TaskDefinition("task", "Task", "x"))));
+        worker.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        worker.close();
+
+        MemoryStore.WorkItemState state = store.loadWorkItemStates("wf-6").get(0);
+        assertEquals(MemoryStore.WorkStatus.PENDING, state.status());
+        assertEquals(0, state.attempts());
+        assertEquals(0, worker.getFailedCount());
+        assertEquals(1, store.claimWork("node-1", Duration.ofSeconds(5)).orElseThrow().attempts());
+    }
+
+    @Test
+    @DisplayName("Should hand planned tasks to the workers in distributed mode")
+    void shouldRunPlannerTasksOnWorkers() throws Exception {
+        SubAgent echoAgent = mock(SubAgent.class);
+        when(echoAgent.execute(any())).thenAnswer(invocation ->
+            new ExecutionResult(true, "done:" + ((ExecutionInput) invocation.getArgument(0)).content(), null));
+        DistributedTaskWorker worker = startWorker("node-0", echoAgent, Duration.ofSeconds(5));
+
+        MemoryStore store = node();
+        LLMProvider plannerProvider = mock(LLMProvider.class);
+        when(plannerProvider.generate(anyString())).thenReturn("""
+            [
+              {"name":"research","description":"Research","promptTemplate":"research {{user_request}}"},
+              {"name":"summary","description":"Summarize","promptTemplate":"summarize {{research}}"}
+            ]
+            """);
+        LLMProvider workerProvider = mock(LLMProvider.class);
+        PlannerOrchestrator orchestrator = new PlannerOrchestrator(mock(SubAgentRegistry.class), store, coordinator());
+
+        List<ExecutionResult> results = orchestrator.runWorkflow("wf-5", "java", plannerProvider, workerProvider, store);
+
+        assertEquals(List.of("done:research java", "done:summarize done:research java"),
+            results.stream().map(ExecutionResult::output).toList());
+        worker.close();
+        assertEquals(2, worker.getCompletedCount());
+        verifyNoInteractions(workerProvider);
+    }
+}
@@ -0,0 +1,174 @@
+package com.skanga.conductor.provider;
+
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.metrics.InMemoryMetricsCollector;
+import com.skanga.conductor.metrics.Metric;
+import com.skanga.conductor.metrics.MetricsRegistry;
+import com.skanga.conductor.retry.RetryPolicy;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for token usage accounting and workflow budgets.
+ */
+@DisplayName("TokenBudget Tests")
+class TokenBudgetTest {
+
+    private final InMemoryMetricsCollector collector = new InMemoryMetricsCollector();
+
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry.getInstance().register(collector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MetricsRegistry.getInstance().unregister(collector);
+    }
+
+    /**
+     * Provider answering every prompt with a fixed usage.
+     */
+    private static class UsageProvider extends AbstractLLMProvider {
+        private final int inputTokens;
+        private final int outputTokens;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        UsageProvider(String name, int inputTokens, int outputTokens) {
+            super(name + "-" + System.nanoTime(), "test-model", RetryPolicy.noRetry());
+            this.inputTokens = inputTokens;
+            this.outputTokens = outputTokens;
+        }
+
+        @Override
+        protected String generateInternal(String prompt) {
+            return generateDetailed(prompt).text();
+        }
+
+        @Override
+        protected GenerationResult generateDetailed(String prompt) {
+            calls.incrementAndGet();
+            return new GenerationResult(getProviderName() + ": " + prompt, inputTokens, outputTokens, "STOP", false);
+        }
+    }
+
+    private List<Metric> metrics(String name, String provider) {
+        return collector.getMetricsByName(name).stream()
+            .filter(metric -> provider.equals(metric.tags().get("provider")))
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Should read the reported usage from chat responses and estimate missing usage")
+    void shouldReadUsageFromChatResponses() {
+        ChatModel model = mock(ChatModel.class);
+        when(model.chat(any(ChatRequest.class))).thenReturn(ChatResponse.builder()
+            .aiMessage(AiMessage.from("four"))
+            .tokenUsage(new TokenUsage(12, 3))
+            .finishReason(FinishReason.LENGTH)
+            .build());
+
+        GenerationResult reported = AbstractLLMProvider.chatForResult(model, "prompt");
+
+        assertEquals("four", reported.text());
+        assertEquals(12, reported.inputTokens());
+        assertEquals(3, reported.outputTokens());
+        assertEquals("LENGTH", reported.finishReason());
+        assertFalse(reported.estimated());
+
+        GenerationResult estimated = GenerationResult.of(
+            ChatResponse.builder().aiMessage(AiMessage.from("12345678")).build(), "1234");
+        assertTrue(estimated.estimated());
+        assertEquals(1, estimated.inputTokens());
+        assertEquals(2, estimated.outputTokens());
+        assertEquals(3, estimated.totalTokens());
+    }
+
+    @Test
+    @DisplayName("Should record token metrics per workflow, stage and agent and charge the budget")
+    void shouldRecordUsageInScope() throws Exception {
+        UsageProvider provider = new UsageProvider("usage", 100, 40);
+        TokenBudget budget = TokenBudget.unlimited();
+
+        try (UsageScope.Binding ignored = UsageScope.forWorkflow("book", budget)
+                .withStage("outline").withAgent("writer").bind()) {
+            GenerationResult result = provider.generateWithUsage("hello");
+            assertEquals(140, result.totalTokens());
+            provider.generate("again");
+        }
+        provider.generate("outside any scope");
+
+        assertEquals(2, budget.getCalls());
+        assertEquals(200, budget.getInputTokens());
+        assertEquals(80, budget.getOutputTokens());
+        assertFalse(budget.isExceeded());
+
+        List<Metric> inputs = metrics("llm.tokens.input", provider.getProviderName());
+        assertEquals(3, inputs.size());
+        Metric scoped = inputs.get(0);
+        assertEquals(100, scoped.value());
+        assertEquals("test-model", scoped.tags().get("model"));
+        assertEquals("book", scoped.tags().get("workflow"));
+        assertEquals("outline", scoped.tags().get("stage"));
+        assertEquals("writer", scoped.tags().get("agent"));
+        assertNull(inputs.get(2).tags().get("workflow"));
+        assertEquals(40, metrics("llm.tokens.output", provider.getProviderName()).get(0).value());
+        assertEquals("STOP", metrics("llm.calls", provider.getProviderName()).get(0).tags().get("finish_reason"));
+    }
+
+    @Test
+    @DisplayName("Should fail calls fast once the token budget is spent")
+    void shouldFailWhenBudgetSpent() throws Exception {
+        UsageProvider provider = new UsageProvider("fail", 60, 40);
+        TokenBudget budget = new TokenBudget(150, 0, TokenBudget.Action.FAIL, null);
+
+        try (UsageScope.Binding ignored = UsageScope.forWorkflow("book", budget).bind()) {
+            provider.generate("first");
+            provider.generate("second overshoots");
+
+            ConductorException.BudgetExceededException error = assertThrows(
+                ConductorException.BudgetExceededException.class, () -> provider.generate("third"));
+            assertTrue(error.getMessage().contains("200 tokens of 150"), error.getMessage());
+        }
+
+        assertEquals(2, provider.calls.get());
+        assertTrue(budget.isExceeded());
+    }
+
+    @Test
+    @DisplayName("Should send calls to the downgrade provider once the cost budget is spent")
+    void shouldDowngradeWhenBudgetSpent() throws Exception {
+        UsageProvider provider = new UsageProvider("large", 10, 10);
+        UsageProvider downgrade = new UsageProvider("small", 5, 5);
+        TokenBudget budget = new TokenBudget(0, 0.01, TokenBudget.Action.DOWNGRADE, downgrade);
+
+        try (UsageScope.Binding ignored = UsageScope.forWorkflow("book", budget).bind()) {
+            assertTrue(provider.generate("first").startsWith(provider.getProviderName()));
+            budget.charge(new GenerationResult("priced", 0, 0, null, false), 0.02);
+
+            assertTrue(provider.generate("second").startsWith(downgrade.getProviderName()));
+        }
+
+        assertEquals(1, provider.calls.get());
+        assertEquals(1, downgrade.calls.get());
+        assertEquals(30, budget.getTotalTokens());
+        assertThrows(IllegalArgumentException.class,
+            () -> new TokenBudget(100, 0, TokenBudget.Action.DOWNGRADE, null));
+    }
+}
@@ -0,0 +1,204 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.config.ToolConfig;
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for caching tool results in the tool registry.
+ */
+@DisplayName("CachingTool Tests")
+class CachingToolTest {
+
+    @TempDir
+    Path baseDir;
+
+    /**
+     * Tool counting its calls and echoing its input; inputs starting with "fail" fail.
+     */
+    private static class CountingTool implements Tool {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String toolName() {
+            return "counting";
+        }
+
+        @Override
+        public String toolDescription() {
+            return "Counts calls";
+        }
+
+        @Override
+        public ExecutionResult runTool(ExecutionInput input) {
+            int call = calls.incrementAndGet();
+            return new ExecutionResult(!input.content().startsWith("fail"), input.content() + "#" + call, null);
+        }
+    }
+
+    private static ExecutionResult run(Tool tool, String input) throws Exception {
+        return tool.runTool(new ExecutionInput(input, null));
+    }
+
+    @Test
+    @DisplayName("Should reuse results for equivalent arguments")
+    void shouldReuseResultsForEquivalentArguments() throws Exception {
+        CountingTool delegate = new CountingTool();
+        CachingTool tool = new CachingTool(delegate, Duration.ofMinutes(1), 10);
+
+        ExecutionResult first = run(tool, "{\"query\": \"java\", \"limit\": 5}");
+        ExecutionResult second = run(tool, "  {\"limit\":5,\"query\":\"java\"}");
+        ExecutionResult other = run(tool, "{\"query\": \"rust\", \"limit\": 5}");
+
+        assertEquals(first.output(), second.output());
+        assertNotEquals(first.output(), other.output());
+        assertEquals(2, delegate.calls.get());
+        assertEquals(1, tool.getHitCount());
+        assertEquals(2, tool.getMissCount());
+        assertEquals("counting", tool.toolName());
+    }
+
+    @Test
+    @DisplayName("Should expire results after the TTL and evict the least recently used")
+    void shouldExpireAndEvict() throws Exception {
+        AtomicLong now = new AtomicLong();
+        CountingTool delegate = new CountingTool();
+        CachingTool tool = new CachingTool(delegate, Duration.ofSeconds(10), 2, now::get);
+
+        run(tool, "a");
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        run(tool, "a");
+        assertEquals(1, delegate.calls.get());
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        run(tool, "a");
+        assertEquals(2, delegate.calls.get(), "expired result should not be reused");
+
+        run(tool, "b");
+        run(tool, "c");
+        assertEquals(2, tool.size());
+        run(tool, "a");
+        assertEquals(5, delegate.calls.get(), "least recently used result should be evicted");
+    }
+
+    @Test
+    @DisplayName("Should not cache failed results")
+    void shouldNotCacheFailures() throws Exception {
+        CountingTool delegate = new CountingTool();
+        CachingTool tool = new CachingTool(delegate, Duration.ofMinutes(1), 10);
+
+        assertFalse(run(tool, "fail").success());
+        run(tool, "fail");
+
+        assertEquals(2, delegate.calls.get());
+        assertEquals(0, tool.size());
+    }
+
+    @Test
+    @DisplayName("Should share one execution between concurrent identical calls")
+    void shouldShareConcurrentExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingTool delegate = new CountingTool() {
+            @Override
+            public ExecutionResult runTool(ExecutionInput input) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.runTool(input);
+            }
+        };
+        CachingTool tool = new CachingTool(delegate, Duration.ofMinutes(1), 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ExecutionResult>> results = new ArrayList<>();
+            results.add(executor.submit(() -> run(tool, "query")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> run(tool, "query")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<ExecutionResult> result : results) {
+                assertEquals("query#1", result.get(5, TimeUnit.SECONDS).output());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    @DisplayName("Should cache configured tools and invalidate file reads when the file changes")
+    void shouldCacheConfiguredToolsAndInvalidateFiles() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("conductor.tools.cache.tools", "file_read");
+        properties.setProperty("conductor.tools.cache.file_read.max.entries", "5");
+        ToolRegistry registry = new ToolRegistry(new ToolConfig(properties));
+        registry.register(new FileReadTool(baseDir.toString(), false, 1024));
+        registry.register(new CountingTool());
+
+        assertInstanceOf(CachingTool.class, registry.get("file_read"));
+        assertInstanceOf(CountingTool.class, registry.get("counting"));
+
+        Path file = baseDir.resolve("notes.txt");
+        Files.writeString(file, "first");
+        Tool tool = registry.get("file_read");
+        CachingTool cachingTool = (CachingTool) tool;
+
+        assertEquals("first", run(tool, "notes.txt").output());
+        assertEquals("first", run(tool, "./notes.txt").output());
+        assertEquals(1, cachingTool.getHitCount());
+
+        Files.writeString(file, "second");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals("second", run(tool, "notes.txt").output());
+
+        assertFalse(run(tool, "missing.txt").success());
+        assertTrue(registry.invalidateCache("file_read"));
+        assertEquals(0, cachingTool.size());
+        assertFalse(registry.invalidateCache("counting"));
+    }
+
+    @Test
+    @DisplayName("Should shed cached results under memory pressure")
+    void shouldShedUnderMemoryPressure() throws Exception {
+        CachingTool tool = new CachingTool(new CountingTool(), Duration.ofMinutes(1), 10);
+        for (int i = 0; i < 4; i++) {
+            run(tool, "query " + i);
+        }
+        run(tool, "query 0");
+
+        assertEquals(2, tool.shedMemory(MemoryManager.MemoryState.WARNING));
+        assertEquals(2, tool.size());
+        assertEquals("query 0#1", run(tool, "query 0").output(), "recently used results should be kept");
+
+        assertEquals(2, tool.shedMemory(MemoryManager.MemoryState.CRITICAL));
+        assertEquals(0, tool.size());
+    }
+}
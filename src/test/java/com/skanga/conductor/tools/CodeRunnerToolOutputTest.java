@@ -0,0 +1,108 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for concurrent draining and bounded capture of command output.
+ */
+@DisplayName("CodeRunnerTool Output Tests")
+class CodeRunnerToolOutputTest {
+
+    @Test
+    @DisplayName("Should keep the head and tail of output larger than the buffer")
+    void shouldKeepHeadAndTail() {
+        BoundedOutputBuffer buffer = new BoundedOutputBuffer(40);
+        for (int i = 0; i < 100; i++) {
+            char[] line = (i + "\n").toCharArray();
+            buffer.append(line, 0, line.length);
+        }
+
+        String text = buffer.toString();
+        assertTrue(text.startsWith("0\n1\n2\n3\n4\n"));
+        assertTrue(text.endsWith("97\n98\n99\n"));
+        assertEquals(290, buffer.getTotalChars());
+        assertEquals(250, buffer.getTruncatedChars());
+        assertTrue(text.contains("[250 characters truncated]"));
+
+        BoundedOutputBuffer small = new BoundedOutputBuffer(40);
+        small.append("short".toCharArray(), 0, 5);
+        assertEquals("short", small.toString());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("Should not block on output larger than the pipe buffer")
+    void shouldDrainLargeOutput() {
+        CodeRunnerTool tool = new CodeRunnerTool(Duration.ofSeconds(20), Set.of(), 4096);
+
+        ExecutionResult result = tool.runTool(new ExecutionInput("seq 1 200000", null));
+
+        assertTrue(result.success(), result.output());
+        assertTrue(result.output().startsWith("ExitCode=0\n1\n2\n3\n"));
+        assertTrue(result.output().endsWith("199999\n200000"));
+        assertTrue(result.output().contains("characters truncated"));
+        Map<?, ?> metadata = (Map<?, ?>) result.metadata();
+        assertTrue((Long) metadata.get("truncatedChars") > 1_000_000);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("Should capture standard error separately")
+    void shouldCaptureStderrSeparately() {
+        CodeRunnerTool tool = new CodeRunnerTool(Duration.ofSeconds(10));
+
+        ExecutionResult result = tool.runTool(new ExecutionInput("ls /conductor-no-such-directory", null));
+
+        assertFalse(result.success());
+        Map<?, ?> metadata = (Map<?, ?>) result.metadata();
+        assertEquals("", metadata.get("stdout"));
+        assertTrue(((String) metadata.get("stderr")).contains("conductor-no-such-directory"));
+        assertTrue(result.output().contains("[stderr]"));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("Should stream output to a listener and complete asynchronously")
+    void shouldStreamOutputAsynchronously() throws Exception {
+        CodeRunnerTool tool = new CodeRunnerTool(Duration.ofSeconds(10));
+        AtomicLong streamedChars = new AtomicLong();
+
+        CompletableFuture<ExecutionResult> future = tool.runToolAsync(new ExecutionInput("seq 1 10000", null),
+            (stream, chunk) -> {
+                assertEquals(CodeRunnerTool.StreamType.STDOUT, stream);
+                streamedChars.addAndGet(chunk.length());
+            });
+        ExecutionResult result = future.get(10, TimeUnit.SECONDS);
+
+        assertTrue(result.success());
+        assertEquals(((String) ((Map<?, ?>) result.metadata()).get("stdout")).length(), streamedChars.get());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("Should kill commands running past the timeout")
+    void shouldKillOnTimeout() {
+        CodeRunnerTool tool = new CodeRunnerTool(Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        ExecutionResult result = tool.runTool(new ExecutionInput("sleep 10", null));
+
+        assertFalse(result.success());
+        assertTrue(result.output().contains("timed out"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,160 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for byte-range, line-window and chunked reads of large files.
+ */
+@DisplayName("FileReadTool Ranged Read Tests")
+class FileReadToolRangedReadTest {
+
+    @TempDir
+    Path baseDir;
+
+    private static String lines(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> "line " + i + "\n").collect(Collectors.joining());
+    }
+
+    private ExecutionResult read(FileReadTool tool, String input) {
+        return tool.runTool(new ExecutionInput(input, null));
+    }
+
+    private static String body(ExecutionResult result) {
+        return result.output().substring(0, result.output().lastIndexOf("\n[file_read: "));
+    }
+
+    @Test
+    @DisplayName("Should read a byte range and tell where the next read starts")
+    void shouldReadByteRange() throws Exception {
+        Files.writeString(baseDir.resolve("data.txt"), "0123456789abcdefghij");
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 1024);
+
+        ExecutionResult result = read(tool, "{\"path\": \"data.txt\", \"offset\": 5, \"length\": 5}");
+
+        assertTrue(result.success(), result.output());
+        assertEquals("56789", body(result));
+        assertTrue(result.output().endsWith("[file_read: bytes 5-10 of 20; next offset 10]"));
+        Map<?, ?> metadata = (Map<?, ?>) result.metadata();
+        assertEquals(10L, metadata.get("end_offset"));
+        assertEquals(false, metadata.get("eof"));
+
+        ExecutionResult last = read(tool, "{\"path\": \"data.txt\", \"offset\": 15, \"length\": 100}");
+        assertEquals("fghij", body(last));
+        assertTrue(last.output().endsWith("end of file]"));
+    }
+
+    @Test
+    @DisplayName("Should not split multi-byte characters at range boundaries")
+    void shouldAlignToCharacterBoundaries() throws Exception {
+        String text = "aé€𝄞b".repeat(50);
+        Files.writeString(baseDir.resolve("utf8.txt"), text);
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 1024);
+
+        StringBuilder reassembled = new StringBuilder();
+        Iterator<FileReadTool.FileChunk> chunks = tool.chunks("utf8.txt", 7);
+        while (chunks.hasNext()) {
+            String content = chunks.next().content();
+            assertFalse(content.contains("�"), "chunk should not contain broken characters");
+            reassembled.append(content);
+        }
+        assertEquals(text, reassembled.toString());
+
+        ExecutionResult result = read(tool, "{\"path\": \"utf8.txt\", \"offset\": 2, \"length\": 4}");
+        assertFalse(result.output().contains("�"));
+    }
+
+    @Test
+    @DisplayName("Should read a window of lines and continue from the next line")
+    void shouldReadLineWindow() throws Exception {
+        Files.writeString(baseDir.resolve("log.txt"), lines(1000));
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 1024 * 1024);
+
+        ExecutionResult result = read(tool, "{\"path\": \"log.txt\", \"start_line\": 500, \"line_count\": 3}");
+
+        assertTrue(result.success(), result.output());
+        assertEquals("line 500\nline 501\nline 502\n", body(result));
+        assertTrue(result.output().endsWith("[file_read: lines 500-502; next start_line 503]"));
+
+        ExecutionResult next = read(tool, "{\"path\": \"log.txt\", \"start_line\": 503, \"line_count\": 2}");
+        assertEquals("line 503\nline 504\n", body(next));
+
+        ExecutionResult end = read(tool, "{\"path\": \"log.txt\", \"start_line\": 999, \"line_count\": 10}");
+        assertEquals("line 999\nline 1000\n", body(end));
+        assertTrue(end.output().endsWith("lines 999-1000, end of file]"));
+    }
+
+    @Test
+    @DisplayName("Should read files larger than the size limit in parts")
+    void shouldReadLargeFileInParts() throws Exception {
+        String content = lines(20000);
+        Files.writeString(baseDir.resolve("big.txt"), content);
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 64 * 1024);
+
+        ExecutionResult whole = read(tool, "big.txt");
+        assertFalse(whole.success());
+        assertTrue(whole.output().contains("File too large"));
+
+        StringBuilder reassembled = new StringBuilder();
+        Iterator<FileReadTool.FileChunk> chunks = tool.chunks("big.txt", 32 * 1024);
+        FileReadTool.FileChunk chunk = null;
+        while (chunks.hasNext()) {
+            chunk = chunks.next();
+            reassembled.append(chunk.content());
+        }
+        assertNotNull(chunk);
+        assertTrue(chunk.isLast());
+        assertEquals(content, reassembled.toString());
+
+        ExecutionResult second = read(tool, "{\"path\": \"big.txt\", \"chunk\": 1, \"chunk_size\": 1000000}");
+        assertTrue(second.success());
+        assertTrue(body(second).length() <= 64 * 1024, "a read should be capped at the size limit");
+
+        ExecutionResult tooManyLines = read(tool, "{\"path\": \"big.txt\", \"start_line\": 1, \"line_count\": 20000}");
+        assertFalse(tooManyLines.success());
+        assertTrue(tooManyLines.output().contains("Line window too large"));
+    }
+
+    @Test
+    @DisplayName("Should not serve cached regions after the file changes")
+    void shouldInvalidateCacheOnChange() throws Exception {
+        Path file = baseDir.resolve("notes.txt");
+        Files.writeString(file, "first version");
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 1024);
+        String range = "{\"path\": \"notes.txt\", \"offset\": 0, \"length\": 5}";
+
+        assertEquals("first", body(read(tool, range)));
+        assertEquals("first version", read(tool, "notes.txt").output());
+
+        Files.writeString(file, "second version");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertEquals("secon", body(read(tool, range)));
+        assertEquals("second version", read(tool, "notes.txt").output());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed arguments and keep path validation")
+    void shouldRejectInvalidArguments() throws Exception {
+        Files.writeString(baseDir.resolve("data.txt"), "content");
+        FileReadTool tool = new FileReadTool(baseDir.toString(), false, 1024);
+
+        assertTrue(read(tool, "{\"offset\": 0}").output().contains("path is required"));
+        assertTrue(read(tool, "{\"path\": \"data.txt\", \"offset\": -1}").output().startsWith("Invalid read arguments"));
+        assertFalse(read(tool, "{\"path\": \"../secret.txt\", \"offset\": 0}").success());
+        assertTrue(read(tool, "{\"path\": \"missing.txt\", \"start_line\": 1}").output().startsWith("File not found"));
+    }
+}
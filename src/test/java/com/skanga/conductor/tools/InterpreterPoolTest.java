@@ -0,0 +1,228 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for running snippets in warm interpreter processes.
+ */
+@DisplayName("InterpreterPool Tests")
+class InterpreterPoolTest {
+
+    private static boolean pythonAvailable;
+    private static boolean nodeAvailable;
+    private InterpreterPool pool;
+
+    @BeforeAll
+    static void detectInterpreters() {
+        pythonAvailable = isInstalled("python3");
+        nodeAvailable = isInstalled("node");
+    }
+
+    private static boolean isInstalled(String interpreter) {
+        try {
+            Process process = new ProcessBuilder(interpreter, "--version").start();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private InterpreterPool createPool(int maxRuns, long maxMemoryBytes, Duration healthCheckInterval) {
+        assumeTrue(pythonAvailable, "python3 is not installed");
+        pool = new InterpreterPool(Set.of("python3"), 2, maxRuns, maxMemoryBytes, healthCheckInterval);
+        return pool;
+    }
+
+    private static List<String> python(String code) {
+        return List.of("python3", "-c", code);
+    }
+
+    private static List<String> node(String code) {
+        return List.of("node", "-e", code);
+    }
+
+    @Test
+    @DisplayName("Should run snippets in one warm worker with fresh globals")
+    void shouldReuseWorker() throws Exception {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            InterpreterPool.Result result = pool.execute(python("x = " + i + "; print(x * 2)"), Duration.ofSeconds(10));
+            assertEquals(0, result.exitCode());
+            assertEquals(i * 2 + "\n", result.stdout());
+        }
+        InterpreterPool.Result undefined = pool.execute(python("print(x)"), Duration.ofSeconds(10));
+
+        assertEquals(1, undefined.exitCode());
+        assertTrue(undefined.stderr().contains("NameError"));
+        assertEquals(1, pool.getWorkersStarted());
+        assertEquals(1, pool.getIdleWorkers("python3"));
+    }
+
+    @Test
+    @DisplayName("Should report exit codes and only accept supported commands")
+    void shouldReportExitCodes() throws Exception {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ofMinutes(1));
+
+        assertEquals(3, pool.execute(python("import sys; sys.exit(3)"), Duration.ofSeconds(10)).exitCode());
+        assertTrue(pool.supports(python("pass")));
+        assertFalse(pool.supports(List.of("python3", "script.py")));
+        assertFalse(pool.supports(List.of("ruby", "-e", "puts 1")));
+    }
+
+    @Test
+    @DisplayName("Should give Python snippets an empty stdin")
+    void shouldGiveEmptyStdin() throws Exception {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ofMinutes(1));
+
+        InterpreterPool.Result result = pool.execute(python(
+            "import sys\ntry:\n    input()\nexcept EOFError:\n    print('eof')\nprint(repr(sys.stdin.read()))"),
+            Duration.ofSeconds(10));
+
+        assertEquals("eof\n''\n", result.stdout());
+        assertEquals("ok\n", pool.execute(python("print('ok')"), Duration.ofSeconds(10)).stdout());
+        assertEquals(1, pool.getWorkersStarted());
+    }
+
+    @Test
+    @DisplayName("Should run Node.js snippets with the globals of node -e")
+    void shouldRunNodeSnippets() throws Exception {
+        assumeTrue(nodeAvailable, "node is not installed");
+        pool = new InterpreterPool(Set.of("node"), 2, 100, Long.MAX_VALUE, Duration.ofMinutes(1));
+
+        InterpreterPool.Result written = pool.execute(node(
+            "process.stdout.write('a'); console.log('b'); setTimeout(() => console.log('c'), 20);"),
+            Duration.ofSeconds(10));
+        assertEquals(0, written.exitCode(), written.stderr());
+        assertEquals("ab\nc\n", written.stdout());
+
+        InterpreterPool.Result exited = pool.execute(node(
+            "let n = 0; setInterval(() => { console.log(n++); if (n === 3) process.exit(2); }, 5);"),
+            Duration.ofSeconds(10));
+        assertEquals(2, exited.exitCode());
+        assertEquals("0\n1\n2\n", exited.stdout());
+
+        InterpreterPool.Result failed = pool.execute(node(
+            "leaked = 1; setTimeout(() => { throw new Error('late failure'); }, 5);"), Duration.ofSeconds(10));
+        assertEquals(1, failed.exitCode());
+        assertTrue(failed.stderr().contains("late failure"));
+
+        InterpreterPool.Result fresh = pool.execute(node(
+            "let n = 1; console.log(typeof leaked, n);"), Duration.ofSeconds(10));
+        assertEquals("undefined 1\n", fresh.stdout(), fresh.stderr());
+        assertEquals(1, pool.getWorkersStarted());
+
+        // A snippet leaving a handle open gets its worker retired
+        pool.execute(node("require('net').createServer().listen(0); setTimeout(() => process.exit(0), 5);"),
+            Duration.ofSeconds(10));
+        assertEquals(0, pool.getIdleWorkers("node"));
+    }
+
+    @Test
+    @DisplayName("Should share one deadline between waiting for a worker and running the snippet")
+    void shouldShareDeadline() throws Exception {
+        assumeTrue(pythonAvailable, "python3 is not installed");
+        pool = new InterpreterPool(Set.of("python3"), 1, 100, Long.MAX_VALUE, Duration.ofMinutes(1));
+        pool.execute(python("pass"), Duration.ofSeconds(10));
+
+        Thread busy = Thread.ofVirtual().start(() -> {
+            try {
+                pool.execute(python("import time; time.sleep(0.4)"), Duration.ofSeconds(10));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+
+        // Waits about 300ms for the worker, leaving too little of the 600ms for a 500ms snippet
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class,
+            () -> pool.execute(python("import time; time.sleep(0.5)"), Duration.ofMillis(600)));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(800));
+        busy.join();
+    }
+
+    @Test
+    @DisplayName("Should kill and replace a worker running past the timeout")
+    void shouldReplaceWorkerOnTimeout() throws Exception {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ofMinutes(1));
+        pool.execute(python("pass"), Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class,
+            () -> pool.execute(python("import time; time.sleep(30)"), Duration.ofMillis(300)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        assertEquals("ok\n", pool.execute(python("print('ok')"), Duration.ofSeconds(10)).stdout());
+        assertEquals(2, pool.getWorkersStarted());
+    }
+
+    @Test
+    @DisplayName("Should recycle workers after the maximum runs or memory")
+    void shouldRecycleWorkers() throws Exception {
+        InterpreterPool byRuns = createPool(2, Long.MAX_VALUE, Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            byRuns.execute(python("pass"), Duration.ofSeconds(10));
+        }
+        assertEquals(3, byRuns.getWorkersStarted());
+        byRuns.close();
+
+        InterpreterPool byMemory = createPool(100, 1024, Duration.ofMinutes(1));
+        byMemory.execute(python("pass"), Duration.ofSeconds(10));
+        byMemory.execute(python("pass"), Duration.ofSeconds(10));
+        assertEquals(2, byMemory.getWorkersStarted());
+        assertEquals(0, byMemory.getIdleWorkers("python3"));
+    }
+
+    @Test
+    @DisplayName("Should health check idle workers before reuse")
+    void shouldHealthCheckIdleWorkers() throws Exception {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ZERO);
+
+        pool.execute(python("pass"), Duration.ofSeconds(10));
+        pool.execute(python("pass"), Duration.ofSeconds(10));
+
+        assertEquals(1, pool.getWorkersStarted());
+    }
+
+    @Test
+    @DisplayName("Should run pooled snippets through CodeRunnerTool with its checks")
+    void shouldRunPooledSnippetsInCodeRunner() {
+        InterpreterPool pool = createPool(100, Long.MAX_VALUE, Duration.ofMinutes(1));
+        CodeRunnerTool tool = new CodeRunnerTool(Duration.ofSeconds(10), Set.of("python3"), 4096, pool);
+
+        ExecutionResult result = tool.runTool(new ExecutionInput("python3 -c \"print(6 * 7)\"", null));
+        ExecutionResult again = tool.runTool(new ExecutionInput("python3 -c \"print('again')\"", null));
+
+        assertTrue(result.success(), result.output());
+        assertEquals("ExitCode=0\n42", result.output());
+        assertEquals("ExitCode=0\nagain", again.output());
+        assertEquals(1, pool.getWorkersStarted());
+
+        CodeRunnerTool restricted = new CodeRunnerTool(Duration.ofSeconds(10), Set.of("echo"), 4096, pool);
+        ExecutionResult rejected = restricted.runTool(new ExecutionInput("python3 -c \"print(1)\"", null));
+        assertFalse(rejected.success());
+        assertTrue(rejected.output().contains("Command not allowed"));
+    }
+}
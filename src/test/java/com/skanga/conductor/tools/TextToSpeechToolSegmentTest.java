@@ -0,0 +1,121 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for segmented, parallel and cached speech synthesis.
+ */
+@DisplayName("TextToSpeechTool Segment Tests")
+class TextToSpeechToolSegmentTest {
+
+    @TempDir
+    Path outDir;
+
+    private static Path outputFile(ExecutionResult result) {
+        return Path.of(result.output().substring(0, result.output().indexOf(".wav") + 4));
+    }
+
+    private long cachedFileCount() throws Exception {
+        Path cacheDir = outDir.resolve(".tts-cache");
+        if (!Files.exists(cacheDir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should pack sentences into segments of bounded length")
+    void shouldSplitIntoSegments() {
+        String text = "First sentence. Second one! Third? " + "word ".repeat(40) + "\nLast line";
+
+        List<String> segments = TextToSpeechTool.splitIntoSegments(text, 60);
+
+        assertEquals("First sentence. Second one! Third?", segments.get(0));
+        assertTrue(segments.get(segments.size() - 1).endsWith("word Last line"));
+        assertTrue(segments.stream().allMatch(segment -> segment.length() <= 60));
+        assertEquals(text.replaceAll("\\s+", ""), String.join("", segments).replaceAll("\\s+", ""));
+        assertEquals(List.of("Hi"), TextToSpeechTool.splitIntoSegments("Hi", 60));
+    }
+
+    @Test
+    @DisplayName("Should join segments into one valid WAV file")
+    void shouldJoinSegments() throws Exception {
+        TextToSpeechTool tool = new TextToSpeechTool(outDir, 3, 60, 0);
+        String text = "The first chapter begins here. It continues for a while. "
+            + "Then a second paragraph follows. And the story ends.";
+
+        ExecutionResult result = tool.runTool(new ExecutionInput(text, null));
+
+        assertTrue(result.success(), result.output());
+        int segments = (Integer) ((Map<?, ?>) result.metadata()).get("segments");
+        assertTrue(segments > 1);
+        byte[] wav = Files.readAllBytes(outputFile(result));
+        ByteBuffer header = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(wav.length - 8, header.getInt(4));
+        assertEquals(wav.length - 44, header.getInt(40));
+        WavFiles.WavFormat format = WavFiles.readFormat(outputFile(result));
+        assertEquals(1, format.channels());
+        assertEquals(16, format.bitsPerSample());
+        assertEquals(0, cachedFileCount(), "segments should be deleted when caching is disabled");
+    }
+
+    @Test
+    @DisplayName("Should reuse cached segments for repeated phrases")
+    void shouldReuseCachedSegments() throws Exception {
+        TextToSpeechTool tool = new TextToSpeechTool(outDir, 2, 40, 10 * 1024 * 1024);
+        String text = "Welcome back to the show. Today we talk about caching.";
+
+        ExecutionResult first = tool.runTool(new ExecutionInput(text, null));
+        ExecutionResult second = tool.runTool(new ExecutionInput(text, null));
+
+        assertTrue(first.success() && second.success());
+        Map<?, ?> firstMetadata = (Map<?, ?>) first.metadata();
+        Map<?, ?> secondMetadata = (Map<?, ?>) second.metadata();
+        assertEquals(0L, firstMetadata.get("cachedSegments"));
+        assertEquals((long) (Integer) secondMetadata.get("segments"), secondMetadata.get("cachedSegments"));
+        assertArrayEquals(Files.readAllBytes(outputFile(first)), Files.readAllBytes(outputFile(second)));
+        assertEquals(2, cachedFileCount());
+    }
+
+    @Test
+    @DisplayName("Should keep the cache within its size limit")
+    void shouldPruneCache() throws Exception {
+        TextToSpeechTool tool = new TextToSpeechTool(outDir, 2, 40, 1);
+
+        assertTrue(tool.runTool(new ExecutionInput("One phrase here. Another phrase there.", null)).success());
+
+        assertEquals(0, cachedFileCount());
+    }
+
+    @Test
+    @DisplayName("Should read WAV files whose header overstates the data length")
+    void shouldReadStreamedWavHeader() throws Exception {
+        Path file = outDir.resolve("streamed.wav");
+        ByteBuffer header = WavFiles.header(22050, 1, 16, 0x7FFFFFF0L);
+        byte[] wav = new byte[44 + 100];
+        header.get(wav, 0, 44);
+        Files.write(file, wav);
+
+        WavFiles.WavFormat format = WavFiles.readFormat(file);
+
+        assertEquals(22050, format.sampleRate());
+        assertEquals(44, format.dataOffset());
+        assertEquals(100, format.dataLength());
+    }
+}
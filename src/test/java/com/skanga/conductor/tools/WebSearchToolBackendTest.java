@@ -0,0 +1,148 @@
+package com.skanga.conductor.tools;
+
+import com.skanga.conductor.execution.ExecutionInput;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for concurrent web search backends, served by a local stub server.
+ */
+@DisplayName("WebSearchTool Backend Tests")
+class WebSearchToolBackendTest {
+
+    private static final String INSTANT_JSON =
+        "{\"Abstract\":\"Java is a programming language and computing platform.\","
+            + "\"AbstractURL\":\"https://example.com/java\"}";
+    private static final String HTML_RESULTS =
+        "<h2 class=\"result__title\"><a href=\"https://example.com/html\">HTML result</a></h2>"
+            + "<a class=\"result__snippet\" href=\"#\">A snippet from the HTML page</a>";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/instant", exchange -> respond(exchange, 0, INSTANT_JSON));
+        server.createContext("/instant-slow", exchange -> respond(exchange, 3000, INSTANT_JSON));
+        server.createContext("/instant-empty", exchange -> respond(exchange, 0, "{}"));
+        server.createContext("/html", exchange -> respond(exchange, 0, HTML_RESULTS));
+        server.createContext("/html-slow", exchange -> respond(exchange, 3000, HTML_RESULTS));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, long delayMillis, String body) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try (exchange) {
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // The client cancelled the request
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private ExecutionResult search(WebSearchTool tool) throws Exception {
+        return tool.runTool(new ExecutionInput("java programming", null));
+    }
+
+    @Test
+    @DisplayName("Should return the fastest backend's results without waiting for the slower one")
+    void shouldReturnFastestResult() throws Exception {
+        WebSearchTool tool = new WebSearchTool(List.of(
+            WebSearchTool.instantAnswerBackend(uri("/instant-slow"), Duration.ofSeconds(10)),
+            WebSearchTool.htmlSearchBackend(uri("/html"), Duration.ofSeconds(10))));
+
+        long start = System.nanoTime();
+        ExecutionResult result = search(tool);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.success());
+        assertTrue(result.output().contains("HTML result"));
+        assertEquals(Map.of("backend", "html_search"), result.metadata());
+        assertTrue(elapsedMillis < 2500, "search waited for the slow backend: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("Should use another backend when one has no results")
+    void shouldFallThroughEmptyBackend() throws Exception {
+        WebSearchTool tool = new WebSearchTool(List.of(
+            WebSearchTool.instantAnswerBackend(uri("/instant-empty"), Duration.ofSeconds(10)),
+            WebSearchTool.htmlSearchBackend(uri("/html-slow"), Duration.ofSeconds(10))));
+
+        ExecutionResult result = search(tool);
+
+        assertTrue(result.output().contains("A snippet from the HTML page"));
+        assertEquals(Map.of("backend", "html_search"), result.metadata());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Should fall back to mock results when every backend times out")
+    void shouldFallBackWhenBackendsTimeOut() throws Exception {
+        WebSearchTool tool = new WebSearchTool(List.of(
+            WebSearchTool.instantAnswerBackend(uri("/instant-slow"), Duration.ofMillis(200)),
+            WebSearchTool.htmlSearchBackend(uri("/html-slow"), Duration.ofMillis(300))));
+
+        long start = System.nanoTime();
+        ExecutionResult result = search(tool);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.success());
+        assertEquals(Map.of("fallback", true), result.metadata());
+        assertTrue(elapsedMillis < 2500, "per-backend timeouts were not applied: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("Should parse instant answers from a stub backend")
+    void shouldParseInstantAnswers() throws Exception {
+        WebSearchTool tool = new WebSearchTool(List.of(
+            WebSearchTool.instantAnswerBackend(uri("/instant"), Duration.ofSeconds(10))));
+
+        ExecutionResult result = search(tool);
+
+        assertTrue(result.output().contains("Java is a programming language"));
+        assertTrue(result.output().contains("https://example.com/java"));
+        assertEquals(Map.of("backend", "instant_answer"), result.metadata());
+        assertThrows(IllegalArgumentException.class, () -> new WebSearchTool(List.of()));
+    }
+}
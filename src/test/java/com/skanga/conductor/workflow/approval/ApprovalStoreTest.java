@@ -0,0 +1,224 @@
+package com.skanga.conductor.workflow.approval;
+
+import com.skanga.conductor.agent.SubAgent;
+import com.skanga.conductor.engine.YamlWorkflowEngine;
+import com.skanga.conductor.engine.execution.StageExecutor;
+import com.skanga.conductor.engine.execution.WorkflowExecutionResult;
+import com.skanga.conductor.exception.ConductorException;
+import com.skanga.conductor.execution.ExecutionResult;
+import com.skanga.conductor.memory.MemoryStore;
+import com.skanga.conductor.orchestration.Orchestrator;
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.workflow.config.AgentDefinition;
+import com.skanga.conductor.workflow.config.WorkflowConfigLoader;
+import com.skanga.conductor.workflow.templates.AgentFactory;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for deferred human approval of suspended workflow runs.
+ */
+@DisplayName("ApprovalStore Tests")
+class ApprovalStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MemoryStore memoryStore;
+    private ApprovalStore approvalStore;
+    private final AtomicInteger outlineCalls = new AtomicInteger();
+    private final AtomicInteger chapterCalls = new AtomicInteger();
+    private AgentFactory agentFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        memoryStore = new MemoryStore("jdbc:h2:mem:approvals-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        approvalStore = new ApprovalStore(memoryStore);
+
+        SubAgent outlineAgent = mock(SubAgent.class);
+        when(outlineAgent.execute(any())).thenAnswer(invocation -> {
+            outlineCalls.incrementAndGet();
+            return new ExecutionResult(true, "the outline", null);
+        });
+        SubAgent chapterAgent = mock(SubAgent.class);
+        when(chapterAgent.execute(any())).thenAnswer(invocation -> {
+            chapterCalls.incrementAndGet();
+            return new ExecutionResult(true, "the chapter", null);
+        });
+        agentFactory = mock(AgentFactory.class);
+        when(agentFactory.createAgent(any(AgentDefinition.class), any())).thenAnswer(invocation -> {
+            AgentDefinition definition = invocation.getArgument(0);
+            return "outliner".equals(definition.getRole()) ? outlineAgent : chapterAgent;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        memoryStore.close();
+    }
+
+    @Test
+    @DisplayName("Should list pending requests and keep only the first response")
+    void shouldRecordRequestsAndResponses() {
+        List<PendingApproval> answered = new ArrayList<>();
+        approvalStore.addResponseListener((approval, response) -> answered.add(approval));
+        ApprovalRequest request = new ApprovalRequest("book", "outline", "Outline the book", "the outline", null);
+
+        assertTrue(approvalStore.submit("run-1", request));
+        assertFalse(approvalStore.submit("run-1", request));
+        approvalStore.submit("run-2", new ApprovalRequest("book", "outline", null, "other outline", null));
+
+        List<PendingApproval> pending = approvalStore.listPending();
+        assertEquals(List.of("run-1", "run-2"), pending.stream().map(PendingApproval::runId).toList());
+        assertEquals("the outline", pending.get(0).request().getGeneratedContent());
+        assertEquals(request.getRequestTime(), pending.get(0).request().getRequestTime());
+        assertTrue(approvalStore.getResponse("run-1", "outline").isEmpty());
+
+        assertTrue(approvalStore.respond("run-1", "outline", ApprovalResponse.reject("too short")));
+        assertFalse(approvalStore.respond("run-1", "outline", ApprovalResponse.approve()));
+        assertFalse(approvalStore.respond("run-3", "outline", ApprovalResponse.approve()));
+
+        ApprovalResponse response = approvalStore.getResponse("run-1", "outline").orElseThrow();
+        assertTrue(response.isRejected());
+        assertEquals("too short", response.getFeedback());
+        assertEquals(List.of("run-2"), approvalStore.listPending().stream().map(PendingApproval::runId).toList());
+        assertEquals(1, answered.size());
+        assertEquals("outline", answered.get(0).stageName());
+
+        assertTrue(approvalStore.remove("run-1", "outline"));
+        assertTrue(approvalStore.getRequest("run-1", "outline").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should suspend the run awaiting approval and resume it once approved")
+    void shouldSuspendAndResumeOnApproval() throws Exception {
+        HumanApprovalHandler handler = mock(HumanApprovalHandler.class);
+
+        WorkflowExecutionResult suspended = execute("1h", handler);
+
+        assertFalse(suspended.isSuccess());
+        assertTrue(suspended.isAwaitingApproval());
+        assertEquals(List.of("outline"), suspended.getAwaitingApprovalStages());
+        assertEquals(0, chapterCalls.get(), "Stages after the approval should wait");
+        verify(handler).approvalDeferred(argThat(approval ->
+            approval.runId().equals("book-run-1") && approval.request().getGeneratedContent().equals("the outline")));
+        verify(handler, never()).requestApproval(any(), anyLong());
+        assertEquals(1, approvalStore.listPending().size());
+
+        WorkflowExecutionResult stillSuspended = execute("1h", handler);
+        assertTrue(stillSuspended.isAwaitingApproval());
+        assertEquals(1, outlineCalls.get(), "Suspended stage should not be re-executed");
+
+        approvalStore.respond("book-run-1", "outline", ApprovalResponse.approve("great"));
+        WorkflowExecutionResult resumed = execute("1h", handler);
+
+        assertTrue(resumed.isSuccess(), resumed.getErrorMessage());
+        assertEquals(1, outlineCalls.get());
+        assertEquals(1, chapterCalls.get());
+        assertTrue(resumed.getStageResult("outline").isApproved());
+        assertEquals("great", resumed.getStageResult("outline").getApprovalFeedback());
+        assertEquals("the chapter", resumed.getStageResult("chapter").getAgentResponse());
+        assertTrue(approvalStore.getRequest("book-run-1", "outline").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fail the resumed run when the stage is rejected")
+    void shouldFailOnRejection() throws Exception {
+        execute("1h", null);
+        approvalStore.respond("book-run-1", "outline", ApprovalResponse.reject("off topic"));
+
+        WorkflowExecutionResult rejected = execute("1h", null);
+
+        assertFalse(rejected.isSuccess());
+        assertFalse(rejected.isAwaitingApproval());
+        assertTrue(rejected.getErrorMessage().contains("rejected"), rejected.getErrorMessage());
+        assertEquals(0, chapterCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should fail the resumed run when the approval timed out")
+    void shouldFailOnTimeout() throws Exception {
+        execute("1s", null);
+        Thread.sleep(1100);
+
+        WorkflowExecutionResult timedOut = execute("1s", null);
+
+        assertFalse(timedOut.isSuccess());
+        assertTrue(timedOut.getErrorMessage().contains("timed out"), timedOut.getErrorMessage());
+        assertTrue(approvalStore.listPending().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should require checkpointing for deferred approval")
+    void shouldRequireCheckpointing() throws Exception {
+        YamlWorkflowEngine engine = createEngine("1h", null).withCheckpointing(null);
+
+        assertThrows(ConductorException.class, () -> engine.executeInternal("topic"));
+        engine.close();
+    }
+
+    private WorkflowExecutionResult execute(String timeout, HumanApprovalHandler handler) throws Exception {
+        YamlWorkflowEngine engine = createEngine(timeout, handler);
+        try {
+            return engine.executeInternal("topic");
+        } finally {
+            engine.close();
+        }
+    }
+
+    private YamlWorkflowEngine createEngine(String timeout, HumanApprovalHandler handler) throws Exception {
+        Path workflow = tempDir.resolve("workflow.yaml");
+        Files.writeString(workflow, """
+            workflow:
+              name: approval-workflow
+              version: "1.0"
+            stages:
+              - name: outline
+                agents:
+                  primary: outliner
+                approval:
+                  required: true
+                  timeout: "%s"
+              - name: chapter
+                depends_on: [outline]
+                agents:
+                  primary: writer
+            """.formatted(timeout));
+        Path agents = tempDir.resolve("agents.yaml");
+        Files.writeString(agents, """
+            agents:
+              outliner:
+                type: llm
+                role: outliner
+                prompt_template: outline-template
+              writer:
+                type: llm
+                role: writer
+                prompt_template: writer-template
+            prompt_templates:
+              outline-template:
+                user: "Outline {{topic}}"
+              writer-template:
+                user: "Write about {{topic}}"
+            """);
+
+        return new YamlWorkflowEngine(new WorkflowConfigLoader(), agentFactory,
+                new PromptTemplateEngine(), new StageExecutor(), null)
+            .loadWorkflow(workflow.toString())
+            .loadAgents(agents.toString())
+            .withOrchestrator(mock(Orchestrator.class), memoryStore)
+            .withCheckpointing("book-run-1")
+            .withApprovalHandler(handler)
+            .withDeferredApproval(approvalStore);
+    }
+}
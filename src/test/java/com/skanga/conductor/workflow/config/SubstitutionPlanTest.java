@@ -0,0 +1,67 @@
+package com.skanga.conductor.workflow.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SubstitutionPlan Tests")
+class SubstitutionPlanTest {
+
+    private static String evaluate(String source, Map<String, String> variables) {
+        return SubstitutionPlan.compile(source).evaluate((name, defaultValue) ->
+            variables.getOrDefault(name, defaultValue != null ? defaultValue : "?"));
+    }
+
+    @Test
+    @DisplayName("Should substitute variables and defaults between literals")
+    void shouldSubstituteVariablesAndDefaults() {
+        Map<String, String> variables = Map.of("name", "conductor", "env", "prod");
+
+        assertEquals("conductor-prod.log", evaluate("${name}-${env}.log", variables));
+        assertEquals("out/data", evaluate("${dir:-out}/data", variables));
+        assertEquals("url=", evaluate("url=${missing:-}", variables));
+        assertEquals("prod", evaluate("${env:-dev}", variables));
+    }
+
+    @Test
+    @DisplayName("Should keep incomplete or malformed placeholders literal")
+    void shouldKeepMalformedPlaceholdersLiteral() {
+        Map<String, String> variables = Map.of("a", "1");
+
+        assertEquals("${} $a ${a", evaluate("${} $a ${a", variables));
+        assertEquals("${a:b} 1", evaluate("${a:b} ${a}", variables));
+        assertEquals("$1", evaluate("$${a}", variables));
+    }
+
+    @Test
+    @DisplayName("Should compile each source string once and return constant strings unchanged")
+    void shouldCacheAndShortCircuitConstants() {
+        String source = "plain text without placeholders";
+
+        assertSame(SubstitutionPlan.compile("x ${y}"), SubstitutionPlan.compile("x ${y}"));
+        assertTrue(SubstitutionPlan.compile(source).isConstant());
+        assertSame(source, SubstitutionPlan.compile(source).evaluate((name, defaultValue) -> fail()));
+    }
+
+    @Test
+    @DisplayName("Should reuse unchanged subtrees when substituting object structures")
+    void shouldReuseUnchangedSubtrees() {
+        VariableSubstitution substitution = new VariableSubstitution();
+        Map<String, Object> unchanged = Map.of("title", "Intro", "tags", List.of("a", "b"));
+        Map<String, Object> data = Map.of(
+            "static", unchanged,
+            "dynamic", Map.of("topic", "${topic}"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) substitution.substituteObjectWithContext(
+            data, Map.of("topic", "java"));
+
+        assertSame(unchanged, result.get("static"));
+        assertEquals(Map.of("topic", "java"), result.get("dynamic"));
+        assertSame(unchanged, substitution.substituteObjectWithContext(unchanged, Map.of()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.skanga.conductor.workflow.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for caching and hot reload of parsed workflow configurations.
+ */
+@DisplayName("WorkflowConfigLoader Cache Tests")
+class WorkflowConfigLoaderCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private WorkflowConfigLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) {
+            loader.close();
+        }
+    }
+
+    private static String workflowYaml(String name) {
+        return """
+            workflow:
+              name: "%s"
+              description: "A cached workflow"
+            stages:
+              - name: "stage"
+                agents:
+                  primary: "agent"
+            """.formatted(name);
+    }
+
+    private Path writeWorkflow(String name) throws Exception {
+        Path file = tempDir.resolve("workflow.yaml");
+        Files.writeString(file, workflowYaml(name));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Should return the cached definition for unchanged content")
+    void shouldReuseDefinitionForUnchangedContent() throws Exception {
+        loader = new WorkflowConfigLoader(false, true);
+        Path file = writeWorkflow("first");
+
+        WorkflowDefinition first = loader.loadWorkflow(file.toString());
+
+        assertSame(first, loader.loadWorkflow(file.toString()));
+        assertEquals(1, loader.getCacheSize());
+    }
+
+    @Test
+    @DisplayName("Should reparse a file whose content has changed")
+    void shouldReparseChangedContent() throws Exception {
+        loader = new WorkflowConfigLoader(false, true);
+        Path file = writeWorkflow("first");
+        WorkflowDefinition first = loader.loadWorkflow(file.toString());
+
+        writeWorkflow("second");
+        WorkflowDefinition second = loader.loadWorkflow(file.toString());
+
+        assertNotSame(first, second);
+        assertEquals("second", second.getMetadata().getName());
+        assertEquals("first", first.getMetadata().getName());
+    }
+
+    @Test
+    @DisplayName("Should reload watched files in the background")
+    void shouldReloadWatchedFilesInBackground() throws Exception {
+        loader = new WorkflowConfigLoader(false, true);
+        loader.enableHotReload();
+        assertTrue(loader.isHotReloadEnabled());
+        Path file = writeWorkflow("first");
+        assertEquals("first", loader.loadWorkflow(file.toString()).getMetadata().getName());
+
+        writeWorkflow("second");
+
+        long deadline = System.currentTimeMillis() + 15_000;
+        String name = null;
+        while (System.currentTimeMillis() < deadline) {
+            name = loader.loadWorkflow(file.toString()).getMetadata().getName();
+            if ("second".equals(name)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals("second", name);
+    }
+
+    @Test
+    @DisplayName("Should parse every load when caching is disabled")
+    void shouldParseEveryLoadWhenCachingDisabled() throws Exception {
+        loader = new WorkflowConfigLoader(false, false);
+        Path file = writeWorkflow("first");
+
+        WorkflowDefinition first = loader.loadWorkflow(file.toString());
+
+        assertNotSame(first, loader.loadWorkflow(file.toString()));
+        assertEquals(0, loader.getCacheSize());
+        loader.enableHotReload();
+        assertFalse(loader.isHotReloadEnabled());
+    }
+}
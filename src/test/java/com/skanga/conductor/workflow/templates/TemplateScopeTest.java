@@ -0,0 +1,86 @@
+package com.skanga.conductor.workflow.templates;
+
+import com.skanga.conductor.templates.PromptTemplateEngine;
+import com.skanga.conductor.templates.TemplateScope;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the structurally shared template variable scope.
+ */
+@DisplayName("TemplateScope Tests")
+class TemplateScopeTest {
+
+    @Test
+    @DisplayName("Should leave earlier scopes unchanged when adding variables")
+    void shouldBePersistent() {
+        TemplateScope first = TemplateScope.empty().with("a", "1");
+        TemplateScope second = first.with("b", "2").with("a", "changed");
+
+        assertEquals(Map.of("a", "1"), first);
+        assertEquals(Map.of("a", "changed", "b", "2"), second);
+        assertEquals(2, second.size());
+    }
+
+    @Test
+    @DisplayName("Should behave like a map for many variables")
+    void shouldMatchHashMapForManyVariables() {
+        Map<String, Object> expected = new HashMap<>();
+        TemplateScope scope = TemplateScope.empty();
+        for (int i = 0; i < 5000; i++) {
+            scope = scope.with("task_" + i, "output " + i);
+            expected.put("task_" + i, "output " + i);
+        }
+        scope = scope.with("task_42", null);
+        expected.put("task_42", null);
+
+        assertEquals(expected, scope);
+        assertEquals(expected.size(), scope.size());
+        assertTrue(scope.containsKey("task_42"));
+        assertNull(scope.get("missing"));
+        assertFalse(scope.containsKey("missing"));
+    }
+
+    @Test
+    @DisplayName("Should keep variables whose names share a hash code apart")
+    void shouldHandleHashCollisions() {
+        // "Aa" and "BB" have the same String hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        TemplateScope scope = TemplateScope.empty().with("Aa", "first").with("BB", "second");
+
+        assertEquals("first", scope.get("Aa"));
+        assertEquals("second", scope.with("Aa", "replaced").get("BB"));
+        assertEquals("replaced", scope.with("Aa", "replaced").get("Aa"));
+        assertEquals(2, scope.with("Aa", "replaced").size());
+    }
+
+    @Test
+    @DisplayName("Should read through to the underlying map and shadow it with own variables")
+    void shouldLayerOverBaseMap() {
+        Map<String, Object> base = Map.of("user_request", "java", "prev_output", "old");
+        TemplateScope scope = TemplateScope.over(base).with("prev_output", "new");
+
+        assertEquals("java", scope.get("user_request"));
+        assertEquals("new", scope.get("prev_output"));
+        assertEquals(Map.of("user_request", "java", "prev_output", "new"), scope);
+        assertThrows(UnsupportedOperationException.class, () -> scope.put("x", "y"));
+    }
+
+    @Test
+    @DisplayName("Should render templates and loops against a scope")
+    void shouldRenderAgainstScope() {
+        PromptTemplateEngine engine = new PromptTemplateEngine();
+        TemplateScope scope = TemplateScope.empty()
+            .with("user_request", "java")
+            .with("chapters", List.of(Map.of("title", "Intro"), Map.of("title", "Streams")));
+
+        assertEquals("java: Intro, Streams, ",
+            engine.render("{{user_request}}: {{#each chapters}}{{title}}, {{/each}}", scope));
+    }
+}